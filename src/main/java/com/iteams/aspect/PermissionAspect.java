@@ -2,24 +2,33 @@ package com.iteams.aspect;
 
 import com.iteams.annotation.RequirePermission;
 import com.iteams.exception.AccessDeniedException;
-import com.iteams.model.entity.User;
-import com.iteams.service.PermissionService;
-import com.iteams.service.UserService;
+import com.iteams.exception.ResourceNotFoundException;
+import com.iteams.model.dto.LoginUser;
+import com.iteams.repository.UserRepository;
+import com.iteams.service.PermissionBitsetService;
+import com.iteams.util.PermissionBits;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
+import java.lang.reflect.Method;
 import java.util.Arrays;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 权限验证切面
  * 用于拦截带有@RequirePermission注解的方法，验证当前用户是否具有所需权限
+ * <p>
+ * 注解在方法首次调用时编译为权限位集掩码并按方法缓存，用户权限按认证信息中的用户ID取自permissions缓存，
+ * 校验过程不访问数据库
+ * </p>
  */
 @Slf4j
 @Aspect
@@ -27,8 +36,13 @@ import java.util.Set;
 @RequiredArgsConstructor
 public class PermissionAspect {
 
-    private final UserService userService;
-    private final PermissionService permissionService;
+    private final PermissionBitsetService permissionBitsetService;
+    private final UserRepository userRepository;
+
+    /**
+     * 方法 -> 编译后的权限要求
+     */
+    private final Map<Method, CompiledRequirement> requirements = new ConcurrentHashMap<>();
 
     /**
      * 在执行带有@RequirePermission注解的方法前进行权限验证
@@ -49,39 +63,70 @@ public class PermissionAspect {
         log.debug("权限验证 - 用户: {}, 方法: {}", username, joinPoint.getSignature().getName());
 
         // 获取所需权限
-        String[] requiredPermissions = requirePermission.value();
-        if (requiredPermissions.length == 0) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        CompiledRequirement requirement = requirements.computeIfAbsent(method,
+                key -> compile(requirePermission));
+        if (requirement.mask.length == 0) {
             // 如果没有指定权限，则直接放行
             return;
         }
 
-        // 获取用户
-        User user = userService.getUserByUsername(username);
-        
-        // 获取用户权限编码
-        Set<String> userPermissions = permissionService.getUserPermissionCodes(user.getId());
-        
-        // 验证权限
-        boolean hasPermission = false;
-        RequirePermission.LogicalType logicalType = requirePermission.logical();
-        
-        if (logicalType == RequirePermission.LogicalType.ANY) {
-            // 任意一个权限满足即可
-            hasPermission = Arrays.stream(requiredPermissions)
-                    .anyMatch(userPermissions::contains);
-        } else {
-            // 必须满足所有权限
-            hasPermission = Arrays.stream(requiredPermissions)
-                    .allMatch(userPermissions::contains);
-        }
-        
+        // 获取用户权限位集
+        long[] userBits = permissionBitsetService.getUserAuthorities(resolveUserId(authentication)).getPermissionBits();
+
+        // 验证权限：ANY任意一个权限满足即可，ALL必须满足所有权限
+        boolean hasPermission = requirement.all
+                ? PermissionBits.containsAll(userBits, requirement.mask)
+                : PermissionBits.intersects(userBits, requirement.mask);
+
         // 记录权限验证结果
         if (hasPermission) {
             log.debug("权限验证通过 - 用户: {}, 方法: {}", username, joinPoint.getSignature().getName());
         } else {
-            log.warn("权限验证失败 - 用户: {}, 方法: {}, 所需权限: {}", 
-                    username, joinPoint.getSignature().getName(), Arrays.toString(requiredPermissions));
+            log.warn("权限验证失败 - 用户: {}, 方法: {}, 所需权限: {}",
+                    username, joinPoint.getSignature().getName(), Arrays.toString(requirePermission.value()));
             throw new AccessDeniedException("没有足够的权限执行此操作");
         }
     }
+
+    /**
+     * 认证信息中的用户ID；其他方式认证的用户按用户名查询
+     */
+    private Long resolveUserId(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof LoginUser loginUser) {
+            return loginUser.getUserId();
+        }
+        return userRepository.findIdByUsername(authentication.getName())
+                .orElseThrow(() -> new ResourceNotFoundException("用户不存在: " + authentication.getName()));
+    }
+
+    /**
+     * 将权限注解编译为位集掩码
+     */
+    private CompiledRequirement compile(RequirePermission requirePermission) {
+        return new CompiledRequirement(
+                permissionBitsetService.compileMask(requirePermission.value()),
+                requirePermission.logical() == RequirePermission.LogicalType.ALL);
+    }
+
+    /**
+     * 编译后的权限要求
+     */
+    private static final class CompiledRequirement {
+
+        /**
+         * 所需权限掩码
+         */
+        private final long[] mask;
+
+        /**
+         * 是否需要满足全部权限
+         */
+        private final boolean all;
+
+        private CompiledRequirement(long[] mask, boolean all) {
+            this.mask = mask;
+            this.all = all;
+        }
+    }
 }
@@ -0,0 +1,33 @@
+package com.iteams.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 资产导出配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "iteams.asset.export")
+public class AssetExportProperties {
+
+    /**
+     * 是否使用服务端游标按固定行数分批读取
+     * <p>
+     * 需要在数据源URL中加上useCursorFetch=true（该参数会让驱动改用服务端预处理语句）；
+     * 关闭时使用MySQL驱动的逐行流式读取，同样不会把结果集整体加载到内存
+     * </p>
+     */
+    private boolean cursorFetch = false;
+
+    /**
+     * 使用服务端游标时每批读取的行数
+     */
+    private int fetchSize = 1000;
+
+    /**
+     * 导出Excel时内存中保留的行数，更早的行写入临时文件
+     */
+    private int rowAccessWindowSize = 200;
+}
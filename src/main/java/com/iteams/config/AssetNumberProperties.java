@@ -0,0 +1,34 @@
+package com.iteams.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 资产编号配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "iteams.asset.number")
+public class AssetNumberProperties {
+
+    /**
+     * 每次从序列表预留的号码数量，越大访问数据库越少，节点重启时跳过的号码越多
+     */
+    private int blockSize = 50;
+
+    /**
+     * Excel导入时是否为未填写资产编号的行自动分配编号；关闭时资产编号为必填项，未填写的行导入失败
+     */
+    private boolean autoAssignOnImport = false;
+
+    /**
+     * 导入时未填写资产编号、也无法确定部门时使用的部门码
+     */
+    private String defaultDepartmentCode = "00";
+
+    /**
+     * 分类没有编码时使用的分类码
+     */
+    private String defaultCategoryCode = "AS";
+}
@@ -0,0 +1,32 @@
+package com.iteams.config;
+
+import com.iteams.service.AssetSnapshotService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 资产状态快照初始化器
+ * <p>
+ * 首次部署或升级后快照表为空，启动时写入一次快照，之后的历史状态查询都有回放起点
+ * </p>
+ */
+@Slf4j
+@Component
+@Order(5)
+@RequiredArgsConstructor
+public class AssetSnapshotInitializer implements CommandLineRunner {
+
+    private final AssetSnapshotService assetSnapshotService;
+
+    @Override
+    public void run(String... args) {
+        try {
+            assetSnapshotService.takeSnapshotIfEmpty();
+        } catch (Exception e) {
+            log.error("资产状态快照初始化失败", e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.iteams.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 资产状态快照配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "iteams.asset.snapshot")
+public class AssetSnapshotProperties {
+
+    /**
+     * 写入快照的cron表达式，默认每月1日凌晨1点
+     */
+    private String cron = "0 0 1 1 * ?";
+
+    /**
+     * 写入快照和重建历史状态时每批处理的资产数量
+     */
+    private int batchSize = 1000;
+}
@@ -0,0 +1,33 @@
+package com.iteams.config;
+
+import com.iteams.service.AssetStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 资产统计初始化器
+ * <p>
+ * 首次部署或升级后计数器表为空，启动时按明细数据重算一次。
+ * 需在资产分类ID和位置节点ID补齐之后执行
+ * </p>
+ */
+@Slf4j
+@Component
+@Order(3)
+@RequiredArgsConstructor
+public class AssetStatsInitializer implements CommandLineRunner {
+
+    private final AssetStatsService assetStatsService;
+
+    @Override
+    public void run(String... args) {
+        try {
+            assetStatsService.rebuildIfEmpty();
+        } catch (Exception e) {
+            log.error("资产统计初始化失败", e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.iteams.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 资产统计配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "iteams.asset.stats")
+public class AssetStatsProperties {
+
+    /**
+     * 维保到期分段的上限天数（升序），如[30, 90, 180]表示30天内、31-90天、91-180天
+     */
+    private List<Integer> warrantyBucketDays = new ArrayList<>(List.of(30, 90, 180));
+
+    /**
+     * 按明细数据重算计数器的cron表达式
+     */
+    private String reconcileCron = "0 30 3 * * ?";
+}
@@ -48,4 +48,34 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
-} 
\ No newline at end of file
+
+    /**
+     * 创建密码哈希执行器
+     * <p>
+     * BCrypt计算是CPU密集型操作，单独使用与CPU核数相同的线程执行，
+     * 队列有界且满时拒绝任务，防止大量登录请求占满CPU和Servlet线程
+     * </p>
+     *
+     * @return 线程池执行器
+     */
+    @Bean("passwordHashExecutor")
+    public ThreadPoolTaskExecutor passwordHashExecutor() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        // 核心线程数和最大线程数均为CPU核数
+        executor.setCorePoolSize(processors);
+        executor.setMaxPoolSize(processors);
+        // 队列容量
+        executor.setQueueCapacity(processors * 16);
+        // 线程名前缀
+        executor.setThreadNamePrefix("iteams-hash-");
+        // 拒绝策略：直接拒绝，由调用方返回系统繁忙
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,35 +1,129 @@
 package com.iteams.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 /**
  * 缓存配置类
  * <p>
- * 配置缓存管理器和缓存相关设置
+ * 所有本地缓存在此统一声明，使用Caffeine实现（W-TinyLFU淘汰策略），
+ * 每个缓存的容量、过期和刷新时间由iteams.cache配置，并开启统计供actuator的cache指标使用
  * </p>
  */
+@Slf4j
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    /**
+     * 用户权限编码缓存，键为用户ID
+     */
+    public static final String CACHE_PERMISSIONS = "permissions";
+
+    /**
+     * 用户信息缓存
+     */
+    public static final String CACHE_USERS = "users";
+
+    /**
+     * 资产分类缓存
+     */
+    public static final String CACHE_CATEGORIES = "categories";
+
+    /**
+     * 部门缓存
+     */
+    public static final String CACHE_DEPARTMENTS = "departments";
+
+    /**
+     * 用户组成员数量缓存，键为用户组ID
+     */
+    public static final String CACHE_GROUP_MEMBER_COUNTS = "groupMemberCounts";
+
+    /**
+     * 资产统计计数器快照，固定键
+     */
+    public static final String CACHE_ASSET_STATS = "assetStats";
+
+    /**
+     * 令牌吊销表，由令牌吊销服务自行维护，不在缓存管理器中创建，仅用于跨节点失效通知
+     */
+    public static final String CACHE_TOKEN_REVOCATIONS = "tokenRevocations";
+
+    /**
+     * 位置节点树，由位置索引服务自行维护，不在缓存管理器中创建，仅用于跨节点通知新增的节点
+     */
+    public static final String CACHE_LOCATIONS = "locations";
+
+    /**
+     * 维保到期索引，由维保到期提醒服务自行维护，不在缓存管理器中创建，仅用于跨节点通知变更的维保合约
+     */
+    public static final String CACHE_WARRANTY_EXPIRY = "warrantyExpiry";
+
+    /**
+     * 机柜U位占用，由机柜U位占用服务自行维护，不在缓存管理器中创建，仅用于跨节点通知位置变化的资产
+     */
+    public static final String CACHE_RACK_OCCUPANCY = "rackOccupancy";
+
+    /**
+     * 系统内声明的全部缓存
+     */
+    private static final List<String> CACHE_NAMES = List.of(
+            CACHE_PERMISSIONS, CACHE_USERS, CACHE_CATEGORIES, CACHE_DEPARTMENTS, CACHE_GROUP_MEMBER_COUNTS,
+            CACHE_ASSET_STATS);
+
     /**
      * 缓存管理器
      * <p>
-     * 使用ConcurrentMapCacheManager作为默认的缓存实现
-     * 在生产环境中，可以考虑使用Redis等分布式缓存
+     * 不允许缓存null值，配置文件中额外声明的缓存也会一并创建
      * </p>
      *
+     * @param properties 缓存配置属性
+     * @param loaders 缓存刷新加载器
      * @return 缓存管理器
      */
     @Bean
-    public CacheManager cacheManager() {
-        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
-        // 预先创建权限缓存
-        cacheManager.setCacheNames(java.util.Arrays.asList("permissions"));
+    public CacheManager cacheManager(CacheSpecProperties properties, List<CacheRefreshLoader> loaders) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+
+        Map<String, CacheRefreshLoader> loaderByName = loaders.stream()
+                .collect(Collectors.toMap(CacheRefreshLoader::getCacheName, Function.identity()));
+
+        Set<String> cacheNames = new LinkedHashSet<>(CACHE_NAMES);
+        cacheNames.addAll(properties.getSpecs().keySet());
+        for (String cacheName : cacheNames) {
+            CacheSpecProperties.Spec spec = properties.getSpec(cacheName);
+            Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                    .maximumSize(spec.getMaximumSize())
+                    .expireAfterWrite(spec.getExpireAfterWrite())
+                    .recordStats();
+
+            CacheRefreshLoader loader = loaderByName.get(cacheName);
+            if (spec.getRefreshAfterWrite() != null && loader != null) {
+                builder.refreshAfterWrite(spec.getRefreshAfterWrite());
+                cacheManager.registerCustomCache(cacheName, builder.build(loader::load));
+            } else {
+                if (spec.getRefreshAfterWrite() != null) {
+                    log.warn("缓存[{}]配置了提前刷新但没有刷新加载器，已忽略", cacheName);
+                }
+                cacheManager.registerCustomCache(cacheName, builder.build());
+            }
+            log.info("已创建缓存[{}], 最大条目数: {}, 过期时间: {}, 提前刷新: {}", cacheName,
+                    spec.getMaximumSize(), spec.getExpireAfterWrite(), spec.getRefreshAfterWrite());
+        }
         return cacheManager;
     }
 }
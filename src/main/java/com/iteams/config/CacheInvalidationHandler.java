@@ -0,0 +1,41 @@
+package com.iteams.config;
+
+/**
+ * 缓存失效处理器
+ * <p>
+ * 接收到其他节点的失效消息时，缓存管理器中的同名缓存会被直接清除；
+ * 键不是字符串的缓存、或在缓存管理器之外还维护了派生数据（如权限位集、令牌吊销表）的服务，
+ * 通过实现本接口完成键的还原和派生数据的清除
+ * </p>
+ */
+public interface CacheInvalidationHandler {
+
+    /**
+     * 处理器对应的缓存名称
+     *
+     * @return 缓存名称
+     */
+    String getCacheName();
+
+    /**
+     * 将消息中的字符串键还原为本地缓存键
+     *
+     * @param key 字符串键
+     * @return 本地缓存键
+     */
+    default Object toCacheKey(String key) {
+        return key;
+    }
+
+    /**
+     * 清除指定键的派生数据
+     *
+     * @param key 本地缓存键
+     */
+    void evict(Object key);
+
+    /**
+     * 清除全部派生数据
+     */
+    void clear();
+}
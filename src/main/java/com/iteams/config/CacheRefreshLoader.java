@@ -0,0 +1,26 @@
+package com.iteams.config;
+
+/**
+ * 缓存刷新加载器
+ * <p>
+ * 为配置了refresh-after-write的缓存提供按键重新加载的能力，
+ * 条目到达刷新时间后的首次访问仍返回旧值，同时在后台重新加载
+ * </p>
+ */
+public interface CacheRefreshLoader {
+
+    /**
+     * 加载器对应的缓存名称
+     *
+     * @return 缓存名称
+     */
+    String getCacheName();
+
+    /**
+     * 按键加载缓存值
+     *
+     * @param key 缓存键
+     * @return 缓存值
+     */
+    Object load(Object key);
+}
@@ -0,0 +1,106 @@
+package com.iteams.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 本地缓存配置属性
+ * <p>
+ * 按缓存名称配置容量上限、过期时间和提前刷新时间，未配置的缓存使用默认值
+ * </p>
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "iteams.cache")
+public class CacheSpecProperties {
+
+    /**
+     * 默认缓存规格
+     */
+    private Spec defaults = new Spec();
+
+    /**
+     * 各缓存的规格，键为缓存名称
+     */
+    private Map<String, Spec> specs = new LinkedHashMap<>();
+
+    /**
+     * 跨节点缓存一致性配置
+     */
+    private Coherence coherence = new Coherence();
+
+    /**
+     * 获取指定缓存的规格
+     *
+     * @param cacheName 缓存名称
+     * @return 缓存规格
+     */
+    public Spec getSpec(String cacheName) {
+        return specs.getOrDefault(cacheName, defaults);
+    }
+
+    /**
+     * 缓存规格
+     */
+    @Data
+    public static class Spec {
+
+        /**
+         * 最大条目数，超过后按W-TinyLFU策略淘汰
+         */
+        private long maximumSize = 1000;
+
+        /**
+         * 写入后过期时间
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(30);
+
+        /**
+         * 写入后提前刷新时间，为空时不刷新；需要该缓存注册了刷新加载器
+         */
+        private Duration refreshAfterWrite;
+    }
+
+    /**
+     * 跨节点缓存一致性配置
+     */
+    @Data
+    public static class Coherence {
+
+        /**
+         * 失效消息传输方式：db为数据库变更日志表轮询，none为仅本地失效；
+         * 其他取值时需要自行注册CacheInvalidationTransport实现（如消息中间件）
+         */
+        private String transport = "db";
+
+        /**
+         * 轮询变更日志和批量写出失效消息的间隔，单位毫秒
+         */
+        private long pollIntervalMs = 1000;
+
+        /**
+         * 每次轮询读取的最大条数
+         */
+        private int batchSize = 500;
+
+        /**
+         * 日志ID出现空洞时等待的最长时间，单位毫秒；超过后视为回滚或预分配未使用的ID，不再等待
+         */
+        private long gapTimeoutMs = 5000;
+
+        /**
+         * 允许的最长失联时间，单位毫秒；轮询连续失败超过该时间后，恢复时清空本地全部缓存
+         */
+        private long maxStalenessMs = 30000;
+
+        /**
+         * 变更日志保留时间，单位小时
+         */
+        private int retentionHours = 24;
+    }
+}
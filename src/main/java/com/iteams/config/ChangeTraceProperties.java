@@ -0,0 +1,43 @@
+package com.iteams.config;
+
+import com.iteams.model.entity.ChangeTrace;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 变更记录批量写入配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "iteams.asset.change-trace")
+public class ChangeTraceProperties {
+
+    /**
+     * 每条INSERT语句写入的最大记录数，事务外累积到该数量时立即写入
+     */
+    private int batchSize = 500;
+
+    /**
+     * 事务外缓冲的变更记录定时写入间隔（毫秒）
+     */
+    private long flushIntervalMs = 1000;
+
+    /**
+     * 内容只保存一份的变更类型，这些类型的变更内容通常在批量操作中完全相同
+     */
+    private List<ChangeTrace.ChangeType> internTypes = new ArrayList<>(List.of(ChangeTrace.ChangeType.INITIAL));
+
+    /**
+     * 本地缓存的内容摘要数量
+     */
+    private int internCacheSize = 1024;
+
+    /**
+     * 事务外缓冲的变更记录最多写入次数，失败后在下次写入时重试，仍失败时记录到错误日志
+     */
+    private int maxAttempts = 3;
+}
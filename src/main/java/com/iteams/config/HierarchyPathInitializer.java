@@ -0,0 +1,41 @@
+package com.iteams.config;
+
+import com.iteams.service.CategoryService;
+import com.iteams.service.HierarchyIndexService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 层级路径初始化器
+ * <p>
+ * 启动时校验部门和资产分类的物化路径，为升级前的存量数据补齐路径，
+ * 并修复通过SQL等途径直接修改父子关系造成的不一致；
+ * 同时为存量资产按分类名称补齐分类ID列
+ * </p>
+ */
+@Slf4j
+@Component
+@Order(1)
+@RequiredArgsConstructor
+public class HierarchyPathInitializer implements CommandLineRunner {
+
+    private final HierarchyIndexService hierarchyIndexService;
+    private final CategoryService categoryService;
+
+    @Override
+    public void run(String... args) {
+        try {
+            hierarchyIndexService.rebuild();
+        } catch (Exception e) {
+            log.error("层级路径初始化失败", e);
+        }
+        try {
+            categoryService.fillAssetCategoryIds();
+        } catch (Exception e) {
+            log.error("资产分类ID补齐失败", e);
+        }
+    }
+}
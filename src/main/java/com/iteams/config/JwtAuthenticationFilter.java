@@ -1,6 +1,11 @@
 package com.iteams.config;
 
+import com.iteams.model.dto.LoginUser;
+import com.iteams.model.dto.UserAuthorities;
+import com.iteams.service.PermissionBitsetService;
+import com.iteams.service.TokenRevocationService;
 import com.iteams.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -27,18 +32,26 @@ import java.util.Map;
  * <p>
  * 用于验证请求中的JWT令牌
  * </p>
+ * <p>
+ * 令牌中带有用户ID时，直接用权限缓存中的角色和权限构造当前用户，不再逐个请求查询数据库；
+ * 禁用、删除用户时其令牌已被吊销，由吊销检查拦截。旧令牌没有用户ID时仍按用户名加载用户
+ * </p>
  */
 @Slf4j
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
+    private final TokenRevocationService tokenRevocationService;
     private final ApplicationContext applicationContext;
     private UserDetailsService userDetailsService;
+    private PermissionBitsetService permissionBitsetService;
 
     @Autowired
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, ApplicationContext applicationContext) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, TokenRevocationService tokenRevocationService,
+                                   ApplicationContext applicationContext) {
         this.jwtUtil = jwtUtil;
+        this.tokenRevocationService = tokenRevocationService;
         this.applicationContext = applicationContext;
     }
 
@@ -49,6 +62,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         return userDetailsService;
     }
 
+    private PermissionBitsetService getPermissionBitsetService() {
+        if (permissionBitsetService == null) {
+            permissionBitsetService = applicationContext.getBean(PermissionBitsetService.class);
+        }
+        return permissionBitsetService;
+    }
+
+    /**
+     * 构造当前用户：令牌带用户ID时使用缓存的权限，否则按用户名加载
+     */
+    private UserDetails resolveUserDetails(Claims claims, String username) {
+        Object uid = claims.get(JwtUtil.CLAIM_USER_ID);
+        if (uid instanceof Number number) {
+            Long userId = number.longValue();
+            UserAuthorities authorities = getPermissionBitsetService().getUserAuthorities(userId);
+            return new LoginUser(userId, username, "", true, true, true, true,
+                    authorities.toGrantedAuthorities());
+        }
+        return getUserDetailsService().loadUserByUsername(username);
+    }
+
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
             throws ServletException, IOException {
@@ -57,18 +91,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String jwt = parseJwt(request);
             if (jwt != null) {
                 log.debug("从请求中获取到JWT令牌");
-                
+
                 try {
-                    // 从JWT中获取用户名
-                    String username = jwtUtil.getUsernameFromToken(jwt);
+                    // 一次解析获取全部声明（签名和过期时间在解析时校验）
+                    Claims claims = jwtUtil.getAllClaimsFromToken(jwt);
+                    String username = claims.getSubject();
 
                     // 如果用户名不为空且当前没有认证信息
                     if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                        // 加载用户详情
-                        UserDetails userDetails = getUserDetailsService().loadUserByUsername(username);
+                        // 先检查内存吊销表，已吊销的令牌不再访问数据库
+                        long issuedAt = claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0L;
+                        if (tokenRevocationService.isRevoked(username, claims.getId(), issuedAt)) {
+                            log.warn("JWT令牌已被吊销，用户: {}", username);
+                            filterChain.doFilter(request, response);
+                            return;
+                        }
+
+                        // 构造用户详情
+                        UserDetails userDetails = resolveUserDetails(claims, username);
 
-                        // 验证JWT令牌
-                        if (jwtUtil.validateToken(jwt, userDetails)) {
+                        // 验证令牌主题与用户一致
+                        if (username.equals(userDetails.getUsername())) {
                             // 创建认证令牌
                             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                                     userDetails, null, userDetails.getAuthorities());
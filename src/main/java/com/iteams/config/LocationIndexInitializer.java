@@ -0,0 +1,32 @@
+package com.iteams.config;
+
+import com.iteams.service.LocationIndexService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 位置索引初始化器
+ * <p>
+ * 启动时为升级前的存量空间记录以及通过SQL等途径直接写入的空间记录补齐位置节点ID
+ * </p>
+ */
+@Slf4j
+@Component
+@Order(2)
+@RequiredArgsConstructor
+public class LocationIndexInitializer implements CommandLineRunner {
+
+    private final LocationIndexService locationIndexService;
+
+    @Override
+    public void run(String... args) {
+        try {
+            locationIndexService.rebuild();
+        } catch (Exception e) {
+            log.error("位置索引初始化失败", e);
+        }
+    }
+}
@@ -4,10 +4,13 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * 登录安全配置类
  * <p>
- * 用于配置登录失败次数限制和账户锁定时间
+ * 用于配置登录失败次数限制、账户锁定时间、失败计数和审计日志的批量写入参数以及登录限流
  * </p>
  */
 @Data
@@ -24,4 +27,64 @@ public class LoginSecurityConfig {
      * 账户锁定时长，单位分钟
      */
     private int lockDurationMinutes = 30;
+
+    /**
+     * 登录失败计数回写数据库的间隔，单位毫秒
+     */
+    private long stateFlushIntervalMs = 2000;
+
+    /**
+     * 登录审计事件队列容量，队列满时丢弃新事件
+     */
+    private int auditQueueCapacity = 10000;
+
+    /**
+     * 登录审计日志每批写入条数
+     */
+    private int auditBatchSize = 200;
+
+    /**
+     * 登录审计日志批量写入间隔，单位毫秒
+     */
+    private long auditFlushIntervalMs = 1000;
+
+    /**
+     * 是否启用登录限流
+     */
+    private boolean rateLimitEnabled = true;
+
+    /**
+     * 单个IP允许的突发登录次数
+     */
+    private int ipBurst = 20;
+
+    /**
+     * 单个IP每分钟补充的登录次数
+     */
+    private int ipRefillPerMinute = 30;
+
+    /**
+     * 单个用户名允许的突发登录次数
+     */
+    private int usernameBurst = 10;
+
+    /**
+     * 单个用户名每分钟补充的登录次数
+     */
+    private int usernameRefillPerMinute = 5;
+
+    /**
+     * 受信任的反向代理地址，只有直连对端是这些地址时才读取X-Forwarded-For
+     */
+    private List<String> trustedProxies = new ArrayList<>();
+
+    /**
+     * IP和用户名令牌桶各自最多保留的数量
+     */
+    private long rateLimitMaxKeys = 100000;
+
+    /**
+     * 令牌桶闲置多久后回收，单位分钟
+     */
+    private int rateLimitIdleMinutes = 10;
 }
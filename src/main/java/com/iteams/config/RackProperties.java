@@ -0,0 +1,19 @@
+package com.iteams.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 机柜容量配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "iteams.asset.rack")
+public class RackProperties {
+
+    /**
+     * 机柜默认高度（U）
+     */
+    private int defaultHeight = 42;
+}
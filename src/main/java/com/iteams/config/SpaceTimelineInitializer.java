@@ -0,0 +1,33 @@
+package com.iteams.config;
+
+import com.iteams.service.SpaceMoveService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 空间轨迹初始化器
+ * <p>
+ * 早期导入会为同一资产留下多条is_current=1的空间记录，启动时修正为每个资产只有一条当前记录，
+ * 并由资产主表的space_id指向该记录
+ * </p>
+ */
+@Slf4j
+@Component
+@Order(2)
+@RequiredArgsConstructor
+public class SpaceTimelineInitializer implements CommandLineRunner {
+
+    private final SpaceMoveService spaceMoveService;
+
+    @Override
+    public void run(String... args) {
+        try {
+            spaceMoveService.repairCurrentPointers();
+        } catch (Exception e) {
+            log.error("空间轨迹当前位置修复失败", e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.iteams.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 用户目录配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "iteams.user.directory")
+public class UserDirectoryProperties {
+
+    /**
+     * 是否在内存中保存用户目录快照供输入提示使用，关闭时每次查询数据库
+     */
+    private boolean snapshotEnabled = true;
+
+    /**
+     * 单次输入提示的最大返回数量
+     */
+    private int maxSuggestions = 20;
+}
@@ -0,0 +1,32 @@
+package com.iteams.config;
+
+import com.iteams.service.WarrantyExpiryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 维保到期索引初始化器
+ * <p>
+ * 启动时加载全部有效维保合约，避免第一次查询时再加载
+ * </p>
+ */
+@Slf4j
+@Component
+@Order(4)
+@RequiredArgsConstructor
+public class WarrantyExpiryInitializer implements CommandLineRunner {
+
+    private final WarrantyExpiryService warrantyExpiryService;
+
+    @Override
+    public void run(String... args) {
+        try {
+            warrantyExpiryService.rebuild();
+        } catch (Exception e) {
+            log.error("维保到期索引初始化失败", e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.iteams.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 维保到期提醒配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "iteams.asset.warranty-expiry")
+public class WarrantyExpiryProperties {
+
+    /**
+     * 日报中统计的时间窗口天数（升序），第一个窗口内的合约在日报中列出明细
+     */
+    private List<Integer> digestWindowDays = new ArrayList<>(List.of(7, 30, 90));
+
+    /**
+     * 日报中列出的即将到期合约的最大条数
+     */
+    private int digestMaxItems = 200;
+
+    /**
+     * 生成日报的cron表达式
+     */
+    private String digestCron = "0 5 0 * * ?";
+
+    /**
+     * 查询即将到期合约时允许的最大天数
+     */
+    private int maxQueryDays = 3650;
+}
@@ -0,0 +1,50 @@
+package com.iteams.controller;
+
+import com.iteams.annotation.OperationLog;
+import com.iteams.exception.BusinessException;
+import com.iteams.model.enums.ModuleType;
+import com.iteams.model.enums.OperationType;
+import com.iteams.service.AssetExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 资产导出控制器
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/assets")
+@RequiredArgsConstructor
+public class AssetExportController {
+
+    private final AssetExportService assetExportService;
+
+    /**
+     * 导出资产台账
+     * <p>
+     * 边查询边写出，支持Excel（xlsx）和CSV两种格式，可选gzip压缩
+     * </p>
+     *
+     * @param format 导出格式，xlsx或csv
+     * @param gzip 是否gzip压缩
+     * @param response HTTP响应对象
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    @OperationLog(module = ModuleType.ASSET, operationType = OperationType.EXPORT, description = "导出资产台账")
+    public void exportAssets(@RequestParam(defaultValue = "xlsx") String format,
+                             @RequestParam(defaultValue = "false") boolean gzip,
+                             HttpServletResponse response) {
+        AssetExportService.Format exportFormat;
+        try {
+            exportFormat = AssetExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("不支持的导出格式: " + format);
+        }
+        log.info("导出资产台账, 格式: {}, 压缩: {}", exportFormat, gzip);
+        assetExportService.exportAssets(exportFormat, gzip, response);
+    }
+}
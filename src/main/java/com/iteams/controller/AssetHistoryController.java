@@ -0,0 +1,84 @@
+package com.iteams.controller;
+
+import com.iteams.common.ApiResponse;
+import com.iteams.model.dto.AssetStateDTO;
+import com.iteams.service.AssetSnapshotService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 资产历史状态控制器
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/asset-history")
+@RequiredArgsConstructor
+public class AssetHistoryController {
+
+    private final AssetSnapshotService assetSnapshotService;
+
+    /**
+     * 查询单个资产在指定时刻的状态
+     *
+     * @param assetId 资产ID
+     * @param at 时刻，格式yyyy-MM-dd'T'HH:mm:ss
+     * @return 资产状态
+     */
+    @GetMapping("/assets/{assetId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<AssetStateDTO>> getAssetState(
+            @PathVariable Long assetId,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss") LocalDateTime at) {
+        return ResponseEntity.ok(ApiResponse.success("获取资产历史状态成功", assetSnapshotService.getAssetState(assetId, at)));
+    }
+
+    /**
+     * 按资产ID分页查询指定时刻的资产台账
+     *
+     * @param at 时刻，格式yyyy-MM-dd'T'HH:mm:ss
+     * @param after 上一页最后一个资产ID，第一页不传
+     * @param limit 每页资产数量
+     * @return 资产状态列表
+     */
+    @GetMapping("/inventory")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<List<AssetStateDTO>>> getInventory(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss") LocalDateTime at,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(ApiResponse.success("获取历史资产台账成功", assetSnapshotService.getInventory(at, after, limit)));
+    }
+
+    /**
+     * 统计指定时刻各资产状态的资产数量
+     *
+     * @param at 时刻，格式yyyy-MM-dd'T'HH:mm:ss
+     * @return 键为状态枚举名，值为资产数量
+     */
+    @GetMapping("/status-counts")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> countByStatus(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss") LocalDateTime at) {
+        return ResponseEntity.ok(ApiResponse.success("获取历史状态统计成功", assetSnapshotService.countByStatus(at)));
+    }
+
+    /**
+     * 立即为发生变化的资产写入状态快照
+     *
+     * @return 写入的快照数量
+     */
+    @PostMapping("/snapshots")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<ApiResponse<Integer>> takeSnapshot() {
+        log.info("手动写入资产状态快照");
+        return ResponseEntity.ok(ApiResponse.success("资产状态快照已写入", assetSnapshotService.takeSnapshot()));
+    }
+}
@@ -0,0 +1,45 @@
+package com.iteams.controller;
+
+import com.iteams.common.ApiResponse;
+import com.iteams.model.dto.AssetStatsDTO;
+import com.iteams.service.AssetStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 资产统计控制器
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/asset-stats")
+@RequiredArgsConstructor
+public class AssetStatsController {
+
+    private final AssetStatsService assetStatsService;
+
+    /**
+     * 获取资产统计汇总（按状态、一级分类、数据中心、机房、维保到期时间）
+     *
+     * @return 统计汇总
+     */
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<AssetStatsDTO>> getStats() {
+        return ResponseEntity.ok(ApiResponse.success("获取资产统计成功", assetStatsService.getStats()));
+    }
+
+    /**
+     * 按明细数据重算统计计数器
+     *
+     * @return 计数器数量
+     */
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<ApiResponse<Integer>> rebuild() {
+        log.info("重算资产统计计数器");
+        return ResponseEntity.ok(ApiResponse.success("资产统计计数器已重算", assetStatsService.rebuild()));
+    }
+}
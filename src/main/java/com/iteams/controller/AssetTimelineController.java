@@ -0,0 +1,58 @@
+package com.iteams.controller;
+
+import com.iteams.common.ApiResponse;
+import com.iteams.model.dto.AssetTimelinePage;
+import com.iteams.model.dto.AssetTimelineQuery;
+import com.iteams.service.AssetTimelineService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 资产履历控制器
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/assets")
+@RequiredArgsConstructor
+public class AssetTimelineController {
+
+    private final AssetTimelineService assetTimelineService;
+
+    /**
+     * 查询单个资产的履历（变更记录、位置迁移、维保合约），按时间从新到旧排列
+     *
+     * @param id 资产ID
+     * @param cursor 上一页返回的游标，第一页不传
+     * @param limit 每页记录数
+     * @return 一页履历和下一页的游标
+     */
+    @GetMapping("/{id}/timeline")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<AssetTimelinePage>> getTimeline(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(ApiResponse.success("获取资产履历成功",
+                assetTimelineService.getTimeline(List.of(id), cursor, limit)));
+    }
+
+    /**
+     * 查询一批资产的合并履历
+     *
+     * @param query 资产ID列表、游标和每页记录数
+     * @return 一页履历和下一页的游标
+     */
+    @PostMapping("/timeline")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<AssetTimelinePage>> getTimeline(@RequestBody AssetTimelineQuery query) {
+        log.info("批量查询资产履历，资产数：{}", query.getAssetIds() == null ? 0 : query.getAssetIds().size());
+        int limit = query.getLimit() == null ? 100 : query.getLimit();
+        return ResponseEntity.ok(ApiResponse.success("获取资产履历成功",
+                assetTimelineService.getTimeline(query.getAssetIds(), query.getCursor(), limit)));
+    }
+}
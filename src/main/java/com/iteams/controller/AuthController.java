@@ -1,10 +1,13 @@
 package com.iteams.controller;
 
+import com.iteams.config.LoginSecurityConfig;
 import com.iteams.model.dto.ApiResponse;
 import com.iteams.model.dto.LoginRequestDTO;
 import com.iteams.model.dto.LoginResponseDTO;
 import com.iteams.model.dto.UserInfoDTO;
 import com.iteams.service.AuthService;
+import com.iteams.service.LoginRateLimitService;
+import com.iteams.util.IPUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -26,11 +29,14 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthService authService;
+    private final LoginRateLimitService loginRateLimitService;
+    private final LoginSecurityConfig loginSecurityConfig;
 
     /**
      * 用户登录
      *
      * @param loginRequest 登录请求
+     * @param request HTTP请求
      * @return 登录响应
      */
     @PostMapping("/login")
@@ -38,6 +44,9 @@ public class AuthController {
             @Valid @RequestBody LoginRequestDTO loginRequest,
             HttpServletRequest request) {
         log.info("用户登录请求: {}", loginRequest.getUsername());
+        // 按IP和用户名限流，超出时在密码校验之前拒绝
+        loginRateLimitService.checkLoginAllowed(
+                IPUtil.getTrustedClientIp(request, loginSecurityConfig.getTrustedProxies()), loginRequest.getUsername());
         LoginResponseDTO response = authService.login(loginRequest);
         return ResponseEntity.ok(ApiResponse.success("登录成功", response));
     }
@@ -56,11 +65,15 @@ public class AuthController {
     /**
      * 用户登出
      *
+     * @param authorization Authorization请求头
      * @return 登出响应
      */
     @PostMapping("/logout")
-    public ResponseEntity<ApiResponse<Void>> logout() {
-        authService.logout();
+    public ResponseEntity<ApiResponse<Void>> logout(
+            @RequestHeader(value = "Authorization", required = false) String authorization) {
+        String token = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7) : null;
+        authService.logout(token);
         return ResponseEntity.ok(ApiResponse.success("登出成功", null));
     }
 }
@@ -0,0 +1,37 @@
+package com.iteams.controller;
+
+import com.iteams.common.ApiResponse;
+import com.iteams.model.dto.CategoryAssetCountDTO;
+import com.iteams.service.CategoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 资产分类控制器
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/categories")
+@RequiredArgsConstructor
+public class CategoryController {
+
+    private final CategoryService categoryService;
+
+    /**
+     * 按分类统计资产数量
+     *
+     * @param parentId 父分类ID，不传时按一级分类统计，传入一级或二级分类ID时按其下一级分类统计
+     * @return 各分类的资产数量
+     */
+    @GetMapping("/asset-counts")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<List<CategoryAssetCountDTO>>> getAssetCounts(
+            @RequestParam(required = false) Long parentId) {
+        return ResponseEntity.ok(ApiResponse.success("获取分类资产数量成功", categoryService.getAssetCounts(parentId)));
+    }
+}
@@ -128,6 +128,7 @@ public class DepartmentController {
      * 获取部门用户
      *
      * @param id 部门ID
+     * @param includeChildren 是否包含子部门下的用户
      * @param pageable 分页参数
      * @return 部门用户列表
      */
@@ -135,12 +136,10 @@ public class DepartmentController {
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
     public ResponseEntity<ApiResponse<Page<UserDTO>>> getDepartmentUsers(
             @PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean includeChildren,
             @PageableDefault(size = 10) Pageable pageable) {
-        log.info("获取部门用户，departmentId={}", id);
-        // 获取部门信息
-        DepartmentDTO department = departmentService.getDepartmentById(id);
-        // 使用部门名称查询用户
-        Page<UserDTO> users = userService.getUsers(null, null, department.getName(), pageable);
+        log.info("获取部门用户，departmentId={}, includeChildren={}", id, includeChildren);
+        Page<UserDTO> users = userService.getDepartmentUsers(id, includeChildren, pageable);
         return ResponseEntity.ok(ApiResponse.success("获取部门用户成功", users));
     }
 }
@@ -0,0 +1,74 @@
+package com.iteams.controller;
+
+import com.iteams.common.ApiResponse;
+import com.iteams.model.dto.LocationAssetRow;
+import com.iteams.model.dto.LocationNodeDTO;
+import com.iteams.model.dto.pagination.PagedResponse;
+import com.iteams.service.LocationIndexService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 位置查询控制器
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/locations")
+@RequiredArgsConstructor
+public class LocationController {
+
+    private final LocationIndexService locationIndexService;
+
+    /**
+     * 位置输入提示
+     *
+     * @param q     名称前缀，可用"/"分隔层级，如"华东/A"
+     * @param limit 最大返回数量
+     * @return 匹配的位置节点
+     */
+    @GetMapping("/suggest")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<List<LocationNodeDTO>>> suggestLocations(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(ApiResponse.success("获取位置提示成功", locationIndexService.suggest(q, limit)));
+    }
+
+    /**
+     * 获取子位置
+     *
+     * @param parentId 父节点ID，不传时返回全部数据中心
+     * @return 子位置列表
+     */
+    @GetMapping("/children")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<List<LocationNodeDTO>>> getChildren(
+            @RequestParam(required = false) Long parentId) {
+        return ResponseEntity.ok(ApiResponse.success("获取子位置成功", locationIndexService.getChildren(parentId)));
+    }
+
+    /**
+     * 分页查询位于指定位置下的资产
+     *
+     * @param id       位置节点ID（数据中心、机房、机柜或U位）
+     * @param pageable 分页参数
+     * @return 资产列表
+     */
+    @GetMapping("/{id}/assets")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<PagedResponse<LocationAssetRow>>> getAssets(
+            @PathVariable Long id,
+            @PageableDefault(size = 20) Pageable pageable) {
+        log.info("查询位置下的资产，位置节点ID：{}", id);
+        Page<LocationAssetRow> assets = locationIndexService.getAssets(id, pageable);
+        return ResponseEntity.ok(ApiResponse.success("获取位置资产成功", PagedResponse.of(assets)));
+    }
+}
@@ -0,0 +1,76 @@
+package com.iteams.controller;
+
+import com.iteams.common.ApiResponse;
+import com.iteams.model.dto.RackCabinetDTO;
+import com.iteams.model.dto.RackRoomSummaryDTO;
+import com.iteams.service.RackOccupancyService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 机柜U位占用控制器
+ */
+@RestController
+@RequestMapping("/api/racks")
+@RequiredArgsConstructor
+public class RackController {
+
+    private final RackOccupancyService rackOccupancyService;
+
+    /**
+     * 查询机柜的U位占用情况
+     *
+     * @param cabinetNodeId 机柜的位置节点ID
+     * @return 占用情况及明细
+     */
+    @GetMapping("/cabinets/{cabinetNodeId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<RackCabinetDTO>> getCabinet(@PathVariable Long cabinetNodeId) {
+        return ResponseEntity.ok(ApiResponse.success("查询成功", rackOccupancyService.getCabinet(cabinetNodeId)));
+    }
+
+    /**
+     * 检查机柜中的U位是否已被占用
+     *
+     * @param cabinetNodeId 机柜的位置节点ID
+     * @param uPosition U位，如"12"或"12-14"
+     * @return 占用这些U位的资产ID
+     */
+    @GetMapping("/cabinets/{cabinetNodeId}/conflicts")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<List<Long>>> findConflicts(@PathVariable Long cabinetNodeId,
+                                                                 @RequestParam String uPosition) {
+        return ResponseEntity.ok(ApiResponse.success("查询成功",
+                rackOccupancyService.findConflicts(cabinetNodeId, uPosition, null)));
+    }
+
+    /**
+     * 查找机柜中第一段连续的空闲U位
+     *
+     * @param cabinetNodeId 机柜的位置节点ID
+     * @param units 需要的U数
+     * @return 起始U位，没有足够的连续空闲U位时为null
+     */
+    @GetMapping("/cabinets/{cabinetNodeId}/free")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<Integer>> findFreeRange(@PathVariable Long cabinetNodeId,
+                                                              @RequestParam(defaultValue = "1") int units) {
+        return ResponseEntity.ok(ApiResponse.success("查询成功", rackOccupancyService.findFreeRange(cabinetNodeId, units)));
+    }
+
+    /**
+     * 汇总机房内各机柜的使用率
+     *
+     * @param roomNodeId 机房的位置节点ID
+     * @return 使用率汇总
+     */
+    @GetMapping("/rooms/{roomNodeId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<RackRoomSummaryDTO>> getRoomSummary(@PathVariable Long roomNodeId) {
+        return ResponseEntity.ok(ApiResponse.success("查询成功", rackOccupancyService.getRoomSummary(roomNodeId)));
+    }
+}
@@ -0,0 +1,70 @@
+package com.iteams.controller;
+
+import com.iteams.annotation.OperationLog;
+import com.iteams.common.ApiResponse;
+import com.iteams.model.dto.SpaceMoveRequest;
+import com.iteams.model.dto.SpaceMoveResultDTO;
+import com.iteams.model.enums.ModuleType;
+import com.iteams.model.enums.OperationType;
+import com.iteams.service.SpaceMoveService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 资产迁移控制器
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/space-moves")
+@RequiredArgsConstructor
+public class SpaceMoveController {
+
+    private final SpaceMoveService spaceMoveService;
+
+    /**
+     * 把单个资产迁移到目标位置
+     *
+     * @param assetId 资产ID
+     * @param target 目标位置
+     * @return 迁移结果
+     */
+    @PostMapping("/assets/{assetId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    @OperationLog(module = ModuleType.ASSET, operationType = OperationType.UPDATE, description = "迁移资产位置")
+    public ResponseEntity<ApiResponse<SpaceMoveResultDTO>> moveAsset(@PathVariable Long assetId,
+                                                                     @RequestBody SpaceMoveRequest target) {
+        log.info("迁移资产位置，资产ID：{}", assetId);
+        return ResponseEntity.ok(ApiResponse.success("资产迁移成功", spaceMoveService.moveAsset(assetId, target)));
+    }
+
+    /**
+     * 把当前位于某个机柜的全部资产迁移到目标位置
+     *
+     * @param cabinetNodeId 机柜的位置节点ID
+     * @param target 目标位置，U位为空时保留各资产原来的U位
+     * @return 迁移结果
+     */
+    @PostMapping("/cabinets/{cabinetNodeId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    @OperationLog(module = ModuleType.ASSET, operationType = OperationType.UPDATE, description = "整柜迁移资产")
+    public ResponseEntity<ApiResponse<SpaceMoveResultDTO>> moveCabinet(@PathVariable Long cabinetNodeId,
+                                                                       @RequestBody SpaceMoveRequest target) {
+        log.info("整柜迁移资产，机柜节点ID：{}", cabinetNodeId);
+        return ResponseEntity.ok(ApiResponse.success("整柜迁移成功", spaceMoveService.moveCabinet(cabinetNodeId, target)));
+    }
+
+    /**
+     * 修复资产的当前位置标记
+     *
+     * @return 修正的记录数
+     */
+    @PostMapping("/repair")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<ApiResponse<Integer>> repair() {
+        log.info("修复资产当前位置标记");
+        return ResponseEntity.ok(ApiResponse.success("当前位置标记已修复", spaceMoveService.repairCurrentPointers()));
+    }
+}
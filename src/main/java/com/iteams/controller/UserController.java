@@ -3,7 +3,11 @@ package com.iteams.controller;
 import com.iteams.common.ApiResponse;
 import com.iteams.model.dto.PasswordDTO;
 import com.iteams.model.dto.UserDTO;
+import com.iteams.model.dto.UserDirectoryEntry;
+import com.iteams.model.dto.UserProvisioningResultDTO;
 import com.iteams.service.FileStorageService;
+import com.iteams.service.UserDirectoryService;
+import com.iteams.service.UserProvisioningService;
 import com.iteams.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -30,6 +34,8 @@ import java.util.Map;
 public class UserController {
 
     private final UserService userService;
+    private final UserDirectoryService userDirectoryService;
+    private final UserProvisioningService userProvisioningService;
     private final FileStorageService fileStorageService;
 
     /**
@@ -37,7 +43,8 @@ public class UserController {
      *
      * @param username   用户名（模糊查询）
      * @param realName   姓名（模糊查询）
-     * @param department 部门（模糊查询）
+     * @param department 部门ID或部门名称
+     * @param prefix     是否按前缀匹配用户名和姓名
      * @param pageable   分页参数
      * @return 用户列表
      */
@@ -47,13 +54,29 @@ public class UserController {
             @RequestParam(required = false) String username,
             @RequestParam(required = false) String realName,
             @RequestParam(required = false) String department,
+            @RequestParam(defaultValue = "false") boolean prefix,
             @PageableDefault(size = 10) Pageable pageable) {
         log.info("获取用户列表，查询条件：username={}, realName={}, department={}", username, realName, department);
-        Page<UserDTO> users = userService.getUsers(username, realName, department, pageable);
+        Page<UserDTO> users = userService.getUsers(username, realName, department, prefix, pageable);
         PagedResponse<UserDTO> response = PagedResponse.of(users);
         return ResponseEntity.ok(ApiResponse.success("获取用户列表成功", response));
     }
 
+    /**
+     * 用户输入提示
+     *
+     * @param q     用户名或姓名前缀
+     * @param limit 最大返回数量
+     * @return 匹配的用户
+     */
+    @GetMapping("/suggest")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<List<UserDirectoryEntry>>> suggestUsers(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(ApiResponse.success("获取用户提示成功", userDirectoryService.suggest(q, limit)));
+    }
+
     /**
      * 获取用户详情
      *
@@ -298,6 +321,20 @@ public class UserController {
                 .body(ApiResponse.success("批量创建用户成功", createdUsers));
     }
     
+    /**
+     * 批量开通用户（HR数据同步等大批量场景）
+     *
+     * @param userDTOs 用户数据列表
+     * @return 开通结果，包含逐行错误
+     */
+    @PostMapping("/provision")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<ApiResponse<UserProvisioningResultDTO>> provisionUsers(@RequestBody List<UserDTO> userDTOs) {
+        log.info("批量开通用户，数量：{}", userDTOs.size());
+        UserProvisioningResultDTO result = userProvisioningService.provision(userDTOs);
+        return ResponseEntity.ok(ApiResponse.success("批量开通用户完成", result));
+    }
+    
     /**
      * 批量删除用户
      *
@@ -139,7 +139,7 @@ public class UserGroupController {
         log.info("获取用户组用户，userGroupId={}", id);
         // 使用用户组ID查询用户
         // 注意：这里暂时返回所有用户，实际实现时需要根据用户组ID过滤
-        Page<UserDTO> users = userService.getUsers(null, null, null, pageable);
+        Page<UserDTO> users = userService.getUsers(null, null, null, false, pageable);
         return ResponseEntity.ok(ApiResponse.success("获取用户组用户成功", users));
     }
 
@@ -0,0 +1,73 @@
+package com.iteams.controller;
+
+import com.iteams.common.ApiResponse;
+import com.iteams.model.dto.WarrantyExpiryDigestDTO;
+import com.iteams.model.dto.WarrantyExpiryItem;
+import com.iteams.service.WarrantyExpiryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 维保到期提醒控制器
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/warranty-expiry")
+@RequiredArgsConstructor
+public class WarrantyExpiryController {
+
+    private final WarrantyExpiryService warrantyExpiryService;
+
+    /**
+     * 查询从今天起若干天内到期的有效维保合约
+     *
+     * @param days 天数，默认30天
+     * @return 即将到期的合约，按结束日期排序
+     */
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<List<WarrantyExpiryItem>>> getExpiring(
+            @RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok(ApiResponse.success("获取即将到期维保成功", warrantyExpiryService.getExpiring(days)));
+    }
+
+    /**
+     * 统计从今天起若干天内到期的有效维保合约数量
+     *
+     * @param days 天数，默认30天
+     * @return 合约数量
+     */
+    @GetMapping("/count")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<Integer>> countExpiring(@RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok(ApiResponse.success("统计即将到期维保成功", warrantyExpiryService.countExpiring(days)));
+    }
+
+    /**
+     * 获取最近一次生成的维保到期日报
+     *
+     * @return 日报
+     */
+    @GetMapping("/digest")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<WarrantyExpiryDigestDTO>> getDigest() {
+        return ResponseEntity.ok(ApiResponse.success("获取维保到期日报成功", warrantyExpiryService.getLatestDigest()));
+    }
+
+    /**
+     * 从数据库重新加载维保到期索引
+     *
+     * @return 索引中的合约数量
+     */
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<ApiResponse<Integer>> rebuild() {
+        log.info("重新加载维保到期索引");
+        return ResponseEntity.ok(ApiResponse.success("维保到期索引已重新加载", warrantyExpiryService.rebuild()));
+    }
+}
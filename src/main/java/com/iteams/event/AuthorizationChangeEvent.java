@@ -0,0 +1,11 @@
+package com.iteams.event;
+
+/**
+ * 授权变更事件基类
+ * <p>
+ * 角色、权限及用户角色关系变更后发布，由{@link AuthorizationChangeListener}在事务提交后处理，
+ * 只清除受影响用户的权限缓存
+ * </p>
+ */
+public abstract class AuthorizationChangeEvent {
+}
@@ -0,0 +1,45 @@
+package com.iteams.event;
+
+import com.iteams.service.PermissionCacheService;
+import com.iteams.service.UserPermissionIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Set;
+
+/**
+ * 授权变更监听器
+ * <p>
+ * 在事务提交后处理授权变更事件，避免回滚的修改清掉缓存、或提交前被并发请求重新加载旧数据。
+ * 没有事务时（fallbackExecution）立即处理。
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuthorizationChangeListener {
+
+    private final PermissionCacheService permissionCacheService;
+    private final UserPermissionIndex userPermissionIndex;
+
+    /**
+     * 用户角色变更：清除这些用户的权限缓存
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRolesChanged(UserRolesChangedEvent event) {
+        event.getUserIds().forEach(permissionCacheService::clearUserPermissionCache);
+        log.debug("用户角色变更, 已清除{}个用户的权限缓存", event.getUserIds().size());
+    }
+
+    /**
+     * 角色权限变更：通过依赖索引找到已缓存的相关用户并逐个清除
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRolePermissionsChanged(RolePermissionsChangedEvent event) {
+        Set<Long> userIds = userPermissionIndex.getUsersByRoles(event.getRoleIds());
+        userIds.forEach(permissionCacheService::clearUserPermissionCache);
+        log.debug("角色权限变更, 角色: {}, 已清除{}个用户的权限缓存", event.getRoleIds(), userIds.size());
+    }
+}
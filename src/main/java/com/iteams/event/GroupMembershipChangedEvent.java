@@ -0,0 +1,45 @@
+package com.iteams.event;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.Set;
+
+/**
+ * 用户组成员变更事件
+ * <p>
+ * 事务提交后使相关用户组的成员计数失效，下次读取时重新统计。
+ * 不在缓存条目上按变化量加减：提交后的调整与并发的重新统计交错时会叠加成错误的计数
+ * </p>
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class GroupMembershipChangedEvent {
+
+    /**
+     * 受影响的用户组ID，为null表示全部用户组
+     */
+    private final Set<Long> groupIds;
+
+    /**
+     * 指定用户组成员发生变化
+     *
+     * @param groupIds 用户组ID
+     * @return 事件
+     */
+    public static GroupMembershipChangedEvent changed(Set<Long> groupIds) {
+        return new GroupMembershipChangedEvent(groupIds);
+    }
+
+    /**
+     * 任意用户组成员都可能发生变化
+     *
+     * @return 事件
+     */
+    public static GroupMembershipChangedEvent all() {
+        return new GroupMembershipChangedEvent(null);
+    }
+}
@@ -0,0 +1,14 @@
+package com.iteams.event;
+
+import lombok.ToString;
+
+/**
+ * 组织结构变更事件
+ * <p>
+ * 部门新增、修改、删除，或用户的部门归属可能发生变化时发布，
+ * 事务提交后使组织树快照失效
+ * </p>
+ */
+@ToString
+public class OrganizationChangedEvent {
+}
@@ -0,0 +1,24 @@
+package com.iteams.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.Set;
+
+/**
+ * 角色权限变更事件
+ * <p>
+ * 角色被分配权限、被删除，或角色包含的权限被修改、删除时发布
+ * </p>
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class RolePermissionsChangedEvent extends AuthorizationChangeEvent {
+
+    /**
+     * 受影响的角色ID
+     */
+    private final Set<Long> roleIds;
+}
@@ -0,0 +1,44 @@
+package com.iteams.event;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.Set;
+
+/**
+ * 资产位置变更事件
+ * <p>
+ * 空间记录保存或资产迁移后发布，事务提交后按资产的当前空间记录更新机柜U位占用
+ * </p>
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class SpaceChangedEvent {
+
+    /**
+     * 位置发生变化的资产ID，为null表示任意资产都可能发生变化
+     */
+    private final Set<Long> assetIds;
+
+    /**
+     * 指定资产的位置发生变化
+     *
+     * @param assetIds 资产ID
+     * @return 事件
+     */
+    public static SpaceChangedEvent of(Set<Long> assetIds) {
+        return new SpaceChangedEvent(assetIds);
+    }
+
+    /**
+     * 任意资产的位置都可能发生变化
+     *
+     * @return 事件
+     */
+    public static SpaceChangedEvent all() {
+        return new SpaceChangedEvent(null);
+    }
+}
@@ -0,0 +1,14 @@
+package com.iteams.event;
+
+import lombok.ToString;
+
+/**
+ * 用户目录变更事件
+ * <p>
+ * 用户新增、删除，或用户名、姓名、部门、启用状态可能发生变化时发布，
+ * 事务提交后使用户目录快照失效
+ * </p>
+ */
+@ToString
+public class UserDirectoryChangedEvent {
+}
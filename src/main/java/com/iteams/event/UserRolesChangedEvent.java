@@ -0,0 +1,24 @@
+package com.iteams.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.Set;
+
+/**
+ * 用户角色变更事件
+ * <p>
+ * 用户被分配角色、被删除时发布
+ * </p>
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class UserRolesChangedEvent extends AuthorizationChangeEvent {
+
+    /**
+     * 受影响的用户ID
+     */
+    private final Set<Long> userIds;
+}
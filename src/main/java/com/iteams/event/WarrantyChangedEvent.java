@@ -0,0 +1,22 @@
+package com.iteams.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * 维保合约变更事件
+ * <p>
+ * 维保合约保存后发布，事务提交后按最新数据更新维保到期索引
+ * </p>
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class WarrantyChangedEvent {
+
+    /**
+     * 维保ID
+     */
+    private final Long warrantyId;
+}
@@ -0,0 +1,23 @@
+package com.iteams.event;
+
+import com.iteams.model.dto.WarrantyExpiryDigestDTO;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * 维保到期日报生成事件
+ * <p>
+ * 每天生成日报后发布，需要发送通知（邮件、消息等）的组件监听该事件
+ * </p>
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class WarrantyExpiryDigestEvent {
+
+    /**
+     * 日报内容
+     */
+    private final WarrantyExpiryDigestDTO digest;
+}
@@ -65,6 +65,16 @@ public class GlobalExceptionHandler {
         return ApiResponse.error(e.getMessage());
     }
 
+    /**
+     * 处理请求过多异常
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ApiResponse<Void> handleTooManyRequestsException(TooManyRequestsException e) {
+        logger.warn("请求被限流: {}", e.getMessage());
+        return ApiResponse.error(e.getMessage());
+    }
+
     /**
      * 处理请求资源不存在异常
      */
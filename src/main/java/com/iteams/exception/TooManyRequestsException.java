@@ -0,0 +1,29 @@
+package com.iteams.exception;
+
+/**
+ * 请求过多异常
+ * <p>
+ * 用于登录限流或密码哈希线程池饱和时拒绝请求
+ * </p>
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    /**
+     * 构造函数
+     *
+     * @param message 异常信息
+     */
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param message 异常信息
+     * @param cause   异常原因
+     */
+    public TooManyRequestsException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,73 @@
+package com.iteams.model.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 资产在某一时刻的状态
+ */
+@Data
+public class AssetStateDTO {
+
+    /**
+     * 资产ID
+     */
+    private Long assetId;
+
+    /**
+     * 资产编号
+     */
+    private String assetNo;
+
+    /**
+     * 资产名称
+     */
+    private String assetName;
+
+    /**
+     * 资产状态，状态枚举名
+     */
+    private String status;
+
+    /**
+     * 空间记录ID
+     */
+    private Long spaceId;
+
+    /**
+     * 位置路径
+     */
+    private String locationPath;
+
+    /**
+     * 有效维保ID
+     */
+    private Long warrantyId;
+
+    /**
+     * 有效维保的合同编号
+     */
+    private String contractNo;
+
+    /**
+     * 有效维保的结束日期
+     */
+    private LocalDate warrantyEndDate;
+
+    /**
+     * 状态所对应的时刻
+     */
+    private LocalDateTime asOf;
+
+    /**
+     * 作为回放起点的快照时刻，为null表示从资产创建开始回放
+     */
+    private LocalDateTime baseSnapshotAt;
+
+    /**
+     * 回放的变化记录数量
+     */
+    private int appliedDeltas;
+}
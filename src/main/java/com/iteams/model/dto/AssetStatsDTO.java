@@ -0,0 +1,74 @@
+package com.iteams.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 资产统计汇总
+ */
+@Data
+public class AssetStatsDTO {
+
+    /**
+     * 资产总数
+     */
+    private long total;
+
+    /**
+     * 按资产状态统计
+     */
+    private List<Item> byStatus;
+
+    /**
+     * 按一级分类统计
+     */
+    private List<Item> byCategory;
+
+    /**
+     * 按数据中心统计
+     */
+    private List<Item> byDataCenter;
+
+    /**
+     * 按机房统计
+     */
+    private List<Item> byRoom;
+
+    /**
+     * 按维保到期时间分段统计
+     */
+    private List<Item> byWarrantyExpiry;
+
+    /**
+     * 计数器快照的加载时间
+     */
+    private LocalDateTime loadedAt;
+
+    /**
+     * 统计项
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        /**
+         * 维度取值，如状态枚举名、分类ID、位置节点ID、分段标识
+         */
+        private String key;
+
+        /**
+         * 展示名称
+         */
+        private String name;
+
+        /**
+         * 资产数量
+         */
+        private long count;
+    }
+}
@@ -0,0 +1,70 @@
+package com.iteams.model.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * 资产履历中的一条记录，来自变更溯源、空间轨迹或维保合约
+ */
+@Value
+public class AssetTimelineEvent {
+
+    /**
+     * 记录来源，排序时同一时间按来源顺序排列
+     */
+    public enum Source {
+        /**
+         * 变更溯源（change_trace）
+         */
+        TRACE,
+        /**
+         * 空间轨迹（space_timeline），记录资产迁入某个位置
+         */
+        SPACE,
+        /**
+         * 维保合约（warranty_contract），记录合约登记
+         */
+        WARRANTY
+    }
+
+    /**
+     * 记录来源
+     */
+    Source source;
+
+    /**
+     * 来源表中的记录ID
+     */
+    Long sourceId;
+
+    /**
+     * 资产ID
+     */
+    Long assetId;
+
+    /**
+     * 发生时间
+     */
+    LocalDateTime occurredAt;
+
+    /**
+     * 记录类型：变更溯源为变更类型，空间轨迹为MOVE，维保合约为CONTRACT
+     */
+    String type;
+
+    /**
+     * 摘要
+     */
+    String summary;
+
+    /**
+     * 明细，变更溯源为变更差异快照（JSON）
+     */
+    String detail;
+
+    /**
+     * 操作人
+     */
+    String operatedBy;
+}
@@ -0,0 +1,22 @@
+package com.iteams.model.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * 资产履历的一页记录，按时间从新到旧排列
+ */
+@Value
+public class AssetTimelinePage {
+
+    /**
+     * 本页记录
+     */
+    List<AssetTimelineEvent> events;
+
+    /**
+     * 获取下一页时传入的游标，没有更多记录时为null
+     */
+    String nextCursor;
+}
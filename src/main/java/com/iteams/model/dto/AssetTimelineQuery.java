@@ -0,0 +1,27 @@
+package com.iteams.model.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量资产履历查询条件
+ */
+@Data
+public class AssetTimelineQuery {
+
+    /**
+     * 资产ID列表
+     */
+    private List<Long> assetIds;
+
+    /**
+     * 上一页返回的游标，查询第一页时为空
+     */
+    private String cursor;
+
+    /**
+     * 每页记录数
+     */
+    private Integer limit = 100;
+}
@@ -0,0 +1,31 @@
+package com.iteams.model.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * 缓存失效消息
+ * <p>
+ * 节点之间传递的不可变消息，键统一序列化为字符串，
+ * 接收方通过对应缓存的失效处理器还原为本地缓存键
+ * </p>
+ */
+@Value
+@Builder
+public class CacheInvalidationMessage {
+
+    /**
+     * 缓存名称
+     */
+    String cacheName;
+
+    /**
+     * 缓存键，为空表示清空整个缓存
+     */
+    String key;
+
+    /**
+     * 发出消息的节点ID，接收方据此跳过自己发出的消息
+     */
+    String originNode;
+}
@@ -0,0 +1,30 @@
+package com.iteams.model.dto;
+
+import lombok.Value;
+
+/**
+ * 分类资产数量
+ */
+@Value
+public class CategoryAssetCountDTO {
+
+    /**
+     * 分类ID
+     */
+    Long categoryId;
+
+    /**
+     * 分类名称
+     */
+    String name;
+
+    /**
+     * 分类级别
+     */
+    Byte level;
+
+    /**
+     * 该分类下的资产数量
+     */
+    Long assetCount;
+}
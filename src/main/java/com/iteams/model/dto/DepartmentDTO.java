@@ -6,12 +6,13 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 部门数据传输对象
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class DepartmentDTO {
@@ -75,4 +76,9 @@ public class DepartmentDTO {
      * 部门下的用户数量
      */
     private Integer userCount;
+
+    /**
+     * 子部门（仅部门树接口返回）
+     */
+    private List<DepartmentDTO> children;
 }
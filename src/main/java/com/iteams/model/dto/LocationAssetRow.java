@@ -0,0 +1,40 @@
+package com.iteams.model.dto;
+
+import lombok.Value;
+
+/**
+ * 位置下的资产列表行
+ */
+@Value
+public class LocationAssetRow {
+
+    /**
+     * 资产ID
+     */
+    Long assetId;
+
+    /**
+     * 资产编号
+     */
+    String assetNo;
+
+    /**
+     * 资产名称
+     */
+    String assetName;
+
+    /**
+     * 当前状态
+     */
+    String currentStatus;
+
+    /**
+     * 空间记录ID
+     */
+    Long spaceId;
+
+    /**
+     * 位置路径
+     */
+    String locationPath;
+}
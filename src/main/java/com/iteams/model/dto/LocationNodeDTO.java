@@ -0,0 +1,35 @@
+package com.iteams.model.dto;
+
+import lombok.Value;
+
+/**
+ * 位置节点，用于位置选择的输入提示和逐级展开
+ */
+@Value
+public class LocationNodeDTO {
+
+    /**
+     * 节点ID
+     */
+    Long id;
+
+    /**
+     * 父节点ID
+     */
+    Long parentId;
+
+    /**
+     * 层级，1-数据中心，2-机房，3-机柜，4-U位
+     */
+    Byte level;
+
+    /**
+     * 节点名称
+     */
+    String name;
+
+    /**
+     * 展示路径，如"华东数据中心/A机房/A01"
+     */
+    String path;
+}
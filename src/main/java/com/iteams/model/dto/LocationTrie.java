@@ -0,0 +1,210 @@
+package com.iteams.model.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * 位置节点树（按路径段组织的前缀树）
+ * <p>
+ * 每个节点的子节点按"小写名称 + \0 + 节点ID"为键存放在有序表中，
+ * 某一级的名称前缀查询就是有序表上的一次区间查询，复杂度为O(log n + 结果数)；
+ * 另维护一张全部节点的名称有序表，用于不带层级的输入（如只输入机柜编号）。
+ * 节点只增不删，新增按节点ID去重，可以并发执行；查询无需加锁，可与新增并发进行。
+ * </p>
+ */
+public final class LocationTrie {
+
+    /**
+     * 路径分隔符
+     */
+    public static final String SEPARATOR = "/";
+
+    private static final char KEY_SEPARATOR = '\0';
+
+    private final Node root = new Node(null, null, (byte) 0, "", "");
+
+    /**
+     * 节点ID -> 节点
+     */
+    private final Map<Long, Node> byId = new ConcurrentHashMap<>();
+
+    /**
+     * 层级键 -> 节点
+     */
+    private final Map<String, Node> byPathKey = new ConcurrentHashMap<>();
+
+    /**
+     * 全部节点，按名称排序
+     */
+    private final NavigableMap<String, Node> byName = new ConcurrentSkipListMap<>();
+
+    /**
+     * 添加节点，父节点必须已经存在
+     *
+     * @param id 节点ID
+     * @param parentId 父节点ID，顶级节点为null
+     * @param level 层级
+     * @param name 名称
+     * @param pathKey 层级键
+     * @return 是否添加成功，节点已存在或父节点不存在时返回false
+     */
+    public boolean add(Long id, Long parentId, byte level, String name, String pathKey) {
+        if (byId.containsKey(id)) {
+            return false;
+        }
+        Node parent = parentId == null ? root : byId.get(parentId);
+        if (parent == null) {
+            return false;
+        }
+        String path = parent == root ? name : parent.path + SEPARATOR + name;
+        Node node = new Node(id, parent, level, name, path);
+        if (byId.putIfAbsent(id, node) != null) {
+            return false;
+        }
+        String key = sortKey(name, id);
+        byPathKey.put(pathKey, node);
+        parent.children.put(key, node);
+        byName.put(key, node);
+        return true;
+    }
+
+    /**
+     * 按层级键查询节点ID
+     *
+     * @param pathKey 层级键
+     * @return 节点ID，不存在时返回null
+     */
+    public Long findId(String pathKey) {
+        Node node = byPathKey.get(pathKey);
+        return node == null ? null : node.id;
+    }
+
+    /**
+     * 按ID查询节点
+     *
+     * @param id 节点ID
+     * @return 节点，不存在时返回null
+     */
+    public LocationNodeDTO get(Long id) {
+        Node node = byId.get(id);
+        return node == null ? null : node.toDto();
+    }
+
+    /**
+     * 查询直接子节点
+     *
+     * @param parentId 父节点ID，为null时返回顶级节点
+     * @return 子节点，按名称排序
+     */
+    public List<LocationNodeDTO> children(Long parentId) {
+        Node parent = parentId == null ? root : byId.get(parentId);
+        if (parent == null) {
+            return List.of();
+        }
+        return toDtos(parent.children.values(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * 按名称前缀查询节点（不区分大小写）
+     * <p>
+     * 输入中包含"/"时按层级匹配：前面各段需与名称完全相同，最后一段按前缀匹配，
+     * 如"华东/A"匹配名为"华东"的节点下所有以"A"开头的子节点；否则在全部节点中按前缀匹配。
+     * </p>
+     *
+     * @param query 输入内容
+     * @param limit 最大返回数量
+     * @return 匹配的节点，按名称排序
+     */
+    public List<LocationNodeDTO> search(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        if (!normalized.contains(SEPARATOR)) {
+            return toDtos(prefixRange(byName, normalized).values(), limit);
+        }
+
+        String[] segments = normalized.split(SEPARATOR, -1);
+        List<Node> parents = List.of(root);
+        for (int i = 0; i < segments.length - 1 && !parents.isEmpty(); i++) {
+            String segment = segments[i].trim();
+            List<Node> next = new ArrayList<>();
+            for (Node parent : parents) {
+                next.addAll(parent.children.subMap(segment + KEY_SEPARATOR, true,
+                        segment + (char) (KEY_SEPARATOR + 1), false).values());
+            }
+            parents = next;
+        }
+
+        String prefix = segments[segments.length - 1].trim();
+        List<LocationNodeDTO> result = new ArrayList<>();
+        for (Node parent : parents) {
+            for (Node node : prefixRange(parent.children, prefix).values()) {
+                if (result.size() >= limit) {
+                    return result;
+                }
+                result.add(node.toDto());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 节点数量
+     *
+     * @return 节点数量
+     */
+    public int size() {
+        return byId.size();
+    }
+
+    private static NavigableMap<String, Node> prefixRange(NavigableMap<String, Node> map, String prefix) {
+        return prefix.isEmpty() ? map : map.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static List<LocationNodeDTO> toDtos(Iterable<Node> nodes, int limit) {
+        List<LocationNodeDTO> result = new ArrayList<>();
+        for (Node node : nodes) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(node.toDto());
+        }
+        return result;
+    }
+
+    private static String sortKey(String name, Long id) {
+        return normalize(name) + KEY_SEPARATOR + id;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Node {
+
+        private final Long id;
+        private final Node parent;
+        private final byte level;
+        private final String name;
+        private final String path;
+        private final NavigableMap<String, Node> children = new ConcurrentSkipListMap<>();
+
+        private Node(Long id, Node parent, byte level, String name, String path) {
+            this.id = id;
+            this.parent = parent;
+            this.level = level;
+            this.name = name;
+            this.path = path;
+        }
+
+        private LocationNodeDTO toDto() {
+            return new LocationNodeDTO(id, parent == null ? null : parent.id, level, name, path);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.iteams.model.dto;
+
+import com.iteams.model.enums.OperationType;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * 登录审计事件
+ * <p>
+ * 在请求线程上采集（包括IP地址、用户代理等请求信息），之后交给批量写入队列，
+ * 写入线程只读取事件本身，不再访问请求上下文或实体对象
+ * </p>
+ */
+@Value
+@Builder
+public class LoginAuditEvent {
+
+    /**
+     * 操作类型：LOGIN或LOGOUT
+     */
+    OperationType operationType;
+
+    /**
+     * 是否成功
+     */
+    boolean success;
+
+    /**
+     * 用户ID，用户不存在时为null
+     */
+    Long userId;
+
+    /**
+     * 用户名，用户不存在时为null
+     */
+    String username;
+
+    /**
+     * 尝试登录使用的用户名（用户不存在时记录）
+     */
+    String attemptedUsername;
+
+    /**
+     * 消息（成功或失败原因）
+     */
+    String message;
+
+    /**
+     * 账户状态快照
+     */
+    Map<String, Boolean> accountStatus;
+
+    /**
+     * 上次登录时间
+     */
+    LocalDateTime lastLoginTime;
+
+    /**
+     * 客户端IP地址
+     */
+    String ipAddress;
+
+    /**
+     * 用户代理
+     */
+    String userAgent;
+
+    /**
+     * 事件发生时间
+     */
+    LocalDateTime occurredAt;
+}
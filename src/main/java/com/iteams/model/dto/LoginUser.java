@@ -0,0 +1,56 @@
+package com.iteams.model.dto;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 已认证用户，在Spring Security的用户信息之外携带用户ID，
+ * 权限校验按用户ID读取权限缓存，不需要再按用户名查询
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class LoginUser extends User {
+
+    /**
+     * 用户ID
+     */
+    private final Long userId;
+
+    public LoginUser(Long userId, String username, String password, boolean enabled, boolean accountNonExpired,
+                     boolean credentialsNonExpired, boolean accountNonLocked,
+                     Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, enabled, accountNonExpired, credentialsNonExpired, accountNonLocked, authorities);
+        this.userId = userId;
+    }
+
+    /**
+     * 由已加载角色及角色权限的用户实体构造
+     *
+     * @param user 用户实体
+     * @return 已认证用户
+     */
+    public static LoginUser of(com.iteams.model.entity.User user) {
+        Set<SimpleGrantedAuthority> authorities = new HashSet<>();
+        user.getRoles().forEach(role -> {
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + role.getCode()));
+            role.getPermissions().forEach(permission ->
+                    authorities.add(new SimpleGrantedAuthority(permission.getCode())));
+        });
+        return new LoginUser(
+                user.getId(),
+                user.getUsername(),
+                user.getPassword(),
+                user.isEnabled(),
+                user.isAccountNonExpired(),
+                user.isCredentialsNonExpired(),
+                user.isAccountNonLocked(),
+                authorities);
+    }
+}
@@ -0,0 +1,32 @@
+package com.iteams.model.dto;
+
+import lombok.Value;
+
+import java.util.Set;
+
+/**
+ * 批量成员关系变更结果
+ */
+@Value
+public class MembershipChangeResult {
+
+    /**
+     * 请求中实际存在的用户数
+     */
+    int matched;
+
+    /**
+     * 新增的关联行数
+     */
+    int added;
+
+    /**
+     * 删除的关联行数
+     */
+    int removed;
+
+    /**
+     * 关联关系实际发生变化的用户ID
+     */
+    Set<Long> changedUserIds;
+}
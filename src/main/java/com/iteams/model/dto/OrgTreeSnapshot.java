@@ -0,0 +1,178 @@
+package com.iteams.model.dto;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * 组织树快照
+ * <p>
+ * 一次性加载的全部部门及其用户数量、父子关系，构建后不再修改，可被多个请求并发读取。
+ * 内部保存的DTO不对外暴露，查询方法返回副本，调用方可自由修改返回结果。
+ * </p>
+ */
+public final class OrgTreeSnapshot {
+
+    private static final Comparator<DepartmentDTO> SIBLING_ORDER = Comparator
+            .comparing((DepartmentDTO dto) -> dto.getSortOrder() == null ? 0 : dto.getSortOrder())
+            .thenComparing(DepartmentDTO::getId);
+
+    /**
+     * 部门ID -> 部门（按ID顺序）
+     */
+    private final Map<Long, DepartmentDTO> departments;
+
+    /**
+     * 父部门ID -> 子部门ID（按排序号、ID顺序）
+     */
+    private final Map<Long, List<Long>> childIds;
+
+    /**
+     * 顶级部门ID（按排序号、ID顺序）
+     */
+    private final List<Long> rootIds;
+
+    /**
+     * 构建快照
+     *
+     * @param departments 全部部门（未设置用户数量和父部门名称）
+     * @param userCounts 部门ID -> 用户数量
+     */
+    public OrgTreeSnapshot(List<DepartmentDTO> departments, Map<Long, Long> userCounts) {
+        Map<Long, DepartmentDTO> byId = new LinkedHashMap<>();
+        departments.stream()
+                .sorted(Comparator.comparing(DepartmentDTO::getId))
+                .forEach(dto -> byId.put(dto.getId(), dto));
+
+        Map<Long, List<DepartmentDTO>> children = new HashMap<>();
+        List<DepartmentDTO> roots = new ArrayList<>();
+        for (DepartmentDTO dto : byId.values()) {
+            dto.setUserCount(userCounts.getOrDefault(dto.getId(), 0L).intValue());
+            if (dto.getParentId() == null) {
+                roots.add(dto);
+                continue;
+            }
+            DepartmentDTO parent = byId.get(dto.getParentId());
+            if (parent != null) {
+                dto.setParentName(parent.getName());
+            }
+            children.computeIfAbsent(dto.getParentId(), key -> new ArrayList<>()).add(dto);
+        }
+
+        Map<Long, List<Long>> childIdMap = new HashMap<>();
+        children.forEach((parentId, list) -> childIdMap.put(parentId, toSortedIds(list)));
+
+        this.departments = byId;
+        this.childIds = childIdMap;
+        this.rootIds = toSortedIds(roots);
+    }
+
+    /**
+     * 按ID查询部门
+     *
+     * @param id 部门ID
+     * @return 部门副本
+     */
+    public Optional<DepartmentDTO> find(Long id) {
+        DepartmentDTO dto = departments.get(id);
+        return dto == null ? Optional.empty() : Optional.of(copy(dto));
+    }
+
+    /**
+     * 查询部门列表（按ID顺序）
+     *
+     * @param enabled 启用状态，为空时不过滤
+     * @return 部门副本列表
+     */
+    public List<DepartmentDTO> list(Boolean enabled) {
+        return departments.values().stream()
+                .filter(dto -> matches(dto, enabled))
+                .map(OrgTreeSnapshot::copy)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 查询部门树，同级按排序号、ID排序；被过滤掉的部门连同其子树一起不返回
+     *
+     * @param enabled 启用状态，为空时不过滤
+     * @return 顶级部门副本列表，子部门在children中
+     */
+    public List<DepartmentDTO> tree(Boolean enabled) {
+        return buildLevel(rootIds, enabled);
+    }
+
+    /**
+     * 获取部门用户数量
+     *
+     * @param id 部门ID
+     * @return 用户数量，部门不存在时为0
+     */
+    public int getUserCount(Long id) {
+        DepartmentDTO dto = departments.get(id);
+        return dto == null ? 0 : dto.getUserCount();
+    }
+
+    /**
+     * 获取部门名称
+     *
+     * @param id 部门ID
+     * @return 部门名称，部门不存在时为null
+     */
+    public String getName(Long id) {
+        DepartmentDTO dto = id == null ? null : departments.get(id);
+        return dto == null ? null : dto.getName();
+    }
+
+    /**
+     * 获取直接子部门ID
+     *
+     * @param id 部门ID
+     * @return 子部门ID列表（只读）
+     */
+    public List<Long> getChildIds(Long id) {
+        return childIds.getOrDefault(id, List.of());
+    }
+
+    /**
+     * 部门数量
+     *
+     * @return 部门数量
+     */
+    public int size() {
+        return departments.size();
+    }
+
+    private List<DepartmentDTO> buildLevel(List<Long> ids, Boolean enabled) {
+        List<DepartmentDTO> level = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            DepartmentDTO dto = departments.get(id);
+            if (!matches(dto, enabled)) {
+                continue;
+            }
+            DepartmentDTO node = copy(dto);
+            node.setChildren(buildLevel(getChildIds(id), enabled));
+            level.add(node);
+        }
+        return level;
+    }
+
+    private static boolean matches(DepartmentDTO dto, Boolean enabled) {
+        return enabled == null || enabled.equals(dto.getEnabled());
+    }
+
+    private static List<Long> toSortedIds(List<DepartmentDTO> list) {
+        return list.stream()
+                .sorted(SIBLING_ORDER)
+                .map(DepartmentDTO::getId)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    private static DepartmentDTO copy(DepartmentDTO dto) {
+        return dto.toBuilder().build();
+    }
+}
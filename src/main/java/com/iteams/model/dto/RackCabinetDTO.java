@@ -0,0 +1,73 @@
+package com.iteams.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 机柜U位占用情况
+ */
+@Data
+public class RackCabinetDTO {
+
+    /**
+     * 机柜的位置节点ID
+     */
+    private Long cabinetNodeId;
+
+    /**
+     * 机柜路径
+     */
+    private String path;
+
+    /**
+     * 机柜高度（U），有设备登记在默认高度以上时取最高U位
+     */
+    private int height;
+
+    /**
+     * 已占用的U数
+     */
+    private int usedUnits;
+
+    /**
+     * 使用率（百分比）
+     */
+    private double utilization;
+
+    /**
+     * 最大连续空闲U数
+     */
+    private int largestFreeBlock;
+
+    /**
+     * 设备占用明细，仅查询单个机柜时返回
+     */
+    private List<Slot> slots;
+
+    /**
+     * 设备占用的U位范围
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Slot {
+
+        /**
+         * 资产ID
+         */
+        private Long assetId;
+
+        /**
+         * 起始U位
+         */
+        private int fromU;
+
+        /**
+         * 结束U位
+         */
+        private int toU;
+    }
+}
@@ -0,0 +1,47 @@
+package com.iteams.model.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 机房机柜使用率汇总
+ */
+@Data
+public class RackRoomSummaryDTO {
+
+    /**
+     * 机房的位置节点ID
+     */
+    private Long roomNodeId;
+
+    /**
+     * 机房路径
+     */
+    private String path;
+
+    /**
+     * 机柜数量
+     */
+    private int cabinets;
+
+    /**
+     * 总U数
+     */
+    private int totalUnits;
+
+    /**
+     * 已占用的U数
+     */
+    private int usedUnits;
+
+    /**
+     * 使用率（百分比）
+     */
+    private double utilization;
+
+    /**
+     * 各机柜的使用情况
+     */
+    private List<RackCabinetDTO> cabinetDetails;
+}
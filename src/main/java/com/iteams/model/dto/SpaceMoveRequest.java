@@ -0,0 +1,42 @@
+package com.iteams.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+/**
+ * 资产迁移的目标位置
+ */
+@Data
+public class SpaceMoveRequest {
+
+    /**
+     * 目标数据中心
+     */
+    private String dataCenter;
+
+    /**
+     * 目标机房
+     */
+    private String roomName;
+
+    /**
+     * 目标机柜
+     */
+    private String cabinetNo;
+
+    /**
+     * 目标U位；整柜迁移时为空表示保留各资产原来的U位
+     */
+    @JsonProperty("uPosition")
+    private String uPosition;
+
+    /**
+     * 保管人，为空时沿用原位置的保管人
+     */
+    private String keeper;
+
+    /**
+     * 使用环境，为空时沿用原位置的使用环境
+     */
+    private String environment;
+}
@@ -0,0 +1,34 @@
+package com.iteams.model.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 资产迁移结果
+ */
+@Data
+public class SpaceMoveResultDTO {
+
+    /**
+     * 迁移的资产数量
+     */
+    private int moved;
+
+    /**
+     * 已在目标位置、未迁移的资产数量
+     */
+    private int unchanged;
+
+    /**
+     * 新建的空间记录ID，顺序与迁移的资产一致
+     */
+    private List<Long> spaceIds = new ArrayList<>();
+
+    /**
+     * 迁移时间，即原位置的结束时间和新位置的开始时间
+     */
+    private LocalDateTime movedAt;
+}
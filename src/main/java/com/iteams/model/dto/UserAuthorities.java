@@ -0,0 +1,47 @@
+package com.iteams.model.dto;
+
+import lombok.Value;
+import lombok.With;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 用户的角色和权限，缓存在permissions缓存中，按用户ID缓存
+ * <p>
+ * 权限编码同时编译为位集，权限校验直接使用位集，不再逐个比较编码
+ * </p>
+ */
+@Value
+public class UserAuthorities {
+
+    /**
+     * 角色编码（不可变）
+     */
+    Set<String> roleCodes;
+
+    /**
+     * 权限编码（不可变）
+     */
+    Set<String> permissionCodes;
+
+    /**
+     * 编译后的权限位集
+     */
+    @With
+    long[] permissionBits;
+
+    /**
+     * 转换为Spring Security权限：角色加ROLE_前缀，权限编码原样使用
+     *
+     * @return 权限集合
+     */
+    public Set<GrantedAuthority> toGrantedAuthorities() {
+        Set<GrantedAuthority> authorities = new HashSet<>();
+        roleCodes.forEach(code -> authorities.add(new SimpleGrantedAuthority("ROLE_" + code)));
+        permissionCodes.forEach(code -> authorities.add(new SimpleGrantedAuthority(code)));
+        return authorities;
+    }
+}
@@ -0,0 +1,35 @@
+package com.iteams.model.dto;
+
+import lombok.Value;
+
+/**
+ * 用户目录条目，用于用户选择的输入提示
+ */
+@Value
+public class UserDirectoryEntry {
+
+    /**
+     * 用户ID
+     */
+    Long id;
+
+    /**
+     * 用户名
+     */
+    String username;
+
+    /**
+     * 真实姓名
+     */
+    String realName;
+
+    /**
+     * 部门名称
+     */
+    String departmentName;
+
+    /**
+     * 是否启用
+     */
+    Boolean enabled;
+}
@@ -0,0 +1,105 @@
+package com.iteams.model.dto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 用户目录快照
+ * <p>
+ * 把全部用户的用户名和姓名（转小写）作为检索键排序后存入数组，
+ * 前缀查询用二分查找定位第一个不小于前缀的键，再顺序扫描到前缀不再匹配为止，
+ * 复杂度为O(log n + 结果数)。构建后不再修改，条目本身不可变，可被多个请求并发读取。
+ * </p>
+ */
+public final class UserDirectorySnapshot {
+
+    private final UserDirectoryEntry[] entries;
+
+    /**
+     * 检索键，升序
+     */
+    private final String[] keys;
+
+    /**
+     * 检索键对应的条目下标
+     */
+    private final int[] owners;
+
+    /**
+     * 构建快照
+     *
+     * @param entries 全部用户条目
+     */
+    public UserDirectorySnapshot(List<UserDirectoryEntry> entries) {
+        this.entries = entries.toArray(new UserDirectoryEntry[0]);
+
+        List<Object[]> indexed = new ArrayList<>(this.entries.length * 2);
+        for (int i = 0; i < this.entries.length; i++) {
+            UserDirectoryEntry entry = this.entries[i];
+            indexed.add(new Object[]{normalize(entry.getUsername()), i});
+            String realName = normalize(entry.getRealName());
+            if (!realName.isEmpty() && !realName.equals(normalize(entry.getUsername()))) {
+                indexed.add(new Object[]{realName, i});
+            }
+        }
+        indexed.sort(Comparator.comparing((Object[] row) -> (String) row[0]));
+
+        this.keys = new String[indexed.size()];
+        this.owners = new int[indexed.size()];
+        for (int i = 0; i < indexed.size(); i++) {
+            keys[i] = (String) indexed.get(i)[0];
+            owners[i] = (Integer) indexed.get(i)[1];
+        }
+    }
+
+    /**
+     * 按用户名或姓名前缀查询（不区分大小写）
+     *
+     * @param prefix 前缀
+     * @param limit 最大返回数量
+     * @return 匹配的条目，按匹配到的键排序
+     */
+    public List<UserDirectoryEntry> search(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        int position = Arrays.binarySearch(keys, normalized);
+        if (position < 0) {
+            position = -position - 1;
+        } else {
+            // 存在相同的键时回退到第一个
+            while (position > 0 && keys[position - 1].equals(normalized)) {
+                position--;
+            }
+        }
+
+        Set<Integer> matched = new LinkedHashSet<>();
+        for (int i = position; i < keys.length && matched.size() < limit && keys[i].startsWith(normalized); i++) {
+            matched.add(owners[i]);
+        }
+        List<UserDirectoryEntry> result = new ArrayList<>(matched.size());
+        for (Integer index : matched) {
+            result.add(entries[index]);
+        }
+        return result;
+    }
+
+    /**
+     * 用户数量
+     *
+     * @return 用户数量
+     */
+    public int size() {
+        return entries.length;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,55 @@
+package com.iteams.model.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户组摘要
+ * <p>
+ * 用户组基本信息与成员数量的查询投影，由一条分组计数SQL直接构造，不加载成员实体
+ * </p>
+ */
+@Value
+public class UserGroupSummary {
+
+    /**
+     * 用户组ID
+     */
+    Long id;
+
+    /**
+     * 用户组名称
+     */
+    String name;
+
+    /**
+     * 用户组代码
+     */
+    String code;
+
+    /**
+     * 用户组描述
+     */
+    String description;
+
+    /**
+     * 是否启用
+     */
+    Boolean enabled;
+
+    /**
+     * 创建时间
+     */
+    LocalDateTime createdAt;
+
+    /**
+     * 更新时间
+     */
+    LocalDateTime updatedAt;
+
+    /**
+     * 成员数量
+     */
+    Long userCount;
+}
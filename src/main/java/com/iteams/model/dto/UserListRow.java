@@ -0,0 +1,36 @@
+package com.iteams.model.dto;
+
+import lombok.Value;
+
+/**
+ * 用户列表行投影
+ * <p>
+ * 用户列表分页查询直接构造的只读行，只包含用户表和部门名称，
+ * 角色和用户组按当前页用户ID另行批量查询
+ * </p>
+ */
+@Value
+public class UserListRow {
+
+    Long id;
+
+    String username;
+
+    String realName;
+
+    String email;
+
+    String phone;
+
+    String avatarUrl;
+
+    Long departmentId;
+
+    String departmentName;
+
+    Boolean enabled;
+
+    Boolean accountNonLocked;
+
+    Boolean requirePasswordChange;
+}
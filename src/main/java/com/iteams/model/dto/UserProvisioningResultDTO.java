@@ -0,0 +1,69 @@
+package com.iteams.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量开通用户结果
+ */
+@Data
+public class UserProvisioningResultDTO {
+
+    /**
+     * 提交的记录数
+     */
+    private int total;
+
+    /**
+     * 成功创建的用户数
+     */
+    private int successCount;
+
+    /**
+     * 失败的记录数
+     */
+    private int failedCount;
+
+    /**
+     * 耗时（毫秒）
+     */
+    private long costMillis;
+
+    /**
+     * 成功创建的用户（不含密码）
+     */
+    private List<UserDTO> createdUsers = new ArrayList<>();
+
+    /**
+     * 失败记录及原因
+     */
+    private List<RowError> errors = new ArrayList<>();
+
+    /**
+     * 单行错误
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+
+        /**
+         * 行号，从1开始，与提交顺序一致
+         */
+        private int row;
+
+        /**
+         * 用户名
+         */
+        private String username;
+
+        /**
+         * 失败原因
+         */
+        private String message;
+    }
+}
@@ -0,0 +1,65 @@
+package com.iteams.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 维保到期日报
+ */
+@Data
+public class WarrantyExpiryDigestDTO {
+
+    /**
+     * 日报日期
+     */
+    private LocalDate date;
+
+    /**
+     * 上次日报之后到期的维保合约（结束日期早于日报日期）
+     */
+    private List<WarrantyExpiryItem> expired;
+
+    /**
+     * 各时间窗口内即将到期的合约数量
+     */
+    private List<Window> windows;
+
+    /**
+     * 第一个时间窗口内即将到期的合约，最多返回配置的条数
+     */
+    private List<WarrantyExpiryItem> upcoming;
+
+    /**
+     * 跟踪中的有效合约数量
+     */
+    private int tracked;
+
+    /**
+     * 生成时间
+     */
+    private LocalDateTime generatedAt;
+
+    /**
+     * 时间窗口统计
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Window {
+
+        /**
+         * 窗口天数，表示从今天起若干天内到期
+         */
+        private int days;
+
+        /**
+         * 合约数量
+         */
+        private int count;
+    }
+}
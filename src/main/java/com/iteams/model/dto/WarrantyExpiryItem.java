@@ -0,0 +1,47 @@
+package com.iteams.model.dto;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * 即将到期（或刚到期）的维保合约
+ */
+@Value
+public class WarrantyExpiryItem {
+
+    /**
+     * 维保ID
+     */
+    Long warrantyId;
+
+    /**
+     * 合同编号
+     */
+    String contractNo;
+
+    /**
+     * 维保提供商
+     */
+    String provider;
+
+    /**
+     * 维保结束日期，当天仍在维保期内
+     */
+    LocalDate endDate;
+
+    /**
+     * 资产ID
+     */
+    Long assetId;
+
+    /**
+     * 资产编号
+     */
+    String assetNo;
+
+    /**
+     * 资产名称
+     */
+    String assetName;
+}
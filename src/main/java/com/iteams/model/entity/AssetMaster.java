@@ -22,7 +22,12 @@ import java.util.Objects;
 @ToString
 @RequiredArgsConstructor
 @Entity
-@Table(name = "asset_master")
+@Table(name = "asset_master",
+    indexes = {
+        @Index(name = "idx_asset_category", columnList = "category_l1_id, category_l2_id, category_l3_id"),
+        @Index(name = "idx_asset_created_at", columnList = "created_at")
+    }
+)
 public class AssetMaster {
 
     /**
@@ -67,6 +72,24 @@ public class AssetMaster {
     @Column(columnDefinition = "json")
     private String categoryHierarchy;
 
+    /**
+     * 一级分类ID，与categoryHierarchy中的一级分类对应，用于按分类过滤和统计
+     */
+    @Column(name = "category_l1_id")
+    private Long categoryL1Id;
+
+    /**
+     * 二级分类ID，未指定二级分类时为null
+     */
+    @Column(name = "category_l2_id")
+    private Long categoryL2Id;
+
+    /**
+     * 三级分类ID，未指定三级分类时为null
+     */
+    @Column(name = "category_l3_id")
+    private Long categoryL3Id;
+
     /**
      * 当前空间位置，关联到SpaceTimeline实体
      * 该关联代表资产当前所处的物理位置
@@ -139,7 +162,20 @@ public class AssetMaster {
      * </p>
      */
     public enum AssetStatus {
-        IN_USE, INVENTORY, MAINTENANCE, RETIRED
+        IN_USE("使用中"), INVENTORY("库存中"), MAINTENANCE("维修中"), RETIRED("已报废");
+
+        /**
+         * 状态的中文名称，用于统计和导出
+         */
+        private final String label;
+
+        AssetStatus(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
     }
 
     /**
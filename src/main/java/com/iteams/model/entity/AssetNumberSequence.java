@@ -0,0 +1,60 @@
+package com.iteams.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * 资产编号序列实体
+ * <p>
+ * 每个（分类码、部门码、年月）一行，记录已分配出去的最大序列号。
+ * 各节点每次用一条原子UPDATE预留一段号码，在内存中逐个发放；
+ * 节点重启时未发放完的号码会被跳过，编号可能不连续，但不会重复。
+ * </p>
+ */
+@Getter
+@Setter
+@ToString
+@RequiredArgsConstructor
+@Entity
+@Table(name = "asset_number_sequence")
+public class AssetNumberSequence {
+
+    /**
+     * 序列键，格式为"分类码|部门码|年月"
+     */
+    @Id
+    @Column(name = "seq_key", length = 64)
+    private String seqKey;
+
+    /**
+     * 已预留的最大序列号
+     */
+    @Column(name = "last_value", nullable = false)
+    private Long lastValue;
+
+    /**
+     * 更新时间
+     */
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        AssetNumberSequence that = (AssetNumberSequence) o;
+        return getSeqKey() != null && Objects.equals(getSeqKey(), that.getSeqKey());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+    }
+}
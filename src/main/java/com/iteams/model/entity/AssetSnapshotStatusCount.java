@@ -0,0 +1,75 @@
+package com.iteams.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * 资产快照状态计数实体
+ * <p>
+ * 每次快照按资产状态汇总的资产数量，每个（快照时刻、状态）一行。
+ * 统计历史某一时刻的状态分布时，从不晚于该时刻的最近一次快照的计数开始，只修正之后发生变化或新建的资产。
+ * 快照时刻的集合也从本表读取。
+ * </p>
+ */
+@Getter
+@Setter
+@ToString
+@RequiredArgsConstructor
+@Entity
+@Table(name = "asset_snapshot_status_count",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_snapshot_status", columnNames = {"snapshot_at", "current_status"})
+    })
+public class AssetSnapshotStatusCount {
+
+    /**
+     * 主键
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 快照时刻
+     */
+    @Column(name = "snapshot_at", nullable = false)
+    private LocalDateTime snapshotAt;
+
+    /**
+     * 资产状态，状态枚举名
+     */
+    @Column(name = "current_status", length = 20, nullable = false)
+    private String currentStatus;
+
+    /**
+     * 资产数量
+     */
+    @Column(name = "asset_count", nullable = false)
+    private Long assetCount;
+
+    /**
+     * 写入时间
+     */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        AssetSnapshotStatusCount that = (AssetSnapshotStatusCount) o;
+        return getId() != null && Objects.equals(getId(), that.getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+    }
+}
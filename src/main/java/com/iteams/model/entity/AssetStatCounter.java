@@ -0,0 +1,96 @@
+package com.iteams.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * 资产统计计数器实体
+ * <p>
+ * 每个（统计维度、维度取值）一行，记录对应的资产数量。资产新增、删除或维度取值变化时
+ * 以增量方式更新，统计接口只读取计数器，耗时与资产总数无关；定时任务按明细数据重算以修正偏差。
+ * </p>
+ */
+@Getter
+@Setter
+@ToString
+@RequiredArgsConstructor
+@Entity
+@Table(name = "asset_stat_counter")
+public class AssetStatCounter {
+
+    /**
+     * 维度：资产状态，取值为状态枚举名
+     */
+    public static final String DIMENSION_STATUS = "status";
+
+    /**
+     * 维度：一级分类，取值为分类ID
+     */
+    public static final String DIMENSION_CATEGORY = "category";
+
+    /**
+     * 维度：数据中心，取值为位置节点ID
+     */
+    public static final String DIMENSION_DATA_CENTER = "dataCenter";
+
+    /**
+     * 维度：机房，取值为位置节点ID
+     */
+    public static final String DIMENSION_ROOM = "room";
+
+    /**
+     * 维度：有效维保的结束日期，取值为"yyyy-MM-dd"
+     */
+    public static final String DIMENSION_WARRANTY_END = "warrantyEnd";
+
+    /**
+     * 计数器ID，格式为"维度:取值"
+     */
+    @Id
+    @Column(length = 160)
+    private String id;
+
+    /**
+     * 统计维度
+     */
+    @Column(length = 32, nullable = false)
+    private String dimension;
+
+    /**
+     * 维度取值
+     */
+    @Column(name = "stat_key", length = 128, nullable = false)
+    private String statKey;
+
+    /**
+     * 资产数量
+     */
+    @Column(name = "asset_count", nullable = false)
+    private Long assetCount;
+
+    /**
+     * 更新时间
+     */
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        AssetStatCounter that = (AssetStatCounter) o;
+        return getId() != null && Objects.equals(getId(), that.getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+    }
+}
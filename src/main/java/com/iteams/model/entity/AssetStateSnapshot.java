@@ -0,0 +1,111 @@
+package com.iteams.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * 资产状态快照实体
+ * <p>
+ * 定期（默认每月）记录全部资产在快照时刻的状态、位置和有效维保，每次快照每个资产一行。
+ * 查询历史某一时刻的资产状态时，从不晚于该时刻的最近一次快照开始，只回放快照之后的变化记录。
+ * </p>
+ */
+@Getter
+@Setter
+@ToString
+@RequiredArgsConstructor
+@Entity
+@Table(name = "asset_state_snapshot",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_snapshot_asset_time", columnNames = {"asset_id", "snapshot_at"})
+    })
+public class AssetStateSnapshot {
+
+    /**
+     * 快照ID，自增主键
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 资产ID
+     */
+    @Column(name = "asset_id", nullable = false)
+    private Long assetId;
+
+    /**
+     * 快照时刻
+     */
+    @Column(name = "snapshot_at", nullable = false)
+    private LocalDateTime snapshotAt;
+
+    /**
+     * 资产名称
+     */
+    @Column(name = "asset_name")
+    private String assetName;
+
+    /**
+     * 资产状态，状态枚举名
+     */
+    @Column(name = "current_status", length = 20)
+    private String currentStatus;
+
+    /**
+     * 当前空间记录ID
+     */
+    @Column(name = "space_id")
+    private Long spaceId;
+
+    /**
+     * 位置路径
+     */
+    @Column(name = "location_path", length = 500)
+    private String locationPath;
+
+    /**
+     * 有效维保ID
+     */
+    @Column(name = "warranty_id")
+    private Long warrantyId;
+
+    /**
+     * 有效维保的合同编号
+     */
+    @Column(name = "contract_no", length = 50)
+    private String contractNo;
+
+    /**
+     * 有效维保的结束日期
+     */
+    @Column(name = "warranty_end_date")
+    private LocalDate warrantyEndDate;
+
+    /**
+     * 写入时间
+     */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        AssetStateSnapshot that = (AssetStateSnapshot) o;
+        return getId() != null && Objects.equals(getId(), that.getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+    }
+}
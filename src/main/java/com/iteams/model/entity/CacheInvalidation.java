@@ -0,0 +1,75 @@
+package com.iteams.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * 缓存失效日志实体
+ * <p>
+ * 跨节点缓存一致性的默认传输通道：各节点把本地发生的缓存失效追加到此表，
+ * 并按自增ID高水位轮询其他节点写入的记录。只追加、不更新，过期记录定期清理。
+ * </p>
+ */
+@Getter
+@Setter
+@ToString
+@RequiredArgsConstructor
+@Entity
+@Table(name = "sys_cache_invalidation",
+    indexes = {
+        @Index(name = "idx_cache_invalidation_created_at", columnList = "created_at")
+    }
+)
+public class CacheInvalidation {
+
+    /**
+     * 主键ID，单调递增，作为轮询的高水位
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 缓存名称
+     */
+    @Column(name = "cache_name", nullable = false, length = 64)
+    private String cacheName;
+
+    /**
+     * 缓存键，为空表示清空整个缓存
+     */
+    @Column(name = "cache_key", length = 255)
+    private String cacheKey;
+
+    /**
+     * 发出失效消息的节点ID
+     */
+    @Column(name = "origin_node", nullable = false, length = 64)
+    private String originNode;
+
+    /**
+     * 创建时间
+     */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        CacheInvalidation that = (CacheInvalidation) o;
+        return getId() != null && Objects.equals(getId(), that.getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+    }
+}
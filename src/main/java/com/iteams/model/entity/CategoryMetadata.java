@@ -23,7 +23,11 @@ import java.time.LocalDateTime;
 @ToString
 @RequiredArgsConstructor
 @Entity
-@Table(name = "category_metadata")
+@Table(name = "category_metadata",
+    indexes = {
+        @Index(name = "idx_category_full_path", columnList = "full_path")
+    }
+)
 public class CategoryMetadata {
     /**
      * 分类ID，自增主键
@@ -62,10 +66,10 @@ public class CategoryMetadata {
     private CategoryMetadata parent;
 
     /**
-     * 完整分类路径，非持久化字段
-     * 用于展示完整的分类层次，格式如"服务器/机架式/Dell R740"
+     * 完整分类路径，格式如"服务器/机架式/Dell R740"
+     * 新增分类时由父分类的完整路径拼接，按路径查找分类时直接走索引，无需递归拼接
      */
-    @Transient
+    @Column(name = "full_path", length = 320)
     private String fullPath;
     
     /**
@@ -21,7 +21,11 @@ import java.util.Objects;
 @ToString
 @RequiredArgsConstructor
 @Entity
-@Table(name = "change_trace")
+@Table(name = "change_trace",
+    indexes = {
+        @Index(name = "idx_trace_asset_time", columnList = "asset_id, operated_at, trace_id"),
+        @Index(name = "idx_trace_type_time", columnList = "change_type, operated_at")
+    })
 public class ChangeTrace {
 
     /**
@@ -54,6 +58,13 @@ public class ChangeTrace {
     @Column(columnDefinition = "json", nullable = false)
     private String deltaSnapshot;
 
+    /**
+     * 共享的变更内容ID，引用change_trace_payload
+     * 重复的变更内容只保存一份，此时deltaSnapshot中只保存{"$ref": payload_id}
+     */
+    @Column(name = "payload_id")
+    private Long payloadId;
+
     /**
      * 操作链路，JSON格式
      * 可选字段，用于记录复杂操作流程（如审批流）的中间状态
@@ -0,0 +1,70 @@
+package com.iteams.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * 变更记录内容实体
+ * <p>
+ * 大量重复的变更内容（如同一导入批次中每个资产的初始化记录）只保存一份，
+ * 变更记录通过payload_id引用，delta_snapshot中只保存{"$ref": payload_id}。
+ * 内容按SHA-256摘要去重。
+ * </p>
+ */
+@Getter
+@Setter
+@ToString
+@RequiredArgsConstructor
+@Entity
+@Table(name = "change_trace_payload",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_payload_hash", columnNames = "payload_hash")
+    })
+public class ChangeTracePayload {
+
+    /**
+     * 内容ID，自增主键
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "payload_id")
+    private Long payloadId;
+
+    /**
+     * 内容的SHA-256摘要，十六进制
+     */
+    @Column(name = "payload_hash", nullable = false, length = 64)
+    private String payloadHash;
+
+    /**
+     * 变更内容，JSON格式
+     */
+    @Column(columnDefinition = "json", nullable = false)
+    private String payload;
+
+    /**
+     * 创建时间
+     */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        ChangeTracePayload that = (ChangeTracePayload) o;
+        return getPayloadId() != null && Objects.equals(getPayloadId(), that.getPayloadId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+    }
+}
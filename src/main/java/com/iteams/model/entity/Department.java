@@ -21,7 +21,11 @@ import java.util.Set;
 @Entity
 @Builder
 @AllArgsConstructor
-@Table(name = "sys_department")
+@Table(name = "sys_department",
+    indexes = {
+        @Index(name = "idx_department_tree_path", columnList = "tree_path")
+    }
+)
 public class Department {
 
     /**
@@ -55,6 +59,12 @@ public class Department {
     @Column(name = "parent_id")
     private Long parentId;
 
+    /**
+     * 物化路径，由根到本部门的ID组成，如"/1/5/12/"，用于子树查询
+     */
+    @Column(name = "tree_path", length = 255)
+    private String treePath;
+
     /**
      * 部门级别（1为顶级部门）
      */
@@ -0,0 +1,104 @@
+package com.iteams.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * 位置节点实体
+ * <p>
+ * 把空间轨迹中的数据中心、机房、机柜、U位拆分为规范化的层级节点，
+ * 每个节点有独立的整数ID，空间轨迹按层级记录所属节点ID，按机房、机柜查询资产时走索引等值匹配。
+ * 节点只新增不修改，同名节点通过完整的层级键区分。
+ * </p>
+ */
+@Getter
+@Setter
+@ToString
+@RequiredArgsConstructor
+@Entity
+@Table(name = "location_node",
+    indexes = {
+        @Index(name = "idx_location_node_parent", columnList = "parent_id")
+    }
+)
+public class LocationNode {
+
+    /**
+     * 层级：数据中心
+     */
+    public static final byte LEVEL_DATA_CENTER = 1;
+
+    /**
+     * 层级：机房
+     */
+    public static final byte LEVEL_ROOM = 2;
+
+    /**
+     * 层级：机柜
+     */
+    public static final byte LEVEL_CABINET = 3;
+
+    /**
+     * 层级：U位
+     */
+    public static final byte LEVEL_POSITION = 4;
+
+    /**
+     * 节点ID
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 父节点ID，数据中心为null；中间层级为空时指向最近的非空上级
+     */
+    @Column(name = "parent_id")
+    private Long parentId;
+
+    /**
+     * 层级，1-数据中心，2-机房，3-机柜，4-U位
+     */
+    @Column(nullable = false)
+    private Byte level;
+
+    /**
+     * 节点名称
+     */
+    @Column(nullable = false)
+    private String name;
+
+    /**
+     * 层级键，由本级及所有上级名称按层级拼接而成，空层级保留为空串，如"华东数据中心//A01"
+     */
+    @Column(name = "path_key", length = 500, nullable = false, unique = true)
+    private String pathKey;
+
+    /**
+     * 创建时间
+     */
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        LocationNode that = (LocationNode) o;
+        return getId() != null && Objects.equals(getId(), that.getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+    }
+}
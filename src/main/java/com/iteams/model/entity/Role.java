@@ -3,6 +3,7 @@ package com.iteams.model.entity;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.Builder.Default;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.proxy.HibernateProxy;
@@ -15,6 +16,8 @@ import java.util.Set;
 /**
  * 角色实体
  */
+@NamedEntityGraph(name = Role.GRAPH_PERMISSIONS,
+        attributeNodes = @NamedAttributeNode("permissions"))
 @Getter
 @Setter
 @ToString
@@ -25,6 +28,11 @@ import java.util.Set;
 @Table(name = "sys_role")
 public class Role {
 
+    /**
+     * 角色及其权限
+     */
+    public static final String GRAPH_PERMISSIONS = "Role.permissions";
+
     /**
      * 角色ID
      */
@@ -65,15 +73,17 @@ public class Role {
     private LocalDateTime updatedAt;
 
     /**
-     * 角色权限关联
+     * 角色权限关联（角色分页列表中按批加载）
      */
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @JoinTable(
             name = "sys_role_permission",
             joinColumns = @JoinColumn(name = "role_id"),
             inverseJoinColumns = @JoinColumn(name = "permission_id")
     )
     @Default
+    @ToString.Exclude
     private Set<Permission> permissions = new HashSet<>();
 
     /**
@@ -22,7 +22,15 @@ import java.util.Objects;
 @ToString
 @RequiredArgsConstructor
 @Entity
-@Table(name = "space_timeline")
+@Table(name = "space_timeline",
+    indexes = {
+        @Index(name = "idx_space_dc_node", columnList = "data_center_node_id, is_current, space_id"),
+        @Index(name = "idx_space_room_node", columnList = "room_node_id, is_current, space_id"),
+        @Index(name = "idx_space_cabinet_node", columnList = "cabinet_node_id, is_current, space_id"),
+        @Index(name = "idx_space_location_node", columnList = "location_node_id, is_current, space_id"),
+        @Index(name = "idx_space_asset_time", columnList = "asset_id, valid_from, space_id")
+    }
+)
 public class SpaceTimeline {
 
     /**
@@ -110,6 +118,31 @@ public class SpaceTimeline {
     @Column(length = 10)
     private String uPosition;
     
+    /**
+     * 数据中心节点ID
+     * @see LocationNode
+     */
+    @Column(name = "data_center_node_id")
+    private Long dataCenterNodeId;
+
+    /**
+     * 机房节点ID
+     */
+    @Column(name = "room_node_id")
+    private Long roomNodeId;
+
+    /**
+     * 机柜节点ID
+     */
+    @Column(name = "cabinet_node_id")
+    private Long cabinetNodeId;
+
+    /**
+     * 最深一级的位置节点ID，有U位时为U位节点
+     */
+    @Column(name = "location_node_id")
+    private Long locationNodeId;
+
     /**
      * 使用环境描述
      * 如生产环境、测试环境、开发环境等
@@ -0,0 +1,99 @@
+package com.iteams.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * 令牌吊销记录实体
+ * <p>
+ * 持久化内存吊销表中的条目，应用重启后据此恢复。记录分为两类：
+ * 按用户的"此时间之前签发的令牌全部失效"水位线，以及按jti的单令牌黑名单。
+ * 条目在对应令牌的最长有效期过后即可清理。
+ * </p>
+ */
+@Getter
+@Setter
+@ToString
+@RequiredArgsConstructor
+@Entity
+@Table(name = "sys_token_revocation",
+    indexes = {
+        @Index(name = "idx_revocation_expires_at", columnList = "expires_at")
+    },
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_revocation_type_key", columnNames = {"revocation_type", "token_key"})
+    }
+)
+public class TokenRevocation {
+
+    /**
+     * 主键ID
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 吊销类型
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "revocation_type", nullable = false, length = 10)
+    private RevocationType revocationType;
+
+    /**
+     * 吊销键：USER类型为用户名，JTI类型为令牌ID
+     */
+    @Column(name = "token_key", nullable = false, length = 64)
+    private String tokenKey;
+
+    /**
+     * 吊销时间，USER类型下签发时间不晚于该时间的令牌均失效
+     */
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+
+    /**
+     * 条目过期时间，过期后对应令牌已自然失效，可清理
+     */
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    /**
+     * 创建时间
+     */
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * 吊销类型枚举
+     * <p>
+     * USER: 用户水位线 - 吊销该用户此前签发的全部令牌
+     * JTI: 单令牌 - 仅吊销指定jti的令牌
+     * </p>
+     */
+    public enum RevocationType {
+        USER, JTI
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        TokenRevocation that = (TokenRevocation) o;
+        return getId() != null && Objects.equals(getId(), that.getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+    }
+}
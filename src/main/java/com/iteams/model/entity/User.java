@@ -13,7 +13,22 @@ import java.util.Set;
 
 /**
  * 用户实体
+ * <p>
+ * 关联默认全部延迟加载，各场景需要的关联通过命名实体图一次取出，
+ * 见{@link com.iteams.repository.UserRepository}中带实体图的查询方法
+ * </p>
  */
+@NamedEntityGraph(name = User.GRAPH_AUTH_PRINCIPAL,
+        attributeNodes = @NamedAttributeNode(value = "roles", subgraph = "permissions"),
+        subgraphs = @NamedSubgraph(name = "permissions", attributeNodes = @NamedAttributeNode("permissions")))
+@NamedEntityGraph(name = User.GRAPH_ROLES,
+        attributeNodes = @NamedAttributeNode("roles"))
+@NamedEntityGraph(name = User.GRAPH_DETAIL,
+        attributeNodes = {
+                @NamedAttributeNode("department"),
+                @NamedAttributeNode("roles"),
+                @NamedAttributeNode("groups")
+        })
 @Getter
 @Setter
 @ToString
@@ -21,9 +36,26 @@ import java.util.Set;
 @Entity
 @Builder
 @AllArgsConstructor
-@Table(name = "sys_user")
+@Table(name = "sys_user", indexes = {
+        @Index(name = "idx_user_real_name", columnList = "real_name")
+})
 public class User {
 
+    /**
+     * 认证主体：角色及角色权限
+     */
+    public static final String GRAPH_AUTH_PRINCIPAL = "User.authPrincipal";
+
+    /**
+     * 角色判断：仅角色
+     */
+    public static final String GRAPH_ROLES = "User.roles";
+
+    /**
+     * 用户详情：部门、角色、用户组
+     */
+    public static final String GRAPH_DETAIL = "User.detail";
+
     /**
      * 用户ID
      */
@@ -70,8 +102,9 @@ public class User {
     /**
      * 部门
      */
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "department_id")
+    @ToString.Exclude
     private Department department;
 
     /**
@@ -144,12 +177,13 @@ public class User {
     /**
      * 用户角色关联
      */
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "sys_user_role",
             joinColumns = @JoinColumn(name = "user_id"),
             inverseJoinColumns = @JoinColumn(name = "role_id")
     )
+    @ToString.Exclude
     private Set<Role> roles = new HashSet<>();
 
     /**
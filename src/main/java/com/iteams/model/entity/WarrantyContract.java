@@ -23,7 +23,11 @@ import java.util.Objects;
 @ToString
 @RequiredArgsConstructor
 @Entity
-@Table(name = "warranty_contract")
+@Table(name = "warranty_contract",
+    indexes = {
+        @Index(name = "idx_warranty_active_end", columnList = "is_active, end_date"),
+        @Index(name = "idx_warranty_asset_time", columnList = "asset_id, created_at, warranty_id")
+    })
 public class WarrantyContract {
 
     /**
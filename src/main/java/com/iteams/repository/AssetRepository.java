@@ -2,6 +2,7 @@ package com.iteams.repository;
 
 import com.iteams.model.entity.AssetMaster;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -89,7 +90,10 @@ public interface AssetRepository extends JpaRepository<AssetMaster, Long> {
      * 
      * @param locationPath 位置路径的部分或全部，如"华东数据中心"
      * @return 位置匹配的资产列表
+     * @deprecated 前后模糊匹配需要全表扫描且不分页，按数据中心、机房、机柜查询请使用
+     *             {@link com.iteams.service.LocationIndexService#getAssets}
      */
+    @Deprecated
     @Query(value = "SELECT a.* FROM asset_master a INNER JOIN space_timeline s ON a.space_id = s.space_id " +
             "WHERE s.location_path LIKE %?1% AND s.is_current = 1", nativeQuery = true)
     List<AssetMaster> findByLocationPathContaining(String locationPath);
@@ -97,35 +101,83 @@ public interface AssetRepository extends JpaRepository<AssetMaster, Long> {
     /**
      * 统计指定一级分类下的资产数量
      * <p>
-     * 通过JSON提取函数从category_hierarchy字段获取一级分类ID，
-     * 并统计该分类下的资产总数。用于分类统计和报表生成。
+     * 按category_l1_id列过滤，只扫描分类索引。用于分类统计和报表生成。
      * </p>
      * 
      * @param categoryId 一级分类ID
      * @return 该分类下的资产数量
      */
-    @Query("SELECT COUNT(a) FROM AssetMaster a WHERE CAST(json_extract(a.categoryHierarchy, '$.l1') AS integer) = ?1")
+    @Query("SELECT COUNT(a) FROM AssetMaster a WHERE a.categoryL1Id = ?1")
     Long countByTopCategory(Long categoryId);
 
+    /**
+     * 按一级分类统计资产数量
+     *
+     * @return [一级分类ID, 资产数量]
+     */
+    @Query("SELECT a.categoryL1Id, COUNT(a) FROM AssetMaster a WHERE a.categoryL1Id IS NOT NULL GROUP BY a.categoryL1Id")
+    List<Object[]> countGroupByTopCategory();
+
+    /**
+     * 按二级分类统计指定一级分类下的资产数量
+     *
+     * @param level1Id 一级分类ID
+     * @return [二级分类ID, 资产数量]
+     */
+    @Query("SELECT a.categoryL2Id, COUNT(a) FROM AssetMaster a " +
+           "WHERE a.categoryL1Id = ?1 AND a.categoryL2Id IS NOT NULL GROUP BY a.categoryL2Id")
+    List<Object[]> countGroupBySecondCategory(Long level1Id);
+
+    /**
+     * 按三级分类统计指定二级分类下的资产数量
+     *
+     * @param level1Id 一级分类ID
+     * @param level2Id 二级分类ID
+     * @return [三级分类ID, 资产数量]
+     */
+    @Query("SELECT a.categoryL3Id, COUNT(a) FROM AssetMaster a " +
+           "WHERE a.categoryL1Id = ?1 AND a.categoryL2Id = ?2 AND a.categoryL3Id IS NOT NULL GROUP BY a.categoryL3Id")
+    List<Object[]> countGroupByThirdCategory(Long level1Id, Long level2Id);
+
+    /**
+     * 按category_hierarchy中的分类名称补齐分类ID列
+     * <p>
+     * 只处理尚未设置一级分类ID的资产，二、三级分类按父分类和名称匹配，匹配不到时保持为null
+     * </p>
+     *
+     * @return 更新的资产数
+     */
+    @Modifying
+    @Query(value = "UPDATE asset_master a " +
+            "INNER JOIN category_metadata c1 ON c1.level = 1 " +
+            "AND c1.name = JSON_UNQUOTE(JSON_EXTRACT(a.category_hierarchy, '$.l1')) " +
+            "LEFT JOIN category_metadata c2 ON c2.level = 2 AND c2.parent_id = c1.category_id " +
+            "AND c2.name = JSON_UNQUOTE(JSON_EXTRACT(a.category_hierarchy, '$.l2')) " +
+            "LEFT JOIN category_metadata c3 ON c3.level = 3 AND c3.parent_id = c2.category_id " +
+            "AND c3.name = JSON_UNQUOTE(JSON_EXTRACT(a.category_hierarchy, '$.l3')) " +
+            "SET a.category_l1_id = c1.category_id, a.category_l2_id = c2.category_id, a.category_l3_id = c3.category_id " +
+            "WHERE a.category_l1_id IS NULL AND a.category_hierarchy IS NOT NULL", nativeQuery = true)
+    int fillCategoryIds();
+
     /**
      * 获取指定类别和部门下的最大序列号
      * <p>
-     * 该方法通过JPQL查询获取特定类别和部门代码的资产中最大的序列号，
-     * 主要用于生成新资产编号时确定序列号部分的值。
+     * 按{@link com.iteams.util.UuidGenerator#formatAssetNo}的格式（分类码+部门码+年月+序列号）
+     * 前缀匹配资产编号，提取序列号部分并返回最大值。如果没有匹配的资产，则返回0。
      * </p>
      * <p>
-     * 查询会分析满足特定格式的资产编号，提取其中的序列号部分并返回最大值。
-     * 如果没有匹配的资产，则返回0。
+     * 该查询需要扫描前缀下的全部编号，只在资产编号序列首次建立时用于确定起始值，
+     * 日常分配由{@link com.iteams.service.AssetNumberAllocator}完成。
      * </p>
      *
-     * @param categoryCode 资产类别代码，如"COMPUTER"、"SERVER"等
-     * @param departmentCode 部门代码，如"IT"、"HR"等
-     * @param yearMonth 年月，格式为"YYYYMM"
+     * @param categoryCode 资产类别代码
+     * @param departmentCode 部门代码
+     * @param yearMonth 年月，格式为"yyMM"
      * @return 最大序列号，如果没有匹配的资产则返回0
      */
-    @Query("SELECT COALESCE(MAX(CAST(SUBSTRING(a.assetNo, LENGTH(:categoryCode) + LENGTH(:departmentCode) + LENGTH(:yearMonth) + 4) AS LONG)), 0) " +
+    @Query("SELECT COALESCE(MAX(CAST(SUBSTRING(a.assetNo, LENGTH(:categoryCode) + LENGTH(:departmentCode) + LENGTH(:yearMonth) + 1) AS LONG)), 0) " +
            "FROM AssetMaster a " +
-           "WHERE a.assetNo LIKE CONCAT(:categoryCode, '-', :departmentCode, '-', :yearMonth, '-%')")
+           "WHERE a.assetNo LIKE CONCAT(:categoryCode, :departmentCode, :yearMonth, '%')")
     Long findMaxSequenceByCategoryAndDepartment(
             @Param("categoryCode") String categoryCode,
             @Param("departmentCode") String departmentCode,
@@ -49,22 +49,25 @@ public interface CategoryRepository extends JpaRepository<CategoryMetadata, Long
      * <p>
      * 分类路径是从根节点到当前节点的完整路径，格式为"根分类/二级分类/三级分类"。
      * 路径在整个分类体系中必须唯一，用于Excel导入时验证分类的有效性。
+     * 完整路径随分类一起持久化，查询直接命中full_path索引。
      * </p>
      *
      * @param path 分类路径，格式为"根分类/二级分类/三级分类"，不可为null
      * @return 包含分类信息的Optional对象，如果未找到则为empty
      */
-    @Query(value = "WITH RECURSIVE category_path AS (" +
-           "SELECT c.category_id, c.name, c.level, CAST(c.name AS CHAR(255)) AS path " +
-           "FROM category_metadata c WHERE c.parent_id IS NULL " +
-           "UNION ALL " +
-           "SELECT c.category_id, c.name, c.level, CONCAT(cp.path, '/', c.name) " +
-           "FROM category_metadata c JOIN category_path cp ON c.parent_id = cp.category_id" +
-           ") " +
-           "SELECT c.* FROM category_metadata c JOIN category_path cp ON c.category_id = cp.category_id " +
-           "WHERE cp.path = ?1 LIMIT 1", nativeQuery = true)
-    Optional<CategoryMetadata> findByPath(String path);
-    
+    Optional<CategoryMetadata> findFirstByFullPathOrderByCategoryIdAsc(String path);
+
+    /**
+     * 根据分类路径查询分类信息
+     *
+     * @param path 分类路径
+     * @return 包含分类信息的Optional对象，如果未找到则为empty
+     * @see #findFirstByFullPathOrderByCategoryIdAsc(String)
+     */
+    default Optional<CategoryMetadata> findByPath(String path) {
+        return findFirstByFullPathOrderByCategoryIdAsc(path);
+    }
+
     /**
      * 查询指定父节点的所有直接子分类
      * <p>
@@ -94,22 +97,15 @@ public interface CategoryRepository extends JpaRepository<CategoryMetadata, Long
      * 验证分类路径是否有效
      * <p>
      * 该方法根据分类的完整路径检查是否存在匹配的分类。
-     * 使用动态生成的fullPath进行比较，而不是直接存储的属性。
+     * 使用持久化的完整路径进行比较，命中full_path索引。
      * </p>
      *
      * @param path 待验证的分类路径
-     * @return 路径存在返回1，否则返回0
+     * @return 匹配的分类数量，路径不存在时为0
      */
-    @Query(value = "WITH RECURSIVE category_path AS (" +
-           "SELECT c.category_id, c.name, c.level, CAST(c.name AS CHAR(255)) AS path " +
-           "FROM category_metadata c WHERE c.parent_id IS NULL " +
-           "UNION ALL " +
-           "SELECT c.category_id, c.name, c.level, CONCAT(cp.path, '/', c.name) " +
-           "FROM category_metadata c JOIN category_path cp ON c.parent_id = cp.category_id" +
-           ") " +
-           "SELECT COUNT(*) FROM category_path WHERE path = ?1", nativeQuery = true)
+    @Query("SELECT COUNT(c) FROM CategoryMetadata c WHERE c.fullPath = ?1")
     Integer validatePath(String path);
-    
+
     /**
      * 查询指定父分类下的所有子分类
      * <p>
@@ -162,4 +158,19 @@ public interface CategoryRepository extends JpaRepository<CategoryMetadata, Long
      * @return 包含分类信息的Optional对象，如果不存在则为empty
      */
     Optional<CategoryMetadata> findByNameAndLevel(String name, Byte level);
-} 
\ No newline at end of file
+
+    /**
+     * 根据名称、级别和父分类查询分类
+     * <p>
+     * 二、三级分类的名称只在同一父分类下唯一，不同父分类下可以有同名分类，
+     * 查找子分类时必须带上父分类ID
+     * </p>
+     *
+     * @param name 分类名称
+     * @param level 分类级别，2-二级，3-三级
+     * @param parentId 父分类ID
+     * @return 包含分类信息的Optional对象，如果不存在则为empty
+     */
+    Optional<CategoryMetadata> findFirstByNameAndLevelAndParentCategoryIdOrderByCategoryIdAsc(String name, Byte level, Long parentId);
+
+}
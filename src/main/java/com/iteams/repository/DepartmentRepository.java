@@ -4,6 +4,7 @@ import com.iteams.model.entity.Department;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -99,4 +100,19 @@ public interface DepartmentRepository extends JpaRepository<Department, Long> {
             @Param("code") String code,
             @Param("enabled") Boolean enabled,
             Pageable pageable);
+
+    /**
+     * 移动子树：把路径前缀从旧路径替换为新路径，级别按深度变化量同步调整
+     *
+     * @param oldPath 子树根部门的旧物化路径
+     * @param newPath 子树根部门的新物化路径
+     * @param levelDelta 级别变化量（新深度减旧深度）
+     * @return 更新的部门数
+     */
+    @Modifying
+    @Query("UPDATE Department d SET d.treePath = CONCAT(:newPath, SUBSTRING(d.treePath, LENGTH(:oldPath) + 1)), " +
+            "d.level = d.level + :levelDelta " +
+            "WHERE d.treePath LIKE CONCAT(:oldPath, '%')")
+    int moveSubtree(@Param("oldPath") String oldPath, @Param("newPath") String newPath,
+                    @Param("levelDelta") int levelDelta);
 }
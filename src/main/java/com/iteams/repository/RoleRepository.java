@@ -3,11 +3,13 @@ package com.iteams.repository;
 import com.iteams.model.entity.Role;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,6 +29,14 @@ public interface RoleRepository extends JpaRepository<Role, Long> {
      */
     Optional<Role> findByCode(String code);
 
+    /**
+     * 根据角色编码批量查找角色
+     *
+     * @param codes 角色编码
+     * @return 角色列表
+     */
+    List<Role> findByCodeIn(Collection<String> codes);
+
     /**
      * 检查角色编码是否存在
      *
@@ -46,11 +56,21 @@ public interface RoleRepository extends JpaRepository<Role, Long> {
     Page<Role> findByConditions(@Param("name") String name, Pageable pageable);
 
     /**
-     * 查询所有角色（不分页）
+     * 查询所有角色（不分页），同时加载权限
      *
      * @return 角色列表
      */
     @Override
     @NonNull
+    @EntityGraph(Role.GRAPH_PERMISSIONS)
     List<Role> findAll();
+
+    /**
+     * 根据ID查找角色，同时加载权限
+     *
+     * @param id 角色ID
+     * @return 角色
+     */
+    @EntityGraph(Role.GRAPH_PERMISSIONS)
+    Optional<Role> findWithPermissionsById(Long id);
 } 
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.iteams.repository;
+
+import com.iteams.model.entity.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 令牌吊销记录数据访问接口
+ */
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    /**
+     * 根据类型和吊销键查找记录
+     *
+     * @param revocationType 吊销类型
+     * @param tokenKey 吊销键
+     * @return 吊销记录
+     */
+    Optional<TokenRevocation> findByRevocationTypeAndTokenKey(TokenRevocation.RevocationType revocationType, String tokenKey);
+
+    /**
+     * 根据类型和一组吊销键查找记录
+     *
+     * @param revocationType 吊销类型
+     * @param tokenKeys 吊销键
+     * @return 吊销记录
+     */
+    List<TokenRevocation> findByRevocationTypeAndTokenKeyIn(TokenRevocation.RevocationType revocationType,
+                                                            Collection<String> tokenKeys);
+
+    /**
+     * 查询仍在有效期内的吊销记录，用于启动时恢复内存吊销表
+     *
+     * @param now 当前时间
+     * @return 未过期的吊销记录
+     */
+    List<TokenRevocation> findByExpiresAtAfter(LocalDateTime now);
+
+    /**
+     * 删除已过期的吊销记录
+     *
+     * @param now 当前时间
+     * @return 删除数量
+     */
+    @Modifying
+    @Query("DELETE FROM TokenRevocation t WHERE t.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
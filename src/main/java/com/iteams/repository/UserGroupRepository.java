@@ -1,5 +1,6 @@
 package com.iteams.repository;
 
+import com.iteams.model.dto.UserGroupSummary;
 import com.iteams.model.entity.UserGroup;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -75,4 +76,44 @@ public interface UserGroupRepository extends JpaRepository<UserGroup, Long> {
             @Param("code") String code,
             @Param("enabled") Boolean enabled,
             Pageable pageable);
+
+    /**
+     * 根据名称、代码和启用状态分页查询用户组摘要，成员数量在同一条SQL中分组统计
+     *
+     * @param name 用户组名称（模糊查询）
+     * @param code 用户组代码（模糊查询）
+     * @param enabled 启用状态
+     * @param pageable 分页参数
+     * @return 用户组摘要分页结果
+     */
+    @Query(value = "SELECT new com.iteams.model.dto.UserGroupSummary(" +
+            "g.id, g.name, g.code, g.description, g.enabled, g.createdAt, g.updatedAt, COUNT(u.id)) " +
+            "FROM UserGroup g LEFT JOIN g.users u WHERE " +
+            "(:name IS NULL OR g.name LIKE %:name%) AND " +
+            "(:code IS NULL OR g.code LIKE %:code%) AND " +
+            "(:enabled IS NULL OR g.enabled = :enabled) " +
+            "GROUP BY g.id, g.name, g.code, g.description, g.enabled, g.createdAt, g.updatedAt",
+            countQuery = "SELECT COUNT(g) FROM UserGroup g WHERE " +
+            "(:name IS NULL OR g.name LIKE %:name%) AND " +
+            "(:code IS NULL OR g.code LIKE %:code%) AND " +
+            "(:enabled IS NULL OR g.enabled = :enabled)")
+    Page<UserGroupSummary> findSummaries(
+            @Param("name") String name,
+            @Param("code") String code,
+            @Param("enabled") Boolean enabled,
+            Pageable pageable);
+
+    /**
+     * 查询全部用户组摘要，成员数量在同一条SQL中分组统计
+     *
+     * @param enabled 启用状态，为null时不过滤
+     * @return 用户组摘要列表
+     */
+    @Query("SELECT new com.iteams.model.dto.UserGroupSummary(" +
+            "g.id, g.name, g.code, g.description, g.enabled, g.createdAt, g.updatedAt, COUNT(u.id)) " +
+            "FROM UserGroup g LEFT JOIN g.users u WHERE " +
+            "(:enabled IS NULL OR g.enabled = :enabled) " +
+            "GROUP BY g.id, g.name, g.code, g.description, g.enabled, g.createdAt, g.updatedAt " +
+            "ORDER BY g.id")
+    List<UserGroupSummary> findAllSummaries(@Param("enabled") Boolean enabled);
 }
@@ -1,13 +1,20 @@
 package com.iteams.repository;
 
+import com.iteams.model.dto.UserDirectoryEntry;
+import com.iteams.model.dto.UserListRow;
 import com.iteams.model.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +32,73 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByUsername(String username);
 
+    /**
+     * 根据用户名查找用户，同时加载角色及角色权限（认证主体）
+     *
+     * @param username 用户名
+     * @return 用户
+     */
+    @EntityGraph(User.GRAPH_AUTH_PRINCIPAL)
+    Optional<User> findWithAuthoritiesByUsername(String username);
+
+    /**
+     * 根据ID查找用户，同时加载角色及角色权限
+     *
+     * @param id 用户ID
+     * @return 用户
+     */
+    @EntityGraph(User.GRAPH_AUTH_PRINCIPAL)
+    Optional<User> findWithAuthoritiesById(Long id);
+
+    /**
+     * 记录登录成功：更新最后登录时间，清零失败次数并解除锁定，在独立的短事务中执行
+     *
+     * @param id 用户ID
+     * @param loginTime 登录时间
+     * @return 更新行数
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.lastLoginTime = :loginTime, u.loginFailCount = 0, " +
+            "u.accountNonLocked = true, u.lockTime = null WHERE u.id = :id")
+    int recordLoginSuccess(@Param("id") Long id, @Param("loginTime") LocalDateTime loginTime);
+
+    /**
+     * 根据用户名查找用户，同时加载角色
+     *
+     * @param username 用户名
+     * @return 用户
+     */
+    @EntityGraph(User.GRAPH_ROLES)
+    Optional<User> findWithRolesByUsername(String username);
+
+    /**
+     * 根据ID查找用户，同时加载角色
+     *
+     * @param id 用户ID
+     * @return 用户
+     */
+    @EntityGraph(User.GRAPH_ROLES)
+    Optional<User> findWithRolesById(Long id);
+
+    /**
+     * 根据ID查找用户，同时加载部门、角色和用户组（用户详情）
+     *
+     * @param id 用户ID
+     * @return 用户
+     */
+    @EntityGraph(User.GRAPH_DETAIL)
+    Optional<User> findDetailById(Long id);
+
+    /**
+     * 查询已存在的用户名
+     *
+     * @param usernames 用户名
+     * @return 其中已存在的用户名
+     */
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
     /**
      * 检查用户名是否存在
      *
@@ -61,6 +135,91 @@ public interface UserRepository extends JpaRepository<User, Long> {
             Pageable pageable);
     
 
+    /**
+     * 分页查询用户列表行（带条件）
+     * <p>
+     * 直接构造投影行，不加载实体；匹配模式由调用方生成（见{@link com.iteams.util.LikePattern}），
+     * 前缀模式可以使用用户名、姓名列上的索引
+     * </p>
+     *
+     * @param username 用户名匹配模式
+     * @param realName 姓名匹配模式
+     * @param departmentId 部门ID
+     * @param pageable 分页参数
+     * @return 用户列表行分页
+     */
+    @Query(value = "SELECT new com.iteams.model.dto.UserListRow(u.id, u.username, u.realName, u.email, u.phone, " +
+            "u.avatarUrl, d.id, d.name, u.enabled, u.accountNonLocked, u.requirePasswordChange) " +
+            "FROM User u LEFT JOIN u.department d WHERE " +
+            "(:username IS NULL OR u.username LIKE :username ESCAPE '!') AND " +
+            "(:realName IS NULL OR u.realName LIKE :realName ESCAPE '!') AND " +
+            "(:departmentId IS NULL OR u.department.id = :departmentId)",
+            countQuery = "SELECT COUNT(u) FROM User u WHERE " +
+                    "(:username IS NULL OR u.username LIKE :username ESCAPE '!') AND " +
+                    "(:realName IS NULL OR u.realName LIKE :realName ESCAPE '!') AND " +
+                    "(:departmentId IS NULL OR u.department.id = :departmentId)")
+    Page<UserListRow> findListRows(
+            @Param("username") String username,
+            @Param("realName") String realName,
+            @Param("departmentId") Long departmentId,
+            Pageable pageable);
+
+    /**
+     * 分页查询部门子树（含子部门）下的用户列表行
+     * <p>
+     * 按物化路径前缀匹配，部门表上是一次tree_path索引范围扫描，不需要递归查询子部门
+     * </p>
+     *
+     * @param treePath 子树根部门的物化路径
+     * @param pageable 分页参数
+     * @return 用户列表行分页
+     */
+    @Query(value = "SELECT new com.iteams.model.dto.UserListRow(u.id, u.username, u.realName, u.email, u.phone, " +
+            "u.avatarUrl, d.id, d.name, u.enabled, u.accountNonLocked, u.requirePasswordChange) " +
+            "FROM User u JOIN u.department d WHERE d.treePath LIKE CONCAT(:treePath, '%')",
+            countQuery = "SELECT COUNT(u) FROM User u JOIN u.department d WHERE d.treePath LIKE CONCAT(:treePath, '%')")
+    Page<UserListRow> findListRowsByDepartmentSubtree(@Param("treePath") String treePath, Pageable pageable);
+
+    /**
+     * 批量查询用户的角色编码
+     *
+     * @param userIds 用户ID
+     * @return [用户ID, 角色编码]列表
+     */
+    @Query("SELECT u.id, r.code FROM User u JOIN u.roles r WHERE u.id IN :userIds")
+    List<Object[]> findRoleCodesByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 批量查询用户所属的用户组
+     *
+     * @param userIds 用户ID
+     * @return [用户ID, 用户组ID, 用户组名称]列表
+     */
+    @Query("SELECT u.id, g.id, g.name FROM User u JOIN u.groups g WHERE u.id IN :userIds")
+    List<Object[]> findGroupsByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 查询全部用户的目录条目
+     *
+     * @return 用户目录条目列表
+     */
+    @Query("SELECT new com.iteams.model.dto.UserDirectoryEntry(u.id, u.username, u.realName, d.name, u.enabled) " +
+            "FROM User u LEFT JOIN u.department d")
+    List<UserDirectoryEntry> findDirectoryEntries();
+
+    /**
+     * 按用户名或姓名前缀查询用户目录条目
+     *
+     * @param pattern 前缀匹配模式
+     * @param pageable 分页参数（用于限制数量）
+     * @return 用户目录条目列表
+     */
+    @Query("SELECT new com.iteams.model.dto.UserDirectoryEntry(u.id, u.username, u.realName, d.name, u.enabled) " +
+            "FROM User u LEFT JOIN u.department d " +
+            "WHERE u.username LIKE :pattern ESCAPE '!' OR u.realName LIKE :pattern ESCAPE '!' " +
+            "ORDER BY u.username")
+    List<UserDirectoryEntry> findDirectoryEntriesByPrefix(@Param("pattern") String pattern, Pageable pageable);
+
     /**
      * 根据部门ID统计用户数量
      *
@@ -68,6 +227,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return 用户数量
      */
     long countByDepartmentId(Long departmentId);
+
+    /**
+     * 按部门分组统计用户数量
+     *
+     * @return [部门ID, 用户数量]列表，不含没有用户的部门
+     */
+    @Query("SELECT u.department.id, COUNT(u) FROM User u WHERE u.department IS NOT NULL GROUP BY u.department.id")
+    List<Object[]> countGroupByDepartmentId();
     
     /**
      * 根据用户组ID查找用户列表
@@ -86,4 +253,34 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     @Query("SELECT COUNT(u) FROM User u JOIN u.groups g WHERE g.id = :groupId")
     long countByGroupId(@Param("groupId") Long groupId);
-}
\ No newline at end of file
+
+    /**
+     * 根据用户名查询用户ID
+     *
+     * @param username 用户名
+     * @return 用户ID
+     */
+    @Query("SELECT u.id FROM User u WHERE u.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
+    /**
+     * 查询用户的角色及角色包含的权限编码
+     * <p>
+     * 每行为[角色ID, 角色编码, 权限编码]，角色没有权限时权限编码为null
+     * </p>
+     *
+     * @param userId 用户ID
+     * @return 角色与权限编码
+     */
+    @Query("SELECT r.id, r.code, p.code FROM User u JOIN u.roles r LEFT JOIN r.permissions p WHERE u.id = :userId")
+    List<Object[]> findRolePermissionRowsByUserId(@Param("userId") Long userId);
+
+    /**
+     * 查询用户的角色ID
+     *
+     * @param userId 用户ID
+     * @return 角色ID
+     */
+    @Query("SELECT r.id FROM User u JOIN u.roles r WHERE u.id = :userId")
+    List<Long> findRoleIdsByUserId(@Param("userId") Long userId);
+}
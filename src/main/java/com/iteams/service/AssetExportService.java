@@ -0,0 +1,36 @@
+package com.iteams.service;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * 资产导出服务接口
+ * <p>
+ * 导出完整的资产台账：资产主表及其当前空间位置和有效维保合约，
+ * 逐行从数据库游标读取并直接写入响应，内存占用与资产数量无关
+ * </p>
+ */
+public interface AssetExportService {
+
+    /**
+     * 导出格式
+     */
+    enum Format {
+        /**
+         * Excel 2007+工作簿
+         */
+        XLSX,
+        /**
+         * UTF-8编码的CSV
+         */
+        CSV
+    }
+
+    /**
+     * 导出资产台账
+     *
+     * @param format 导出格式
+     * @param gzip 是否用gzip压缩输出文件
+     * @param response HTTP响应对象
+     */
+    void exportAssets(Format format, boolean gzip, HttpServletResponse response);
+}
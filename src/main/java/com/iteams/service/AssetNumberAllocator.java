@@ -0,0 +1,29 @@
+package com.iteams.service;
+
+/**
+ * 资产编号分配器接口
+ * <p>
+ * 按（分类码、部门码、年月）分别维护序列，多节点并发分配不会重复
+ * </p>
+ */
+public interface AssetNumberAllocator {
+
+    /**
+     * 分配当前年月的下一个资产编号
+     *
+     * @param categoryCode 分类码
+     * @param departmentCode 部门码
+     * @return 资产编号，格式见{@link com.iteams.util.UuidGenerator#formatAssetNo}
+     */
+    String nextAssetNo(String categoryCode, String departmentCode);
+
+    /**
+     * 分配指定年月的下一个序列号
+     *
+     * @param categoryCode 分类码
+     * @param departmentCode 部门码
+     * @param yearMonth 年月，格式为"yyMM"
+     * @return 序列号，从1开始
+     */
+    long nextSequence(String categoryCode, String departmentCode, String yearMonth);
+}
@@ -0,0 +1,62 @@
+package com.iteams.service;
+
+import com.iteams.model.dto.AssetStateDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 资产历史状态服务接口
+ * <p>
+ * 定期为全部资产写入状态快照，并按状态汇总资产数量。查询历史某一时刻的资产状态时从该时刻前后最近的一次快照开始，
+ * 只回放两者之间的状态变更、空间迁移和维保合约，回放量与一个快照间隔内的变化数量有关，与历史总长度无关
+ * </p>
+ */
+public interface AssetSnapshotService {
+
+    /**
+     * 为全部资产写入当前状态快照，并写入按状态汇总的资产数量
+     *
+     * @return 写入的快照数量
+     */
+    int takeSnapshot();
+
+    /**
+     * 尚无状态汇总时（首次部署或升级后）写入一次快照
+     *
+     * @return 是否写入了快照
+     */
+    boolean takeSnapshotIfEmpty();
+
+    /**
+     * 查询单个资产在指定时刻的状态
+     *
+     * @param assetId 资产ID
+     * @param at 时刻
+     * @return 资产状态
+     * @throws com.iteams.exception.ResourceNotFoundException 资产不存在或在该时刻尚未创建时抛出
+     */
+    AssetStateDTO getAssetState(Long assetId, LocalDateTime at);
+
+    /**
+     * 按资产ID分页查询指定时刻的资产台账
+     *
+     * @param at 时刻
+     * @param afterAssetId 上一页最后一个资产ID，第一页为null
+     * @param limit 每页资产数量
+     * @return 该时刻已创建的资产及其状态，按资产ID排序
+     */
+    List<AssetStateDTO> getInventory(LocalDateTime at, Long afterAssetId, int limit);
+
+    /**
+     * 统计指定时刻各资产状态的资产数量
+     * <p>
+     * 以不晚于该时刻的最近一次快照的汇总为基础，只重建这之后有变更或新建的资产
+     * </p>
+     *
+     * @param at 时刻
+     * @return 键为状态枚举名，值为资产数量
+     */
+    Map<String, Long> countByStatus(LocalDateTime at);
+}
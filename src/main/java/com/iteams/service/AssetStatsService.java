@@ -0,0 +1,71 @@
+package com.iteams.service;
+
+import com.iteams.model.dto.AssetStatsDTO;
+import com.iteams.model.entity.AssetMaster;
+import com.iteams.model.entity.WarrantyContract;
+
+import java.time.LocalDate;
+
+/**
+ * 资产统计服务接口
+ * <p>
+ * 按资产状态、一级分类、数据中心、机房和维保到期时间统计资产数量。
+ * 统计结果来自增量维护的计数器，查询耗时与资产总数无关。
+ * 多个资产共享的维保合约到期日变化时，按引用该合约的资产数量调整到期计数。
+ * 目前没有删除资产的入口，资产删除不调整计数，由定时重算兜底
+ * </p>
+ */
+public interface AssetStatsService {
+
+    /**
+     * 获取资产统计汇总
+     *
+     * @return 统计汇总
+     */
+    AssetStatsDTO getStats();
+
+    /**
+     * 资产新增后累加其各维度的计数
+     * <p>
+     * 资产的当前空间记录和维保合约需已设置；在事务中调用时随事务提交写入
+     * </p>
+     *
+     * @param asset 已保存的资产
+     */
+    void recordAdded(AssetMaster asset);
+
+    /**
+     * 维保合约的到期日或生效状态变化后，调整引用该合约的全部资产的到期计数
+     * <p>
+     * 在合约更新后、本次新引用该合约的资产保存前调用，新资产由{@link #recordAdded(AssetMaster)}计入
+     * </p>
+     *
+     * @param warranty 已更新的维保合约
+     * @param previousActive 变化前是否生效
+     * @param previousEndDate 变化前的到期日
+     */
+    void recordWarrantyChanged(WarrantyContract warranty, Boolean previousActive, LocalDate previousEndDate);
+
+    /**
+     * 调整单个计数器，用于资产某个维度的取值发生变化（如位置迁移、状态变更）
+     *
+     * @param dimension 统计维度，见{@link com.iteams.model.entity.AssetStatCounter}中的常量
+     * @param key 维度取值
+     * @param delta 变化量
+     */
+    void adjust(String dimension, String key, long delta);
+
+    /**
+     * 按明细数据重算全部计数器
+     *
+     * @return 计数器数量
+     */
+    int rebuild();
+
+    /**
+     * 计数器表为空时（首次部署或升级后）按明细数据重算
+     *
+     * @return 是否执行了重算
+     */
+    boolean rebuildIfEmpty();
+}
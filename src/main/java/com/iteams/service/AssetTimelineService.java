@@ -0,0 +1,26 @@
+package com.iteams.service;
+
+import com.iteams.model.dto.AssetTimelinePage;
+
+import java.util.Collection;
+
+/**
+ * 资产履历服务接口
+ * <p>
+ * 把变更溯源、空间轨迹和维保合约合并为按时间从新到旧排列的一条履历，
+ * 支持单个资产或一批资产，使用游标分页
+ * </p>
+ */
+public interface AssetTimelineService {
+
+    /**
+     * 查询一批资产的合并履历
+     *
+     * @param assetIds 资产ID
+     * @param cursor 上一页返回的游标，第一页为null
+     * @param limit 每页记录数
+     * @return 一页记录和下一页的游标
+     * @throws com.iteams.exception.BusinessException 资产数量、每页记录数超出范围或游标无效时抛出
+     */
+    AssetTimelinePage getTimeline(Collection<Long> assetIds, String cursor, int limit);
+}
@@ -26,6 +26,11 @@ public interface AuthService {
 
     /**
      * 用户登出
+     * <p>
+     * 吊销本次登出使用的令牌，令牌在剩余有效期内不能再访问接口
+     * </p>
+     *
+     * @param token 当前请求携带的JWT令牌，可为null
      */
-    void logout();
+    void logout(String token);
 }
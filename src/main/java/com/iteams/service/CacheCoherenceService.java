@@ -0,0 +1,49 @@
+package com.iteams.service;
+
+import com.iteams.model.dto.CacheInvalidationMessage;
+
+import java.util.List;
+
+/**
+ * 跨节点缓存一致性服务接口
+ * <p>
+ * 本地缓存仍由各节点独立持有，读取不经过网络；数据变更的节点在本地失效后，
+ * 通过本服务把失效消息广播给其他节点，其他节点在一个轮询周期内完成同样的失效
+ * </p>
+ */
+public interface CacheCoherenceService {
+
+    /**
+     * 广播单个键的失效，调用方负责本地失效，并应在事务提交后调用
+     *
+     * @param cacheName 缓存名称
+     * @param key 缓存键
+     */
+    void publishEvict(String cacheName, Object key);
+
+    /**
+     * 广播整个缓存的清空，调用方负责本地清空，并应在事务提交后调用
+     *
+     * @param cacheName 缓存名称
+     */
+    void publishClear(String cacheName);
+
+    /**
+     * 应用其他节点发来的失效消息，自己发出的消息会被跳过
+     *
+     * @param messages 失效消息
+     */
+    void apply(List<CacheInvalidationMessage> messages);
+
+    /**
+     * 清空本地全部缓存，用于与其他节点失联过久、无法确认错过了哪些消息时
+     */
+    void resync();
+
+    /**
+     * 获取当前节点ID
+     *
+     * @return 节点ID
+     */
+    String getNodeId();
+}
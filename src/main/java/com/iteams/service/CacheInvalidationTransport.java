@@ -0,0 +1,23 @@
+package com.iteams.service;
+
+import com.iteams.model.dto.CacheInvalidationMessage;
+
+import java.util.List;
+
+/**
+ * 缓存失效消息传输通道
+ * <p>
+ * 默认实现为数据库变更日志表轮询（iteams.cache.coherence.transport=db）。
+ * 接入消息中间件时，实现本接口负责发送，并在收到消息后调用
+ * {@link CacheCoherenceService#apply(List)}，同时将transport配置为其他取值以停用默认实现。
+ * </p>
+ */
+public interface CacheInvalidationTransport {
+
+    /**
+     * 发送失效消息，实现可以缓冲后批量发送，但不能阻塞调用线程等待其他节点
+     *
+     * @param messages 失效消息
+     */
+    void send(List<CacheInvalidationMessage> messages);
+}
@@ -1,5 +1,9 @@
 package com.iteams.service;
 
+import com.iteams.model.dto.CategoryAssetCountDTO;
+
+import java.util.List;
+
 /**
  * 分类服务接口
  * <p>
@@ -61,4 +65,25 @@ public interface CategoryService {
      * @throws IllegalArgumentException 如果任何参数为null或空字符串
      */
     boolean validateCategoryPathByName(String level1Name, String level2Name, String level3Name);
+
+    /**
+     * 统计指定分类的各个直接子分类下的资产数量
+     * <p>
+     * 按资产主表上的分类ID列分组统计，只扫描分类索引，不解析分类JSON。
+     * 不传父分类时按一级分类统计；三级分类没有子分类，返回空列表。
+     * 没有资产的子分类不出现在结果中。
+     * </p>
+     *
+     * @param parentId 父分类ID，为null时统计一级分类
+     * @return 子分类资产数量，按资产数量降序
+     * @throws com.iteams.exception.ResourceNotFoundException 父分类不存在时抛出
+     */
+    List<CategoryAssetCountDTO> getAssetCounts(Long parentId);
+
+    /**
+     * 为尚未设置分类ID列的资产按分类名称补齐分类ID
+     *
+     * @return 更新的资产数
+     */
+    int fillAssetCategoryIds();
 } 
\ No newline at end of file
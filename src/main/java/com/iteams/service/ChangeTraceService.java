@@ -29,6 +29,9 @@ import com.iteams.model.entity.ChangeTrace;
  *   <li>INITIAL: 初始化</li>
  * </ul>
  * </p>
+ * <p>
+ * 本服务逐条保存并返回生成的trace_id；导入等批量场景使用{@link ChangeTraceWriter}缓冲后批量写入。
+ * </p>
  */
 public interface ChangeTraceService {
 
@@ -0,0 +1,28 @@
+package com.iteams.service;
+
+import com.iteams.model.entity.ChangeTrace;
+
+/**
+ * 变更记录批量写入接口
+ * <p>
+ * 导入等批量场景使用，变更记录不逐条保存：存在事务时在提交前与业务数据一起写入，
+ * 事务外的变更记录缓冲后批量写入
+ * </p>
+ */
+public interface ChangeTraceWriter {
+
+    /**
+     * 提交变更记录，不立即写入数据库
+     *
+     * @param changeTrace 变更记录，需包含资产、变更类型和变更内容
+     * @throws IllegalArgumentException 变更类型或变更内容为空时抛出
+     */
+    void append(ChangeTrace changeTrace);
+
+    /**
+     * 写入事务外缓冲的变更记录
+     *
+     * @return 写入数量
+     */
+    int flush();
+}
@@ -0,0 +1,19 @@
+package com.iteams.service;
+
+/**
+ * 用户组成员计数服务接口
+ * <p>
+ * 按用户组缓存成员数量，避免为了取数量而加载整个成员集合；
+ * 计数只在读取未命中时从数据库统计，成员变更提交后失效，列表查询不回写计数
+ * </p>
+ */
+public interface GroupMemberCountService {
+
+    /**
+     * 获取用户组成员数量，缓存未命中时执行一次计数查询
+     *
+     * @param groupId 用户组ID
+     * @return 成员数量
+     */
+    int getMemberCount(Long groupId);
+}
@@ -0,0 +1,47 @@
+package com.iteams.service;
+
+import com.iteams.model.entity.CategoryMetadata;
+import com.iteams.model.entity.Department;
+
+/**
+ * 层级索引服务接口
+ * <p>
+ * 部门物化路径维护：新增节点时写入路径，移动节点时一次UPDATE替换整棵子树的路径前缀。
+ * 删除只允许删除叶子节点，不需要调整其他节点。部门级别由路径深度决定，随路径一起维护。
+ * 部门子树下的用户按路径前缀查询（tree_path LIKE '路径%'），是一次索引范围扫描，不需要递归。
+ * 资产分类只有三级，资产按一、二、三级分类ID联合索引即可查询任一分类的子树，分类只维护完整路径。
+ * </p>
+ */
+public interface HierarchyIndexService {
+
+    /**
+     * 为新保存的部门写入物化路径和级别（部门须已有ID）
+     *
+     * @param department 部门实体
+     */
+    void assignPath(Department department);
+
+    /**
+     * 移动部门到新的父部门下，连同整棵子树的路径和级别一起更新
+     *
+     * @param department 部门实体
+     * @param newParentId 新父部门ID，为null时移动为顶级部门
+     * @throws IllegalArgumentException 新父部门是该部门自身或其子部门时抛出
+     */
+    void moveDepartment(Department department, Long newParentId);
+
+    /**
+     * 保存新分类并写入完整路径
+     *
+     * @param category 分类实体，父分类须已保存
+     * @return 保存后的分类
+     */
+    CategoryMetadata saveCategory(CategoryMetadata category);
+
+    /**
+     * 按父子关系重新计算部门路径和级别、分类完整路径，只更新与计算结果不一致的行
+     *
+     * @return 更新的行数
+     */
+    int rebuild();
+}
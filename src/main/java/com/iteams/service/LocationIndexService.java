@@ -0,0 +1,69 @@
+package com.iteams.service;
+
+import com.iteams.model.dto.LocationAssetRow;
+import com.iteams.model.dto.LocationNodeDTO;
+import com.iteams.model.entity.SpaceTimeline;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 位置索引服务接口
+ * <p>
+ * 把空间轨迹的数据中心、机房、机柜、U位拆分为带整数ID的位置节点，
+ * 提供位置的输入提示、逐级展开，以及按位置节点分页查询当前位于其下的资产
+ * </p>
+ */
+public interface LocationIndexService {
+
+    /**
+     * 为空间记录设置各层级的位置节点ID，节点不存在时创建
+     *
+     * @param space 空间记录（尚未保存）
+     */
+    void index(SpaceTimeline space);
+
+    /**
+     * 按名称前缀查询位置节点（不区分大小写），输入中可用"/"分隔层级
+     *
+     * @param query 输入内容
+     * @param limit 最大返回数量
+     * @return 匹配的位置节点
+     */
+    List<LocationNodeDTO> suggest(String query, int limit);
+
+    /**
+     * 查询直接子节点
+     *
+     * @param parentId 父节点ID，为null时返回全部数据中心
+     * @return 子节点
+     */
+    List<LocationNodeDTO> getChildren(Long parentId);
+
+    /**
+     * 按ID查询位置节点
+     *
+     * @param nodeId 位置节点ID
+     * @return 位置节点，不存在时为empty
+     */
+    Optional<LocationNodeDTO> findNode(Long nodeId);
+
+    /**
+     * 分页查询当前位于指定位置节点下的资产
+     *
+     * @param nodeId 位置节点ID
+     * @param pageable 分页参数，按空间记录ID排序
+     * @return 资产分页结果
+     * @throws com.iteams.exception.ResourceNotFoundException 位置节点不存在时抛出
+     */
+    Page<LocationAssetRow> getAssets(Long nodeId, Pageable pageable);
+
+    /**
+     * 为尚未建立位置节点的存量空间记录补齐节点ID
+     *
+     * @return 更新的空间记录数
+     */
+    int rebuild();
+}
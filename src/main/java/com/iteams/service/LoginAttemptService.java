@@ -0,0 +1,61 @@
+package com.iteams.service;
+
+import com.iteams.model.entity.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * 登录尝试跟踪服务接口
+ * <p>
+ * 在内存中维护每个用户的登录失败次数和锁定状态，登录请求不再同步写数据库，
+ * 状态变化由后台定时批量回写sys_user表
+ * </p>
+ */
+public interface LoginAttemptService {
+
+    /**
+     * 判断用户当前是否处于锁定状态，锁定时间已过的账户会被自动解锁
+     * （同时修改传入的实体，由调用方事务写回）
+     *
+     * @param user 用户实体，首次访问时用于初始化内存状态
+     * @return 是否锁定
+     */
+    boolean isLocked(User user);
+
+    /**
+     * 获取用户的解锁时间
+     *
+     * @param username 用户名
+     * @return 解锁时间，未锁定或无锁定时间时返回null
+     */
+    LocalDateTime getUnlockTime(String username);
+
+    /**
+     * 记录一次登录失败，达到最大失败次数时锁定账户
+     *
+     * @param user 用户实体
+     * @return 记录后的失败次数
+     */
+    int recordFailure(User user);
+
+    /**
+     * 记录登录成功，清除失败计数
+     *
+     * @param user 用户实体
+     */
+    void recordSuccess(User user);
+
+    /**
+     * 丢弃用户的内存状态，下次访问时以数据库为准（如管理员手动解锁后）
+     *
+     * @param username 用户名
+     */
+    void reset(String username);
+
+    /**
+     * 将有变化的状态批量回写数据库
+     *
+     * @return 回写的用户数
+     */
+    int flush();
+}
@@ -0,0 +1,19 @@
+package com.iteams.service;
+
+/**
+ * 登录限流服务接口
+ * <p>
+ * 按客户端IP和登录用户名分别维护令牌桶，在密码校验之前拒绝暴力破解流量
+ * </p>
+ */
+public interface LoginRateLimitService {
+
+    /**
+     * 检查是否允许本次登录尝试，两个令牌桶都有令牌时才放行
+     *
+     * @param ipAddress 客户端IP
+     * @param username 登录用户名
+     * @throws com.iteams.exception.TooManyRequestsException 超出限流
+     */
+    void checkLoginAllowed(String ipAddress, String username);
+}
@@ -0,0 +1,42 @@
+package com.iteams.service;
+
+import com.iteams.model.dto.MembershipChangeResult;
+
+import java.util.Collection;
+
+/**
+ * 批量成员关系服务接口
+ * <p>
+ * 直接在关联表上按集合计算差异并批量增删，不加载用户、用户组或角色实体，
+ * 供用户组成员维护和批量分配角色使用。调用方负责校验用户组、角色存在并发布相应的变更事件。
+ * </p>
+ */
+public interface MembershipService {
+
+    /**
+     * 将用户加入用户组，已是成员或不存在的用户被忽略
+     *
+     * @param groupId 用户组ID
+     * @param userIds 用户ID
+     * @return 变更结果
+     */
+    MembershipChangeResult addGroupMembers(Long groupId, Collection<Long> userIds);
+
+    /**
+     * 将用户移出用户组
+     *
+     * @param groupId 用户组ID
+     * @param userIds 用户ID
+     * @return 变更结果（matched为实际移除的成员数）
+     */
+    MembershipChangeResult removeGroupMembers(Long groupId, Collection<Long> userIds);
+
+    /**
+     * 将用户的角色替换为指定角色集合，只增删有差异的关联
+     *
+     * @param userIds 用户ID
+     * @param roleIds 角色ID
+     * @return 变更结果
+     */
+    MembershipChangeResult replaceUserRoles(Collection<Long> userIds, Collection<Long> roleIds);
+}
@@ -0,0 +1,25 @@
+package com.iteams.service;
+
+import com.iteams.model.dto.OrgTreeSnapshot;
+
+/**
+ * 组织树快照服务接口
+ * <p>
+ * 部门的列表、树和用户数量统计都从同一份快照读取：快照用一次部门查询加一次分组计数构建，
+ * 缓存在departments缓存中，部门或用户的部门归属变化后失效
+ * </p>
+ */
+public interface OrgTreeSnapshotService {
+
+    /**
+     * 获取当前快照，缓存失效时重新构建
+     *
+     * @return 组织树快照
+     */
+    OrgTreeSnapshot getSnapshot();
+
+    /**
+     * 使快照失效，并通知其他节点
+     */
+    void invalidate();
+}
@@ -0,0 +1,39 @@
+package com.iteams.service;
+
+import java.util.List;
+
+/**
+ * 密码哈希服务接口
+ * <p>
+ * 在专用的有界线程池中执行BCrypt编码和校验，避免CPU密集的哈希计算
+ * 不受控地占用Servlet线程；批量编码时按线程数并行
+ * </p>
+ */
+public interface PasswordHashingService {
+
+    /**
+     * 校验明文密码与哈希是否匹配
+     *
+     * @param rawPassword 明文密码
+     * @param encodedPassword 密码哈希
+     * @return 是否匹配
+     * @throws com.iteams.exception.TooManyRequestsException 哈希线程池已满
+     */
+    boolean matches(CharSequence rawPassword, String encodedPassword);
+
+    /**
+     * 编码单个密码
+     *
+     * @param rawPassword 明文密码
+     * @return 密码哈希
+     */
+    String encode(CharSequence rawPassword);
+
+    /**
+     * 并行编码一批密码，结果顺序与输入一致
+     *
+     * @param rawPasswords 明文密码列表
+     * @return 密码哈希列表
+     */
+    List<String> encodeAll(List<String> rawPasswords);
+}
@@ -0,0 +1,37 @@
+package com.iteams.service;
+
+import com.iteams.model.dto.UserAuthorities;
+
+/**
+ * 权限位集服务接口
+ * <p>
+ * 启动时为每个权限编码分配稠密的整数序号，用户的有效权限编译为long[]位集，
+ * 与角色、权限编码一起缓存在permissions缓存中；权限注解编译为同样格式的掩码，权限校验只需几次按字与运算
+ * </p>
+ */
+public interface PermissionBitsetService {
+
+    /**
+     * 将一组权限编码编译为位集掩码，未知编码会分配新的序号
+     *
+     * @param permissionCodes 权限编码
+     * @return 位集掩码
+     */
+    long[] compileMask(String... permissionCodes);
+
+    /**
+     * 获取用户的角色、权限编码和权限位集，未缓存时从数据库加载一次
+     *
+     * @param userId 用户ID
+     * @return 用户权限
+     */
+    UserAuthorities getUserAuthorities(Long userId);
+
+    /**
+     * 从数据库加载用户的角色和权限并编译位集，不经过缓存，供缓存刷新使用
+     *
+     * @param userId 用户ID
+     * @return 用户权限
+     */
+    UserAuthorities loadUserAuthorities(Long userId);
+}
@@ -0,0 +1,63 @@
+package com.iteams.service;
+
+import com.iteams.model.dto.RackCabinetDTO;
+import com.iteams.model.dto.RackRoomSummaryDTO;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 机柜U位占用服务接口
+ * <p>
+ * 按资产的当前空间记录在内存中为每个机柜维护U位占用位图，随空间记录的变化增量更新，
+ * 提供U位冲突检查、连续空闲U位查找和机房使用率汇总
+ * </p>
+ */
+public interface RackOccupancyService {
+
+    /**
+     * 检查机柜中的U位是否空闲
+     *
+     * @param cabinetNodeId 机柜的位置节点ID
+     * @param uPosition U位，如"12"、"U12"、"12-14"
+     * @param excludeAssetIds 不计入占用的资产（如正在迁移的资产）
+     * @return 占用这些U位的资产ID，空闲时为空列表
+     * @throws com.iteams.exception.BusinessException U位格式无法识别时抛出
+     */
+    List<Long> findConflicts(Long cabinetNodeId, String uPosition, Collection<Long> excludeAssetIds);
+
+    /**
+     * 查找机柜中第一段连续的空闲U位
+     *
+     * @param cabinetNodeId 机柜的位置节点ID
+     * @param units 需要的U数
+     * @return 起始U位，没有足够的连续空闲U位时为null
+     */
+    Integer findFreeRange(Long cabinetNodeId, int units);
+
+    /**
+     * 查询单个机柜的U位占用情况
+     *
+     * @param cabinetNodeId 机柜的位置节点ID
+     * @return 占用情况及明细
+     * @throws com.iteams.exception.ResourceNotFoundException 位置节点不存在时抛出
+     */
+    RackCabinetDTO getCabinet(Long cabinetNodeId);
+
+    /**
+     * 汇总机房内各机柜的使用率
+     *
+     * @param roomNodeId 机房的位置节点ID
+     * @return 使用率汇总
+     * @throws com.iteams.exception.ResourceNotFoundException 位置节点不存在时抛出
+     */
+    RackRoomSummaryDTO getRoomSummary(Long roomNodeId);
+
+    /**
+     * 解析U位
+     *
+     * @param uPosition U位文本
+     * @return [起始U位, 结束U位]，为空或无法识别时为null
+     */
+    int[] parseUPosition(String uPosition);
+}
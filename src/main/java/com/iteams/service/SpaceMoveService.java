@@ -0,0 +1,44 @@
+package com.iteams.service;
+
+import com.iteams.model.dto.SpaceMoveRequest;
+import com.iteams.model.dto.SpaceMoveResultDTO;
+
+/**
+ * 资产迁移服务接口
+ * <p>
+ * 资产主表的space_id是资产当前位置的唯一指针。迁移时在同一事务内结束原空间记录的有效期、
+ * 新建当前空间记录并更新指针，不扫描资产的历史位置
+ * </p>
+ */
+public interface SpaceMoveService {
+
+    /**
+     * 把单个资产迁移到目标位置
+     *
+     * @param assetId 资产ID
+     * @param target 目标位置
+     * @return 迁移结果
+     * @throws com.iteams.exception.ResourceNotFoundException 资产不存在时抛出
+     * @throws com.iteams.exception.BusinessException 目标位置为空或目标U位已被占用时抛出
+     */
+    SpaceMoveResultDTO moveAsset(Long assetId, SpaceMoveRequest target);
+
+    /**
+     * 把当前位于某个机柜的全部资产迁移到目标位置
+     *
+     * @param cabinetNodeId 机柜的位置节点ID
+     * @param target 目标位置，U位为空时保留各资产原来的U位
+     * @return 迁移结果
+     * @throws com.iteams.exception.ResourceNotFoundException 位置节点不存在时抛出
+     * @throws com.iteams.exception.BusinessException 位置节点不是机柜、目标位置为空或目标U位已被占用时抛出
+     */
+    SpaceMoveResultDTO moveCabinet(Long cabinetNodeId, SpaceMoveRequest target);
+
+    /**
+     * 修复当前位置标记：每个资产只保留最新的一条当前空间记录，资产主表指向该记录，
+     * 其余记录结束有效期
+     *
+     * @return 修正的记录数
+     */
+    int repairCurrentPointers();
+}
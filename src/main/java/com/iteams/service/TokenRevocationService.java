@@ -0,0 +1,53 @@
+package com.iteams.service;
+
+import java.util.Collection;
+
+/**
+ * 令牌吊销服务接口
+ * <p>
+ * 维护按用户的签发时间水位线和按jti的令牌黑名单，供JWT过滤器在每次请求时
+ * 以常数时间判断令牌是否已被吊销，不访问数据库。
+ * 吊销在事务提交后才写入内存吊销表，回滚的吊销不会生效。
+ * </p>
+ */
+public interface TokenRevocationService {
+
+    /**
+     * 判断令牌是否已被吊销
+     *
+     * @param username 令牌主题（用户名）
+     * @param jti 令牌ID，旧令牌可能为null
+     * @param issuedAtMillis 令牌签发时间（毫秒）
+     * @return 是否已吊销
+     */
+    boolean isRevoked(String username, String jti, long issuedAtMillis);
+
+    /**
+     * 吊销单个令牌
+     *
+     * @param jti 令牌ID
+     * @param expiresAtMillis 令牌过期时间（毫秒），之后该条目可被清理
+     */
+    void revokeToken(String jti, long expiresAtMillis);
+
+    /**
+     * 吊销用户此前签发的全部令牌
+     *
+     * @param username 用户名
+     */
+    void revokeAllUserTokens(String username);
+
+    /**
+     * 批量吊销多个用户此前签发的全部令牌，吊销记录一次查询、一次批量保存
+     *
+     * @param usernames 用户名
+     */
+    void revokeAllUserTokens(Collection<String> usernames);
+
+    /**
+     * 清理已过期的吊销条目
+     *
+     * @return 清理的数据库记录数
+     */
+    int purgeExpired();
+}
@@ -0,0 +1,28 @@
+package com.iteams.service;
+
+import com.iteams.model.dto.UserDirectoryEntry;
+
+import java.util.List;
+
+/**
+ * 用户目录服务接口
+ * <p>
+ * 为用户选择框的输入提示提供按用户名、姓名前缀的快速查询
+ * </p>
+ */
+public interface UserDirectoryService {
+
+    /**
+     * 按用户名或姓名前缀查询用户（不区分大小写）
+     *
+     * @param prefix 前缀
+     * @param limit 最大返回数量，超过配置上限时按上限处理
+     * @return 匹配的用户
+     */
+    List<UserDirectoryEntry> suggest(String prefix, int limit);
+
+    /**
+     * 使用户目录快照失效，下次查询时重新构建
+     */
+    void invalidate();
+}
@@ -0,0 +1,44 @@
+package com.iteams.service;
+
+import com.iteams.model.dto.UserAuthorities;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * 用户权限依赖索引
+ * <p>
+ * 用户权限缓存都通过本接口加载，加载时记录用户所属的角色，
+ * 形成角色到已缓存用户的反向索引，角色或权限变更时据此只清除受影响的用户
+ * </p>
+ */
+public interface UserPermissionIndex {
+
+    /**
+     * 从数据库加载用户的角色和权限编码，并记录用户与角色的依赖关系
+     *
+     * @param userId 用户ID
+     * @return 角色和权限编码，权限位集为空，由权限位集服务编译
+     */
+    UserAuthorities loadAuthorities(Long userId);
+
+    /**
+     * 查询已缓存权限的用户中属于指定角色的用户
+     *
+     * @param roleIds 角色ID
+     * @return 用户ID集合
+     */
+    Set<Long> getUsersByRoles(Collection<Long> roleIds);
+
+    /**
+     * 移除用户的依赖记录
+     *
+     * @param userId 用户ID
+     */
+    void removeUser(Long userId);
+
+    /**
+     * 清空依赖索引
+     */
+    void clear();
+}
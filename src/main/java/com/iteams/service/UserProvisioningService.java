@@ -0,0 +1,24 @@
+package com.iteams.service;
+
+import com.iteams.model.dto.UserDTO;
+import com.iteams.model.dto.UserProvisioningResultDTO;
+
+import java.util.List;
+
+/**
+ * 批量开通用户服务接口
+ * <p>
+ * 面向HR数据同步等大批量场景：引用的用户名、部门、用户组、角色各用一次IN查询校验，
+ * 密码并行编码，用户和关联行批量插入；校验失败的记录单独报告，不影响其余记录
+ * </p>
+ */
+public interface UserProvisioningService {
+
+    /**
+     * 批量开通用户
+     *
+     * @param users 用户数据，未提供密码时使用默认密码并要求首次登录修改
+     * @return 开通结果，包含逐行错误
+     */
+    UserProvisioningResultDTO provision(List<UserDTO> users);
+}
@@ -17,13 +17,25 @@ public interface UserService extends UserDetailsService {
     /**
      * 获取用户分页列表
      *
-     * @param username   用户名（模糊查询）
-     * @param realName   姓名（模糊查询）
-     * @param department 部门（模糊查询）
+     * @param username   用户名
+     * @param realName   姓名
+     * @param department 部门ID或部门名称
+     * @param prefix     是否按前缀匹配用户名和姓名（可使用索引），否则按包含匹配
      * @param pageable   分页参数
      * @return 用户分页列表
      */
-    Page<UserDTO> getUsers(String username, String realName, String department, Pageable pageable);
+    Page<UserDTO> getUsers(String username, String realName, String department, boolean prefix, Pageable pageable);
+
+    /**
+     * 获取部门用户分页列表
+     *
+     * @param departmentId    部门ID
+     * @param includeChildren 是否包含子部门（按物化路径查询整棵子树）下的用户
+     * @param pageable        分页参数
+     * @return 用户分页列表
+     * @throws com.iteams.exception.ResourceNotFoundException 部门不存在时抛出
+     */
+    Page<UserDTO> getDepartmentUsers(Long departmentId, boolean includeChildren, Pageable pageable);
 
     /**
      * 根据ID获取用户
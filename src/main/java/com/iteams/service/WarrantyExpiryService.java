@@ -0,0 +1,60 @@
+package com.iteams.service;
+
+import com.iteams.model.dto.WarrantyExpiryDigestDTO;
+import com.iteams.model.dto.WarrantyExpiryItem;
+
+import java.util.List;
+
+/**
+ * 维保到期提醒服务接口
+ * <p>
+ * 在内存中按结束日期索引全部有效维保合约，随维保合约的保存增量更新，
+ * 查询即将到期的合约和生成每日到期日报时不再扫描维保合约表
+ * </p>
+ */
+public interface WarrantyExpiryService {
+
+    /**
+     * 查询从今天起若干天内到期的有效维保合约
+     *
+     * @param days 天数，0表示今天到期
+     * @return 即将到期的合约，按结束日期排序
+     */
+    List<WarrantyExpiryItem> getExpiring(int days);
+
+    /**
+     * 统计从今天起若干天内到期的有效维保合约数量
+     *
+     * @param days 天数，0表示今天到期
+     * @return 合约数量
+     */
+    int countExpiring(int days);
+
+    /**
+     * 按数据库中的最新数据更新单个维保合约的索引，合约已失效或不存在时移出索引
+     *
+     * @param warrantyId 维保ID
+     */
+    void refresh(Long warrantyId);
+
+    /**
+     * 生成当天的维保到期日报并发布日报事件
+     *
+     * @return 日报
+     */
+    WarrantyExpiryDigestDTO generateDigest();
+
+    /**
+     * 获取最近一次生成的日报，尚未生成时立即生成
+     *
+     * @return 日报
+     */
+    WarrantyExpiryDigestDTO getLatestDigest();
+
+    /**
+     * 从数据库重新加载全部有效维保合约
+     *
+     * @return 索引中的合约数量
+     */
+    int rebuild();
+}
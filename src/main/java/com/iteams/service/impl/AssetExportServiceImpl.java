@@ -0,0 +1,168 @@
+package com.iteams.service.impl;
+
+import com.iteams.config.AssetExportProperties;
+import com.iteams.exception.BusinessException;
+import com.iteams.model.entity.AssetMaster;
+import com.iteams.service.AssetExportService;
+import com.iteams.util.excel.CsvRowWriter;
+import com.iteams.util.excel.RowWriter;
+import com.iteams.util.excel.SxssfRowWriter;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 资产导出服务实现类
+ * <p>
+ * 一条SQL关联资产主表、当前空间记录和有效维保合约，使用只进只读的结果集逐行读取：
+ * 默认使用MySQL驱动的逐行流式读取，开启cursorFetch时使用服务端游标按固定行数分批读取。
+ * 每读一行立即交给{@link RowWriter}写入响应，CSV直接写出，Excel由SXSSF只在内存中保留固定行数，
+ * 因此堆内存占用与资产数量无关。
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AssetExportServiceImpl implements AssetExportService {
+
+    private static final String[] HEADERS = {
+            "资产编号", "资产名称", "资产状态", "一级分类", "二级分类", "三级分类",
+            "位置路径", "数据中心", "机房", "机柜", "U位", "使用环境", "保管人",
+            "合同号", "维保提供商", "维保开始日期", "维保结束日期", "维保状态",
+            "导入批次", "创建时间"
+    };
+
+    private static final String EXPORT_SQL = "SELECT a.asset_no, a.asset_name, a.current_status, " +
+            "JSON_UNQUOTE(JSON_EXTRACT(a.category_hierarchy, '$.l1')) AS l1, " +
+            "JSON_UNQUOTE(JSON_EXTRACT(a.category_hierarchy, '$.l2')) AS l2, " +
+            "JSON_UNQUOTE(JSON_EXTRACT(a.category_hierarchy, '$.l3')) AS l3, " +
+            "s.location_path, s.data_center, s.room_name, s.cabinet_no, s.u_position, s.environment, s.keeper, " +
+            "w.contract_no, w.provider, w.start_date, w.end_date, w.warranty_status, " +
+            "a.import_batch, a.created_at " +
+            "FROM asset_master a " +
+            "LEFT JOIN space_timeline s ON s.space_id = a.space_id " +
+            "LEFT JOIN warranty_contract w ON w.warranty_id = a.warranty_id AND w.is_active = 1 " +
+            "ORDER BY a.asset_id";
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AssetExportProperties properties;
+
+    @Override
+    public void exportAssets(Format format, boolean gzip, HttpServletResponse response) {
+        String extension = format == Format.CSV ? ".csv" : ".xlsx";
+        String fileName = URLEncoder.encode("资产台账_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss")),
+                StandardCharsets.UTF_8) + extension + (gzip ? ".gz" : "");
+        if (gzip) {
+            response.setContentType("application/gzip");
+        } else if (format == Format.CSV) {
+            response.setContentType("text/csv;charset=UTF-8");
+        } else {
+            response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        }
+        response.setHeader("Content-Disposition", "attachment; filename=" + fileName);
+
+        long start = System.currentTimeMillis();
+        long[] rows = {0};
+        try {
+            OutputStream out = response.getOutputStream();
+            GZIPOutputStream gzipOut = gzip ? new GZIPOutputStream(out, 64 * 1024) : null;
+            OutputStream target = gzipOut != null ? gzipOut : out;
+            try (RowWriter writer = format == Format.CSV
+                    ? new CsvRowWriter(target)
+                    : new SxssfRowWriter(target, "资产台账", properties.getRowAccessWindowSize())) {
+                writer.writeHeader(HEADERS);
+                jdbcTemplate.query(con -> {
+                    PreparedStatement ps = con.prepareStatement(EXPORT_SQL,
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    ps.setFetchSize(properties.isCursorFetch() ? properties.getFetchSize() : Integer.MIN_VALUE);
+                    return ps;
+                }, rs -> {
+                    writeRow(writer, rs);
+                    rows[0]++;
+                });
+                writer.finish();
+            }
+            if (gzipOut != null) {
+                gzipOut.finish();
+            }
+            out.flush();
+        } catch (IOException | UncheckedIOException e) {
+            abort(response, rows[0], e);
+            throw new BusinessException("导出失败: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            abort(response, rows[0], e);
+            throw e;
+        }
+        log.info("资产台账导出完成, 格式: {}, 压缩: {}, 行数: {}, 耗时: {}ms",
+                format, gzip, rows[0], System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 导出中途失败：不写出文件结尾（xlsx不写出工作簿，gzip不写出结尾），
+     * 响应尚未提交时清空响应头改为返回错误，已提交时由异常中断连接，客户端不会收到看似完整的文件
+     */
+    private static void abort(HttpServletResponse response, long rows, Exception e) {
+        log.error("导出资产台账失败, 已写出{}行", rows, e);
+        if (!response.isCommitted()) {
+            response.reset();
+        }
+    }
+
+    private static void writeRow(RowWriter writer, ResultSet rs) throws SQLException {
+        Object[] values = new Object[HEADERS.length];
+        values[0] = rs.getString("asset_no");
+        values[1] = rs.getString("asset_name");
+        values[2] = statusLabel(rs.getString("current_status"));
+        values[3] = rs.getString("l1");
+        values[4] = rs.getString("l2");
+        values[5] = rs.getString("l3");
+        values[6] = rs.getString("location_path");
+        values[7] = rs.getString("data_center");
+        values[8] = rs.getString("room_name");
+        values[9] = rs.getString("cabinet_no");
+        values[10] = rs.getString("u_position");
+        values[11] = rs.getString("environment");
+        values[12] = rs.getString("keeper");
+        values[13] = rs.getString("contract_no");
+        values[14] = rs.getString("provider");
+        values[15] = rs.getString("start_date");
+        values[16] = rs.getString("end_date");
+        values[17] = rs.getString("warranty_status");
+        values[18] = rs.getString("import_batch");
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        values[19] = createdAt == null ? null : createdAt.toLocalDateTime().format(DATE_TIME_FORMATTER);
+        try {
+            writer.writeRow(values);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String statusLabel(String status) {
+        if (status == null) {
+            return null;
+        }
+        try {
+            return AssetMaster.AssetStatus.valueOf(status).getLabel();
+        } catch (IllegalArgumentException e) {
+            return status;
+        }
+    }
+}
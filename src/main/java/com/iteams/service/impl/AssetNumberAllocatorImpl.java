@@ -0,0 +1,180 @@
+package com.iteams.service.impl;
+
+import com.iteams.config.AssetNumberProperties;
+import com.iteams.repository.AssetRepository;
+import com.iteams.service.AssetNumberAllocator;
+import com.iteams.util.UuidGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 资产编号分配器实现类（hi/lo号段）
+ * <p>
+ * 每个序列键在内存中持有一个号段，分配时只做一次原子自增；号段用完后由一个线程
+ * 在独立事务中执行 UPDATE ... SET last_value = LAST_INSERT_ID(last_value + 段长)，
+ * 原子地预留下一段，其余线程等待后继续。行锁保证多节点预留的号段互不重叠。
+ * 序列行不存在时按现有资产编号的最大序列号初始化，兼容已有数据。
+ * </p>
+ */
+@Slf4j
+@Service
+public class AssetNumberAllocatorImpl implements AssetNumberAllocator {
+
+    private static final String RESERVE_SQL = "UPDATE asset_number_sequence "
+            + "SET last_value = LAST_INSERT_ID(last_value + ?), updated_at = ? WHERE seq_key = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AssetRepository assetRepository;
+    private final AssetNumberProperties properties;
+    private final TransactionTemplate newTransaction;
+
+    /**
+     * 序列键 -> 内存号段
+     */
+    private final ConcurrentMap<String, Sequence> sequences = new ConcurrentHashMap<>();
+
+    /**
+     * 当前年月，跨月时更新
+     */
+    private volatile MonthStamp month = MonthStamp.now();
+
+    public AssetNumberAllocatorImpl(JdbcTemplate jdbcTemplate, AssetRepository assetRepository,
+                                    AssetNumberProperties properties, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.assetRepository = assetRepository;
+        this.properties = properties;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public String nextAssetNo(String categoryCode, String departmentCode) {
+        String yearMonth = currentYearMonth();
+        return UuidGenerator.formatAssetNo(categoryCode, departmentCode, yearMonth,
+                nextSequence(categoryCode, departmentCode, yearMonth));
+    }
+
+    @Override
+    public long nextSequence(String categoryCode, String departmentCode, String yearMonth) {
+        String key = categoryCode + '|' + departmentCode + '|' + yearMonth;
+        return sequences.computeIfAbsent(key, k -> new Sequence(k, categoryCode, departmentCode, yearMonth)).next();
+    }
+
+    /**
+     * 预留下一个号段
+     *
+     * @return 号段内最大的序列号
+     */
+    private long reserve(Sequence sequence, int blockSize) {
+        Long last = newTransaction.execute(status -> {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            if (jdbcTemplate.update(RESERVE_SQL, blockSize, now, sequence.key) == 0) {
+                // 首次使用该序列，按已有资产编号初始化；并发初始化时只有一个INSERT生效
+                Long seed = assetRepository.findMaxSequenceByCategoryAndDepartment(
+                        sequence.categoryCode, sequence.departmentCode, sequence.yearMonth);
+                jdbcTemplate.update("INSERT IGNORE INTO asset_number_sequence (seq_key, last_value, updated_at) VALUES (?, ?, ?)",
+                        sequence.key, seed == null ? 0L : seed, now);
+                jdbcTemplate.update(RESERVE_SQL, blockSize, now, sequence.key);
+            }
+            return jdbcTemplate.queryForObject("SELECT LAST_INSERT_ID()", Long.class);
+        });
+        log.debug("资产编号序列[{}]预留号段: {} - {}", sequence.key, last - blockSize + 1, last);
+        return last;
+    }
+
+    private String currentYearMonth() {
+        MonthStamp stamp = month;
+        if (System.currentTimeMillis() >= stamp.validUntil) {
+            stamp = MonthStamp.now();
+            month = stamp;
+            // 上个月的序列不会再使用
+            String suffix = "|" + stamp.value;
+            sequences.keySet().removeIf(key -> !key.endsWith(suffix));
+        }
+        return stamp.value;
+    }
+
+    /**
+     * 单个序列的内存号段
+     */
+    private final class Sequence {
+
+        private final String key;
+        private final String categoryCode;
+        private final String departmentCode;
+        private final String yearMonth;
+        private volatile Block block = new Block(1, 0);
+
+        private Sequence(String key, String categoryCode, String departmentCode, String yearMonth) {
+            this.key = key;
+            this.categoryCode = categoryCode;
+            this.departmentCode = departmentCode;
+            this.yearMonth = yearMonth;
+        }
+
+        long next() {
+            while (true) {
+                Block current = block;
+                long value = current.next.getAndIncrement();
+                if (value <= current.last) {
+                    return value;
+                }
+                synchronized (this) {
+                    // 其他线程可能已经换上新号段
+                    if (block == current) {
+                        int blockSize = Math.max(1, properties.getBlockSize());
+                        long last = reserve(this, blockSize);
+                        block = new Block(last - blockSize + 1, last);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 号段 [next, last]
+     */
+    private static final class Block {
+
+        private final AtomicLong next;
+        private final long last;
+
+        private Block(long first, long last) {
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
+    }
+
+    /**
+     * 年月及其有效截止时间
+     */
+    private static final class MonthStamp {
+
+        private final String value;
+        private final long validUntil;
+
+        private MonthStamp(String value, long validUntil) {
+            this.value = value;
+            this.validUntil = validUntil;
+        }
+
+        static MonthStamp now() {
+            LocalDate today = LocalDate.now();
+            long nextMonth = today.withDayOfMonth(1).plusMonths(1)
+                    .atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            return new MonthStamp(today.format(UuidGenerator.YEAR_MONTH_FORMATTER), nextMonth);
+        }
+    }
+}
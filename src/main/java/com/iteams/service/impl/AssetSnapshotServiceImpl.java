@@ -0,0 +1,483 @@
+package com.iteams.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.iteams.config.AssetSnapshotProperties;
+import com.iteams.exception.BusinessException;
+import com.iteams.exception.ResourceNotFoundException;
+import com.iteams.model.dto.AssetStateDTO;
+import com.iteams.service.AssetSnapshotService;
+import com.iteams.util.JsonUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 资产历史状态服务实现类
+ * <p>
+ * 每次快照为全部资产各写一行，最后按状态汇总写入asset_snapshot_status_count，汇总行写入后该次快照才可用。
+ * 重建某一时刻T的状态时，起点对齐到不晚于T的最近一次快照时刻，同一页资产共用一个起点：
+ * 对空间轨迹、维保合约和变更溯源各执行一次查询，读取(快照, T]之间的变化并依次应用，
+ * 位置取最后一次迁入，维保取最后登记的合约，状态和名称取STATUS、PROPERTY变更记录的变更后取值。
+ * </p>
+ * <p>
+ * 起点快照中没有的资产（快照之后新建，或T早于首次快照）不能以当前值为起点：
+ * 名称和状态从T之后的第一次快照（没有时为当前值）开始，按变更前取值逆序撤销这之间的变更记录；
+ * 位置和维保取不晚于T的最后一条记录。
+ * </p>
+ * <p>
+ * 统计状态分布时以起点快照的状态计数为基础，只对(快照, T]之间有状态或属性变更、以及这期间新建的资产
+ * 重建状态并修正计数；T早于首次快照时才逐页重建全部资产。
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AssetSnapshotServiceImpl implements AssetSnapshotService {
+
+    /**
+     * 每页最大资产数量
+     */
+    private static final int MAX_LIMIT = 1000;
+
+    private static final String CURRENT_STATE_SQL = "SELECT a.asset_id, a.asset_no, a.asset_name, a.current_status, " +
+            "a.space_id, s.location_path, a.warranty_id, w.contract_no, w.end_date " +
+            "FROM asset_master a " +
+            "LEFT JOIN space_timeline s ON s.space_id = a.space_id " +
+            "LEFT JOIN warranty_contract w ON w.warranty_id = a.warranty_id " +
+            "WHERE a.asset_id > ? ORDER BY a.asset_id LIMIT ?";
+
+    private static final String TRACE_SQL = "SELECT t.asset_id, COALESCE(p.payload, t.delta_snapshot) AS delta_snapshot " +
+            "FROM change_trace t LEFT JOIN change_trace_payload p ON p.payload_id = t.payload_id WHERE t.asset_id IN (";
+
+    private static final String TRACE_TYPES = " AND change_type IN ('STATUS', 'PROPERTY')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AssetSnapshotProperties properties;
+
+    @Override
+    public int takeSnapshot() {
+        LocalDateTime snapshotAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        long start = System.currentTimeMillis();
+        int written = 0;
+        long lastId = 0;
+        Map<String, Long> counts = new TreeMap<>();
+        while (true) {
+            List<AssetStateDTO> current = jdbcTemplate.query(CURRENT_STATE_SQL,
+                    (rs, rowNum) -> mapCurrentState(rs), lastId, properties.getBatchSize());
+            if (current.isEmpty()) {
+                break;
+            }
+            insertSnapshots(current, snapshotAt);
+            for (AssetStateDTO state : current) {
+                counts.merge(String.valueOf(state.getStatus()), 1L, Long::sum);
+            }
+            written += current.size();
+            lastId = current.get(current.size() - 1).getAssetId();
+        }
+        insertStatusCounts(counts, snapshotAt);
+        log.info("资产状态快照完成, 快照时刻: {}, 写入: {}, 耗时: {}ms",
+                snapshotAt, written, System.currentTimeMillis() - start);
+        return written;
+    }
+
+    @Override
+    public boolean takeSnapshotIfEmpty() {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT 1 FROM asset_snapshot_status_count LIMIT 1) t", Integer.class);
+        if (existing != null && existing > 0) {
+            return false;
+        }
+        takeSnapshot();
+        return true;
+    }
+
+    @Override
+    public AssetStateDTO getAssetState(Long assetId, LocalDateTime at) {
+        List<AssetStateDTO> states = reconstruct(jdbcTemplate.query(
+                "SELECT asset_id, asset_no, asset_name, current_status FROM asset_master WHERE asset_id = ? AND created_at <= ?",
+                (rs, rowNum) -> mapAsset(rs), assetId, Timestamp.valueOf(at)), at);
+        if (states.isEmpty()) {
+            throw new ResourceNotFoundException("资产不存在或在" + at + "时尚未创建: " + assetId);
+        }
+        return states.get(0);
+    }
+
+    @Override
+    public List<AssetStateDTO> getInventory(LocalDateTime at, Long afterAssetId, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BusinessException("每页资产数量必须在1到" + MAX_LIMIT + "之间");
+        }
+        return reconstruct(jdbcTemplate.query(
+                "SELECT asset_id, asset_no, asset_name, current_status FROM asset_master " +
+                "WHERE asset_id > ? AND created_at <= ? ORDER BY asset_id LIMIT ?",
+                (rs, rowNum) -> mapAsset(rs), afterAssetId == null ? 0 : afterAssetId, Timestamp.valueOf(at), limit), at);
+    }
+
+    @Override
+    public Map<String, Long> countByStatus(LocalDateTime at) {
+        LocalDateTime base = findSnapshotTime(at, true);
+        if (base == null) {
+            return countByReplay(at);
+        }
+        Map<String, Long> counts = new TreeMap<>();
+        jdbcTemplate.query("SELECT current_status, asset_count FROM asset_snapshot_status_count WHERE snapshot_at = ?",
+                rs -> {
+                    counts.put(rs.getString("current_status"), rs.getLong("asset_count"));
+                }, Timestamp.valueOf(base));
+
+        // 只有(快照, T]之间状态可能变化的资产需要修正：有状态或属性变更的资产，以及这期间新建的资产
+        Set<Long> affected = new TreeSet<>(jdbcTemplate.queryForList(
+                "SELECT DISTINCT asset_id FROM change_trace WHERE operated_at > ? AND operated_at <= ?" + TRACE_TYPES,
+                Long.class, Timestamp.valueOf(base), Timestamp.valueOf(at)));
+        affected.addAll(jdbcTemplate.queryForList("SELECT asset_id FROM asset_master WHERE created_at > ? AND created_at <= ?",
+                Long.class, Timestamp.valueOf(base), Timestamp.valueOf(at)));
+        List<Long> ids = new ArrayList<>(affected);
+        for (int from = 0; from < ids.size(); from += MAX_LIMIT) {
+            List<Long> chunk = ids.subList(from, Math.min(from + MAX_LIMIT, ids.size()));
+            findSnapshots(chunk, base).values().forEach(row ->
+                    counts.merge(String.valueOf(row.getStatus()), -1L, Long::sum));
+            List<AssetStateDTO> states = reconstruct(jdbcTemplate.query(
+                    "SELECT asset_id, asset_no, asset_name, current_status FROM asset_master WHERE asset_id IN (" +
+                    placeholders(chunk.size()) + ") AND created_at <= ? ORDER BY asset_id",
+                    (rs, rowNum) -> mapAsset(rs), append(chunk, Timestamp.valueOf(at))), at);
+            states.forEach(state -> counts.merge(String.valueOf(state.getStatus()), 1L, Long::sum));
+        }
+        counts.values().removeIf(count -> count <= 0);
+        return counts;
+    }
+
+    /**
+     * 早于首次快照的时刻没有计数可用，逐页重建全部资产后统计
+     */
+    private Map<String, Long> countByReplay(LocalDateTime at) {
+        Map<String, Long> counts = new TreeMap<>();
+        Long lastId = null;
+        while (true) {
+            List<AssetStateDTO> page = getInventory(at, lastId, Math.min(properties.getBatchSize(), MAX_LIMIT));
+            if (page.isEmpty()) {
+                break;
+            }
+            for (AssetStateDTO state : page) {
+                counts.merge(String.valueOf(state.getStatus()), 1L, Long::sum);
+            }
+            lastId = page.get(page.size() - 1).getAssetId();
+        }
+        return counts;
+    }
+
+    /**
+     * 从不晚于指定时刻的最近一次快照开始回放变化，得到各资产在该时刻的状态
+     *
+     * @param assets 资产当前的编号、名称和状态，按资产ID排序
+     * @param at 时刻
+     * @return 各资产的状态，顺序与参数一致
+     */
+    private List<AssetStateDTO> reconstruct(List<AssetStateDTO> assets, LocalDateTime at) {
+        if (assets.isEmpty()) {
+            return assets;
+        }
+        Map<Long, AssetStateDTO> states = new LinkedHashMap<>();
+        for (AssetStateDTO asset : assets) {
+            asset.setAsOf(at);
+            states.put(asset.getAssetId(), asset);
+        }
+
+        LocalDateTime base = findSnapshotTime(at, true);
+        Map<Long, AssetStateDTO> baseRows = base == null ? Map.of() : findSnapshots(states.keySet(), base);
+        List<Long> forward = new ArrayList<>();
+        List<Long> backward = new ArrayList<>();
+        for (AssetStateDTO state : states.values()) {
+            AssetStateDTO snapshot = baseRows.get(state.getAssetId());
+            if (snapshot == null) {
+                backward.add(state.getAssetId());
+                continue;
+            }
+            state.setAssetName(snapshot.getAssetName());
+            state.setStatus(snapshot.getStatus());
+            state.setSpaceId(snapshot.getSpaceId());
+            state.setLocationPath(snapshot.getLocationPath());
+            state.setWarrantyId(snapshot.getWarrantyId());
+            state.setContractNo(snapshot.getContractNo());
+            state.setWarrantyEndDate(snapshot.getWarrantyEndDate());
+            state.setBaseSnapshotAt(base);
+            forward.add(state.getAssetId());
+        }
+        if (!forward.isEmpty()) {
+            applySpaceAndWarranty(states, forward, base, at);
+            applyTraces(states, forward, base, at);
+        }
+        if (!backward.isEmpty()) {
+            undoToTime(states, backward, at);
+        }
+        return new ArrayList<>(states.values());
+    }
+
+    /**
+     * 起点快照中没有的资产：名称和状态从之后的第一次快照（没有时为当前值）逆序撤销变更，位置和维保取不晚于该时刻的最后一条记录
+     */
+    private void undoToTime(Map<Long, AssetStateDTO> states, List<Long> assetIds, LocalDateTime at) {
+        LocalDateTime next = findSnapshotTime(at, false);
+        Map<Long, AssetStateDTO> nextRows = next == null ? Map.of() : findSnapshots(assetIds, next);
+        List<Long> fromSnapshot = new ArrayList<>();
+        List<Long> fromCurrent = new ArrayList<>();
+        for (Long assetId : assetIds) {
+            AssetStateDTO state = states.get(assetId);
+            AssetStateDTO snapshot = nextRows.get(assetId);
+            if (snapshot != null) {
+                state.setAssetName(snapshot.getAssetName());
+                state.setStatus(snapshot.getStatus());
+                state.setBaseSnapshotAt(next);
+                fromSnapshot.add(assetId);
+            } else {
+                fromCurrent.add(assetId);
+            }
+        }
+        applySpaceAndWarranty(states, assetIds, null, at);
+        if (!fromSnapshot.isEmpty()) {
+            undoTraces(states, fromSnapshot, at, next);
+        }
+        if (!fromCurrent.isEmpty()) {
+            undoTraces(states, fromCurrent, at, null);
+        }
+    }
+
+    /**
+     * 读取一组资产在(since, at]之间的空间迁移和维保合约并应用，since为null时不限起点
+     */
+    private void applySpaceAndWarranty(Map<Long, AssetStateDTO> states, List<Long> assetIds, LocalDateTime since, LocalDateTime at) {
+        String placeholders = placeholders(assetIds.size());
+        String range = " AND %1$s <= ?" + (since != null ? " AND %1$s > ?" : "");
+        Object[] params = rangeParams(assetIds, since, at);
+
+        jdbcTemplate.query("SELECT asset_id, space_id, location_path FROM space_timeline WHERE asset_id IN (" + placeholders + ")"
+                + String.format(range, "valid_from") + " ORDER BY valid_from, space_id", rs -> {
+            AssetStateDTO state = states.get(rs.getLong("asset_id"));
+            state.setSpaceId(rs.getLong("space_id"));
+            state.setLocationPath(rs.getString("location_path"));
+            state.setAppliedDeltas(state.getAppliedDeltas() + 1);
+        }, params);
+
+        jdbcTemplate.query("SELECT asset_id, warranty_id, contract_no, end_date FROM warranty_contract WHERE asset_id IN (" + placeholders + ")"
+                + String.format(range, "created_at") + " ORDER BY created_at, warranty_id", rs -> {
+            AssetStateDTO state = states.get(rs.getLong("asset_id"));
+            state.setWarrantyId(rs.getLong("warranty_id"));
+            state.setContractNo(rs.getString("contract_no"));
+            state.setWarrantyEndDate(toLocalDate(rs.getDate("end_date")));
+            state.setAppliedDeltas(state.getAppliedDeltas() + 1);
+        }, params);
+    }
+
+    /**
+     * 按时间顺序应用一组资产在(since, at]之间的状态和属性变更
+     */
+    private void applyTraces(Map<Long, AssetStateDTO> states, List<Long> assetIds, LocalDateTime since, LocalDateTime at) {
+        jdbcTemplate.query(TRACE_SQL + placeholders(assetIds.size()) + ")" + TRACE_TYPES
+                + " AND operated_at <= ? AND operated_at > ? ORDER BY operated_at, trace_id", rs -> {
+            AssetStateDTO state = states.get(rs.getLong("asset_id"));
+            if (applyTrace(state, rs.getString("delta_snapshot"), "after")) {
+                state.setAppliedDeltas(state.getAppliedDeltas() + 1);
+            }
+        }, rangeParams(assetIds, since, at));
+    }
+
+    /**
+     * 按时间倒序撤销一组资产在(after, until]之间的状态和属性变更，until为null时不限终点
+     */
+    private void undoTraces(Map<Long, AssetStateDTO> states, List<Long> assetIds, LocalDateTime after, LocalDateTime until) {
+        List<Object> args = new ArrayList<>(assetIds);
+        args.add(Timestamp.valueOf(after));
+        if (until != null) {
+            args.add(Timestamp.valueOf(until));
+        }
+        jdbcTemplate.query(TRACE_SQL + placeholders(assetIds.size()) + ")" + TRACE_TYPES
+                + " AND operated_at > ?" + (until != null ? " AND operated_at <= ?" : "")
+                + " ORDER BY operated_at DESC, trace_id DESC", rs -> {
+            AssetStateDTO state = states.get(rs.getLong("asset_id"));
+            if (applyTrace(state, rs.getString("delta_snapshot"), "before")) {
+                state.setAppliedDeltas(state.getAppliedDeltas() + 1);
+            }
+        }, args.toArray());
+    }
+
+    /**
+     * 应用状态或属性变更记录
+     * <p>
+     * 支持{"field": "status", "before": "INVENTORY", "after": "IN_USE"}形式，
+     * 以及before、after为对象、按列名或属性名给出取值的形式
+     * </p>
+     *
+     * @param side 正向回放取"after"，逆向撤销取"before"
+     * @return 是否应用了变更
+     */
+    private static boolean applyTrace(AssetStateDTO state, String deltaJson, String side) {
+        JsonNode delta;
+        try {
+            delta = JsonUtil.getObjectMapper().readTree(deltaJson);
+        } catch (Exception e) {
+            log.warn("无法解析资产{}的变更记录: {}", state.getAssetId(), deltaJson);
+            return false;
+        }
+        JsonNode after = delta.path(side);
+        boolean applied = false;
+        if (after.isObject()) {
+            applied |= applyField(state, "status", after.path("current_status"));
+            applied |= applyField(state, "status", after.path("currentStatus"));
+            applied |= applyField(state, "asset_name", after.path("asset_name"));
+            applied |= applyField(state, "asset_name", after.path("assetName"));
+        } else {
+            applied = applyField(state, delta.path("field").asText(""), after);
+        }
+        return applied;
+    }
+
+    private static boolean applyField(AssetStateDTO state, String field, JsonNode value) {
+        if (!value.isValueNode() || value.isNull()) {
+            return false;
+        }
+        switch (field) {
+            case "status":
+            case "current_status":
+            case "currentStatus":
+                state.setStatus(value.asText());
+                return true;
+            case "asset_name":
+            case "assetName":
+                state.setAssetName(value.asText());
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 查询不晚于（或晚于）指定时刻的最近一次快照时刻，只认已写入状态汇总的快照
+     *
+     * @param atOrBefore true时取不晚于该时刻的最近一次，false时取晚于该时刻的第一次
+     * @return 快照时刻，没有时为null
+     */
+    private LocalDateTime findSnapshotTime(LocalDateTime at, boolean atOrBefore) {
+        Timestamp time = jdbcTemplate.queryForObject(atOrBefore
+                        ? "SELECT MAX(snapshot_at) FROM asset_snapshot_status_count WHERE snapshot_at <= ?"
+                        : "SELECT MIN(snapshot_at) FROM asset_snapshot_status_count WHERE snapshot_at > ?",
+                Timestamp.class, Timestamp.valueOf(at));
+        return time == null ? null : time.toLocalDateTime();
+    }
+
+    /**
+     * 查询各资产在指定快照时刻的快照
+     *
+     * @return 键为资产ID
+     */
+    private Map<Long, AssetStateDTO> findSnapshots(Collection<Long> assetIds, LocalDateTime snapshotAt) {
+        Map<Long, AssetStateDTO> snapshots = new HashMap<>();
+        jdbcTemplate.query("SELECT asset_id, asset_name, current_status, space_id, location_path, " +
+                "warranty_id, contract_no, warranty_end_date FROM asset_state_snapshot " +
+                "WHERE asset_id IN (" + placeholders(assetIds.size()) + ") AND snapshot_at = ?", rs -> {
+            AssetStateDTO snapshot = new AssetStateDTO();
+            snapshot.setAssetId(rs.getLong("asset_id"));
+            snapshot.setAssetName(rs.getString("asset_name"));
+            snapshot.setStatus(rs.getString("current_status"));
+            snapshot.setSpaceId(getLong(rs, "space_id"));
+            snapshot.setLocationPath(rs.getString("location_path"));
+            snapshot.setWarrantyId(getLong(rs, "warranty_id"));
+            snapshot.setContractNo(rs.getString("contract_no"));
+            snapshot.setWarrantyEndDate(toLocalDate(rs.getDate("warranty_end_date")));
+            snapshots.put(snapshot.getAssetId(), snapshot);
+        }, append(assetIds, Timestamp.valueOf(snapshotAt)));
+        return snapshots;
+    }
+
+    private void insertSnapshots(List<AssetStateDTO> states, LocalDateTime snapshotAt) {
+        Timestamp at = Timestamp.valueOf(snapshotAt);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        StringBuilder sql = new StringBuilder("INSERT IGNORE INTO asset_state_snapshot (asset_id, snapshot_at, asset_name, " +
+                "current_status, space_id, location_path, warranty_id, contract_no, warranty_end_date, created_at) VALUES ");
+        List<Object> args = new ArrayList<>(states.size() * 10);
+        for (int i = 0; i < states.size(); i++) {
+            AssetStateDTO state = states.get(i);
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+            Collections.addAll(args, state.getAssetId(), at, state.getAssetName(), state.getStatus(),
+                    state.getSpaceId(), state.getLocationPath(), state.getWarrantyId(), state.getContractNo(),
+                    state.getWarrantyEndDate() == null ? null : Date.valueOf(state.getWarrantyEndDate()), now);
+        }
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    private void insertStatusCounts(Map<String, Long> counts, LocalDateTime snapshotAt) {
+        if (counts.isEmpty()) {
+            return;
+        }
+        Timestamp at = Timestamp.valueOf(snapshotAt);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(counts.size());
+        counts.forEach((status, count) -> rows.add(new Object[]{at, status, count, now}));
+        jdbcTemplate.batchUpdate("INSERT IGNORE INTO asset_snapshot_status_count (snapshot_at, current_status, asset_count, created_at) " +
+                "VALUES (?, ?, ?, ?)", rows);
+    }
+
+    private static Object[] rangeParams(List<Long> assetIds, LocalDateTime since, LocalDateTime at) {
+        List<Object> args = new ArrayList<>(assetIds);
+        args.add(Timestamp.valueOf(at));
+        if (since != null) {
+            args.add(Timestamp.valueOf(since));
+        }
+        return args.toArray();
+    }
+
+    private static Object[] append(Collection<Long> assetIds, Object last) {
+        List<Object> args = new ArrayList<>(assetIds);
+        args.add(last);
+        return args.toArray();
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    private static AssetStateDTO mapAsset(ResultSet rs) throws SQLException {
+        AssetStateDTO state = new AssetStateDTO();
+        state.setAssetId(rs.getLong("asset_id"));
+        state.setAssetNo(rs.getString("asset_no"));
+        state.setAssetName(rs.getString("asset_name"));
+        state.setStatus(rs.getString("current_status"));
+        return state;
+    }
+
+    private static AssetStateDTO mapCurrentState(ResultSet rs) throws SQLException {
+        AssetStateDTO state = mapAsset(rs);
+        state.setSpaceId(getLong(rs, "space_id"));
+        state.setLocationPath(rs.getString("location_path"));
+        state.setWarrantyId(getLong(rs, "warranty_id"));
+        state.setContractNo(rs.getString("contract_no"));
+        state.setWarrantyEndDate(toLocalDate(rs.getDate("end_date")));
+        return state;
+    }
+
+    private static Long getLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date == null ? null : date.toLocalDate();
+    }
+}
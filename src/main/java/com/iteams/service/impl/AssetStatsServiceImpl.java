@@ -0,0 +1,402 @@
+package com.iteams.service.impl;
+
+import com.iteams.config.AssetStatsProperties;
+import com.iteams.config.CacheConfig;
+import com.iteams.model.dto.AssetStatsDTO;
+import com.iteams.model.dto.LocationNodeDTO;
+import com.iteams.model.entity.AssetMaster;
+import com.iteams.model.entity.AssetStatCounter;
+import com.iteams.model.entity.CategoryMetadata;
+import com.iteams.model.entity.SpaceTimeline;
+import com.iteams.model.entity.WarrantyContract;
+import com.iteams.repository.CategoryRepository;
+import com.iteams.service.AssetStatsService;
+import com.iteams.service.CacheCoherenceService;
+import com.iteams.service.LocationIndexService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 资产统计服务实现类
+ * <p>
+ * 计数器存放在asset_stat_counter表中，资产变化时用一条多行
+ * INSERT ... ON DUPLICATE KEY UPDATE累加变化量；在事务中调用时变化量先在事务内合并，
+ * 提交前一次写入，按计数器ID排序以保持一致的加锁顺序。
+ * </p>
+ * <p>
+ * 全部计数器以固定键缓存在assetStats缓存中，计数器行数只与状态、分类、位置和维保结束日期的取值个数有关，
+ * 与资产总数无关。维保到期分段在读取时按当天日期汇总各结束日期的计数，无需随日期推移更新计数器。
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AssetStatsServiceImpl implements AssetStatsService {
+
+    /**
+     * 计数器快照在assetStats缓存中的键
+     */
+    private static final String SNAPSHOT_KEY = "counters";
+
+    private static final String UPSERT_SQL = "INSERT INTO asset_stat_counter (id, dimension, stat_key, asset_count, updated_at) VALUES ";
+
+    private static final String UPSERT_UPDATE_SQL = " ON DUPLICATE KEY UPDATE asset_count = asset_count + VALUES(asset_count), updated_at = VALUES(updated_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CategoryRepository categoryRepository;
+    private final LocationIndexService locationIndexService;
+    private final AssetStatsProperties properties;
+    private final CacheManager cacheManager;
+    private final CacheCoherenceService cacheCoherenceService;
+
+    @Override
+    public AssetStatsDTO getStats() {
+        CounterSnapshot snapshot = getCache().get(SNAPSHOT_KEY, this::load);
+
+        AssetStatsDTO stats = new AssetStatsDTO();
+        stats.setTotal(snapshot.total);
+        stats.setByStatus(snapshot.byStatus);
+        stats.setByCategory(snapshot.byCategory);
+        stats.setByDataCenter(snapshot.byDataCenter);
+        stats.setByRoom(snapshot.byRoom);
+        stats.setByWarrantyExpiry(warrantyBuckets(snapshot, LocalDate.now()));
+        stats.setLoadedAt(snapshot.loadedAt);
+        return stats;
+    }
+
+    @Override
+    public void recordAdded(AssetMaster asset) {
+        apply(contributions(asset, 1));
+    }
+
+    @Override
+    public void recordWarrantyChanged(WarrantyContract warranty, Boolean previousActive, LocalDate previousEndDate) {
+        LocalDate previous = countedEndDate(previousActive, previousEndDate);
+        LocalDate current = countedEndDate(warranty.getIsActive(), warranty.getEndDate());
+        if (Objects.equals(previous, current)) {
+            return;
+        }
+        Long assets = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM asset_master WHERE warranty_id = ?",
+                Long.class, warranty.getWarrantyId());
+        if (assets == null || assets == 0) {
+            return;
+        }
+        Map<String, Long> deltas = new HashMap<>();
+        if (previous != null) {
+            deltas.merge(counterId(AssetStatCounter.DIMENSION_WARRANTY_END, previous.toString()), -assets, Long::sum);
+        }
+        if (current != null) {
+            deltas.merge(counterId(AssetStatCounter.DIMENSION_WARRANTY_END, current.toString()), assets, Long::sum);
+        }
+        apply(deltas);
+    }
+
+    @Override
+    public void adjust(String dimension, String key, long delta) {
+        if (key == null || delta == 0) {
+            return;
+        }
+        Map<String, Long> deltas = new HashMap<>();
+        deltas.put(counterId(dimension, key), delta);
+        apply(deltas);
+    }
+
+    @Override
+    @Transactional
+    public int rebuild() {
+        Map<String, Long> counters = new HashMap<>();
+        collect(counters, AssetStatCounter.DIMENSION_STATUS,
+                "SELECT current_status, COUNT(*) FROM asset_master GROUP BY current_status");
+        collect(counters, AssetStatCounter.DIMENSION_CATEGORY,
+                "SELECT category_l1_id, COUNT(*) FROM asset_master WHERE category_l1_id IS NOT NULL GROUP BY category_l1_id");
+        collect(counters, AssetStatCounter.DIMENSION_DATA_CENTER,
+                "SELECT s.data_center_node_id, COUNT(*) FROM asset_master a INNER JOIN space_timeline s ON s.space_id = a.space_id " +
+                "WHERE s.data_center_node_id IS NOT NULL GROUP BY s.data_center_node_id");
+        collect(counters, AssetStatCounter.DIMENSION_ROOM,
+                "SELECT s.room_node_id, COUNT(*) FROM asset_master a INNER JOIN space_timeline s ON s.space_id = a.space_id " +
+                "WHERE s.room_node_id IS NOT NULL GROUP BY s.room_node_id");
+        collect(counters, AssetStatCounter.DIMENSION_WARRANTY_END,
+                "SELECT DATE_FORMAT(w.end_date, '%Y-%m-%d'), COUNT(*) FROM asset_master a " +
+                "INNER JOIN warranty_contract w ON w.warranty_id = a.warranty_id " +
+                "WHERE w.is_active = 1 AND w.end_date IS NOT NULL GROUP BY w.end_date");
+
+        jdbcTemplate.update("DELETE FROM asset_stat_counter");
+        upsert(counters);
+        afterCommit(this::invalidate);
+        log.info("资产统计计数器已重算, 计数器数量: {}", counters.size());
+        return counters.size();
+    }
+
+    @Override
+    @Transactional
+    public boolean rebuildIfEmpty() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM asset_stat_counter", Long.class);
+        if (count != null && count > 0) {
+            return false;
+        }
+        rebuild();
+        return true;
+    }
+
+    /**
+     * 计算资产在各维度上的计数变化
+     */
+    private static Map<String, Long> contributions(AssetMaster asset, long sign) {
+        Map<String, Long> deltas = new HashMap<>();
+        if (asset.getCurrentStatus() != null) {
+            deltas.put(counterId(AssetStatCounter.DIMENSION_STATUS, asset.getCurrentStatus().name()), sign);
+        }
+        if (asset.getCategoryL1Id() != null) {
+            deltas.put(counterId(AssetStatCounter.DIMENSION_CATEGORY, String.valueOf(asset.getCategoryL1Id())), sign);
+        }
+        SpaceTimeline space = asset.getSpace();
+        if (space != null) {
+            if (space.getDataCenterNodeId() != null) {
+                deltas.put(counterId(AssetStatCounter.DIMENSION_DATA_CENTER, String.valueOf(space.getDataCenterNodeId())), sign);
+            }
+            if (space.getRoomNodeId() != null) {
+                deltas.put(counterId(AssetStatCounter.DIMENSION_ROOM, String.valueOf(space.getRoomNodeId())), sign);
+            }
+        }
+        WarrantyContract warranty = asset.getWarranty();
+        LocalDate endDate = warranty == null ? null : countedEndDate(warranty.getIsActive(), warranty.getEndDate());
+        if (endDate != null) {
+            deltas.put(counterId(AssetStatCounter.DIMENSION_WARRANTY_END, endDate.toString()), sign);
+        }
+        return deltas;
+    }
+
+    /**
+     * 计入到期统计的到期日，只统计生效且有到期日的合约
+     */
+    private static LocalDate countedEndDate(Boolean active, LocalDate endDate) {
+        return Boolean.TRUE.equals(active) ? endDate : null;
+    }
+
+    /**
+     * 写入变化量：存在事务时在事务内合并，提交前统一写入；否则立即写入
+     */
+    @SuppressWarnings("unchecked")
+    private void apply(Map<String, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            upsert(deltas);
+            invalidate();
+            return;
+        }
+
+        Map<String, Long> pending = (Map<String, Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<String, Long> bound = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, bound);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    upsert(bound);
+                }
+
+                @Override
+                public void afterCommit() {
+                    invalidate();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AssetStatsServiceImpl.this);
+                }
+            });
+            pending = bound;
+        }
+        for (Map.Entry<String, Long> entry : deltas.entrySet()) {
+            pending.merge(entry.getKey(), entry.getValue(), Long::sum);
+        }
+    }
+
+    /**
+     * 用一条多行UPSERT累加变化量，按计数器ID排序
+     */
+    private void upsert(Map<String, Long> deltas) {
+        Map<String, Long> sorted = new TreeMap<>(deltas);
+        sorted.values().removeIf(delta -> delta == 0);
+        if (sorted.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        StringBuilder sql = new StringBuilder(UPSERT_SQL);
+        List<Object> args = new ArrayList<>(sorted.size() * 5);
+        for (Map.Entry<String, Long> entry : sorted.entrySet()) {
+            String id = entry.getKey();
+            int separator = id.indexOf(':');
+            sql.append(args.isEmpty() ? "(?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?)");
+            args.add(id);
+            args.add(id.substring(0, separator));
+            args.add(id.substring(separator + 1));
+            args.add(entry.getValue());
+            args.add(now);
+        }
+        sql.append(UPSERT_UPDATE_SQL);
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    private void collect(Map<String, Long> counters, String dimension, String sql) {
+        jdbcTemplate.query(sql, rs -> {
+            counters.put(counterId(dimension, rs.getString(1)), rs.getLong(2));
+        });
+    }
+
+    private void invalidate() {
+        getCache().evict(SNAPSHOT_KEY);
+        cacheCoherenceService.publishEvict(CacheConfig.CACHE_ASSET_STATS, SNAPSHOT_KEY);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 加载全部计数器并解析分类、位置名称
+     */
+    private CounterSnapshot load() {
+        Map<String, Map<String, Long>> byDimension = new HashMap<>();
+        jdbcTemplate.query("SELECT dimension, stat_key, asset_count FROM asset_stat_counter WHERE asset_count <> 0", rs -> {
+            byDimension.computeIfAbsent(rs.getString("dimension"), key -> new HashMap<>())
+                    .put(rs.getString("stat_key"), rs.getLong("asset_count"));
+        });
+
+        CounterSnapshot snapshot = new CounterSnapshot();
+        Map<String, Long> statuses = byDimension.getOrDefault(AssetStatCounter.DIMENSION_STATUS, Map.of());
+        snapshot.byStatus = new ArrayList<>();
+        for (AssetMaster.AssetStatus status : AssetMaster.AssetStatus.values()) {
+            long count = statuses.getOrDefault(status.name(), 0L);
+            snapshot.byStatus.add(new AssetStatsDTO.Item(status.name(), status.getLabel(), count));
+            snapshot.total += count;
+        }
+
+        Map<String, Long> categories = byDimension.getOrDefault(AssetStatCounter.DIMENSION_CATEGORY, Map.of());
+        Map<String, String> categoryNames = categoryRepository.findAllById(
+                        categories.keySet().stream().map(Long::valueOf).collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(category -> String.valueOf(category.getCategoryId()), CategoryMetadata::getName));
+        snapshot.byCategory = toItems(categories, categoryNames::get);
+
+        Function<String, String> locationName = key -> locationIndexService.findNode(Long.valueOf(key))
+                .map(LocationNodeDTO::getPath).orElse(null);
+        snapshot.byDataCenter = toItems(byDimension.getOrDefault(AssetStatCounter.DIMENSION_DATA_CENTER, Map.of()), locationName);
+        snapshot.byRoom = toItems(byDimension.getOrDefault(AssetStatCounter.DIMENSION_ROOM, Map.of()), locationName);
+
+        snapshot.warrantyEnds = new TreeMap<>();
+        byDimension.getOrDefault(AssetStatCounter.DIMENSION_WARRANTY_END, Map.of())
+                .forEach((key, count) -> snapshot.warrantyEnds.merge(LocalDate.parse(key), count, Long::sum));
+        snapshot.loadedAt = LocalDateTime.now();
+        return snapshot;
+    }
+
+    /**
+     * 按当天日期汇总维保到期分段
+     */
+    private List<AssetStatsDTO.Item> warrantyBuckets(CounterSnapshot snapshot, LocalDate today) {
+        List<Integer> bounds = properties.getWarrantyBucketDays().stream().sorted().collect(Collectors.toList());
+        long[] counts = new long[bounds.size() + 2];
+        long covered = 0;
+        for (Map.Entry<LocalDate, Long> entry : snapshot.warrantyEnds.entrySet()) {
+            long days = ChronoUnit.DAYS.between(today, entry.getKey());
+            int bucket;
+            if (days < 0) {
+                bucket = 0;
+            } else {
+                bucket = bounds.size() + 1;
+                for (int i = 0; i < bounds.size(); i++) {
+                    if (days <= bounds.get(i)) {
+                        bucket = i + 1;
+                        break;
+                    }
+                }
+            }
+            counts[bucket] += entry.getValue();
+            covered += entry.getValue();
+        }
+
+        List<AssetStatsDTO.Item> items = new ArrayList<>(counts.length + 1);
+        items.add(new AssetStatsDTO.Item("expired", "已过期", counts[0]));
+        int lower = 0;
+        for (int i = 0; i < bounds.size(); i++) {
+            String name = lower == 0 ? bounds.get(i) + "天内" : (lower + 1) + "-" + bounds.get(i) + "天";
+            items.add(new AssetStatsDTO.Item("d" + bounds.get(i), name, counts[i + 1]));
+            lower = bounds.get(i);
+        }
+        items.add(new AssetStatsDTO.Item("later", lower == 0 ? "未过期" : lower + "天以上", counts[bounds.size() + 1]));
+        items.add(new AssetStatsDTO.Item("none", "无维保", Math.max(0, snapshot.total - covered)));
+        return items;
+    }
+
+    private static List<AssetStatsDTO.Item> toItems(Map<String, Long> counts, Function<String, String> names) {
+        List<AssetStatsDTO.Item> items = new ArrayList<>(counts.size());
+        counts.forEach((key, count) -> items.add(new AssetStatsDTO.Item(key, names.apply(key), count)));
+        items.sort(Comparator.comparingLong(AssetStatsDTO.Item::getCount).reversed()
+                .thenComparing(AssetStatsDTO.Item::getKey));
+        return items;
+    }
+
+    private static String counterId(String dimension, String key) {
+        return dimension + ':' + key;
+    }
+
+    private Cache getCache() {
+        Cache cache = cacheManager.getCache(CacheConfig.CACHE_ASSET_STATS);
+        if (cache == null) {
+            throw new IllegalStateException("缓存未配置: " + CacheConfig.CACHE_ASSET_STATS);
+        }
+        return cache;
+    }
+
+    /**
+     * 计数器快照，构建后不再修改
+     */
+    private static final class CounterSnapshot {
+
+        private long total;
+        private List<AssetStatsDTO.Item> byStatus;
+        private List<AssetStatsDTO.Item> byCategory;
+        private List<AssetStatsDTO.Item> byDataCenter;
+        private List<AssetStatsDTO.Item> byRoom;
+
+        /**
+         * 维保结束日期 -> 资产数量
+         */
+        private TreeMap<LocalDate, Long> warrantyEnds;
+
+        private LocalDateTime loadedAt;
+    }
+}
@@ -0,0 +1,284 @@
+package com.iteams.service.impl;
+
+import com.iteams.exception.BusinessException;
+import com.iteams.model.dto.AssetTimelineEvent;
+import com.iteams.model.dto.AssetTimelineEvent.Source;
+import com.iteams.model.dto.AssetTimelinePage;
+import com.iteams.service.AssetTimelineService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * 资产履历服务实现类
+ * <p>
+ * 履历按(发生时间降序, 来源顺序, 来源记录ID降序)排列。每页对每个来源各执行一次查询：
+ * 资产ID用IN条件，从游标位置开始按(asset_id, 时间, ID)索引倒序读取最多limit+1行，
+ * 再在内存中做多路归并取前limit条。游标记录本页最后一条的(时间, 来源, ID)，
+ * 下一页各来源按该位置做键集分页，不使用OFFSET。
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AssetTimelineServiceImpl implements AssetTimelineService {
+
+    /**
+     * 一次查询的最大资产数量
+     */
+    private static final int MAX_ASSETS = 500;
+
+    /**
+     * 每页最大记录数
+     */
+    private static final int MAX_LIMIT = 500;
+
+    private static final Comparator<AssetTimelineEvent> TIMELINE_ORDER = Comparator
+            .comparing(AssetTimelineEvent::getOccurredAt).reversed()
+            .thenComparing(AssetTimelineEvent::getSource)
+            .thenComparing(AssetTimelineEvent::getSourceId, Comparator.reverseOrder());
+
+    private static final Map<Source, SourceQuery> SOURCE_QUERIES = new EnumMap<>(Source.class);
+
+    static {
+        SOURCE_QUERIES.put(Source.TRACE, new SourceQuery(
+                "SELECT trace_id, asset_id, change_type, COALESCE(p.payload, t.delta_snapshot) AS delta_snapshot, " +
+                        "operated_at, operated_by FROM change_trace t " +
+                        "LEFT JOIN change_trace_payload p ON p.payload_id = t.payload_id",
+                "trace_id", "operated_at",
+                (rs, rowNum) -> new AssetTimelineEvent(Source.TRACE,
+                        rs.getLong("trace_id"),
+                        rs.getLong("asset_id"),
+                        rs.getTimestamp("operated_at").toLocalDateTime(),
+                        rs.getString("change_type"),
+                        changeTypeLabel(rs.getString("change_type")),
+                        rs.getString("delta_snapshot"),
+                        rs.getString("operated_by"))));
+        SOURCE_QUERIES.put(Source.SPACE, new SourceQuery(
+                "SELECT space_id, asset_id, location_path, valid_from FROM space_timeline",
+                "space_id", "valid_from",
+                (rs, rowNum) -> new AssetTimelineEvent(Source.SPACE,
+                        rs.getLong("space_id"),
+                        rs.getLong("asset_id"),
+                        rs.getTimestamp("valid_from").toLocalDateTime(),
+                        "MOVE",
+                        "迁入 " + rs.getString("location_path"),
+                        null,
+                        null)));
+        SOURCE_QUERIES.put(Source.WARRANTY, new SourceQuery(
+                "SELECT warranty_id, asset_id, contract_no, provider, start_date, end_date, created_at FROM warranty_contract",
+                "warranty_id", "created_at",
+                (rs, rowNum) -> new AssetTimelineEvent(Source.WARRANTY,
+                        rs.getLong("warranty_id"),
+                        rs.getLong("asset_id"),
+                        rs.getTimestamp("created_at").toLocalDateTime(),
+                        "CONTRACT",
+                        warrantySummary(rs.getString("contract_no"), rs.getString("provider"),
+                                rs.getDate("start_date"), rs.getDate("end_date")),
+                        null,
+                        null)));
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public AssetTimelinePage getTimeline(Collection<Long> assetIds, String cursor, int limit) {
+        Set<Long> ids = assetIds == null ? new LinkedHashSet<>() : new LinkedHashSet<>(assetIds);
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            throw new BusinessException("资产ID不能为空");
+        }
+        if (ids.size() > MAX_ASSETS) {
+            throw new BusinessException("一次最多查询" + MAX_ASSETS + "个资产的履历");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BusinessException("每页记录数必须在1到" + MAX_LIMIT + "之间");
+        }
+        Cursor position = cursor == null || cursor.isBlank() ? null : Cursor.decode(cursor);
+
+        List<List<AssetTimelineEvent>> sources = new ArrayList<>(SOURCE_QUERIES.size());
+        int fetched = 0;
+        for (Map.Entry<Source, SourceQuery> entry : SOURCE_QUERIES.entrySet()) {
+            List<AssetTimelineEvent> rows = query(entry.getKey(), entry.getValue(), ids, position, limit + 1);
+            sources.add(rows);
+            fetched += rows.size();
+        }
+
+        List<AssetTimelineEvent> events = merge(sources, limit);
+        String nextCursor = fetched > events.size() ? Cursor.of(events.get(events.size() - 1)).encode() : null;
+        log.debug("查询资产履历, 资产数: {}, 读取: {}, 返回: {}", ids.size(), fetched, events.size());
+        return new AssetTimelinePage(events, nextCursor);
+    }
+
+    /**
+     * 读取单个来源在游标之后的记录，已按履历顺序排列
+     */
+    private List<AssetTimelineEvent> query(Source source, SourceQuery sourceQuery, Set<Long> assetIds,
+                                           Cursor position, int limit) {
+        StringBuilder sql = new StringBuilder(sourceQuery.select)
+                .append(" WHERE asset_id IN (")
+                .append(String.join(",", Collections.nCopies(assetIds.size(), "?")))
+                .append(")");
+        List<Object> args = new ArrayList<>(assetIds);
+        if (position != null) {
+            Timestamp time = Timestamp.valueOf(position.occurredAt);
+            int order = source.compareTo(position.source);
+            if (order < 0) {
+                sql.append(" AND ").append(sourceQuery.timeColumn).append(" < ?");
+                args.add(time);
+            } else if (order == 0) {
+                sql.append(" AND (").append(sourceQuery.timeColumn).append(" < ? OR (")
+                        .append(sourceQuery.timeColumn).append(" = ? AND ").append(sourceQuery.idColumn).append(" < ?))");
+                args.add(time);
+                args.add(time);
+                args.add(position.sourceId);
+            } else {
+                sql.append(" AND ").append(sourceQuery.timeColumn).append(" <= ?");
+                args.add(time);
+            }
+        }
+        sql.append(" ORDER BY ").append(sourceQuery.timeColumn).append(" DESC, ")
+                .append(sourceQuery.idColumn).append(" DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), sourceQuery.rowMapper, args.toArray());
+    }
+
+    /**
+     * 多路归并各来源的有序记录，取前limit条
+     */
+    private static List<AssetTimelineEvent> merge(List<List<AssetTimelineEvent>> sources, int limit) {
+        PriorityQueue<Head> heads = new PriorityQueue<>(Comparator.comparing((Head head) -> head.current, TIMELINE_ORDER));
+        for (List<AssetTimelineEvent> rows : sources) {
+            Iterator<AssetTimelineEvent> iterator = rows.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Head(iterator.next(), iterator));
+            }
+        }
+        List<AssetTimelineEvent> merged = new ArrayList<>(limit);
+        while (merged.size() < limit && !heads.isEmpty()) {
+            Head head = heads.poll();
+            merged.add(head.current);
+            if (head.rest.hasNext()) {
+                head.current = head.rest.next();
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+
+    private static String changeTypeLabel(String changeType) {
+        if (changeType == null) {
+            return null;
+        }
+        switch (changeType) {
+            case "SPACE":
+                return "空间变更";
+            case "STATUS":
+                return "状态变更";
+            case "WARRANTY":
+                return "维保变更";
+            case "PROPERTY":
+                return "属性变更";
+            case "OWNER":
+                return "所有者变更";
+            case "INITIAL":
+                return "初始录入";
+            default:
+                return changeType;
+        }
+    }
+
+    private static String warrantySummary(String contractNo, String provider, Date startDate, Date endDate) {
+        StringBuilder summary = new StringBuilder("维保合约 ").append(contractNo);
+        if (provider != null && !provider.isBlank()) {
+            summary.append("（").append(provider).append("）");
+        }
+        return summary.append(" ").append(startDate).append(" ~ ").append(endDate).toString();
+    }
+
+    /**
+     * 单个来源的查询定义
+     */
+    private static final class SourceQuery {
+
+        private final String select;
+        private final String idColumn;
+        private final String timeColumn;
+        private final RowMapper<AssetTimelineEvent> rowMapper;
+
+        private SourceQuery(String select, String idColumn, String timeColumn, RowMapper<AssetTimelineEvent> rowMapper) {
+            this.select = select;
+            this.idColumn = idColumn;
+            this.timeColumn = timeColumn;
+            this.rowMapper = rowMapper;
+        }
+    }
+
+    /**
+     * 归并时某个来源的当前记录和剩余记录
+     */
+    private static final class Head {
+
+        private AssetTimelineEvent current;
+        private final Iterator<AssetTimelineEvent> rest;
+
+        private Head(AssetTimelineEvent current, Iterator<AssetTimelineEvent> rest) {
+            this.current = current;
+            this.rest = rest;
+        }
+    }
+
+    /**
+     * 分页游标：上一页最后一条记录的(时间, 来源, ID)，编码为URL安全的Base64
+     */
+    private static final class Cursor {
+
+        private final LocalDateTime occurredAt;
+        private final Source source;
+        private final long sourceId;
+
+        private Cursor(LocalDateTime occurredAt, Source source, long sourceId) {
+            this.occurredAt = occurredAt;
+            this.source = source;
+            this.sourceId = sourceId;
+        }
+
+        private static Cursor of(AssetTimelineEvent event) {
+            return new Cursor(event.getOccurredAt(), event.getSource(), event.getSourceId());
+        }
+
+        private String encode() {
+            String raw = occurredAt + "|" + source + "|" + sourceId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static Cursor decode(String value) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|");
+                return new Cursor(LocalDateTime.parse(parts[0]), Source.valueOf(parts[1]), Long.parseLong(parts[2]));
+            } catch (RuntimeException e) {
+                throw new BusinessException("无效的游标: " + value);
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.iteams.service.impl;
+
+import com.iteams.config.CacheInvalidationHandler;
+import com.iteams.model.dto.CacheInvalidationMessage;
+import com.iteams.service.CacheCoherenceService;
+import com.iteams.service.CacheInvalidationTransport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 跨节点缓存一致性服务实现类
+ * <p>
+ * 缓存管理器、失效处理器和传输通道都延迟获取：缓存管理器依赖刷新加载器，
+ * 而刷新加载器所在的服务又要广播失效，构造时直接注入会形成循环依赖
+ * </p>
+ */
+@Slf4j
+@Service
+public class CacheCoherenceServiceImpl implements CacheCoherenceService {
+
+    /**
+     * 节点ID，每次启动重新生成
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final ObjectProvider<CacheManager> cacheManagerProvider;
+    private final ObjectProvider<CacheInvalidationHandler> handlerProvider;
+    private final ObjectProvider<CacheInvalidationTransport> transportProvider;
+
+    private volatile Map<String, CacheInvalidationHandler> handlers;
+
+    public CacheCoherenceServiceImpl(ObjectProvider<CacheManager> cacheManagerProvider,
+                                     ObjectProvider<CacheInvalidationHandler> handlerProvider,
+                                     ObjectProvider<CacheInvalidationTransport> transportProvider) {
+        this.cacheManagerProvider = cacheManagerProvider;
+        this.handlerProvider = handlerProvider;
+        this.transportProvider = transportProvider;
+    }
+
+    @Override
+    public void publishEvict(String cacheName, Object key) {
+        send(cacheName, String.valueOf(key));
+    }
+
+    @Override
+    public void publishClear(String cacheName) {
+        send(cacheName, null);
+    }
+
+    @Override
+    public void apply(List<CacheInvalidationMessage> messages) {
+        for (CacheInvalidationMessage message : messages) {
+            if (nodeId.equals(message.getOriginNode())) {
+                continue;
+            }
+            try {
+                applyLocally(message.getCacheName(), message.getKey());
+            } catch (Exception e) {
+                log.error("应用缓存失效消息失败: {}", message, e);
+            }
+        }
+    }
+
+    @Override
+    public void resync() {
+        Set<String> cacheNames = new LinkedHashSet<>(getHandlers().keySet());
+        CacheManager cacheManager = cacheManagerProvider.getIfAvailable();
+        if (cacheManager != null) {
+            cacheNames.addAll(cacheManager.getCacheNames());
+        }
+        cacheNames.forEach(cacheName -> applyLocally(cacheName, null));
+        log.warn("与其他节点失联时间过长，已清空本地全部缓存: {}", cacheNames);
+    }
+
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private void send(String cacheName, String key) {
+        CacheInvalidationTransport transport = transportProvider.getIfAvailable();
+        if (transport == null) {
+            return;
+        }
+        transport.send(List.of(CacheInvalidationMessage.builder()
+                .cacheName(cacheName)
+                .key(key)
+                .originNode(nodeId)
+                .build()));
+    }
+
+    /**
+     * 清除本地缓存条目及处理器维护的派生数据，键为空时清空整个缓存
+     */
+    private void applyLocally(String cacheName, String key) {
+        CacheInvalidationHandler handler = getHandlers().get(cacheName);
+        Object cacheKey = key == null || handler == null ? key : handler.toCacheKey(key);
+
+        // 只处理已声明的缓存，避免动态创建出新的空缓存
+        CacheManager cacheManager = cacheManagerProvider.getIfAvailable();
+        if (cacheManager != null && cacheManager.getCacheNames().contains(cacheName)) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                if (cacheKey == null) {
+                    cache.clear();
+                } else {
+                    cache.evict(cacheKey);
+                }
+            }
+        }
+
+        if (handler != null) {
+            if (cacheKey == null) {
+                handler.clear();
+            } else {
+                handler.evict(cacheKey);
+            }
+        }
+    }
+
+    private Map<String, CacheInvalidationHandler> getHandlers() {
+        Map<String, CacheInvalidationHandler> current = handlers;
+        if (current == null) {
+            current = handlerProvider.orderedStream()
+                    .collect(Collectors.toMap(CacheInvalidationHandler::getCacheName, Function.identity()));
+            handlers = current;
+        }
+        return current;
+    }
+}
@@ -1,12 +1,21 @@
 package com.iteams.service.impl;
 
+import com.iteams.exception.ResourceNotFoundException;
+import com.iteams.model.dto.CategoryAssetCountDTO;
 import com.iteams.model.entity.CategoryMetadata;
+import com.iteams.repository.AssetRepository;
 import com.iteams.repository.CategoryRepository;
 import com.iteams.service.CategoryService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * 分类服务实现类
  * <p>
@@ -39,13 +48,20 @@ public class CategoryServiceImpl implements CategoryService {
      */
     private final CategoryRepository categoryRepository;
 
+    /**
+     * 资产数据访问对象，用于按分类统计资产
+     */
+    private final AssetRepository assetRepository;
+
     /**
      * 构造函数，通过依赖注入获取CategoryRepository实例
      * 
      * @param categoryRepository 分类数据访问对象
+     * @param assetRepository 资产数据访问对象
      */
-    public CategoryServiceImpl(CategoryRepository categoryRepository) {
+    public CategoryServiceImpl(CategoryRepository categoryRepository, AssetRepository assetRepository) {
         this.categoryRepository = categoryRepository;
+        this.assetRepository = assetRepository;
     }
 
     /**
@@ -173,4 +189,53 @@ public class CategoryServiceImpl implements CategoryService {
         
         return true;
     }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * 资产主表上有(一级, 二级, 三级分类ID)联合索引，按一级分类分组、
+     * 以及在指定上级分类下按下一级分组都是该索引上的范围扫描
+     * </p>
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<CategoryAssetCountDTO> getAssetCounts(Long parentId) {
+        List<Object[]> rows;
+        if (parentId == null) {
+            rows = assetRepository.countGroupByTopCategory();
+        } else {
+            CategoryMetadata parent = categoryRepository.findById(parentId)
+                    .orElseThrow(() -> new ResourceNotFoundException("分类不存在: " + parentId));
+            if (parent.getLevel() == 1) {
+                rows = assetRepository.countGroupBySecondCategory(parentId);
+            } else if (parent.getLevel() == 2 && parent.getParent() != null) {
+                rows = assetRepository.countGroupByThirdCategory(parent.getParent().getCategoryId(), parentId);
+            } else {
+                return List.of();
+            }
+        }
+
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        List<CategoryAssetCountDTO> result = new ArrayList<>(counts.size());
+        for (CategoryMetadata category : categoryRepository.findAllById(counts.keySet())) {
+            result.add(new CategoryAssetCountDTO(category.getCategoryId(), category.getName(),
+                    category.getLevel(), counts.get(category.getCategoryId())));
+        }
+        result.sort(Comparator.comparing(CategoryAssetCountDTO::getAssetCount).reversed()
+                .thenComparing(CategoryAssetCountDTO::getCategoryId));
+        return result;
+    }
+
+    @Override
+    @Transactional
+    public int fillAssetCategoryIds() {
+        int updated = assetRepository.fillCategoryIds();
+        if (updated > 0) {
+            log.info("资产分类ID补齐完成, 更新资产数: {}", updated);
+        }
+        return updated;
+    }
 } 
\ No newline at end of file
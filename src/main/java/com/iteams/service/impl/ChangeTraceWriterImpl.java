@@ -0,0 +1,312 @@
+package com.iteams.service.impl;
+
+import com.iteams.config.ChangeTraceProperties;
+import com.iteams.model.entity.ChangeTrace;
+import com.iteams.service.ChangeTraceWriter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 变更记录批量写入实现类
+ * <p>
+ * 存在事务时变更记录在事务内累积，提交前与业务数据一起写入；事务外的变更记录放入缓冲队列，
+ * 累积到批量大小或定时任务触发时写入。写入时每批只执行一条多行INSERT，
+ * 整批失败时逐条重写，仍失败的记录放回队列在下次写入时重试，超过最多写入次数后记录到错误日志。
+ * </p>
+ * <p>
+ * 配置为内容只保存一份的变更类型，内容按SHA-256摘要写入change_trace_payload：
+ * INSERT ... ON DUPLICATE KEY UPDATE payload_id = LAST_INSERT_ID(payload_id)，同一连接上读取LAST_INSERT_ID()即为新建或已有内容的ID，
+ * 变更记录只保存payload_id和{"$ref": payload_id}。摘要与ID的对应关系在本地缓存，
+ * 事务内新写入的内容在提交后才放入缓存，避免引用回滚掉的内容。
+ * </p>
+ */
+@Slf4j
+@Service
+public class ChangeTraceWriterImpl implements ChangeTraceWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO change_trace (asset_id, change_type, delta_snapshot, payload_id, " +
+            "operation_tree, operated_at, operated_by, created_at) VALUES ";
+
+    private static final String UPSERT_PAYLOAD_SQL = "INSERT INTO change_trace_payload (payload_hash, payload, created_at) " +
+            "VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE payload_id = LAST_INSERT_ID(payload_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ChangeTraceProperties properties;
+    private final Queue<PendingTrace> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    /**
+     * 内容摘要 -> payload_id，按访问顺序淘汰
+     */
+    private final Map<String, Long> payloadIds;
+
+    public ChangeTraceWriterImpl(JdbcTemplate jdbcTemplate, ChangeTraceProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        int cacheSize = properties.getInternCacheSize();
+        this.payloadIds = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    @Override
+    public void append(ChangeTrace changeTrace) {
+        if (changeTrace == null || changeTrace.getChangeType() == null || changeTrace.getDeltaSnapshot() == null) {
+            throw new IllegalArgumentException("变更类型和变更内容不能为空");
+        }
+        PendingTrace trace = new PendingTrace(changeTrace);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            queue.add(trace);
+            if (queued.incrementAndGet() >= properties.getBatchSize()) {
+                flush();
+            }
+            return;
+        }
+
+        TransactionBuffer buffer = (TransactionBuffer) TransactionSynchronizationManager.getResource(this);
+        if (buffer == null) {
+            TransactionBuffer bound = new TransactionBuffer();
+            TransactionSynchronizationManager.bindResource(this, bound);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    write(bound.traces, bound.resolved);
+                }
+
+                @Override
+                public void afterCommit() {
+                    cachePayloadIds(bound.resolved);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ChangeTraceWriterImpl.this);
+                }
+            });
+            buffer = bound;
+        }
+        buffer.traces.add(trace);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${iteams.asset.change-trace.flush-interval-ms:1000}")
+    public synchronized int flush() {
+        int batchSize = properties.getBatchSize();
+        List<PendingTrace> batch = new ArrayList<>(batchSize);
+        List<PendingTrace> failed = new ArrayList<>();
+        int total = 0;
+        PendingTrace trace;
+        while ((trace = queue.poll()) != null) {
+            queued.decrementAndGet();
+            batch.add(trace);
+            if (batch.size() >= batchSize) {
+                total += writeBatch(batch, failed);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            total += writeBatch(batch, failed);
+        }
+        // 本次写入结束后再放回队列，避免在同一次写入中反复重试
+        for (PendingTrace retry : failed) {
+            queue.add(retry);
+            queued.incrementAndGet();
+        }
+        if (total > 0) {
+            log.debug("已批量写入{}条变更记录", total);
+        }
+        return total;
+    }
+
+    /**
+     * 关闭前写入剩余的变更记录，失败的记录重试到最多写入次数
+     */
+    @PreDestroy
+    public void shutdown() {
+        for (int i = 0; i < properties.getMaxAttempts() && !queue.isEmpty(); i++) {
+            flush();
+        }
+    }
+
+    /**
+     * 写入一批变更记录，整批失败时逐条重写
+     *
+     * @param failed 逐条重写仍失败、需要重试的记录
+     * @return 写入数量
+     */
+    private int writeBatch(List<PendingTrace> batch, List<PendingTrace> failed) {
+        Map<String, Long> resolved = new HashMap<>();
+        try {
+            write(batch, resolved);
+            cachePayloadIds(resolved);
+            return batch.size();
+        } catch (Exception e) {
+            log.warn("批量写入{}条变更记录失败，改为逐条写入: {}", batch.size(), e.getMessage());
+        }
+
+        int written = 0;
+        for (PendingTrace trace : batch) {
+            try {
+                write(List.of(trace), resolved);
+                written++;
+            } catch (Exception e) {
+                trace.attempts++;
+                if (trace.attempts < properties.getMaxAttempts()) {
+                    failed.add(trace);
+                } else {
+                    log.error("变更记录写入{}次仍失败，放弃: assetId={}, changeType={}, operatedAt={}, operatedBy={}, delta={}",
+                            trace.attempts, trace.assetId, trace.changeType, trace.operatedAt, trace.operatedBy,
+                            trace.deltaSnapshot, e);
+                }
+            }
+        }
+        cachePayloadIds(resolved);
+        return written;
+    }
+
+    /**
+     * 按批量大小分段，每段一条多行INSERT
+     *
+     * @param resolved 本次写入中解析出的内容摘要和ID
+     */
+    private void write(List<PendingTrace> traces, Map<String, Long> resolved) {
+        int batchSize = Math.max(properties.getBatchSize(), 1);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int from = 0; from < traces.size(); from += batchSize) {
+            List<PendingTrace> chunk = traces.subList(from, Math.min(from + batchSize, traces.size()));
+            StringBuilder sql = new StringBuilder(INSERT_SQL);
+            List<Object> args = new ArrayList<>(chunk.size() * 8);
+            for (PendingTrace trace : chunk) {
+                Long payloadId = null;
+                String delta = trace.deltaSnapshot;
+                if (properties.getInternTypes().contains(trace.changeType)) {
+                    payloadId = resolvePayload(delta, resolved);
+                    delta = "{\"$ref\": " + payloadId + "}";
+                }
+                sql.append(args.isEmpty() ? "(?, ?, ?, ?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?, ?, ?, ?)");
+                args.add(trace.assetId);
+                args.add(trace.changeType.name());
+                args.add(delta);
+                args.add(payloadId);
+                args.add(trace.operationTree);
+                args.add(trace.operatedAt);
+                args.add(trace.operatedBy);
+                args.add(now);
+            }
+            jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+    }
+
+    /**
+     * 查找或写入共享内容
+     */
+    private Long resolvePayload(String payload, Map<String, Long> resolved) {
+        String hash = sha256(payload);
+        Long payloadId = resolved.get(hash);
+        if (payloadId == null) {
+            synchronized (payloadIds) {
+                payloadId = payloadIds.get(hash);
+            }
+        }
+        if (payloadId == null) {
+            // 两条语句必须在同一连接上执行，LAST_INSERT_ID()按连接保存
+            payloadId = jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+                try (PreparedStatement ps = con.prepareStatement(UPSERT_PAYLOAD_SQL)) {
+                    ps.setString(1, hash);
+                    ps.setString(2, payload);
+                    ps.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+                    ps.executeUpdate();
+                }
+                try (Statement st = con.createStatement(); ResultSet rs = st.executeQuery("SELECT LAST_INSERT_ID()")) {
+                    rs.next();
+                    return rs.getLong(1);
+                }
+            });
+        }
+        resolved.put(hash, payloadId);
+        return payloadId;
+    }
+
+    private void cachePayloadIds(Map<String, Long> resolved) {
+        if (resolved.isEmpty()) {
+            return;
+        }
+        synchronized (payloadIds) {
+            payloadIds.putAll(resolved);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256算法不可用", e);
+        }
+    }
+
+    /**
+     * 事务内累积的变更记录
+     */
+    private static final class TransactionBuffer {
+
+        private final List<PendingTrace> traces = new ArrayList<>();
+        private final Map<String, Long> resolved = new HashMap<>();
+    }
+
+    /**
+     * 待写入的变更记录，提交时复制实体的字段，之后对实体的修改不影响写入内容
+     */
+    private static final class PendingTrace {
+
+        private final Long assetId;
+        private final ChangeTrace.ChangeType changeType;
+        private final String deltaSnapshot;
+        private final String operationTree;
+        private final Timestamp operatedAt;
+        private final String operatedBy;
+
+        /**
+         * 已失败的写入次数
+         */
+        private int attempts;
+
+        private PendingTrace(ChangeTrace changeTrace) {
+            this.assetId = changeTrace.getAsset() != null ? changeTrace.getAsset().getAssetId() : null;
+            this.changeType = changeTrace.getChangeType();
+            this.deltaSnapshot = changeTrace.getDeltaSnapshot();
+            this.operationTree = changeTrace.getOperationTree();
+            this.operatedAt = Timestamp.valueOf(changeTrace.getOperatedAt() != null
+                    ? changeTrace.getOperatedAt() : LocalDateTime.now());
+            this.operatedBy = changeTrace.getOperatedBy();
+        }
+    }
+}
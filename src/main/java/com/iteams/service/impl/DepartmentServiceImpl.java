@@ -1,24 +1,25 @@
 package com.iteams.service.impl;
 
+import com.iteams.event.OrganizationChangedEvent;
 import com.iteams.exception.ResourceNotFoundException;
 import com.iteams.model.dto.DepartmentDTO;
+import com.iteams.model.dto.OrgTreeSnapshot;
 import com.iteams.model.entity.Department;
 import com.iteams.repository.DepartmentRepository;
 import com.iteams.repository.UserRepository;
 import com.iteams.service.DepartmentService;
+import com.iteams.service.HierarchyIndexService;
+import com.iteams.service.OrgTreeSnapshotService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * 部门服务实现类
@@ -30,6 +31,9 @@ public class DepartmentServiceImpl implements DepartmentService {
 
     private final DepartmentRepository departmentRepository;
     private final UserRepository userRepository;
+    private final OrgTreeSnapshotService orgTreeSnapshotService;
+    private final HierarchyIndexService hierarchyIndexService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 获取部门分页列表
@@ -37,7 +41,8 @@ public class DepartmentServiceImpl implements DepartmentService {
     @Override
     public Page<DepartmentDTO> getDepartments(String name, String code, Boolean enabled, Pageable pageable) {
         Page<Department> departments = departmentRepository.findByConditions(name, code, enabled, pageable);
-        return departments.map(this::convertToDto);
+        OrgTreeSnapshot snapshot = orgTreeSnapshotService.getSnapshot();
+        return departments.map(department -> convertToDto(department, snapshot));
     }
 
     /**
@@ -45,15 +50,7 @@ public class DepartmentServiceImpl implements DepartmentService {
      */
     @Override
     public List<DepartmentDTO> getAllDepartments(Boolean enabled) {
-        List<Department> departments;
-        if (enabled != null) {
-            departments = departmentRepository.findAll().stream()
-                    .filter(d -> d.getEnabled().equals(enabled))
-                    .collect(Collectors.toList());
-        } else {
-            departments = departmentRepository.findAll();
-        }
-        return departments.stream().map(this::convertToDto).collect(Collectors.toList());
+        return orgTreeSnapshotService.getSnapshot().list(enabled);
     }
 
     /**
@@ -61,45 +58,7 @@ public class DepartmentServiceImpl implements DepartmentService {
      */
     @Override
     public List<DepartmentDTO> getDepartmentTree(Boolean enabled) {
-        List<Department> allDepartments;
-        if (enabled != null) {
-            allDepartments = departmentRepository.findAll().stream()
-                    .filter(d -> d.getEnabled().equals(enabled))
-                    .collect(Collectors.toList());
-        } else {
-            allDepartments = departmentRepository.findAll();
-        }
-
-        // 转换为DTO
-        List<DepartmentDTO> dtoList = allDepartments.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
-
-        // 构建树结构
-        Map<Long, DepartmentDTO> dtoMap = new HashMap<>();
-        List<DepartmentDTO> rootDepartments = new ArrayList<>();
-
-        // 将所有部门放入Map
-        for (DepartmentDTO dto : dtoList) {
-            dtoMap.put(dto.getId(), dto);
-        }
-
-        // 构建树结构
-        for (DepartmentDTO dto : dtoList) {
-            if (dto.getParentId() == null) {
-                // 根部门
-                rootDepartments.add(dto);
-            } else {
-                // 子部门
-                DepartmentDTO parentDto = dtoMap.get(dto.getParentId());
-                if (parentDto != null) {
-                    // 设置父部门名称
-                    dto.setParentName(parentDto.getName());
-                }
-            }
-        }
-
-        return rootDepartments;
+        return orgTreeSnapshotService.getSnapshot().tree(enabled);
     }
 
     /**
@@ -107,9 +66,8 @@ public class DepartmentServiceImpl implements DepartmentService {
      */
     @Override
     public DepartmentDTO getDepartmentById(Long id) {
-        Department department = departmentRepository.findById(id)
+        return orgTreeSnapshotService.getSnapshot().find(id)
                 .orElseThrow(() -> new ResourceNotFoundException("部门不存在: " + id));
-        return convertToDto(department);
     }
 
     /**
@@ -138,13 +96,14 @@ public class DepartmentServiceImpl implements DepartmentService {
         department.setCode(departmentDTO.getCode());
         department.setDescription(departmentDTO.getDescription());
         department.setParentId(departmentDTO.getParentId());
-        department.setLevel(departmentDTO.getLevel() != null ? departmentDTO.getLevel() : 1);
         department.setSortOrder(departmentDTO.getSortOrder() != null ? departmentDTO.getSortOrder() : 0);
         department.setEnabled(departmentDTO.getEnabled() != null ? departmentDTO.getEnabled() : true);
         department.setCreatedAt(LocalDateTime.now());
 
-        // 保存部门
+        // 保存部门，生成ID后写入物化路径和级别
         Department savedDepartment = departmentRepository.save(department);
+        hierarchyIndexService.assignPath(savedDepartment);
+        eventPublisher.publishEvent(new OrganizationChangedEvent());
         return convertToDto(savedDepartment);
     }
 
@@ -176,14 +135,13 @@ public class DepartmentServiceImpl implements DepartmentService {
                     .orElseThrow(() -> new ResourceNotFoundException("父部门不存在: " + departmentDTO.getParentId()));
         }
 
+        // 父部门变化时连同子树一起移动（路径和级别），同时防止移动到自己的子部门下
+        hierarchyIndexService.moveDepartment(department, departmentDTO.getParentId());
+
         // 更新部门信息
         department.setName(departmentDTO.getName());
         department.setCode(departmentDTO.getCode());
         department.setDescription(departmentDTO.getDescription());
-        department.setParentId(departmentDTO.getParentId());
-        if (departmentDTO.getLevel() != null) {
-            department.setLevel(departmentDTO.getLevel());
-        }
         if (departmentDTO.getSortOrder() != null) {
             department.setSortOrder(departmentDTO.getSortOrder());
         }
@@ -194,6 +152,7 @@ public class DepartmentServiceImpl implements DepartmentService {
 
         // 保存部门
         Department updatedDepartment = departmentRepository.save(department);
+        eventPublisher.publishEvent(new OrganizationChangedEvent());
         return convertToDto(updatedDepartment);
     }
 
@@ -220,6 +179,7 @@ public class DepartmentServiceImpl implements DepartmentService {
 
         // 删除部门
         departmentRepository.delete(department);
+        eventPublisher.publishEvent(new OrganizationChangedEvent());
     }
 
     /**
@@ -233,6 +193,7 @@ public class DepartmentServiceImpl implements DepartmentService {
         department.setEnabled(true);
         department.setUpdatedAt(LocalDateTime.now());
         Department updatedDepartment = departmentRepository.save(department);
+        eventPublisher.publishEvent(new OrganizationChangedEvent());
         return convertToDto(updatedDepartment);
     }
 
@@ -247,6 +208,7 @@ public class DepartmentServiceImpl implements DepartmentService {
         department.setEnabled(false);
         department.setUpdatedAt(LocalDateTime.now());
         Department updatedDepartment = departmentRepository.save(department);
+        eventPublisher.publishEvent(new OrganizationChangedEvent());
         return convertToDto(updatedDepartment);
     }
 
@@ -273,6 +235,7 @@ public class DepartmentServiceImpl implements DepartmentService {
             department.setUpdatedAt(LocalDateTime.now());
         }
         departmentRepository.saveAll(departments);
+        eventPublisher.publishEvent(new OrganizationChangedEvent());
     }
 
     /**
@@ -287,12 +250,20 @@ public class DepartmentServiceImpl implements DepartmentService {
             department.setUpdatedAt(LocalDateTime.now());
         }
         departmentRepository.saveAll(departments);
+        eventPublisher.publishEvent(new OrganizationChangedEvent());
     }
 
     /**
      * 转换部门实体为DTO
      */
     private DepartmentDTO convertToDto(Department department) {
+        return convertToDto(department, orgTreeSnapshotService.getSnapshot());
+    }
+
+    /**
+     * 转换部门实体为DTO，用户数量和父部门名称从组织树快照读取
+     */
+    private DepartmentDTO convertToDto(Department department, OrgTreeSnapshot snapshot) {
         DepartmentDTO dto = new DepartmentDTO();
         dto.setId(department.getId());
         dto.setName(department.getName());
@@ -304,16 +275,8 @@ public class DepartmentServiceImpl implements DepartmentService {
         dto.setEnabled(department.getEnabled());
         dto.setCreatedAt(department.getCreatedAt());
         dto.setUpdatedAt(department.getUpdatedAt());
-        
-        // 设置用户数量
-        dto.setUserCount((int) userRepository.countByDepartmentId(department.getId()));
-        
-        // 如果有父部门，设置父部门名称
-        if (department.getParentId() != null) {
-            departmentRepository.findById(department.getParentId())
-                    .ifPresent(parent -> dto.setParentName(parent.getName()));
-        }
-        
+        dto.setUserCount(snapshot.getUserCount(department.getId()));
+        dto.setParentName(snapshot.getName(department.getParentId()));
         return dto;
     }
 }
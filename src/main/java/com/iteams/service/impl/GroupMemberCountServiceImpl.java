@@ -0,0 +1,83 @@
+package com.iteams.service.impl;
+
+import com.iteams.config.CacheConfig;
+import com.iteams.config.CacheInvalidationHandler;
+import com.iteams.event.GroupMembershipChangedEvent;
+import com.iteams.repository.UserRepository;
+import com.iteams.service.CacheCoherenceService;
+import com.iteams.service.GroupMemberCountService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 用户组成员计数服务实现类
+ * <p>
+ * 计数存放在groupMemberCounts缓存中。成员变化提交后清除相关条目，
+ * 下次读取时从数据库统计；其他节点收到失效通知后同样重新统计
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GroupMemberCountServiceImpl implements GroupMemberCountService, CacheInvalidationHandler {
+
+    private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+    private final CacheCoherenceService cacheCoherenceService;
+
+    @Override
+    public int getMemberCount(Long groupId) {
+        Long count = getCache().get(groupId, () -> userRepository.countByGroupId(groupId));
+        return count == null ? 0 : count.intValue();
+    }
+
+    /**
+     * 事务提交后清除成员计数
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGroupMembershipChanged(GroupMembershipChangedEvent event) {
+        Cache cache = getCache();
+        if (event.getGroupIds() == null) {
+            cache.clear();
+            cacheCoherenceService.publishClear(CacheConfig.CACHE_GROUP_MEMBER_COUNTS);
+            return;
+        }
+        for (Long groupId : event.getGroupIds()) {
+            cache.evict(groupId);
+            cacheCoherenceService.publishEvict(CacheConfig.CACHE_GROUP_MEMBER_COUNTS, groupId);
+        }
+        log.debug("用户组成员计数已失效: {}", event);
+    }
+
+    @Override
+    public String getCacheName() {
+        return CacheConfig.CACHE_GROUP_MEMBER_COUNTS;
+    }
+
+    @Override
+    public Object toCacheKey(String key) {
+        return Long.valueOf(key);
+    }
+
+    @Override
+    public void evict(Object key) {
+        // 只有缓存管理器中的条目，由一致性服务清除
+    }
+
+    @Override
+    public void clear() {
+        // 只有缓存管理器中的条目，由一致性服务清除
+    }
+
+    private Cache getCache() {
+        Cache cache = cacheManager.getCache(CacheConfig.CACHE_GROUP_MEMBER_COUNTS);
+        if (cache == null) {
+            throw new IllegalStateException("缓存未配置: " + CacheConfig.CACHE_GROUP_MEMBER_COUNTS);
+        }
+        return cache;
+    }
+}
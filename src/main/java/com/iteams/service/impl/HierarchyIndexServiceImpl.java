@@ -0,0 +1,197 @@
+package com.iteams.service.impl;
+
+import com.iteams.exception.ResourceNotFoundException;
+import com.iteams.model.entity.CategoryMetadata;
+import com.iteams.model.entity.Department;
+import com.iteams.repository.CategoryRepository;
+import com.iteams.repository.DepartmentRepository;
+import com.iteams.service.HierarchyIndexService;
+import com.iteams.util.TreePath;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 层级索引服务实现类
+ * <p>
+ * 增量维护走JPA（与业务修改在同一事务中），全量重建走JDBC：
+ * 一次读出整张表的父子关系，在内存中计算路径，再批量回写不一致的行。
+ * 父节点不存在或存在环的节点按顶级节点处理并记录警告。
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HierarchyIndexServiceImpl implements HierarchyIndexService {
+
+    private final DepartmentRepository departmentRepository;
+    private final CategoryRepository categoryRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void assignPath(Department department) {
+        String path = TreePath.of(getDepartmentPath(department.getParentId()), department.getId());
+        department.setTreePath(path);
+        department.setLevel(TreePath.depth(path));
+    }
+
+    @Override
+    @Transactional
+    public void moveDepartment(Department department, Long newParentId) {
+        if (Objects.equals(department.getParentId(), newParentId)) {
+            return;
+        }
+        String parentPath = getDepartmentPath(newParentId);
+        String oldPath = department.getTreePath();
+        if (oldPath == null) {
+            // 尚未建立路径的部门没有可移动的子树，直接按新父部门写入
+            department.setParentId(newParentId);
+            assignPath(department);
+            return;
+        }
+        if (TreePath.isWithin(parentPath, oldPath)) {
+            throw new IllegalArgumentException("不能将部门移动到其自身或子部门下");
+        }
+
+        String newPath = TreePath.of(parentPath, department.getId());
+        int levelDelta = TreePath.depth(newPath) - TreePath.depth(oldPath);
+        int count = departmentRepository.moveSubtree(oldPath, newPath, levelDelta);
+        // 批量更新不会同步到已加载的实体，手动设置，避免提交时被旧值覆盖
+        department.setParentId(newParentId);
+        department.setTreePath(newPath);
+        department.setLevel(TreePath.depth(newPath));
+        log.debug("部门[{}]已移动, 路径: {} -> {}, 影响部门数: {}", department.getId(), oldPath, newPath, count);
+    }
+
+    @Override
+    @Transactional
+    public CategoryMetadata saveCategory(CategoryMetadata category) {
+        CategoryMetadata saved = categoryRepository.save(category);
+        CategoryMetadata parent = saved.getParent();
+        saved.setFullPath(parent == null ? saved.getName() : parent.getFullPath() + TreePath.SEPARATOR + saved.getName());
+        return categoryRepository.save(saved);
+    }
+
+    @Override
+    @Transactional
+    public int rebuild() {
+        int updated = rebuildDepartments() + rebuildCategories();
+        if (updated > 0) {
+            log.info("层级路径重建完成, 更新行数: {}", updated);
+        }
+        return updated;
+    }
+
+    private int rebuildDepartments() {
+        Map<Long, Long> parents = new HashMap<>();
+        Map<Long, String> stored = new HashMap<>();
+        Map<Long, Integer> storedLevels = new HashMap<>();
+        jdbcTemplate.query("SELECT id, parent_id, tree_path, level FROM sys_department", rs -> {
+            long id = rs.getLong("id");
+            long parentId = rs.getLong("parent_id");
+            parents.put(id, rs.wasNull() ? null : parentId);
+            stored.put(id, rs.getString("tree_path"));
+            int level = rs.getInt("level");
+            storedLevels.put(id, rs.wasNull() ? null : level);
+        });
+
+        Map<Long, String> paths = computePaths(parents);
+        List<Object[]> rows = new ArrayList<>();
+        paths.forEach((id, path) -> {
+            int level = TreePath.depth(path);
+            if (!path.equals(stored.get(id)) || !Objects.equals(level, storedLevels.get(id))) {
+                rows.add(new Object[]{path, level, id});
+            }
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE sys_department SET tree_path = ?, level = ? WHERE id = ?", rows);
+        }
+        return rows.size();
+    }
+
+    private int rebuildCategories() {
+        Map<Long, Long> parents = new HashMap<>();
+        Map<Long, String> names = new HashMap<>();
+        Map<Long, String> stored = new HashMap<>();
+        jdbcTemplate.query("SELECT category_id, parent_id, name, full_path FROM category_metadata", rs -> {
+            long id = rs.getLong("category_id");
+            long parentId = rs.getLong("parent_id");
+            parents.put(id, rs.wasNull() ? null : parentId);
+            names.put(id, rs.getString("name"));
+            stored.put(id, rs.getString("full_path"));
+        });
+
+        Map<Long, String> paths = computePaths(parents);
+        List<Object[]> rows = new ArrayList<>();
+        paths.forEach((id, path) -> {
+            String fullPath = TreePath.ids(path).stream()
+                    .map(names::get)
+                    .collect(Collectors.joining(TreePath.SEPARATOR));
+            if (!fullPath.equals(stored.get(id))) {
+                rows.add(new Object[]{fullPath, id});
+            }
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE category_metadata SET full_path = ? WHERE category_id = ?", rows);
+        }
+        return rows.size();
+    }
+
+    /**
+     * 按父子关系计算每个节点的路径，每个节点只计算一次
+     */
+    private static Map<Long, String> computePaths(Map<Long, Long> parents) {
+        Map<Long, String> paths = new HashMap<>(parents.size() * 2);
+        for (Long id : parents.keySet()) {
+            Deque<Long> chain = new ArrayDeque<>();
+            Set<Long> onChain = new HashSet<>();
+            Long current = id;
+            while (current != null && !paths.containsKey(current)) {
+                if (!onChain.add(current)) {
+                    log.warn("层级数据存在环, 节点{}按顶级节点处理", chain.peek());
+                    break;
+                }
+                chain.push(current);
+                Long parentId = parents.get(current);
+                if (parentId != null && !parents.containsKey(parentId)) {
+                    log.warn("节点{}的父节点{}不存在, 按顶级节点处理", current, parentId);
+                    parentId = null;
+                }
+                current = parentId;
+            }
+            String path = current != null ? paths.get(current) : null;
+            while (!chain.isEmpty()) {
+                Long node = chain.pop();
+                path = TreePath.of(path, node);
+                paths.put(node, path);
+            }
+        }
+        return paths;
+    }
+
+    private String getDepartmentPath(Long departmentId) {
+        return departmentId == null ? null : requireDepartmentPath(departmentId);
+    }
+
+    private String requireDepartmentPath(Long departmentId) {
+        Department department = departmentRepository.findById(departmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("部门不存在: " + departmentId));
+        if (department.getTreePath() == null) {
+            throw new IllegalStateException("部门路径尚未建立: " + departmentId);
+        }
+        return department.getTreePath();
+    }
+}
@@ -1,12 +1,15 @@
 package com.iteams.service.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iteams.config.AssetNumberProperties;
 import com.iteams.model.dto.ImportProgressDTO;
 import com.iteams.model.dto.ImportResultDTO;
 import com.iteams.model.entity.*;
 import com.iteams.repository.*;
-import com.iteams.service.CategoryService;
-import com.iteams.service.ChangeTraceService;
+import com.iteams.service.AssetNumberAllocator;
+import com.iteams.service.AssetStatsService;
+import com.iteams.service.ChangeTraceWriter;
+import com.iteams.service.HierarchyIndexService;
 import com.iteams.service.ImportService;
 import com.iteams.service.SpaceService;
 import com.iteams.service.WarrantyService;
@@ -18,7 +21,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -40,12 +43,16 @@ public class ImportServiceImpl implements ImportService {
 
     private final ExcelParser excelParser;
     private final AssetRepository assetRepository;
-    private final CategoryService categoryService;
     private final SpaceService spaceService;
     private final WarrantyService warrantyService;
-    private final ChangeTraceService changeTraceService;
+    private final ChangeTraceWriter changeTraceWriter;
     private final ObjectMapper objectMapper;
     private final CategoryRepository categoryRepository;
+    private final HierarchyIndexService hierarchyIndexService;
+    private final AssetNumberAllocator assetNumberAllocator;
+    private final AssetNumberProperties assetNumberProperties;
+    private final AssetStatsService assetStatsService;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * 异步导入Excel文件，处理进度跟踪
@@ -55,6 +62,8 @@ public class ImportServiceImpl implements ImportService {
     public CompletableFuture<String> importExcelAsync(MultipartFile file) throws IOException {
         String importBatch = UuidGenerator.generateImportBatchId();
         String taskId = excelParser.parseFile(file, new AssetRowProcessor(importBatch));
+        // 写入本次导入缓冲的变更记录
+        changeTraceWriter.flush();
         
         // 在任务状态中存储导入批次ID，以便前端能够获取
         ExcelParser.ImportTaskStatus status = excelParser.getTaskStatus(taskId);
@@ -119,14 +128,39 @@ public class ImportServiceImpl implements ImportService {
         
         private final String importBatch;
         private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+        /**
+         * 本批次的初始化记录内容，同一批次的资产完全相同，只序列化一次
+         */
+        private String initialStateJson;
         
         public AssetRowProcessor(String importBatch) {
             this.importBatch = importBatch;
         }
         
+        /**
+         * 每行在一个事务中写入，失败时整行回滚，变更记录随事务提交写入
+         * <p>
+         * 内部类不经过Spring代理，@Transactional不会生效，使用事务模板开启事务
+         * </p>
+         */
         @Override
-        @Transactional
         public boolean processRow(Map<String, Object> rowData, int rowIndex) {
+            try {
+                return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                    boolean success = importRow(rowData, rowIndex);
+                    if (!success) {
+                        status.setRollbackOnly();
+                    }
+                    return success;
+                }));
+            } catch (Exception e) {
+                log.error("处理行{}时出错: {}", rowIndex, e.getMessage(), e);
+                return false;
+            }
+        }
+
+        private boolean importRow(Map<String, Object> rowData, int rowIndex) {
             try {
                 // 0. 提前验证必填字段，避免SQL错误
                 if (!validateRequiredFields(rowData, rowIndex)) {
@@ -161,25 +195,26 @@ public class ImportServiceImpl implements ImportService {
                 categoryMap.put("l2", level2Category != null ? level2Category : "");
                 categoryMap.put("l3", level3Category != null ? level3Category : "");
                 
-                // 使用字符串分类名称进行验证
-                if (!categoryService.validateCategoryPathByName(level1Category, level2Category, level3Category)) {
-                    log.warn("分类路径验证失败: {}/{}/{}, 行: {}", level1Category, level2Category, level3Category, rowIndex);
-                    // 预先创建分类
-                    ensureCategoryExists(level1Category, level2Category, level3Category);
-                }
+                // 查找或创建各级分类，取得分类ID
+                CategoryMetadata[] categories = ensureCategoryExists(level1Category, level2Category, level3Category);
                 
                 // 3. 创建资产主记录
                 AssetMaster asset = new AssetMaster();
                 asset.setAssetUuid(UuidGenerator.generateAssetUuid());
                 
-                // 资产编号必填，已在validateRequiredFields中验证
                 String assetNo = getStringOrNull(rowData.get("资产编号"));
-                
-                // 检查资产编号是否已存在
-                Optional<AssetMaster> existingByAssetNo = assetRepository.findByAssetNo(assetNo);
-                if (existingByAssetNo.isPresent()) {
-                    log.warn("资产编号已存在，跳过: {}, 行: {}", assetNo, rowIndex);
-                    return false;
+                if (assetNo == null || assetNo.trim().isEmpty()) {
+                    // 未填写资产编号且开启自动分配时按一级分类分配（关闭时已在validateRequiredFields中拦截）
+                    assetNo = assetNumberAllocator.nextAssetNo(resolveCategoryCode(categories[0]),
+                            assetNumberProperties.getDefaultDepartmentCode());
+                    log.debug("自动分配资产编号: {}, 行: {}", assetNo, rowIndex);
+                } else {
+                    // 检查资产编号是否已存在
+                    Optional<AssetMaster> existingByAssetNo = assetRepository.findByAssetNo(assetNo);
+                    if (existingByAssetNo.isPresent()) {
+                        log.warn("资产编号已存在，跳过: {}, 行: {}", assetNo, rowIndex);
+                        return false;
+                    }
                 }
                 
                 asset.setAssetNo(assetNo);
@@ -192,6 +227,9 @@ public class ImportServiceImpl implements ImportService {
                 
                 // 设置分类JSON和指纹
                 asset.setCategoryHierarchy(objectMapper.writeValueAsString(categoryMap));
+                asset.setCategoryL1Id(categories[0] != null ? categories[0].getCategoryId() : null);
+                asset.setCategoryL2Id(categories[1] != null ? categories[1].getCategoryId() : null);
+                asset.setCategoryL3Id(categories[2] != null ? categories[2].getCategoryId() : null);
                 asset.setDataFingerprint(rowHash);
                 asset.setImportBatch(importBatch);
                 asset.setExcelRowHash(rowHash);
@@ -202,6 +240,11 @@ public class ImportServiceImpl implements ImportService {
                 if (hasChangeSpaceInfo(rowData)) {
                     changedSpace = createSpaceRecord(rowData, asset, true);
                 }
+                // 有变更后位置时，原位置作为已结束的历史记录，变更后位置为当前位置
+                if (currentSpace != null && changedSpace != null) {
+                    currentSpace.setIsCurrent(false);
+                    currentSpace.setValidTo(changedSpace.getValidFrom());
+                }
                 
                 // 5. 处理维保信息（但不立即保存）
                 WarrantyContract warranty = createWarrantyRecord(rowData, asset);
@@ -245,6 +288,8 @@ public class ImportServiceImpl implements ImportService {
                     try {
                         changedSpace.setAsset(savedAsset);
                         SpaceTimeline savedChangedSpace = spaceService.saveSpace(changedSpace);
+                        savedAsset.setSpace(savedChangedSpace);
+                        savedAsset = assetRepository.save(savedAsset);
                         
                         // 记录变更信息
                         if (savedSpace != null) {
@@ -267,6 +312,8 @@ public class ImportServiceImpl implements ImportService {
                             if (existingWarranty.isPresent()) {
                                 // 如果已存在，则更新现有记录而不是创建新记录
                                 WarrantyContract existing = existingWarranty.get();
+                                Boolean previousActive = existing.getIsActive();
+                                LocalDate previousEndDate = existing.getEndDate();
                                 // 更新现有记录的字段
                                 existing.setStartDate(warranty.getStartDate());
                                 existing.setEndDate(warranty.getEndDate());
@@ -278,6 +325,8 @@ public class ImportServiceImpl implements ImportService {
                                 // 保持原有的资产关联，不更新asset字段
                                 
                                 savedWarranty = warrantyService.saveWarranty(existing);
+                                // 共享该合约的其他资产到期日一起变化
+                                assetStatsService.recordWarrantyChanged(savedWarranty, previousActive, previousEndDate);
                                 log.info("更新已存在的维保合约: {}", contractNo);
                             } else {
                                 // 如果不存在，则设置资产关联并保存新记录
@@ -308,6 +357,13 @@ public class ImportServiceImpl implements ImportService {
                     log.error("记录初始状态变更时出错: {}, 行: {}", e.getMessage(), rowIndex);
                 }
                 
+                // 10. 累加资产统计计数
+                try {
+                    assetStatsService.recordAdded(savedAsset);
+                } catch (Exception e) {
+                    log.error("更新资产统计计数时出错: {}, 行: {}", e.getMessage(), rowIndex);
+                }
+                
                 return true;
                 
             } catch (Exception e) {
@@ -323,7 +379,7 @@ public class ImportServiceImpl implements ImportService {
             String assetNo = getStringOrNull(rowData.get("资产编号"));
             String assetName = getStringOrNull(rowData.get("资产名称"));
             
-            if (assetNo == null || assetNo.trim().isEmpty()) {
+            if ((assetNo == null || assetNo.trim().isEmpty()) && !assetNumberProperties.isAutoAssignOnImport()) {
                 log.error("资产编号不能为空，行: {}", rowIndex);
                 return false;
             }
@@ -336,12 +392,26 @@ public class ImportServiceImpl implements ImportService {
             return true;
         }
         
+        /**
+         * 获取一级分类的编码，用于自动分配资产编号
+         */
+        private String resolveCategoryCode(CategoryMetadata level1) {
+            return Optional.ofNullable(level1)
+                    .map(CategoryMetadata::getCode)
+                    .filter(code -> !code.isBlank())
+                    .map(String::trim)
+                    .orElse(assetNumberProperties.getDefaultCategoryCode());
+        }
+
         /**
          * 确保分类存在，如果不存在则创建
+         *
+         * @return 一级、二级、三级分类，未指定的层级为null
          */
-        private void ensureCategoryExists(String level1, String level2, String level3) {
+        private CategoryMetadata[] ensureCategoryExists(String level1, String level2, String level3) {
+            CategoryMetadata[] categories = new CategoryMetadata[3];
             if (level1 == null || level1.trim().isEmpty()) {
-                return;
+                return categories;
             }
             
             // 查找或创建一级分类
@@ -350,36 +420,41 @@ public class ImportServiceImpl implements ImportService {
                         CategoryMetadata newL1 = new CategoryMetadata();
                         newL1.setName(level1);
                         newL1.setLevel((byte) 1);
-                        return categoryRepository.save(newL1);
+                        return hierarchyIndexService.saveCategory(newL1);
                     });
+            categories[0] = l1;
             
             if (level2 == null || level2.trim().isEmpty()) {
-                return;
+                return categories;
             }
             
-            // 查找或创建二级分类
-            CategoryMetadata l2 = categoryRepository.findByNameAndLevel(level2, (byte) 2)
+            // 在一级分类下查找或创建二级分类
+            CategoryMetadata l2 = categoryRepository
+                    .findFirstByNameAndLevelAndParentCategoryIdOrderByCategoryIdAsc(level2, (byte) 2, l1.getCategoryId())
                     .orElseGet(() -> {
                         CategoryMetadata newL2 = new CategoryMetadata();
                         newL2.setName(level2);
                         newL2.setLevel((byte) 2);
                         newL2.setParent(l1);
-                        return categoryRepository.save(newL2);
+                        return hierarchyIndexService.saveCategory(newL2);
                     });
+            categories[1] = l2;
             
             if (level3 == null || level3.trim().isEmpty()) {
-                return;
+                return categories;
             }
             
-            // 查找或创建三级分类
-            categoryRepository.findByNameAndLevel(level3, (byte) 3)
+            // 在二级分类下查找或创建三级分类
+            categories[2] = categoryRepository
+                    .findFirstByNameAndLevelAndParentCategoryIdOrderByCategoryIdAsc(level3, (byte) 3, l2.getCategoryId())
                     .orElseGet(() -> {
                         CategoryMetadata newL3 = new CategoryMetadata();
                         newL3.setName(level3);
                         newL3.setLevel((byte) 3);
                         newL3.setParent(l2);
-                        return categoryRepository.save(newL3);
+                        return hierarchyIndexService.saveCategory(newL3);
                     });
+            return categories;
         }
         
         // 根据字符串状态映射到枚举
@@ -445,6 +520,7 @@ public class ImportServiceImpl implements ImportService {
             }
             
             space.setLocationPath(pathBuilder.toString());
+            space.setValidFrom(LocalDateTime.now());
             space.setIsCurrent(true);
             return space;
         }
@@ -488,19 +564,19 @@ public class ImportServiceImpl implements ImportService {
         private void recordSpaceChange(AssetMaster asset, SpaceTimeline oldSpace, SpaceTimeline newSpace) {
             try {
                 // 构建变更差异JSON
-                Map<String, Object> before = new HashMap<>();
+                Map<String, Object> before = new LinkedHashMap<>();
                 before.put("data_center", oldSpace.getDataCenter());
                 before.put("room_name", oldSpace.getRoomName());
                 before.put("cabinet", oldSpace.getCabinetNo());
                 before.put("u_position", oldSpace.getUPosition());
                 
-                Map<String, Object> after = new HashMap<>();
+                Map<String, Object> after = new LinkedHashMap<>();
                 after.put("data_center", newSpace.getDataCenter());
                 after.put("room_name", newSpace.getRoomName());
                 after.put("cabinet", newSpace.getCabinetNo());
                 after.put("u_position", newSpace.getUPosition());
                 
-                Map<String, Object> delta = new HashMap<>();
+                Map<String, Object> delta = new LinkedHashMap<>();
                 delta.put("field", "space");
                 delta.put("before", before);
                 delta.put("after", after);
@@ -514,7 +590,7 @@ public class ImportServiceImpl implements ImportService {
                 change.setDeltaSnapshot(deltaJson);
                 change.setOperatedBy("EXCEL_IMPORT");
                 
-                changeTraceService.saveChange(change);
+                changeTraceWriter.append(change);
                 
             } catch (Exception e) {
                 log.error("记录变更失败", e);
@@ -524,20 +600,21 @@ public class ImportServiceImpl implements ImportService {
         // 记录初始状态
         private void recordInitialState(AssetMaster asset, Map<String, Object> rowData) {
             try {
-                Map<String, Object> data = new HashMap<>();
-                data.put("source", "EXCEL_IMPORT");
-                data.put("batch", importBatch);
-                data.put("import_time", LocalDateTime.now().toString());
-                
-                String deltaJson = objectMapper.writeValueAsString(data);
+                // 导入时间即变更记录的操作时间，内容中只保留来源和批次，同一批次共用一份内容
+                if (initialStateJson == null) {
+                    Map<String, Object> data = new LinkedHashMap<>();
+                    data.put("source", "EXCEL_IMPORT");
+                    data.put("batch", importBatch);
+                    initialStateJson = objectMapper.writeValueAsString(data);
+                }
                 
                 ChangeTrace change = new ChangeTrace();
                 change.setAsset(asset);
                 change.setChangeType(ChangeTrace.ChangeType.INITIAL);
-                change.setDeltaSnapshot(deltaJson);
+                change.setDeltaSnapshot(initialStateJson);
                 change.setOperatedBy("EXCEL_IMPORT");
                 
-                changeTraceService.saveChange(change);
+                changeTraceWriter.append(change);
                 
             } catch (Exception e) {
                 log.error("记录初始状态失败", e);
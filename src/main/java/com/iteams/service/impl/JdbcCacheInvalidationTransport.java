@@ -0,0 +1,206 @@
+package com.iteams.service.impl;
+
+import com.iteams.config.CacheSpecProperties;
+import com.iteams.model.dto.CacheInvalidationMessage;
+import com.iteams.service.CacheCoherenceService;
+import com.iteams.service.CacheInvalidationTransport;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 基于数据库变更日志表的缓存失效传输通道
+ * <p>
+ * 发送只放入本地发件箱，由定时任务用一次JDBC批量INSERT写出；
+ * 同一任务随后按主键读取高水位之后的新记录，空闲时只是一次命中主键索引的空范围查询。
+ * 因此其他节点的收敛时间上限约为两个轮询周期。
+ * </p>
+ * <p>
+ * 自增ID的分配顺序与提交顺序不完全一致，高水位只推进到连续已读的ID：
+ * 出现空洞时先记住空洞之后已处理的ID，空洞在gap-timeout内被补上则照常处理，
+ * 超时仍未出现则视为回滚或预分配未使用的ID，越过它继续推进。
+ * </p>
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "iteams.cache.coherence", name = "transport", havingValue = "db", matchIfMissing = true)
+public class JdbcCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO sys_cache_invalidation (cache_name, cache_key, origin_node, created_at) VALUES (?, ?, ?, ?)";
+
+    private static final String SELECT_SQL =
+            "SELECT id, cache_name, cache_key, origin_node FROM sys_cache_invalidation WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final String MAX_ID_SQL = "SELECT COALESCE(MAX(id), 0) FROM sys_cache_invalidation";
+
+    private static final String PURGE_SQL = "DELETE FROM sys_cache_invalidation WHERE created_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheCoherenceService cacheCoherenceService;
+    private final CacheSpecProperties.Coherence config;
+
+    /**
+     * 待写出的失效消息
+     */
+    private final Queue<CacheInvalidationMessage> outbox = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 高水位：不大于该ID的记录均已处理或已放弃等待，小于0表示尚未初始化
+     */
+    private long highWaterMark = -1;
+
+    /**
+     * 高水位之后、空洞之后已处理的ID
+     */
+    private final TreeSet<Long> processedAboveMark = new TreeSet<>();
+
+    /**
+     * 当前空洞首次出现的时间，0表示没有空洞
+     */
+    private long gapSince;
+
+    /**
+     * 最近一次轮询成功的时间
+     */
+    private long lastSyncMillis = System.currentTimeMillis();
+
+    public JdbcCacheInvalidationTransport(JdbcTemplate jdbcTemplate,
+                                          CacheCoherenceService cacheCoherenceService,
+                                          CacheSpecProperties cacheSpecProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheCoherenceService = cacheCoherenceService;
+        this.config = cacheSpecProperties.getCoherence();
+    }
+
+    @Override
+    public void send(List<CacheInvalidationMessage> messages) {
+        outbox.addAll(messages);
+    }
+
+    /**
+     * 写出发件箱并拉取其他节点的失效消息（单线程定时执行，状态字段无需同步）
+     */
+    @Scheduled(fixedDelayString = "${iteams.cache.coherence.poll-interval-ms:1000}")
+    public void sync() {
+        flushOutbox();
+        try {
+            long now = System.currentTimeMillis();
+            if (highWaterMark < 0) {
+                // 启动时本地缓存为空，从当前最大ID开始即可
+                highWaterMark = jdbcTemplate.queryForObject(MAX_ID_SQL, Long.class);
+            } else {
+                if (now - lastSyncMillis > config.getMaxStalenessMs()) {
+                    // 失联期间的记录可能已被清理，无法确认错过了哪些消息
+                    cacheCoherenceService.resync();
+                }
+                poll(now);
+            }
+            lastSyncMillis = now;
+        } catch (Exception e) {
+            log.warn("轮询缓存失效日志失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 每小时清理一次过期的失效日志
+     */
+    @Scheduled(cron = "0 45 * * * ?")
+    public void purgeExpired() {
+        try {
+            int count = jdbcTemplate.update(PURGE_SQL,
+                    Timestamp.valueOf(LocalDateTime.now().minusHours(config.getRetentionHours())));
+            if (count > 0) {
+                log.info("已清理{}条过期的缓存失效日志", count);
+            }
+        } catch (Exception e) {
+            log.error("清理缓存失效日志失败", e);
+        }
+    }
+
+    /**
+     * 关闭前写出剩余消息
+     */
+    @PreDestroy
+    public void shutdown() {
+        flushOutbox();
+    }
+
+    private void flushOutbox() {
+        if (outbox.isEmpty()) {
+            return;
+        }
+        List<CacheInvalidationMessage> batch = new ArrayList<>();
+        CacheInvalidationMessage message;
+        while ((message = outbox.poll()) != null) {
+            batch.add(message);
+        }
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (CacheInvalidationMessage m : batch) {
+            rows.add(new Object[]{m.getCacheName(), m.getKey(), m.getOriginNode(), createdAt});
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            log.debug("已写出{}条缓存失效消息", rows.size());
+        } catch (Exception e) {
+            // 写出失败时放回发件箱，等待下次重试
+            outbox.addAll(batch);
+            log.warn("写出缓存失效消息失败: {}", e.getMessage());
+        }
+    }
+
+    private void poll(long now) {
+        List<Long> ids = new ArrayList<>();
+        List<CacheInvalidationMessage> messages = new ArrayList<>();
+        jdbcTemplate.query(SELECT_SQL, rs -> {
+            long id = rs.getLong("id");
+            if (!processedAboveMark.contains(id)) {
+                ids.add(id);
+                messages.add(CacheInvalidationMessage.builder()
+                        .cacheName(rs.getString("cache_name"))
+                        .key(rs.getString("cache_key"))
+                        .originNode(rs.getString("origin_node"))
+                        .build());
+            }
+        }, highWaterMark, config.getBatchSize());
+
+        if (!messages.isEmpty()) {
+            cacheCoherenceService.apply(messages);
+            processedAboveMark.addAll(ids);
+        }
+        advanceMark(now);
+    }
+
+    /**
+     * 沿连续ID推进高水位，空洞等待超时后越过
+     */
+    private void advanceMark(long now) {
+        while (processedAboveMark.remove(highWaterMark + 1)) {
+            highWaterMark++;
+        }
+        if (processedAboveMark.isEmpty()) {
+            gapSince = 0;
+            return;
+        }
+        if (gapSince == 0) {
+            gapSince = now;
+        } else if (now - gapSince > config.getGapTimeoutMs()) {
+            log.debug("缓存失效日志ID空洞({} ~ {})等待超时，已跳过", highWaterMark + 1, processedAboveMark.first() - 1);
+            highWaterMark = processedAboveMark.first() - 1;
+            gapSince = 0;
+            advanceMark(now);
+        }
+    }
+}
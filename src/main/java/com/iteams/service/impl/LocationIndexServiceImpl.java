@@ -0,0 +1,344 @@
+package com.iteams.service.impl;
+
+import com.iteams.config.CacheConfig;
+import com.iteams.config.CacheInvalidationHandler;
+import com.iteams.exception.ResourceNotFoundException;
+import com.iteams.model.dto.LocationAssetRow;
+import com.iteams.model.dto.LocationNodeDTO;
+import com.iteams.model.dto.LocationTrie;
+import com.iteams.model.entity.SpaceTimeline;
+import com.iteams.service.CacheCoherenceService;
+import com.iteams.service.LocationIndexService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 位置索引服务实现类
+ * <p>
+ * 位置节点全部加载到内存中的{@link LocationTrie}，空间记录保存前按层级键在树中查找节点ID，
+ * 只有新出现的位置才访问数据库：在当前事务中按唯一的层级键执行
+ * INSERT ... ON DUPLICATE KEY UPDATE id = LAST_INSERT_ID(id)，同一连接上读取LAST_INSERT_ID()即为新建或已有节点的ID。
+ * 不加全局锁，并发写入同一层级键由唯一索引串行化。节点在事务提交后才加入内存树并通知其他节点增量加载，
+ * 外层事务回滚不会留下内存中有、数据库中没有的节点；提交前同一事务再次解析同一位置时重复执行的写入是幂等的。
+ * </p>
+ * <p>
+ * 空间轨迹按层级保存数据中心、机房、机柜和最深一级的节点ID，各列上有(节点ID, is_current, space_id)索引，
+ * 查询某个位置下的资产时按节点层级选择列做等值匹配，计数只扫描索引。
+ * </p>
+ */
+@Slf4j
+@Service
+public class LocationIndexServiceImpl implements LocationIndexService, CacheInvalidationHandler {
+
+    /**
+     * 输入提示的最大返回数量
+     */
+    private static final int MAX_SUGGESTIONS = 50;
+
+    /**
+     * 补齐存量数据时每批处理的空间记录数
+     */
+    private static final int REBUILD_BATCH_SIZE = 5000;
+
+    /**
+     * 按节点查询资产时使用的列，下标为节点层级
+     */
+    private static final String[] NODE_COLUMNS = {null, "data_center_node_id", "room_node_id", "cabinet_node_id", "location_node_id"};
+
+    private static final String NODE_COLUMNS_SQL = "SELECT id, parent_id, level, name, path_key FROM location_node";
+
+    private static final String UPSERT_NODE_SQL = "INSERT INTO location_node (parent_id, level, name, path_key, created_at) " +
+            "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE id = LAST_INSERT_ID(id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheCoherenceService cacheCoherenceService;
+
+    private volatile LocationTrie trie;
+
+    public LocationIndexServiceImpl(JdbcTemplate jdbcTemplate, CacheCoherenceService cacheCoherenceService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheCoherenceService = cacheCoherenceService;
+    }
+
+    @Override
+    public void index(SpaceTimeline space) {
+        Long[] ids = resolve(space.getDataCenter(), space.getRoomName(), space.getCabinetNo(), space.getUPosition());
+        space.setDataCenterNodeId(ids[0]);
+        space.setRoomNodeId(ids[1]);
+        space.setCabinetNodeId(ids[2]);
+        space.setLocationNodeId(ids[3]);
+    }
+
+    @Override
+    public List<LocationNodeDTO> suggest(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        return getTrie().search(query, Math.min(Math.max(limit, 1), MAX_SUGGESTIONS));
+    }
+
+    @Override
+    public List<LocationNodeDTO> getChildren(Long parentId) {
+        if (parentId != null) {
+            requireNode(parentId);
+        }
+        return getTrie().children(parentId);
+    }
+
+    @Override
+    public Optional<LocationNodeDTO> findNode(Long nodeId) {
+        LocationTrie current = getTrie();
+        LocationNodeDTO node = current.get(nodeId);
+        if (node == null) {
+            // 可能是其他节点刚创建、通知尚未到达的节点
+            synchronized (this) {
+                load(current, nodeId);
+            }
+            node = current.get(nodeId);
+        }
+        return Optional.ofNullable(node);
+    }
+
+    @Override
+    public Page<LocationAssetRow> getAssets(Long nodeId, Pageable pageable) {
+        LocationNodeDTO node = requireNode(nodeId);
+        String column = NODE_COLUMNS[node.getLevel()];
+
+        Long total = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM space_timeline WHERE " + column + " = ? AND is_current = 1", Long.class, nodeId);
+        if (total == null || total == 0 || pageable.getOffset() >= total) {
+            return new PageImpl<>(List.of(), pageable, total == null ? 0 : total);
+        }
+        List<LocationAssetRow> rows = jdbcTemplate.query(
+                "SELECT a.asset_id, a.asset_no, a.asset_name, a.current_status, s.space_id, s.location_path " +
+                "FROM space_timeline s INNER JOIN asset_master a ON a.asset_id = s.asset_id " +
+                "WHERE s." + column + " = ? AND s.is_current = 1 ORDER BY s.space_id LIMIT ? OFFSET ?",
+                (rs, rowNum) -> new LocationAssetRow(
+                        rs.getLong("asset_id"),
+                        rs.getString("asset_no"),
+                        rs.getString("asset_name"),
+                        rs.getString("current_status"),
+                        rs.getLong("space_id"),
+                        rs.getString("location_path")),
+                nodeId, pageable.getPageSize(), pageable.getOffset());
+        return new PageImpl<>(rows, pageable, total);
+    }
+
+    @Override
+    public int rebuild() {
+        int updated = 0;
+        long lastId = 0;
+        while (true) {
+            List<Object[]> batch = jdbcTemplate.query(
+                    "SELECT space_id, data_center, room_name, cabinet_no, u_position FROM space_timeline " +
+                    "WHERE location_node_id IS NULL AND space_id > ? ORDER BY space_id LIMIT ?",
+                    (rs, rowNum) -> new Object[]{rs.getLong("space_id"), rs.getString("data_center"),
+                            rs.getString("room_name"), rs.getString("cabinet_no"), rs.getString("u_position")},
+                    lastId, REBUILD_BATCH_SIZE);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            List<Object[]> rows = new ArrayList<>(batch.size());
+            for (Object[] row : batch) {
+                Long[] ids = resolve((String) row[1], (String) row[2], (String) row[3], (String) row[4]);
+                if (ids[3] != null) {
+                    rows.add(new Object[]{ids[0], ids[1], ids[2], ids[3], row[0]});
+                }
+            }
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE space_timeline SET data_center_node_id = ?, room_node_id = ?, " +
+                        "cabinet_node_id = ?, location_node_id = ? WHERE space_id = ?", rows);
+                updated += rows.size();
+            }
+            lastId = (Long) batch.get(batch.size() - 1)[0];
+        }
+        if (updated > 0) {
+            log.info("位置索引补齐完成, 更新空间记录数: {}, 位置节点数: {}", updated, getTrie().size());
+        }
+        return updated;
+    }
+
+    @Override
+    public String getCacheName() {
+        return CacheConfig.CACHE_LOCATIONS;
+    }
+
+    @Override
+    public Object toCacheKey(String key) {
+        return Long.valueOf(key);
+    }
+
+    /**
+     * 其他节点新增了位置节点，增量加载到本地树
+     */
+    @Override
+    public void evict(Object key) {
+        LocationTrie current = trie;
+        if (current != null && current.get((Long) key) == null) {
+            synchronized (this) {
+                load(current, (Long) key);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        trie = null;
+    }
+
+    /**
+     * 按层级解析节点ID
+     *
+     * @return 数据中心、机房、机柜、最深一级的节点ID，全部层级为空时均为null
+     */
+    private Long[] resolve(String dataCenter, String roomName, String cabinetNo, String uPosition) {
+        String[] names = {trim(dataCenter), trim(roomName), trim(cabinetNo), trim(uPosition)};
+        Long[] ids = new Long[4];
+        Long parentId = null;
+        StringBuilder pathKey = new StringBuilder();
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) {
+                pathKey.append(LocationTrie.SEPARATOR);
+            }
+            pathKey.append(names[i]);
+            if (names[i].isEmpty()) {
+                continue;
+            }
+            parentId = resolveNode(parentId, (byte) (i + 1), names[i], pathKey.toString());
+            if (i < 3) {
+                ids[i] = parentId;
+            }
+            ids[3] = parentId;
+        }
+        return ids;
+    }
+
+    private Long resolveNode(Long parentId, byte level, String name, String pathKey) {
+        LocationTrie current = getTrie();
+        Long id = current.findId(pathKey);
+        if (id != null) {
+            return id;
+        }
+        // 两条语句必须在同一连接上执行，LAST_INSERT_ID()按连接保存
+        Long nodeId = jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(UPSERT_NODE_SQL)) {
+                if (parentId == null) {
+                    ps.setNull(1, Types.BIGINT);
+                } else {
+                    ps.setLong(1, parentId);
+                }
+                ps.setByte(2, level);
+                ps.setString(3, name);
+                ps.setString(4, pathKey);
+                ps.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+                ps.executeUpdate();
+            }
+            try (Statement st = con.createStatement(); ResultSet rs = st.executeQuery("SELECT LAST_INSERT_ID()")) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        });
+        afterCommit(() -> {
+            if (!current.add(nodeId, parentId, level, name, pathKey) && current.get(nodeId) == null) {
+                // 父节点由其他并发事务创建、尚未加入内存树，连同上级一起从数据库加载
+                load(current, nodeId);
+            }
+            cacheCoherenceService.publishEvict(CacheConfig.CACHE_LOCATIONS, nodeId);
+            log.debug("新增位置节点[{}]: {}", nodeId, pathKey);
+        });
+        return nodeId;
+    }
+
+    /**
+     * 事务提交后执行，没有事务时立即执行
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private LocationNodeDTO requireNode(Long nodeId) {
+        return findNode(nodeId).orElseThrow(() -> new ResourceNotFoundException("位置节点不存在: " + nodeId));
+    }
+
+    /**
+     * 从数据库加载单个节点及其缺失的上级节点
+     */
+    private void load(LocationTrie current, Long nodeId) {
+        List<Object[]> rows = jdbcTemplate.query(NODE_COLUMNS_SQL + " WHERE id = ?", LocationIndexServiceImpl::mapNode, nodeId);
+        if (rows.isEmpty()) {
+            return;
+        }
+        Object[] row = rows.get(0);
+        Long parentId = (Long) row[1];
+        if (parentId != null && current.get(parentId) == null) {
+            load(current, parentId);
+        }
+        current.add((Long) row[0], parentId, (Byte) row[2], (String) row[3], (String) row[4]);
+    }
+
+    private LocationTrie getTrie() {
+        LocationTrie current = trie;
+        if (current == null) {
+            synchronized (this) {
+                current = trie;
+                if (current == null) {
+                    current = build();
+                    trie = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private LocationTrie build() {
+        LocationTrie built = new LocationTrie();
+        // 上级节点的层级总是更小，按层级顺序添加即可保证父节点先于子节点
+        jdbcTemplate.query(NODE_COLUMNS_SQL + " ORDER BY level, id", rs -> {
+            long parentId = rs.getLong("parent_id");
+            Long parent = rs.wasNull() ? null : parentId;
+            if (!built.add(rs.getLong("id"), parent, rs.getByte("level"), rs.getString("name"), rs.getString("path_key"))) {
+                log.warn("位置节点{}的父节点{}不存在, 已忽略", rs.getLong("id"), parent);
+            }
+        });
+        log.debug("位置节点树已构建, 节点数量: {}", built.size());
+        return built;
+    }
+
+    private static Object[] mapNode(ResultSet rs, int rowNum) throws SQLException {
+        long parentId = rs.getLong("parent_id");
+        Long parent = rs.wasNull() ? null : parentId;
+        return new Object[]{rs.getLong("id"), parent, rs.getByte("level"), rs.getString("name"), rs.getString("path_key")};
+    }
+
+    private static String trim(String value) {
+        return value == null ? "" : value.trim();
+    }
+}
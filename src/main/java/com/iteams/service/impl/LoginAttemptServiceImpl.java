@@ -0,0 +1,189 @@
+package com.iteams.service.impl;
+
+import com.iteams.config.LoginSecurityConfig;
+import com.iteams.model.entity.User;
+import com.iteams.service.LoginAttemptService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 登录尝试跟踪服务实现类
+ * <p>
+ * 状态保存在ConcurrentHashMap中，所有读写都通过compute系列方法完成，
+ * 同一用户的并发更新按key分段加锁串行化，不同用户之间互不阻塞。
+ * 有变化的用户名记入脏集合，由定时任务用一次JDBC批量UPDATE回写。
+ * </p>
+ * <p>
+ * 自动解锁同时修改传入的用户实体，调用方随后做的账户状态检查读到的是解锁状态；
+ * 解锁结果同样记入脏集合回写。
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LoginAttemptServiceImpl implements LoginAttemptService {
+
+    private static final String UPDATE_SQL =
+            "UPDATE sys_user SET login_fail_count = ?, account_non_locked = ?, lock_time = ? WHERE username = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LoginSecurityConfig loginSecurityConfig;
+
+    /**
+     * 用户名 -> 登录尝试状态
+     */
+    private final Map<String, AttemptState> states = new ConcurrentHashMap<>();
+
+    /**
+     * 待回写数据库的用户名
+     */
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public boolean isLocked(User user) {
+        boolean[] unlocked = {false};
+        AttemptState state = states.compute(user.getUsername(), (username, current) -> {
+            AttemptState s = current != null ? current : AttemptState.of(user);
+            if (!s.accountNonLocked && s.lockTime != null
+                    && LocalDateTime.now().isAfter(unlockTimeOf(s))) {
+                // 锁定时间已过，解锁账户
+                s.accountNonLocked = true;
+                s.lockTime = null;
+                s.failCount = 0;
+                unlocked[0] = true;
+            }
+            return s;
+        });
+        if (unlocked[0]) {
+            // 同步修改实体，调用方的账户状态检查读到的也是解锁状态
+            user.setAccountNonLocked(true);
+            user.setLockTime(null);
+            user.setLoginFailCount(0);
+            dirty.add(user.getUsername());
+            log.info("用户[{}]锁定时间已过，账户已自动解锁", user.getUsername());
+        }
+        return !state.accountNonLocked;
+    }
+
+    @Override
+    public LocalDateTime getUnlockTime(String username) {
+        LocalDateTime[] unlockTime = new LocalDateTime[1];
+        states.computeIfPresent(username, (key, s) -> {
+            unlockTime[0] = s.accountNonLocked || s.lockTime == null ? null : unlockTimeOf(s);
+            return s;
+        });
+        return unlockTime[0];
+    }
+
+    @Override
+    public int recordFailure(User user) {
+        int[] failCount = {0};
+        states.compute(user.getUsername(), (username, current) -> {
+            AttemptState s = current != null ? current : AttemptState.of(user);
+            s.failCount++;
+            if (s.failCount >= loginSecurityConfig.getMaxFailAttempts() && s.accountNonLocked) {
+                s.accountNonLocked = false;
+                s.lockTime = LocalDateTime.now();
+            }
+            failCount[0] = s.failCount;
+            return s;
+        });
+        dirty.add(user.getUsername());
+        return failCount[0];
+    }
+
+    @Override
+    public void recordSuccess(User user) {
+        // 登录成功时调用方会保存用户实体并清零失败次数，这里只需丢弃内存状态
+        states.remove(user.getUsername());
+        dirty.remove(user.getUsername());
+    }
+
+    @Override
+    public void reset(String username) {
+        states.remove(username);
+        dirty.remove(username);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${iteams.security.login.state-flush-interval-ms:2000}")
+    public int flush() {
+        if (dirty.isEmpty()) {
+            return 0;
+        }
+        List<String> usernames = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        for (String username : dirty) {
+            dirty.remove(username);
+            states.computeIfPresent(username, (key, s) -> {
+                usernames.add(key);
+                rows.add(toRow(key, s));
+                return s;
+            });
+        }
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, rows);
+            log.debug("已批量回写{}个用户的登录失败状态", rows.size());
+            return rows.size();
+        } catch (Exception e) {
+            // 回写失败时重新标记，等待下次重试
+            dirty.addAll(usernames);
+            log.error("回写登录失败状态失败: {}", e.getMessage(), e);
+            return 0;
+        }
+    }
+
+    /**
+     * 关闭前回写剩余状态
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private LocalDateTime unlockTimeOf(AttemptState state) {
+        return state.lockTime.plus(loginSecurityConfig.getLockDurationMinutes(), ChronoUnit.MINUTES);
+    }
+
+    private static Object[] toRow(String username, AttemptState state) {
+        return new Object[]{
+                state.failCount,
+                state.accountNonLocked,
+                state.lockTime != null ? Timestamp.valueOf(state.lockTime) : null,
+                username
+        };
+    }
+
+    /**
+     * 单个用户的登录尝试状态，只在compute回调中修改
+     */
+    private static final class AttemptState {
+        private int failCount;
+        private boolean accountNonLocked;
+        private LocalDateTime lockTime;
+
+        private static AttemptState of(User user) {
+            AttemptState state = new AttemptState();
+            state.failCount = user.getLoginFailCount() == null ? 0 : user.getLoginFailCount();
+            state.accountNonLocked = user.isAccountNonLocked();
+            state.lockTime = user.getLockTime();
+            return state;
+        }
+    }
+}
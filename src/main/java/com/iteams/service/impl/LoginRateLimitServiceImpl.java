@@ -0,0 +1,76 @@
+package com.iteams.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.iteams.config.LoginSecurityConfig;
+import com.iteams.exception.TooManyRequestsException;
+import com.iteams.service.LoginRateLimitService;
+import com.iteams.util.TokenBucket;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * 登录限流服务实现类
+ * <p>
+ * IP桶容量较大，用于限制单一来源的撞库流量；用户名桶容量较小，
+ * 用于限制分布式来源针对单个账户的暴力破解。
+ * </p>
+ * <p>
+ * 令牌桶保存在有容量上限的Caffeine缓存中，闲置超过配置时间的桶自动回收，
+ * 大量伪造的IP或用户名不会让内存无限增长
+ * </p>
+ */
+@Slf4j
+@Service
+public class LoginRateLimitServiceImpl implements LoginRateLimitService {
+
+    private final LoginSecurityConfig loginSecurityConfig;
+
+    /**
+     * IP -> 令牌桶
+     */
+    private final Cache<String, TokenBucket> ipBuckets;
+
+    /**
+     * 用户名 -> 令牌桶
+     */
+    private final Cache<String, TokenBucket> usernameBuckets;
+
+    public LoginRateLimitServiceImpl(LoginSecurityConfig loginSecurityConfig) {
+        this.loginSecurityConfig = loginSecurityConfig;
+        this.ipBuckets = newBucketCache(loginSecurityConfig);
+        this.usernameBuckets = newBucketCache(loginSecurityConfig);
+    }
+
+    @Override
+    public void checkLoginAllowed(String ipAddress, String username) {
+        if (!loginSecurityConfig.isRateLimitEnabled()) {
+            return;
+        }
+        if (ipAddress != null) {
+            TokenBucket bucket = ipBuckets.get(ipAddress, key -> new TokenBucket(
+                    loginSecurityConfig.getIpBurst(), loginSecurityConfig.getIpRefillPerMinute()));
+            if (!bucket.tryConsume()) {
+                log.warn("IP[{}]登录请求过于频繁，已限流", ipAddress);
+                throw new TooManyRequestsException("登录请求过于频繁，请稍后再试");
+            }
+        }
+        if (username != null) {
+            TokenBucket bucket = usernameBuckets.get(username, key -> new TokenBucket(
+                    loginSecurityConfig.getUsernameBurst(), loginSecurityConfig.getUsernameRefillPerMinute()));
+            if (!bucket.tryConsume()) {
+                log.warn("用户[{}]登录请求过于频繁，已限流", username);
+                throw new TooManyRequestsException("登录请求过于频繁，请稍后再试");
+            }
+        }
+    }
+
+    private static Cache<String, TokenBucket> newBucketCache(LoginSecurityConfig config) {
+        return Caffeine.newBuilder()
+                .maximumSize(config.getRateLimitMaxKeys())
+                .expireAfterAccess(Duration.ofMinutes(config.getRateLimitIdleMinutes()))
+                .build();
+    }
+}
@@ -0,0 +1,201 @@
+package com.iteams.service.impl;
+
+import com.iteams.model.dto.MembershipChangeResult;
+import com.iteams.service.MembershipService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 批量成员关系服务实现类
+ * <p>
+ * 用户ID按每批1000个切分，每批先用IN查询取出有效用户和已有关联，在内存中计算差异，
+ * 再用多行INSERT IGNORE和DELETE ... WHERE user_id IN (...)各一条SQL写回，
+ * 影响行数即实际变更的关联数。多行VALUES由本类拼接，不依赖驱动的批量重写参数。
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MembershipServiceImpl implements MembershipService {
+
+    /**
+     * 每批处理的用户数
+     */
+    private static final int CHUNK_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public MembershipChangeResult addGroupMembers(Long groupId, Collection<Long> userIds) {
+        int matched = 0;
+        int added = 0;
+        Set<Long> changed = new HashSet<>();
+        for (List<Long> chunk : chunks(userIds)) {
+            String in = placeholders(chunk.size());
+            List<Long> existingUsers = jdbcTemplate.queryForList(
+                    "SELECT id FROM sys_user WHERE id IN (" + in + ")", Long.class, chunk.toArray());
+            if (existingUsers.isEmpty()) {
+                continue;
+            }
+            matched += existingUsers.size();
+
+            Set<Long> members = new HashSet<>(jdbcTemplate.queryForList(
+                    "SELECT user_id FROM sys_user_group_mapping WHERE group_id = ? AND user_id IN (" + in + ")",
+                    Long.class, prepend(groupId, chunk)));
+            List<Object[]> pairs = new ArrayList<>();
+            for (Long userId : existingUsers) {
+                if (!members.contains(userId)) {
+                    pairs.add(new Object[]{userId, groupId});
+                    changed.add(userId);
+                }
+            }
+            added += insertIgnore("sys_user_group_mapping", "user_id", "group_id", pairs);
+        }
+        log.debug("用户组[{}]新增成员: 匹配{}, 新增{}", groupId, matched, added);
+        return new MembershipChangeResult(matched, added, 0, changed);
+    }
+
+    @Override
+    @Transactional
+    public MembershipChangeResult removeGroupMembers(Long groupId, Collection<Long> userIds) {
+        int removed = 0;
+        Set<Long> changed = new HashSet<>();
+        for (List<Long> chunk : chunks(userIds)) {
+            String in = placeholders(chunk.size());
+            Object[] args = prepend(groupId, chunk);
+            changed.addAll(jdbcTemplate.queryForList(
+                    "SELECT user_id FROM sys_user_group_mapping WHERE group_id = ? AND user_id IN (" + in + ")",
+                    Long.class, args));
+            removed += jdbcTemplate.update(
+                    "DELETE FROM sys_user_group_mapping WHERE group_id = ? AND user_id IN (" + in + ")", args);
+        }
+        log.debug("用户组[{}]移除成员: {}", groupId, removed);
+        return new MembershipChangeResult(removed, 0, removed, changed);
+    }
+
+    @Override
+    @Transactional
+    public MembershipChangeResult replaceUserRoles(Collection<Long> userIds, Collection<Long> roleIds) {
+        Set<Long> targetRoles = new LinkedHashSet<>(roleIds);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int matched = 0;
+        int added = 0;
+        int removed = 0;
+        Set<Long> changed = new HashSet<>();
+        for (List<Long> chunk : chunks(userIds)) {
+            String in = placeholders(chunk.size());
+            List<Long> existingUsers = jdbcTemplate.queryForList(
+                    "SELECT id FROM sys_user WHERE id IN (" + in + ")", Long.class, chunk.toArray());
+            if (existingUsers.isEmpty()) {
+                continue;
+            }
+            matched += existingUsers.size();
+
+            // 当前关联：用户ID -> 角色ID集合
+            Map<Long, Set<Long>> current = new HashMap<>();
+            jdbcTemplate.query("SELECT user_id, role_id FROM sys_user_role WHERE user_id IN (" + in + ")",
+                    rs -> {
+                        current.computeIfAbsent(rs.getLong("user_id"), key -> new HashSet<>()).add(rs.getLong("role_id"));
+                    }, chunk.toArray());
+
+            List<Object[]> toInsert = new ArrayList<>();
+            for (Long userId : existingUsers) {
+                Set<Long> roles = current.getOrDefault(userId, Collections.emptySet());
+                if (!roles.equals(targetRoles)) {
+                    changed.add(userId);
+                }
+                for (Long roleId : targetRoles) {
+                    if (!roles.contains(roleId)) {
+                        toInsert.add(new Object[]{userId, roleId});
+                    }
+                }
+            }
+
+            // 删除目标集合之外的角色
+            List<Long> staleUsers = new ArrayList<>();
+            current.forEach((userId, roles) -> {
+                if (!targetRoles.containsAll(roles)) {
+                    staleUsers.add(userId);
+                }
+            });
+            if (!staleUsers.isEmpty()) {
+                List<Object> args = new ArrayList<>(staleUsers);
+                String roleFilter = "";
+                if (!targetRoles.isEmpty()) {
+                    roleFilter = " AND role_id NOT IN (" + placeholders(targetRoles.size()) + ")";
+                    args.addAll(targetRoles);
+                }
+                removed += jdbcTemplate.update("DELETE FROM sys_user_role WHERE user_id IN ("
+                        + placeholders(staleUsers.size()) + ")" + roleFilter, args.toArray());
+            }
+            added += insertIgnore("sys_user_role", "user_id", "role_id", toInsert);
+        }
+
+        for (List<Long> chunk : chunks(changed)) {
+            jdbcTemplate.update("UPDATE sys_user SET updated_at = ? WHERE id IN (" + placeholders(chunk.size()) + ")",
+                    prepend(now, chunk));
+        }
+        log.debug("批量替换用户角色: 匹配{}, 变化{}, 新增{}, 删除{}", matched, changed.size(), added, removed);
+        return new MembershipChangeResult(matched, added, removed, changed);
+    }
+
+    /**
+     * 多行INSERT IGNORE，每条语句最多CHUNK_SIZE行
+     *
+     * @return 实际插入的行数
+     */
+    private int insertIgnore(String table, String firstColumn, String secondColumn, List<Object[]> pairs) {
+        int inserted = 0;
+        for (int start = 0; start < pairs.size(); start += CHUNK_SIZE) {
+            List<Object[]> batch = pairs.subList(start, Math.min(start + CHUNK_SIZE, pairs.size()));
+            StringBuilder sql = new StringBuilder("INSERT IGNORE INTO ").append(table)
+                    .append(" (").append(firstColumn).append(", ").append(secondColumn).append(") VALUES ");
+            Object[] args = new Object[batch.size() * 2];
+            for (int i = 0; i < batch.size(); i++) {
+                sql.append(i == 0 ? "(?, ?)" : ", (?, ?)");
+                args[i * 2] = batch.get(i)[0];
+                args[i * 2 + 1] = batch.get(i)[1];
+            }
+            inserted += jdbcTemplate.update(sql.toString(), args);
+        }
+        return inserted;
+    }
+
+    private static List<List<Long>> chunks(Collection<Long> ids) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int start = 0; start < distinct.size(); start += CHUNK_SIZE) {
+            chunks.add(distinct.subList(start, Math.min(start + CHUNK_SIZE, distinct.size())));
+        }
+        return chunks;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    private static Object[] prepend(Object first, List<Long> rest) {
+        Object[] args = new Object[rest.size() + 1];
+        args[0] = first;
+        for (int i = 0; i < rest.size(); i++) {
+            args[i + 1] = rest.get(i);
+        }
+        return args;
+    }
+}
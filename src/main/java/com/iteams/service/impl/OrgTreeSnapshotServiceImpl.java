@@ -0,0 +1,114 @@
+package com.iteams.service.impl;
+
+import com.iteams.config.CacheConfig;
+import com.iteams.event.OrganizationChangedEvent;
+import com.iteams.model.dto.DepartmentDTO;
+import com.iteams.model.dto.OrgTreeSnapshot;
+import com.iteams.model.entity.Department;
+import com.iteams.repository.DepartmentRepository;
+import com.iteams.repository.UserRepository;
+import com.iteams.service.CacheCoherenceService;
+import com.iteams.service.OrgTreeSnapshotService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 组织树快照服务实现类
+ * <p>
+ * 快照以固定键存放在departments缓存中，并发请求在缓存未命中时只会触发一次构建；
+ * 失效与构建针对同一个键，构建过程中的失效会等待构建完成后再移除结果，不会留下旧快照。
+ * 写事务中未命中时临时构建而不回填，避免把未提交（可能回滚）的数据放进缓存
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrgTreeSnapshotServiceImpl implements OrgTreeSnapshotService {
+
+    /**
+     * 快照在departments缓存中的键
+     */
+    private static final String SNAPSHOT_KEY = "tree";
+
+    private final DepartmentRepository departmentRepository;
+    private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+    private final CacheCoherenceService cacheCoherenceService;
+
+    @Override
+    public OrgTreeSnapshot getSnapshot() {
+        Cache cache = getCache();
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // 写事务中可能读到未提交的修改，只读取不回填缓存
+            OrgTreeSnapshot cached = cache.get(SNAPSHOT_KEY, OrgTreeSnapshot.class);
+            return cached != null ? cached : build();
+        }
+        return cache.get(SNAPSHOT_KEY, this::build);
+    }
+
+    @Override
+    public void invalidate() {
+        getCache().evict(SNAPSHOT_KEY);
+        cacheCoherenceService.publishEvict(CacheConfig.CACHE_DEPARTMENTS, SNAPSHOT_KEY);
+    }
+
+    /**
+     * 事务提交后使快照失效，避免提交前被并发请求用旧数据重新构建
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrganizationChanged(OrganizationChangedEvent event) {
+        invalidate();
+    }
+
+    /**
+     * 一次部门查询加一次分组计数构建快照
+     */
+    private OrgTreeSnapshot build() {
+        List<DepartmentDTO> departments = departmentRepository.findAll().stream()
+                .map(OrgTreeSnapshotServiceImpl::toDto)
+                .collect(Collectors.toList());
+
+        Map<Long, Long> userCounts = new HashMap<>();
+        for (Object[] row : userRepository.countGroupByDepartmentId()) {
+            userCounts.put((Long) row[0], (Long) row[1]);
+        }
+
+        OrgTreeSnapshot snapshot = new OrgTreeSnapshot(departments, userCounts);
+        log.debug("组织树快照已构建, 部门数量: {}", snapshot.size());
+        return snapshot;
+    }
+
+    private Cache getCache() {
+        Cache cache = cacheManager.getCache(CacheConfig.CACHE_DEPARTMENTS);
+        if (cache == null) {
+            throw new IllegalStateException("缓存未配置: " + CacheConfig.CACHE_DEPARTMENTS);
+        }
+        return cache;
+    }
+
+    private static DepartmentDTO toDto(Department department) {
+        DepartmentDTO dto = new DepartmentDTO();
+        dto.setId(department.getId());
+        dto.setName(department.getName());
+        dto.setCode(department.getCode());
+        dto.setDescription(department.getDescription());
+        dto.setParentId(department.getParentId());
+        dto.setLevel(department.getLevel());
+        dto.setSortOrder(department.getSortOrder());
+        dto.setEnabled(department.getEnabled());
+        dto.setCreatedAt(department.getCreatedAt());
+        dto.setUpdatedAt(department.getUpdatedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,119 @@
+package com.iteams.service.impl;
+
+import com.iteams.exception.TooManyRequestsException;
+import com.iteams.service.PasswordHashingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 密码哈希服务实现类
+ * <p>
+ * 登录校验在线程池饱和时直接拒绝（返回系统繁忙），而管理端的编码操作在被拒绝时
+ * 退回调用线程执行，保证用户创建、密码重置不会因登录高峰失败
+ * </p>
+ */
+@Slf4j
+@Service
+public class PasswordHashingServiceImpl implements PasswordHashingService {
+
+    /**
+     * 等待单次哈希结果的超时时间（秒）
+     */
+    private static final long HASH_TIMEOUT_SECONDS = 10;
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolTaskExecutor passwordHashExecutor;
+
+    public PasswordHashingServiceImpl(PasswordEncoder passwordEncoder,
+                                      @Qualifier("passwordHashExecutor") ThreadPoolTaskExecutor passwordHashExecutor) {
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashExecutor = passwordHashExecutor;
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Future<Boolean> future;
+        try {
+            future = passwordHashExecutor.submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+        } catch (RejectedExecutionException e) {
+            log.warn("密码哈希线程池已满，拒绝登录校验");
+            throw new TooManyRequestsException("系统繁忙，请稍后再试", e);
+        }
+        return await(future);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        try {
+            return await(passwordHashExecutor.submit(() -> passwordEncoder.encode(rawPassword)));
+        } catch (RejectedExecutionException e) {
+            return passwordEncoder.encode(rawPassword);
+        }
+    }
+
+    @Override
+    public List<String> encodeAll(List<String> rawPasswords) {
+        int size = rawPasswords.size();
+        if (size == 0) {
+            return new ArrayList<>();
+        }
+
+        // 按线程数切分，每个分片一个任务，避免逐条提交撑满队列
+        int chunkCount = Math.min(size, passwordHashExecutor.getMaxPoolSize());
+        int chunkSize = (size + chunkCount - 1) / chunkCount;
+        List<CompletableFuture<List<String>>> futures = new ArrayList<>(chunkCount);
+        for (int start = 0; start < size; start += chunkSize) {
+            List<String> chunk = rawPasswords.subList(start, Math.min(start + chunkSize, size));
+            try {
+                futures.add(CompletableFuture.supplyAsync(() -> encodeChunk(chunk), passwordHashExecutor));
+            } catch (RejectedExecutionException e) {
+                futures.add(CompletableFuture.completedFuture(encodeChunk(chunk)));
+            }
+        }
+
+        List<String> encoded = new ArrayList<>(size);
+        for (CompletableFuture<List<String>> future : futures) {
+            encoded.addAll(future.join());
+        }
+        return encoded;
+    }
+
+    private List<String> encodeChunk(List<String> chunk) {
+        List<String> encoded = new ArrayList<>(chunk.size());
+        for (String rawPassword : chunk) {
+            encoded.add(passwordEncoder.encode(rawPassword));
+        }
+        return encoded;
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(HASH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("密码哈希被中断", e);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new TooManyRequestsException("系统繁忙，请稍后再试", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("密码哈希失败", cause);
+        }
+    }
+}
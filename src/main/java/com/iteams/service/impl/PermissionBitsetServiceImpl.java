@@ -0,0 +1,114 @@
+package com.iteams.service.impl;
+
+import com.iteams.config.CacheConfig;
+import com.iteams.model.dto.UserAuthorities;
+import com.iteams.model.entity.Permission;
+import com.iteams.repository.PermissionRepository;
+import com.iteams.service.PermissionBitsetService;
+import com.iteams.service.UserPermissionIndex;
+import com.iteams.util.PermissionBits;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 权限位集服务实现类
+ * <p>
+ * 权限序号只增不减：启动时按权限ID顺序分配，之后新出现的编码追加在末尾，
+ * 已编译的注解掩码因此始终有效。编译后的用户权限只存放在permissions缓存中，
+ * 容量、过期、提前刷新和跨节点失效都由缓存管理器统一处理，命中时校验过程不访问数据库。
+ * </p>
+ * <p>
+ * 缓存管理器延迟获取：它依赖的刷新加载器（权限缓存服务）又依赖本服务
+ * </p>
+ */
+@Slf4j
+@Service
+public class PermissionBitsetServiceImpl implements PermissionBitsetService {
+
+    private final PermissionRepository permissionRepository;
+    private final UserPermissionIndex userPermissionIndex;
+    private final ObjectProvider<CacheManager> cacheManagerProvider;
+
+    /**
+     * 权限编码 -> 稠密序号
+     */
+    private final Map<String, Integer> codeIndex = new ConcurrentHashMap<>();
+
+    /**
+     * 下一个可分配的序号
+     */
+    private final AtomicInteger nextIndex = new AtomicInteger();
+
+    private volatile Cache cache;
+
+    public PermissionBitsetServiceImpl(PermissionRepository permissionRepository,
+                                       UserPermissionIndex userPermissionIndex,
+                                       ObjectProvider<CacheManager> cacheManagerProvider) {
+        this.permissionRepository = permissionRepository;
+        this.userPermissionIndex = userPermissionIndex;
+        this.cacheManagerProvider = cacheManagerProvider;
+    }
+
+    /**
+     * 启动时为已有权限分配序号
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            List<Permission> permissions = permissionRepository.findAll();
+            permissions.sort(Comparator.comparing(Permission::getId));
+            permissions.forEach(permission -> indexOf(permission.getCode()));
+            log.info("权限位集初始化完成，权限数量: {}", codeIndex.size());
+        } catch (Exception e) {
+            log.error("权限位集初始化失败: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long[] compileMask(String... permissionCodes) {
+        long[] mask = PermissionBits.EMPTY;
+        for (String code : permissionCodes) {
+            mask = PermissionBits.set(mask, indexOf(code));
+        }
+        return mask;
+    }
+
+    @Override
+    public UserAuthorities getUserAuthorities(Long userId) {
+        return getCache().get(userId, () -> loadUserAuthorities(userId));
+    }
+
+    @Override
+    public UserAuthorities loadUserAuthorities(Long userId) {
+        UserAuthorities authorities = userPermissionIndex.loadAuthorities(userId);
+        log.debug("编译用户权限位集, 用户ID: {}, 权限数量: {}", userId, authorities.getPermissionCodes().size());
+        return authorities.withPermissionBits(
+                compileMask(authorities.getPermissionCodes().toArray(new String[0])));
+    }
+
+    private Cache getCache() {
+        Cache current = cache;
+        if (current == null) {
+            current = cacheManagerProvider.getObject().getCache(CacheConfig.CACHE_PERMISSIONS);
+            if (current == null) {
+                throw new IllegalStateException("缓存未配置: " + CacheConfig.CACHE_PERMISSIONS);
+            }
+            cache = current;
+        }
+        return current;
+    }
+
+    private int indexOf(String code) {
+        return codeIndex.computeIfAbsent(code, key -> nextIndex.getAndIncrement());
+    }
+}
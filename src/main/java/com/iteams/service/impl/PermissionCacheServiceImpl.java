@@ -1,84 +1,97 @@
 package com.iteams.service.impl;
 
+import com.iteams.config.CacheConfig;
+import com.iteams.config.CacheInvalidationHandler;
+import com.iteams.config.CacheRefreshLoader;
+import com.iteams.service.CacheCoherenceService;
+import com.iteams.service.PermissionBitsetService;
 import com.iteams.service.PermissionCacheService;
+import com.iteams.service.UserPermissionIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
-import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
-import java.util.Set;
-
 /**
  * 权限缓存服务实现类
+ * <p>
+ * permissions缓存按用户ID存放编译后的用户权限（角色、权限编码和位集），是权限数据的唯一缓存。
+ * 本服务同时作为它的刷新加载器：条目到达refresh-after-write时间后在后台按用户ID重新加载；
+ * 以及失效处理器：缓存条目由缓存管理器清除，这里只清除依赖索引
+ * </p>
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
-@CacheConfig(cacheNames = "permissions")
-public class PermissionCacheServiceImpl implements PermissionCacheService {
+public class PermissionCacheServiceImpl implements PermissionCacheService, CacheRefreshLoader, CacheInvalidationHandler {
 
-    private final CacheManager cacheManager;
-    private static final String CACHE_NAME = "permissions";
-    private static final String USER_PERMISSION_KEY_PREFIX = "user_permissions_";
+    private final UserPermissionIndex userPermissionIndex;
+    private final PermissionBitsetService permissionBitsetService;
+    private final CacheCoherenceService cacheCoherenceService;
 
     /**
-     * 获取用户权限编码集合
-     * 如果缓存中存在，则从缓存中获取
-     * 如果缓存中不存在，则返回null（由调用方从数据库加载并缓存）
+     * 清除用户权限缓存
      *
      * @param userId 用户ID
-     * @return 权限编码集合
      */
     @Override
-    @Cacheable(key = "'user_permissions_' + #userId")
-    public Set<String> getUserPermissionCodes(Long userId) {
-        log.debug("从缓存获取用户权限, 用户ID: {}", userId);
-        // 该方法不会被实际调用，因为@Cacheable注解会拦截方法调用
-        // 如果缓存中存在对应的值，则直接返回缓存值
-        // 如果缓存中不存在，则执行方法体，并将返回值放入缓存
-        return null;
+    @CacheEvict(cacheNames = CacheConfig.CACHE_PERMISSIONS, key = "#userId")
+    public void clearUserPermissionCache(Long userId) {
+        log.debug("清除用户权限缓存, 用户ID: {}", userId);
+        // 缓存条目由@CacheEvict注解清除，这里同步清除依赖索引
+        evict(userId);
+        cacheCoherenceService.publishEvict(CacheConfig.CACHE_PERMISSIONS, userId);
+    }
+
+    /**
+     * 清除所有权限缓存
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.CACHE_PERMISSIONS, allEntries = true)
+    public void clearAllPermissionCache() {
+        log.debug("清除所有权限缓存");
+        // 缓存条目由@CacheEvict注解清除，这里同步清除依赖索引
+        clear();
+        cacheCoherenceService.publishClear(CacheConfig.CACHE_PERMISSIONS);
+    }
+
+    @Override
+    public String getCacheName() {
+        return CacheConfig.CACHE_PERMISSIONS;
     }
 
     /**
-     * 缓存用户权限编码集合
+     * 按用户ID重新加载用户权限
      *
-     * @param userId 用户ID
-     * @param permissionCodes 权限编码集合
+     * @param key 用户ID
+     * @return 用户权限
      */
     @Override
-    public void cacheUserPermissionCodes(Long userId, Set<String> permissionCodes) {
-        log.debug("缓存用户权限, 用户ID: {}, 权限数量: {}", userId, permissionCodes.size());
-        Cache cache = cacheManager.getCache(CACHE_NAME);
-        if (cache != null) {
-            cache.put(USER_PERMISSION_KEY_PREFIX + userId, permissionCodes);
-        } else {
-            log.warn("缓存管理器中未找到缓存: {}", CACHE_NAME);
-        }
+    public Object load(Object key) {
+        log.debug("刷新用户权限缓存, 用户ID: {}", key);
+        return permissionBitsetService.loadUserAuthorities((Long) key);
+    }
+
+    @Override
+    public Object toCacheKey(String key) {
+        return Long.valueOf(key);
     }
 
     /**
-     * 清除用户权限缓存
+     * 清除用户的依赖索引
      *
-     * @param userId 用户ID
+     * @param key 用户ID
      */
     @Override
-    @CacheEvict(key = "'user_permissions_' + #userId")
-    public void clearUserPermissionCache(Long userId) {
-        log.debug("清除用户权限缓存, 用户ID: {}", userId);
-        // 方法体为空，因为@CacheEvict注解会处理缓存清除
+    public void evict(Object key) {
+        userPermissionIndex.removeUser((Long) key);
     }
 
     /**
-     * 清除所有权限缓存
+     * 清除全部依赖索引
      */
     @Override
-    @CacheEvict(allEntries = true)
-    public void clearAllPermissionCache() {
-        log.debug("清除所有权限缓存");
-        // 方法体为空，因为@CacheEvict注解会处理缓存清除
+    public void clear() {
+        userPermissionIndex.clear();
     }
 }
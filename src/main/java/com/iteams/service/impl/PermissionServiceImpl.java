@@ -1,5 +1,6 @@
 package com.iteams.service.impl;
 
+import com.iteams.event.RolePermissionsChangedEvent;
 import com.iteams.exception.ResourceNotFoundException;
 import com.iteams.model.dto.PermissionDTO;
 import com.iteams.model.entity.Permission;
@@ -8,10 +9,11 @@ import com.iteams.model.entity.User;
 import com.iteams.repository.PermissionRepository;
 import com.iteams.repository.RoleRepository;
 import com.iteams.repository.UserRepository;
-import com.iteams.service.PermissionCacheService;
+import com.iteams.service.PermissionBitsetService;
 import com.iteams.service.PermissionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,7 +34,8 @@ public class PermissionServiceImpl implements PermissionService {
     private final PermissionRepository permissionRepository;
     private final RoleRepository roleRepository;
     private final UserRepository userRepository;
-    private final PermissionCacheService permissionCacheService;
+    private final PermissionBitsetService permissionBitsetService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 获取所有权限
@@ -84,11 +87,8 @@ public class PermissionServiceImpl implements PermissionService {
 
         // 保存权限
         Permission savedPermission = permissionRepository.save(permission);
-        
-        // 清除所有权限缓存，因为权限变更会影响所有用户
-        permissionCacheService.clearAllPermissionCache();
-        log.debug("创建权限后清除所有权限缓存, 权限编码: {}", permissionDTO.getCode());
-        
+
+        // 新权限尚未分配给任何角色，不影响已缓存的用户权限
         return convertToDto(savedPermission);
     }
 
@@ -102,8 +102,8 @@ public class PermissionServiceImpl implements PermissionService {
                 .orElseThrow(() -> new ResourceNotFoundException("权限不存在: " + id));
 
         // 检查权限编码是否重复
-        if (!permission.getCode().equals(permissionDTO.getCode()) 
-                && permissionRepository.existsByCode(permissionDTO.getCode())) {
+        boolean codeChanged = !permission.getCode().equals(permissionDTO.getCode());
+        if (codeChanged && permissionRepository.existsByCode(permissionDTO.getCode())) {
             throw new IllegalArgumentException("权限编码已存在: " + permissionDTO.getCode());
         }
 
@@ -116,11 +116,13 @@ public class PermissionServiceImpl implements PermissionService {
 
         // 保存权限
         Permission savedPermission = permissionRepository.save(permission);
-        
-        // 清除所有权限缓存，因为权限变更会影响所有用户
-        permissionCacheService.clearAllPermissionCache();
-        log.debug("更新权限后清除所有权限缓存, 权限ID: {}, 权限编码: {}", id, permissionDTO.getCode());
-        
+
+        // 权限编码变化只影响拥有该权限的角色下的用户
+        if (codeChanged) {
+            publishRolesChanged(permission);
+            log.debug("权限编码已变更, 权限ID: {}, 新编码: {}", id, permissionDTO.getCode());
+        }
+
         return convertToDto(savedPermission);
     }
 
@@ -138,12 +140,24 @@ public class PermissionServiceImpl implements PermissionService {
             throw new IllegalArgumentException("不能删除系统内置权限: " + permission.getName());
         }
 
+        // 删除前记录拥有该权限的角色，提交后只清除这些角色下用户的权限缓存
+        publishRolesChanged(permission);
+
         // 删除权限
         permissionRepository.delete(permission);
-        
-        // 清除所有权限缓存，因为权限变更会影响所有用户
-        permissionCacheService.clearAllPermissionCache();
-        log.debug("删除权限后清除所有权限缓存, 权限ID: {}, 权限编码: {}", id, permission.getCode());
+        log.debug("删除权限, 权限ID: {}, 权限编码: {}", id, permission.getCode());
+    }
+
+    /**
+     * 发布拥有该权限的角色的权限变更事件
+     */
+    private void publishRolesChanged(Permission permission) {
+        Set<Long> roleIds = permission.getRoles().stream()
+                .map(Role::getId)
+                .collect(Collectors.toSet());
+        if (!roleIds.isEmpty()) {
+            eventPublisher.publishEvent(new RolePermissionsChangedEvent(roleIds));
+        }
     }
 
     /**
@@ -151,7 +165,7 @@ public class PermissionServiceImpl implements PermissionService {
      */
     @Override
     public List<PermissionDTO> getRolePermissions(Long roleId) {
-        Role role = roleRepository.findById(roleId)
+        Role role = roleRepository.findWithPermissionsById(roleId)
                 .orElseThrow(() -> new ResourceNotFoundException("角色不存在: " + roleId));
 
         return role.getPermissions().stream()
@@ -164,7 +178,7 @@ public class PermissionServiceImpl implements PermissionService {
      */
     @Override
     public List<PermissionDTO> getUserPermissions(Long userId) {
-        User user = userRepository.findById(userId)
+        User user = userRepository.findWithAuthoritiesById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("用户不存在: " + userId));
 
         // 获取用户所有角色的权限
@@ -178,35 +192,14 @@ public class PermissionServiceImpl implements PermissionService {
 
     /**
      * 获取用户的权限编码
-     * 优化版本：使用缓存提高性能
+     * 与权限校验共用permissions缓存中的用户权限
      */
     @Override
     public Set<String> getUserPermissionCodes(Long userId) {
-        // 先从缓存中获取
-        Set<String> cachedPermissions = permissionCacheService.getUserPermissionCodes(userId);
-        if (cachedPermissions != null && !cachedPermissions.isEmpty()) {
-            log.debug("从缓存中获取用户权限编码, 用户ID: {}, 权限数量: {}", userId, cachedPermissions.size());
-            return cachedPermissions;
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("用户不存在: " + userId);
         }
-        
-        // 缓存中不存在，从数据库加载
-        log.debug("从数据库加载用户权限编码, 用户ID: {}", userId);
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("用户不存在: " + userId));
-
-        // 获取用户所有角色的权限
-        Set<String> permissionCodes = new HashSet<>();
-        user.getRoles().forEach(role -> 
-            role.getPermissions().forEach(permission -> 
-                permissionCodes.add(permission.getCode())
-            )
-        );
-        
-        // 将权限编码存入缓存
-        permissionCacheService.cacheUserPermissionCodes(userId, permissionCodes);
-        log.debug("用户权限编码已缓存, 用户ID: {}, 权限数量: {}", userId, permissionCodes.size());
-        
-        return permissionCodes;
+        return permissionBitsetService.getUserAuthorities(userId).getPermissionCodes();
     }
 
     /**
@@ -0,0 +1,365 @@
+package com.iteams.service.impl;
+
+import com.iteams.config.CacheConfig;
+import com.iteams.config.CacheInvalidationHandler;
+import com.iteams.config.RackProperties;
+import com.iteams.event.SpaceChangedEvent;
+import com.iteams.exception.BusinessException;
+import com.iteams.exception.ResourceNotFoundException;
+import com.iteams.model.dto.LocationNodeDTO;
+import com.iteams.model.dto.RackCabinetDTO;
+import com.iteams.model.dto.RackRoomSummaryDTO;
+import com.iteams.model.entity.LocationNode;
+import com.iteams.service.CacheCoherenceService;
+import com.iteams.service.LocationIndexService;
+import com.iteams.service.RackOccupancyService;
+import com.iteams.util.RackBitmap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 机柜U位占用服务实现类
+ * <p>
+ * 首次访问时读取全部当前空间记录，每个机柜一个{@link RackBitmap}，并记录每台资产占用的U位范围。
+ * 空间记录变化的事务提交后只重新读取相关资产的当前记录：先释放旧的U位再占用新的U位，
+ * 并通过缓存一致性服务通知其他节点同样处理。读取和应用在同一把锁内完成，
+ * 先后两次刷新不会出现先读到的旧记录在后面应用、覆盖新记录的情况。
+ * </p>
+ * <p>
+ * U位文本无法识别的资产只计入所在机柜，不占用U位。
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RackOccupancyServiceImpl implements RackOccupancyService, CacheInvalidationHandler {
+
+    /**
+     * U位格式：12、U12、12U、12-14、U12~U14、12至14
+     */
+    private static final Pattern U_POSITION = Pattern.compile(
+            "(?i)^\\s*U?\\s*(\\d{1,4})\\s*U?\\s*(?:[-~～至到]\\s*U?\\s*(\\d{1,4})\\s*U?)?\\s*$");
+
+    private static final String CURRENT_SPACE_SQL =
+            "SELECT asset_id, cabinet_node_id, u_position FROM space_timeline WHERE is_current = 1 AND cabinet_node_id IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LocationIndexService locationIndexService;
+    private final CacheCoherenceService cacheCoherenceService;
+    private final RackProperties properties;
+
+    /**
+     * 机柜节点ID -> 机柜占用
+     */
+    private Map<Long, Cabinet> cabinets;
+
+    /**
+     * 资产ID -> 资产所在位置
+     */
+    private Map<Long, Placement> placements;
+
+    @Override
+    public List<Long> findConflicts(Long cabinetNodeId, String uPosition, Collection<Long> excludeAssetIds) {
+        int[] range = parseUPosition(uPosition);
+        if (range == null) {
+            if (uPosition != null && !uPosition.isBlank()) {
+                throw new BusinessException("无法识别的U位: " + uPosition);
+            }
+            return List.of();
+        }
+        synchronized (this) {
+            Cabinet cabinet = getCabinets().get(cabinetNodeId);
+            if (cabinet == null || cabinet.bitmap.isFree(range[0], range[1])) {
+                return List.of();
+            }
+            List<Long> conflicts = new ArrayList<>();
+            for (Map.Entry<Long, int[]> slot : cabinet.slots.entrySet()) {
+                int[] used = slot.getValue();
+                if (used[0] <= range[1] && range[0] <= used[1]
+                        && (excludeAssetIds == null || !excludeAssetIds.contains(slot.getKey()))) {
+                    conflicts.add(slot.getKey());
+                }
+            }
+            Collections.sort(conflicts);
+            return conflicts;
+        }
+    }
+
+    @Override
+    public Integer findFreeRange(Long cabinetNodeId, int units) {
+        if (units < 1) {
+            throw new BusinessException("U数必须大于0");
+        }
+        synchronized (this) {
+            Cabinet cabinet = getCabinets().get(cabinetNodeId);
+            if (cabinet == null) {
+                return units <= properties.getDefaultHeight() ? 1 : null;
+            }
+            int start = cabinet.bitmap.findFree(units, height(cabinet));
+            return start < 0 ? null : start;
+        }
+    }
+
+    @Override
+    public RackCabinetDTO getCabinet(Long cabinetNodeId) {
+        LocationNodeDTO node = locationIndexService.findNode(cabinetNodeId)
+                .orElseThrow(() -> new ResourceNotFoundException("位置节点不存在: " + cabinetNodeId));
+        synchronized (this) {
+            Cabinet cabinet = getCabinets().get(cabinetNodeId);
+            RackCabinetDTO dto = summarize(node, cabinet);
+            List<RackCabinetDTO.Slot> slots = new ArrayList<>();
+            if (cabinet != null) {
+                cabinet.slots.forEach((assetId, range) -> slots.add(new RackCabinetDTO.Slot(assetId, range[0], range[1])));
+                slots.sort((a, b) -> a.getFromU() != b.getFromU() ? Integer.compare(a.getFromU(), b.getFromU())
+                        : Long.compare(a.getAssetId(), b.getAssetId()));
+            }
+            dto.setSlots(slots);
+            return dto;
+        }
+    }
+
+    @Override
+    public RackRoomSummaryDTO getRoomSummary(Long roomNodeId) {
+        LocationNodeDTO room = locationIndexService.findNode(roomNodeId)
+                .orElseThrow(() -> new ResourceNotFoundException("位置节点不存在: " + roomNodeId));
+        List<LocationNodeDTO> children = locationIndexService.getChildren(roomNodeId);
+
+        List<RackCabinetDTO> details = new ArrayList<>(children.size());
+        int totalUnits = 0;
+        int usedUnits = 0;
+        synchronized (this) {
+            Map<Long, Cabinet> current = getCabinets();
+            for (LocationNodeDTO child : children) {
+                if (child.getLevel() == null || child.getLevel() != LocationNode.LEVEL_CABINET) {
+                    continue;
+                }
+                RackCabinetDTO dto = summarize(child, current.get(child.getId()));
+                totalUnits += dto.getHeight();
+                usedUnits += dto.getUsedUnits();
+                details.add(dto);
+            }
+        }
+
+        RackRoomSummaryDTO summary = new RackRoomSummaryDTO();
+        summary.setRoomNodeId(roomNodeId);
+        summary.setPath(room.getPath());
+        summary.setCabinets(details.size());
+        summary.setTotalUnits(totalUnits);
+        summary.setUsedUnits(usedUnits);
+        summary.setUtilization(percent(usedUnits, totalUnits));
+        summary.setCabinetDetails(details);
+        return summary;
+    }
+
+    @Override
+    public int[] parseUPosition(String uPosition) {
+        if (uPosition == null) {
+            return null;
+        }
+        Matcher matcher = U_POSITION.matcher(uPosition);
+        if (!matcher.matches()) {
+            return null;
+        }
+        int from = Integer.parseInt(matcher.group(1));
+        int to = matcher.group(2) != null ? Integer.parseInt(matcher.group(2)) : from;
+        if (from > to) {
+            int swap = from;
+            from = to;
+            to = swap;
+        }
+        return from < 1 ? null : new int[]{from, to};
+    }
+
+    /**
+     * 事务提交后更新占用，避免读到未提交的数据
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpaceChanged(SpaceChangedEvent event) {
+        if (event.getAssetIds() == null) {
+            clear();
+            cacheCoherenceService.publishClear(CacheConfig.CACHE_RACK_OCCUPANCY);
+            return;
+        }
+        refresh(event.getAssetIds());
+        for (Long assetId : event.getAssetIds()) {
+            cacheCoherenceService.publishEvict(CacheConfig.CACHE_RACK_OCCUPANCY, assetId);
+        }
+    }
+
+    @Override
+    public String getCacheName() {
+        return CacheConfig.CACHE_RACK_OCCUPANCY;
+    }
+
+    @Override
+    public Object toCacheKey(String key) {
+        return Long.valueOf(key);
+    }
+
+    /**
+     * 其他节点变更了资产位置，重新读取该资产的当前记录
+     */
+    @Override
+    public void evict(Object key) {
+        refresh(Set.of((Long) key));
+    }
+
+    @Override
+    public synchronized void clear() {
+        cabinets = null;
+        placements = null;
+    }
+
+    /**
+     * 重新读取资产的当前空间记录并更新占用，在锁内读取，保证按提交顺序应用
+     */
+    private synchronized void refresh(Set<Long> assetIds) {
+        if (cabinets == null || assetIds.isEmpty()) {
+            // 尚未加载，首次访问时会读取到最新数据
+            return;
+        }
+        List<Long> ids = new ArrayList<>(new TreeSet<>(assetIds));
+        String sql = CURRENT_SPACE_SQL + " AND asset_id IN ("
+                + String.join(",", Collections.nCopies(ids.size(), "?")) + ") ORDER BY space_id";
+        Map<Long, Placement> latest = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            long assetId = rs.getLong("asset_id");
+            latest.put(assetId, new Placement(rs.getLong("cabinet_node_id"), parseUPosition(rs.getString("u_position"))));
+        }, ids.toArray());
+
+        for (Long assetId : ids) {
+            remove(assetId);
+            Placement placement = latest.get(assetId);
+            if (placement != null) {
+                place(cabinets, placements, assetId, placement);
+            }
+        }
+    }
+
+    private Map<Long, Cabinet> getCabinets() {
+        if (cabinets == null) {
+            Map<Long, Cabinet> builtCabinets = new HashMap<>();
+            Map<Long, Placement> builtPlacements = new HashMap<>();
+            // 同一资产有多条当前记录时以最新的一条为准
+            jdbcTemplate.query(CURRENT_SPACE_SQL + " ORDER BY space_id", rs -> {
+                long assetId = rs.getLong("asset_id");
+                Placement previous = builtPlacements.get(assetId);
+                if (previous != null) {
+                    removeFrom(builtCabinets, assetId, previous);
+                }
+                place(builtCabinets, builtPlacements, assetId,
+                        new Placement(rs.getLong("cabinet_node_id"), parseUPosition(rs.getString("u_position"))));
+            });
+            cabinets = builtCabinets;
+            placements = builtPlacements;
+            log.info("机柜U位占用已加载, 机柜数量: {}, 资产数量: {}", builtCabinets.size(), builtPlacements.size());
+        }
+        return cabinets;
+    }
+
+    private void remove(Long assetId) {
+        Placement previous = placements.remove(assetId);
+        if (previous != null) {
+            removeFrom(cabinets, assetId, previous);
+        }
+    }
+
+    private static void place(Map<Long, Cabinet> cabinets, Map<Long, Placement> placements,
+                              Long assetId, Placement placement) {
+        placements.put(assetId, placement);
+        if (placement.range == null) {
+            return;
+        }
+        Cabinet cabinet = cabinets.computeIfAbsent(placement.cabinetNodeId, id -> new Cabinet());
+        cabinet.bitmap.occupy(placement.range[0], placement.range[1]);
+        cabinet.slots.put(assetId, placement.range);
+    }
+
+    private static void removeFrom(Map<Long, Cabinet> cabinets, Long assetId, Placement placement) {
+        if (placement.range == null) {
+            return;
+        }
+        Cabinet cabinet = cabinets.get(placement.cabinetNodeId);
+        if (cabinet != null && cabinet.slots.remove(assetId) != null) {
+            cabinet.bitmap.release(placement.range[0], placement.range[1]);
+            if (cabinet.slots.isEmpty()) {
+                cabinets.remove(placement.cabinetNodeId);
+            }
+        }
+    }
+
+    private RackCabinetDTO summarize(LocationNodeDTO node, Cabinet cabinet) {
+        int height = cabinet == null ? properties.getDefaultHeight() : height(cabinet);
+        int used = cabinet == null ? 0 : cabinet.bitmap.countUsed(height);
+        RackCabinetDTO dto = new RackCabinetDTO();
+        dto.setCabinetNodeId(node.getId());
+        dto.setPath(node.getPath());
+        dto.setHeight(height);
+        dto.setUsedUnits(used);
+        dto.setUtilization(percent(used, height));
+        dto.setLargestFreeBlock(cabinet == null ? height : largestFreeBlock(cabinet.bitmap, height));
+        return dto;
+    }
+
+    private int height(Cabinet cabinet) {
+        return Math.max(properties.getDefaultHeight(), cabinet.bitmap.highestUsed());
+    }
+
+    /**
+     * 最大连续空闲U数，按位图二分查找可放下的最大U数
+     */
+    private static int largestFreeBlock(RackBitmap bitmap, int height) {
+        int low = 0;
+        int high = height - bitmap.countUsed(height);
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (bitmap.findFree(mid, height) > 0) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private static double percent(int used, int total) {
+        return total == 0 ? 0 : Math.round(used * 10000.0 / total) / 100.0;
+    }
+
+    /**
+     * 单个机柜的占用
+     */
+    private static final class Cabinet {
+
+        private final RackBitmap bitmap = new RackBitmap(0);
+        private final Map<Long, int[]> slots = new HashMap<>();
+    }
+
+    /**
+     * 资产所在机柜和U位范围，U位无法识别时范围为null
+     */
+    private static final class Placement {
+
+        private final long cabinetNodeId;
+        private final int[] range;
+
+        private Placement(long cabinetNodeId, int[] range) {
+            this.cabinetNodeId = cabinetNodeId;
+            this.range = range;
+        }
+    }
+}
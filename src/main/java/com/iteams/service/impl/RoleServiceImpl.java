@@ -1,5 +1,6 @@
 package com.iteams.service.impl;
 
+import com.iteams.event.RolePermissionsChangedEvent;
 import com.iteams.exception.ResourceNotFoundException;
 import com.iteams.model.dto.RoleDTO;
 import com.iteams.model.entity.Permission;
@@ -11,6 +12,7 @@ import com.iteams.repository.UserRepository;
 import com.iteams.service.RoleService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -33,11 +35,13 @@ public class RoleServiceImpl implements RoleService {
     private final RoleRepository roleRepository;
     private final PermissionRepository permissionRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 获取角色分页列表
      */
     @Override
+    @Transactional(readOnly = true)
     public Page<RoleDTO> getRoles(String name, Pageable pageable) {
         Page<Role> rolePage = roleRepository.findByConditions(name, pageable);
         return rolePage.map(this::convertToDto);
@@ -57,7 +61,7 @@ public class RoleServiceImpl implements RoleService {
      */
     @Override
     public RoleDTO getRoleById(Long id) {
-        Role role = roleRepository.findById(id)
+        Role role = roleRepository.findWithPermissionsById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("角色不存在: " + id));
         return convertToDto(role);
     }
@@ -100,6 +104,7 @@ public class RoleServiceImpl implements RoleService {
         }
 
         // 更新角色
+        boolean codeChanged = !role.getCode().equals(roleDTO.getCode());
         role.setName(roleDTO.getName());
         role.setCode(roleDTO.getCode());
         role.setDescription(roleDTO.getDescription());
@@ -107,6 +112,10 @@ public class RoleServiceImpl implements RoleService {
 
         // 保存角色
         Role savedRole = roleRepository.save(role);
+        if (codeChanged) {
+            // 缓存的用户权限包含角色编码，编码变更后清除拥有该角色的用户的缓存
+            eventPublisher.publishEvent(new RolePermissionsChangedEvent(Set.of(id)));
+        }
         return convertToDto(savedRole);
     }
 
@@ -126,6 +135,7 @@ public class RoleServiceImpl implements RoleService {
 
         // 删除角色
         roleRepository.delete(role);
+        eventPublisher.publishEvent(new RolePermissionsChangedEvent(Set.of(id)));
     }
 
     /**
@@ -133,7 +143,7 @@ public class RoleServiceImpl implements RoleService {
      */
     @Override
     public List<String> getRolePermissions(Long roleId) {
-        Role role = roleRepository.findById(roleId)
+        Role role = roleRepository.findWithPermissionsById(roleId)
                 .orElseThrow(() -> new ResourceNotFoundException("角色不存在: " + roleId));
 
         return role.getPermissions().stream()
@@ -159,6 +169,9 @@ public class RoleServiceImpl implements RoleService {
         // 设置角色权限
         role.setPermissions(new HashSet<>(permissions));
         roleRepository.save(role);
+
+        // 提交后清除该角色下用户的权限缓存
+        eventPublisher.publishEvent(new RolePermissionsChangedEvent(Set.of(roleId)));
     }
 
     /**
@@ -166,7 +179,7 @@ public class RoleServiceImpl implements RoleService {
      */
     @Override
     public List<String> getUserRoles(Long userId) {
-        User user = userRepository.findById(userId)
+        User user = userRepository.findWithRolesById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("用户不存在: " + userId));
 
         return user.getRoles().stream()
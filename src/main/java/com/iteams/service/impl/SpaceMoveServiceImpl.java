@@ -0,0 +1,467 @@
+package com.iteams.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.iteams.event.SpaceChangedEvent;
+import com.iteams.exception.BusinessException;
+import com.iteams.exception.ResourceNotFoundException;
+import com.iteams.model.dto.LocationNodeDTO;
+import com.iteams.model.dto.SpaceMoveRequest;
+import com.iteams.model.dto.SpaceMoveResultDTO;
+import com.iteams.model.entity.AssetStatCounter;
+import com.iteams.model.entity.LocationNode;
+import com.iteams.model.entity.SpaceTimeline;
+import com.iteams.service.AssetStatsService;
+import com.iteams.service.LocationIndexService;
+import com.iteams.service.RackOccupancyService;
+import com.iteams.service.SpaceMoveService;
+import com.iteams.util.JsonUtil;
+import com.iteams.util.RackBitmap;
+import com.iteams.util.UserInfoUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 资产迁移服务实现类
+ * <p>
+ * 迁移全部使用JDBC完成，一次迁移（无论单个资产还是整个机柜）固定执行一组语句：
+ * 锁定资产行并读取当前空间记录，批量结束原空间记录，批量插入新空间记录，批量更新资产主表的space_id，
+ * 一条多行INSERT写入变更溯源。原空间记录通过资产主表的指针按主键定位，不按is_current扫描历史。
+ * </p>
+ * <p>
+ * 新位置的节点ID由位置索引服务解析，数据中心和机房的资产计数随事务提交调整。
+ * 目标U位已被其他资产占用时拒绝迁移，本次一起迁移的资产不计入占用。检查前按ID顺序锁定目标机柜的位置节点行，
+ * 再读取机柜中资产的当前空间记录，同一机柜的并发迁移依次检查，不依赖内存中的占用位图。
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SpaceMoveServiceImpl implements SpaceMoveService {
+
+    /**
+     * 整柜迁移的最大资产数量
+     */
+    private static final int MAX_CABINET_ASSETS = 500;
+
+    private static final String LOCK_SQL = "SELECT a.asset_id, a.space_id, s.data_center, s.room_name, s.cabinet_no, " +
+            "s.u_position, s.latitude, s.longitude, s.environment, s.keeper, s.data_center_node_id, s.room_node_id, " +
+            "s.cabinet_node_id FROM asset_master a LEFT JOIN space_timeline s ON s.space_id = a.space_id " +
+            "WHERE a.asset_id IN (%s) ORDER BY a.asset_id FOR UPDATE";
+
+    private static final String INSERT_SPACE_SQL = "INSERT INTO space_timeline (asset_id, location_path, latitude, longitude, " +
+            "valid_from, is_current, data_center, room_name, cabinet_no, u_position, data_center_node_id, room_node_id, " +
+            "cabinet_node_id, location_node_id, environment, keeper, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, 1, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LocationIndexService locationIndexService;
+    private final AssetStatsService assetStatsService;
+    private final RackOccupancyService rackOccupancyService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public SpaceMoveResultDTO moveAsset(Long assetId, SpaceMoveRequest target) {
+        checkTarget(target);
+        List<CurrentSpace> current = lock(List.of(assetId));
+        if (current.isEmpty()) {
+            throw new ResourceNotFoundException("资产不存在: " + assetId);
+        }
+        return move(current, target, null);
+    }
+
+    @Override
+    @Transactional
+    public SpaceMoveResultDTO moveCabinet(Long cabinetNodeId, SpaceMoveRequest target) {
+        checkTarget(target);
+        LocationNodeDTO node = locationIndexService.findNode(cabinetNodeId)
+                .orElseThrow(() -> new ResourceNotFoundException("位置节点不存在: " + cabinetNodeId));
+        if (node.getLevel() != LocationNode.LEVEL_CABINET) {
+            throw new BusinessException("位置节点不是机柜: " + node.getPath());
+        }
+        List<Long> assetIds = jdbcTemplate.queryForList(
+                "SELECT asset_id FROM space_timeline WHERE cabinet_node_id = ? AND is_current = 1 LIMIT ?",
+                Long.class, cabinetNodeId, MAX_CABINET_ASSETS + 1);
+        if (assetIds.size() > MAX_CABINET_ASSETS) {
+            throw new BusinessException("机柜内资产超过" + MAX_CABINET_ASSETS + "个，请分批迁移");
+        }
+        // 加锁后再次确认资产仍在该机柜
+        List<CurrentSpace> current = new ArrayList<>();
+        for (CurrentSpace space : lock(assetIds)) {
+            if (Objects.equals(space.cabinetNodeId, cabinetNodeId)) {
+                current.add(space);
+            }
+        }
+        SpaceMoveResultDTO result = move(current, target, node.getPath());
+        log.info("整柜迁移完成: {} -> {}/{}/{}, 迁移: {}, 未变化: {}", node.getPath(), target.getDataCenter(),
+                target.getRoomName(), target.getCabinetNo(), result.getMoved(), result.getUnchanged());
+        return result;
+    }
+
+    @Override
+    @Transactional
+    public int repairCurrentPointers() {
+        // 资产主表指向最新的一条当前空间记录
+        int pointers = jdbcTemplate.update("UPDATE asset_master a " +
+                "INNER JOIN (SELECT asset_id, MAX(space_id) AS space_id FROM space_timeline WHERE is_current = 1 GROUP BY asset_id) c " +
+                "ON c.asset_id = a.asset_id " +
+                "SET a.space_id = c.space_id WHERE a.space_id IS NULL OR a.space_id <> c.space_id");
+        // 其余当前空间记录在新记录开始时结束
+        int closed = jdbcTemplate.update("UPDATE space_timeline s " +
+                "INNER JOIN asset_master a ON a.asset_id = s.asset_id " +
+                "INNER JOIN space_timeline c ON c.space_id = a.space_id " +
+                "SET s.is_current = 0, s.valid_to = COALESCE(s.valid_to, c.valid_from) " +
+                "WHERE s.is_current = 1 AND s.space_id <> a.space_id");
+        if (pointers > 0) {
+            assetStatsService.rebuild();
+        }
+        if (pointers > 0 || closed > 0) {
+            eventPublisher.publishEvent(SpaceChangedEvent.all());
+            log.info("当前位置标记已修复, 更新资产指针: {}, 结束空间记录: {}", pointers, closed);
+        }
+        return pointers + closed;
+    }
+
+    /**
+     * 执行一组迁移
+     *
+     * @param current 已加锁的资产及其当前位置
+     * @param target 目标位置
+     * @param fromCabinet 整柜迁移时的原机柜路径，用于变更记录
+     */
+    private SpaceMoveResultDTO move(List<CurrentSpace> current, SpaceMoveRequest target, String fromCabinet) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp movedAt = Timestamp.valueOf(now);
+        SpaceMoveResultDTO result = new SpaceMoveResultDTO();
+        result.setMovedAt(now);
+
+        List<CurrentSpace> moving = new ArrayList<>(current.size());
+        List<SpaceTimeline> targets = new ArrayList<>(current.size());
+        for (CurrentSpace space : current) {
+            SpaceTimeline next = buildTarget(space, target);
+            if (space.spaceId != null && sameLocation(space, next)) {
+                result.setUnchanged(result.getUnchanged() + 1);
+                continue;
+            }
+            moving.add(space);
+            targets.add(next);
+        }
+        if (moving.isEmpty()) {
+            return result;
+        }
+        checkRackConflicts(moving, targets);
+
+        List<Object[]> closing = new ArrayList<>(moving.size());
+        for (CurrentSpace space : moving) {
+            if (space.spaceId != null) {
+                closing.add(new Object[]{movedAt, space.spaceId});
+            }
+        }
+        if (!closing.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE space_timeline SET is_current = 0, valid_to = ? WHERE space_id = ?", closing);
+        }
+
+        List<Long> spaceIds = insertSpaces(moving, targets, movedAt);
+
+        List<Object[]> pointers = new ArrayList<>(moving.size());
+        for (int i = 0; i < moving.size(); i++) {
+            pointers.add(new Object[]{spaceIds.get(i), movedAt, moving.get(i).assetId});
+        }
+        jdbcTemplate.batchUpdate("UPDATE asset_master SET space_id = ?, updated_at = ? WHERE asset_id = ?", pointers);
+
+        insertTraces(moving, targets, movedAt, fromCabinet);
+        adjustStats(moving, targets);
+        Set<Long> assetIds = new HashSet<>();
+        for (CurrentSpace space : moving) {
+            assetIds.add(space.assetId);
+        }
+        eventPublisher.publishEvent(SpaceChangedEvent.of(assetIds));
+
+        result.setMoved(moving.size());
+        result.setSpaceIds(spaceIds);
+        return result;
+    }
+
+    /**
+     * 按资产ID顺序锁定资产行，读取其当前空间记录
+     */
+    private List<CurrentSpace> lock(List<Long> assetIds) {
+        if (assetIds.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(",", Collections.nCopies(assetIds.size(), "?"));
+        return jdbcTemplate.query(String.format(LOCK_SQL, placeholders),
+                (rs, rowNum) -> new CurrentSpace(rs), assetIds.toArray());
+    }
+
+    private List<Long> insertSpaces(List<CurrentSpace> moving, List<SpaceTimeline> targets, Timestamp movedAt) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SPACE_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        SpaceTimeline space = targets.get(i);
+                        ps.setLong(1, moving.get(i).assetId);
+                        ps.setString(2, space.getLocationPath());
+                        ps.setObject(3, space.getLatitude(), Types.DOUBLE);
+                        ps.setObject(4, space.getLongitude(), Types.DOUBLE);
+                        ps.setTimestamp(5, movedAt);
+                        ps.setString(6, space.getDataCenter());
+                        ps.setString(7, space.getRoomName());
+                        ps.setString(8, space.getCabinetNo());
+                        ps.setString(9, space.getUPosition());
+                        ps.setObject(10, space.getDataCenterNodeId(), Types.BIGINT);
+                        ps.setObject(11, space.getRoomNodeId(), Types.BIGINT);
+                        ps.setObject(12, space.getCabinetNodeId(), Types.BIGINT);
+                        ps.setObject(13, space.getLocationNodeId(), Types.BIGINT);
+                        ps.setString(14, space.getEnvironment());
+                        ps.setString(15, space.getKeeper());
+                        ps.setTimestamp(16, movedAt);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return targets.size();
+                    }
+                }, keyHolder);
+
+        List<Long> ids = new ArrayList<>(targets.size());
+        for (Map<String, Object> keys : keyHolder.getKeyList()) {
+            ids.add(((Number) keys.values().iterator().next()).longValue());
+        }
+        if (ids.size() != targets.size()) {
+            throw new IllegalStateException("空间记录插入数量与返回的主键数量不一致: " + targets.size() + "/" + ids.size());
+        }
+        return ids;
+    }
+
+    /**
+     * 以与导入相同的格式记录位置变更
+     */
+    private void insertTraces(List<CurrentSpace> moving, List<SpaceTimeline> targets, Timestamp movedAt, String fromCabinet) {
+        String operator = UserInfoUtil.getCurrentUserId();
+        StringBuilder sql = new StringBuilder("INSERT INTO change_trace (asset_id, change_type, delta_snapshot, " +
+                "operated_at, operated_by, created_at) VALUES ");
+        List<Object> args = new ArrayList<>(moving.size() * 6);
+        for (int i = 0; i < moving.size(); i++) {
+            CurrentSpace space = moving.get(i);
+            SpaceTimeline next = targets.get(i);
+
+            Map<String, Object> before = new LinkedHashMap<>();
+            before.put("data_center", space.dataCenter);
+            before.put("room_name", space.roomName);
+            before.put("cabinet", space.cabinetNo);
+            before.put("u_position", space.uPosition);
+            Map<String, Object> after = new LinkedHashMap<>();
+            after.put("data_center", next.getDataCenter());
+            after.put("room_name", next.getRoomName());
+            after.put("cabinet", next.getCabinetNo());
+            after.put("u_position", next.getUPosition());
+            Map<String, Object> delta = new LinkedHashMap<>();
+            delta.put("field", "space");
+            delta.put("before", before);
+            delta.put("after", after);
+            if (fromCabinet != null) {
+                delta.put("cabinet_move", fromCabinet);
+            }
+
+            sql.append(i == 0 ? "" : ", ").append("(?, 'SPACE', ?, ?, ?, ?)");
+            Collections.addAll(args, space.assetId, toJson(delta), movedAt, operator, movedAt);
+        }
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    /**
+     * 检查目标U位：不能与机柜中其他资产重叠，本次迁移的资产之间也不能重叠
+     * <p>
+     * 先锁定目标机柜的位置节点行，再读取机柜中其他资产的当前空间记录，锁持有到事务结束，
+     * 并发迁移到同一机柜的事务在锁上排队，读到的是前一个事务提交后的占用
+     * </p>
+     */
+    private void checkRackConflicts(List<CurrentSpace> moving, List<SpaceTimeline> targets) {
+        Set<Long> cabinetIds = new TreeSet<>();
+        for (SpaceTimeline next : targets) {
+            if (next.getCabinetNodeId() != null && rackOccupancyService.parseUPosition(next.getUPosition()) != null) {
+                cabinetIds.add(next.getCabinetNodeId());
+            }
+        }
+        if (cabinetIds.isEmpty()) {
+            return;
+        }
+        Set<Long> movingIds = new HashSet<>();
+        for (CurrentSpace space : moving) {
+            movingIds.add(space.assetId);
+        }
+
+        String placeholders = String.join(",", Collections.nCopies(cabinetIds.size(), "?"));
+        jdbcTemplate.queryForList("SELECT id FROM location_node WHERE id IN (" + placeholders + ") ORDER BY id FOR UPDATE",
+                Long.class, cabinetIds.toArray());
+        Map<Long, Map<Long, int[]>> occupied = new HashMap<>();
+        jdbcTemplate.query("SELECT asset_id, cabinet_node_id, u_position FROM space_timeline " +
+                "WHERE cabinet_node_id IN (" + placeholders + ") AND is_current = 1", rs -> {
+            long assetId = rs.getLong("asset_id");
+            int[] range = rackOccupancyService.parseUPosition(rs.getString("u_position"));
+            if (range != null && !movingIds.contains(assetId)) {
+                occupied.computeIfAbsent(rs.getLong("cabinet_node_id"), id -> new HashMap<>()).put(assetId, range);
+            }
+        }, cabinetIds.toArray());
+
+        Map<Long, RackBitmap> planned = new HashMap<>();
+        for (SpaceTimeline next : targets) {
+            int[] range = rackOccupancyService.parseUPosition(next.getUPosition());
+            if (next.getCabinetNodeId() == null || range == null) {
+                continue;
+            }
+            List<Long> conflicts = new ArrayList<>();
+            occupied.getOrDefault(next.getCabinetNodeId(), Map.of()).forEach((assetId, used) -> {
+                if (used[0] <= range[1] && range[0] <= used[1]) {
+                    conflicts.add(assetId);
+                }
+            });
+            if (!conflicts.isEmpty()) {
+                Collections.sort(conflicts);
+                throw new BusinessException("目标U位已被占用: " + next.getLocationPath() + "，占用资产ID: " + conflicts);
+            }
+            RackBitmap bitmap = planned.computeIfAbsent(next.getCabinetNodeId(), id -> new RackBitmap(range[1]));
+            if (!bitmap.isFree(range[0], range[1])) {
+                throw new BusinessException("迁移的资产之间U位重叠: " + next.getLocationPath());
+            }
+            bitmap.occupy(range[0], range[1]);
+        }
+    }
+
+    /**
+     * 数据中心和机房的资产计数：原位置减一、新位置加一
+     */
+    private void adjustStats(List<CurrentSpace> moving, List<SpaceTimeline> targets) {
+        Map<String, Long> dataCenters = new HashMap<>();
+        Map<String, Long> rooms = new HashMap<>();
+        for (int i = 0; i < moving.size(); i++) {
+            CurrentSpace space = moving.get(i);
+            SpaceTimeline next = targets.get(i);
+            merge(dataCenters, space.dataCenterNodeId, -1);
+            merge(dataCenters, next.getDataCenterNodeId(), 1);
+            merge(rooms, space.roomNodeId, -1);
+            merge(rooms, next.getRoomNodeId(), 1);
+        }
+        dataCenters.forEach((key, delta) -> assetStatsService.adjust(AssetStatCounter.DIMENSION_DATA_CENTER, key, delta));
+        rooms.forEach((key, delta) -> assetStatsService.adjust(AssetStatCounter.DIMENSION_ROOM, key, delta));
+    }
+
+    private static void merge(Map<String, Long> deltas, Long nodeId, long delta) {
+        if (nodeId != null) {
+            deltas.merge(String.valueOf(nodeId), delta, Long::sum);
+        }
+    }
+
+    /**
+     * 构造新的空间记录并解析位置节点ID，未指定的保管人、使用环境和坐标沿用原位置
+     */
+    private SpaceTimeline buildTarget(CurrentSpace space, SpaceMoveRequest target) {
+        SpaceTimeline next = new SpaceTimeline();
+        next.setDataCenter(trim(target.getDataCenter()));
+        next.setRoomName(trim(target.getRoomName()));
+        next.setCabinetNo(trim(target.getCabinetNo()));
+        String uPosition = trim(target.getUPosition());
+        next.setUPosition(uPosition.isEmpty() ? trim(space.uPosition) : uPosition);
+        next.setKeeper(target.getKeeper() != null ? target.getKeeper() : space.keeper);
+        next.setEnvironment(target.getEnvironment() != null ? target.getEnvironment() : space.environment);
+        // 同一机房内迁移时坐标不变
+        if (Objects.equals(next.getDataCenter(), trim(space.dataCenter)) && Objects.equals(next.getRoomName(), trim(space.roomName))) {
+            next.setLatitude(space.latitude);
+            next.setLongitude(space.longitude);
+        }
+        next.setLocationPath(String.join("/", List.of(next.getDataCenter(), next.getRoomName(), next.getCabinetNo(),
+                next.getUPosition()).stream().filter(part -> !part.isEmpty()).toList()));
+        locationIndexService.index(next);
+        return next;
+    }
+
+    private static boolean sameLocation(CurrentSpace space, SpaceTimeline next) {
+        return Objects.equals(trim(space.dataCenter), next.getDataCenter())
+                && Objects.equals(trim(space.roomName), next.getRoomName())
+                && Objects.equals(trim(space.cabinetNo), next.getCabinetNo())
+                && Objects.equals(trim(space.uPosition), next.getUPosition())
+                && Objects.equals(space.keeper, next.getKeeper())
+                && Objects.equals(space.environment, next.getEnvironment());
+    }
+
+    private static void checkTarget(SpaceMoveRequest target) {
+        if (target == null || trim(target.getDataCenter()).isEmpty()) {
+            throw new BusinessException("目标数据中心不能为空");
+        }
+    }
+
+    private static String toJson(Object value) {
+        try {
+            return JsonUtil.getObjectMapper().writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("变更记录序列化失败", e);
+        }
+    }
+
+    private static String trim(String value) {
+        return value == null ? "" : value.trim();
+    }
+
+    /**
+     * 加锁读取的资产当前位置
+     */
+    private static final class CurrentSpace {
+
+        private final long assetId;
+        private final Long spaceId;
+        private final String dataCenter;
+        private final String roomName;
+        private final String cabinetNo;
+        private final String uPosition;
+        private final Double latitude;
+        private final Double longitude;
+        private final String environment;
+        private final String keeper;
+        private final Long dataCenterNodeId;
+        private final Long roomNodeId;
+        private final Long cabinetNodeId;
+
+        private CurrentSpace(ResultSet rs) throws SQLException {
+            this.assetId = rs.getLong("asset_id");
+            this.spaceId = rs.getObject("space_id", Long.class);
+            this.dataCenter = rs.getString("data_center");
+            this.roomName = rs.getString("room_name");
+            this.cabinetNo = rs.getString("cabinet_no");
+            this.uPosition = rs.getString("u_position");
+            this.latitude = rs.getObject("latitude", Double.class);
+            this.longitude = rs.getObject("longitude", Double.class);
+            this.environment = rs.getString("environment");
+            this.keeper = rs.getString("keeper");
+            this.dataCenterNodeId = rs.getObject("data_center_node_id", Long.class);
+            this.roomNodeId = rs.getObject("room_node_id", Long.class);
+            this.cabinetNodeId = rs.getObject("cabinet_node_id", Long.class);
+        }
+    }
+}
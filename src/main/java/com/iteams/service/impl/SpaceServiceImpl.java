@@ -1,11 +1,16 @@
 package com.iteams.service.impl;
 
+import com.iteams.event.SpaceChangedEvent;
 import com.iteams.model.entity.SpaceTimeline;
 import com.iteams.repository.SpaceRepository;
+import com.iteams.service.LocationIndexService;
 import com.iteams.service.SpaceService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Set;
+
 /**
  * 空间轨迹服务实现类
  * <p>
@@ -28,14 +33,29 @@ public class SpaceServiceImpl implements SpaceService {
      * 空间轨迹数据访问对象
      */
     private final SpaceRepository spaceRepository;
+
+    /**
+     * 位置索引服务，保存前为空间记录设置位置节点ID
+     */
+    private final LocationIndexService locationIndexService;
+
+    /**
+     * 事件发布器，保存后通知机柜U位占用更新
+     */
+    private final ApplicationEventPublisher eventPublisher;
     
     /**
      * 构造函数，通过依赖注入获取SpaceRepository实例
      * 
      * @param spaceRepository 空间轨迹数据访问对象
+     * @param locationIndexService 位置索引服务
+     * @param eventPublisher 事件发布器
      */
-    public SpaceServiceImpl(SpaceRepository spaceRepository) {
+    public SpaceServiceImpl(SpaceRepository spaceRepository, LocationIndexService locationIndexService,
+                            ApplicationEventPublisher eventPublisher) {
         this.spaceRepository = spaceRepository;
+        this.locationIndexService = locationIndexService;
+        this.eventPublisher = eventPublisher;
     }
     
     /**
@@ -45,6 +65,7 @@ public class SpaceServiceImpl implements SpaceService {
      * <ol>
      *   <li>保存空间位置记录到数据库，生成空间记录ID</li>
      *   <li>位置记录包含资产ID、位置路径、有效期等信息</li>
+     *   <li>按数据中心、机房、机柜、U位设置位置节点ID，供按位置查询资产使用</li>
      *   <li>使用事务确保数据一致性</li>
      * </ol>
      * </p>
@@ -62,6 +83,11 @@ public class SpaceServiceImpl implements SpaceService {
     @Override
     @Transactional
     public SpaceTimeline saveSpace(SpaceTimeline space) {
-        return spaceRepository.save(space);
+        locationIndexService.index(space);
+        SpaceTimeline saved = spaceRepository.save(space);
+        if (saved.getAsset() != null && saved.getAsset().getAssetId() != null) {
+            eventPublisher.publishEvent(SpaceChangedEvent.of(Set.of(saved.getAsset().getAssetId())));
+        }
+        return saved;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,252 @@
+package com.iteams.service.impl;
+
+import com.iteams.config.CacheConfig;
+import com.iteams.config.CacheInvalidationHandler;
+import com.iteams.model.entity.TokenRevocation;
+import com.iteams.repository.TokenRevocationRepository;
+import com.iteams.service.CacheCoherenceService;
+import com.iteams.service.TokenRevocationService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 令牌吊销服务实现类
+ * <p>
+ * 内存中维护两张表：用户名到吊销水位线的映射、jti到过期时间的映射，
+ * 查询均为一次哈希查找。每次吊销同步写入sys_token_revocation表，
+ * 启动时从表中恢复未过期的条目，条目的存活时间等于令牌的最长有效期。
+ * </p>
+ * <p>
+ * JWT的签发时间精度为秒，因此水位线按秒向下取整：与吊销发生在同一秒内
+ * 签发的令牌也会被视为失效，用户重新登录即可。
+ * </p>
+ * <p>
+ * 吊销记录在调用方事务内写入，内存吊销表在事务提交后才更新并广播，
+ * 其他节点按键从数据库重新读取该条目；没有事务时立即生效。
+ * </p>
+ */
+@Slf4j
+@Service
+public class TokenRevocationServiceImpl implements TokenRevocationService, CacheInvalidationHandler {
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+    private final CacheCoherenceService cacheCoherenceService;
+
+    /**
+     * 令牌最长有效期（记住我），用作用户水位线条目的存活时间
+     */
+    @Value("${jwt.remember-me-expiration:604800000}")
+    private long maxTokenLifetime;
+
+    /**
+     * 用户名 -> 水位线（毫秒，按秒取整），签发时间不晚于水位线的令牌失效
+     */
+    private final Map<String, Long> userWatermarks = new ConcurrentHashMap<>();
+
+    /**
+     * 用户名 -> 水位线条目的过期时间（毫秒）
+     */
+    private final Map<String, Long> userWatermarkExpiry = new ConcurrentHashMap<>();
+
+    /**
+     * jti -> 令牌过期时间（毫秒）
+     */
+    private final Map<String, Long> deniedTokens = new ConcurrentHashMap<>();
+
+    public TokenRevocationServiceImpl(TokenRevocationRepository tokenRevocationRepository,
+                                      CacheCoherenceService cacheCoherenceService) {
+        this.tokenRevocationRepository = tokenRevocationRepository;
+        this.cacheCoherenceService = cacheCoherenceService;
+    }
+
+    /**
+     * 启动时从数据库恢复未过期的吊销条目
+     */
+    @PostConstruct
+    public void loadRevocations() {
+        try {
+            List<TokenRevocation> revocations = tokenRevocationRepository.findByExpiresAtAfter(LocalDateTime.now());
+            revocations.forEach(this::putRevocation);
+            log.info("已加载令牌吊销记录: 用户水位线{}条, 令牌黑名单{}条", userWatermarks.size(), deniedTokens.size());
+        } catch (Exception e) {
+            log.error("加载令牌吊销记录失败: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean isRevoked(String username, String jti, long issuedAtMillis) {
+        if (jti != null && deniedTokens.containsKey(jti)) {
+            return true;
+        }
+        if (username != null) {
+            Long watermark = userWatermarks.get(username);
+            return watermark != null && issuedAtMillis <= watermark;
+        }
+        return false;
+    }
+
+    @Override
+    @Transactional
+    public void revokeToken(String jti, long expiresAtMillis) {
+        if (jti == null || expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        TokenRevocation revocation = tokenRevocationRepository
+                .findByRevocationTypeAndTokenKey(TokenRevocation.RevocationType.JTI, jti)
+                .orElseGet(TokenRevocation::new);
+        fill(revocation, TokenRevocation.RevocationType.JTI, jti, LocalDateTime.now(), toLocalDateTime(expiresAtMillis));
+        tokenRevocationRepository.save(revocation);
+        applyAfterCommit(List.of(revocation));
+        log.debug("令牌已吊销, jti: {}", jti);
+    }
+
+    @Override
+    @Transactional
+    public void revokeAllUserTokens(String username) {
+        if (username == null) {
+            return;
+        }
+        revokeAllUserTokens(List.of(username));
+    }
+
+    @Override
+    @Transactional
+    public void revokeAllUserTokens(Collection<String> usernames) {
+        Set<String> keys = new LinkedHashSet<>(usernames);
+        keys.remove(null);
+        if (keys.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        LocalDateTime revokedAt = toLocalDateTime(now);
+        LocalDateTime expiresAt = toLocalDateTime(now + maxTokenLifetime);
+
+        Map<String, TokenRevocation> existing = new HashMap<>();
+        for (TokenRevocation revocation : tokenRevocationRepository
+                .findByRevocationTypeAndTokenKeyIn(TokenRevocation.RevocationType.USER, keys)) {
+            existing.put(revocation.getTokenKey(), revocation);
+        }
+        List<TokenRevocation> revocations = new ArrayList<>(keys.size());
+        for (String username : keys) {
+            TokenRevocation revocation = existing.getOrDefault(username, new TokenRevocation());
+            fill(revocation, TokenRevocation.RevocationType.USER, username, revokedAt, expiresAt);
+            revocations.add(revocation);
+        }
+        tokenRevocationRepository.saveAll(revocations);
+        applyAfterCommit(revocations);
+        log.info("已吊销{}个用户此前签发的令牌: {}", keys.size(), keys);
+    }
+
+    @Override
+    @Transactional
+    public int purgeExpired() {
+        long now = System.currentTimeMillis();
+        deniedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        userWatermarkExpiry.entrySet().removeIf(entry -> {
+            if (entry.getValue() <= now) {
+                userWatermarks.remove(entry.getKey());
+                return true;
+            }
+            return false;
+        });
+        return tokenRevocationRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    @Override
+    public String getCacheName() {
+        return CacheConfig.CACHE_TOKEN_REVOCATIONS;
+    }
+
+    /**
+     * 按"类型:键"从数据库重新读取其他节点写入的吊销条目
+     *
+     * @param key 吊销类型和键，如USER:admin
+     */
+    @Override
+    public void evict(Object key) {
+        String value = (String) key;
+        int separator = value.indexOf(':');
+        TokenRevocation.RevocationType type = TokenRevocation.RevocationType.valueOf(value.substring(0, separator));
+        tokenRevocationRepository.findByRevocationTypeAndTokenKey(type, value.substring(separator + 1))
+                .filter(revocation -> revocation.getExpiresAt().isAfter(LocalDateTime.now()))
+                .ifPresent(this::putRevocation);
+    }
+
+    /**
+     * 重新加载全部吊销条目；吊销只增不减，保留内存中已有的条目
+     */
+    @Override
+    public void clear() {
+        loadRevocations();
+    }
+
+    private void putRevocation(TokenRevocation revocation) {
+        long expiresAt = toMillis(revocation.getExpiresAt());
+        if (revocation.getRevocationType() == TokenRevocation.RevocationType.USER) {
+            userWatermarks.merge(revocation.getTokenKey(), truncateToSecond(toMillis(revocation.getRevokedAt())), Math::max);
+            userWatermarkExpiry.merge(revocation.getTokenKey(), expiresAt, Math::max);
+        } else {
+            deniedTokens.put(revocation.getTokenKey(), expiresAt);
+        }
+    }
+
+    /**
+     * 事务提交后写入内存吊销表并广播，回滚的吊销不生效，其他节点读取时记录已可见
+     */
+    private void applyAfterCommit(List<TokenRevocation> revocations) {
+        Runnable apply = () -> {
+            for (TokenRevocation revocation : revocations) {
+                putRevocation(revocation);
+                cacheCoherenceService.publishEvict(CacheConfig.CACHE_TOKEN_REVOCATIONS,
+                        revocation.getRevocationType().name() + ":" + revocation.getTokenKey());
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    private static void fill(TokenRevocation revocation, TokenRevocation.RevocationType type, String key,
+                             LocalDateTime revokedAt, LocalDateTime expiresAt) {
+        revocation.setRevocationType(type);
+        revocation.setTokenKey(key);
+        revocation.setRevokedAt(revokedAt);
+        revocation.setExpiresAt(expiresAt);
+    }
+
+    private static long truncateToSecond(long millis) {
+        return millis - Math.floorMod(millis, 1000L);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
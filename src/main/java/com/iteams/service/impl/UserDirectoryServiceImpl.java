@@ -0,0 +1,92 @@
+package com.iteams.service.impl;
+
+import com.iteams.config.CacheConfig;
+import com.iteams.config.UserDirectoryProperties;
+import com.iteams.event.OrganizationChangedEvent;
+import com.iteams.event.UserDirectoryChangedEvent;
+import com.iteams.model.dto.UserDirectoryEntry;
+import com.iteams.model.dto.UserDirectorySnapshot;
+import com.iteams.repository.UserRepository;
+import com.iteams.service.CacheCoherenceService;
+import com.iteams.service.UserDirectoryService;
+import com.iteams.util.LikePattern;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * 用户目录服务实现类
+ * <p>
+ * 启用快照时，全部用户的目录条目以固定键存放在users缓存中，查询在内存中完成；
+ * 用户或部门变更提交后使快照失效。关闭快照时每次按前缀查询数据库，可使用用户名、姓名列上的索引
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserDirectoryServiceImpl implements UserDirectoryService {
+
+    /**
+     * 快照在users缓存中的键
+     */
+    private static final String SNAPSHOT_KEY = "directory";
+
+    private final UserRepository userRepository;
+    private final UserDirectoryProperties properties;
+    private final CacheManager cacheManager;
+    private final CacheCoherenceService cacheCoherenceService;
+
+    @Override
+    public List<UserDirectoryEntry> suggest(String prefix, int limit) {
+        int size = Math.min(Math.max(limit, 1), properties.getMaxSuggestions());
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        if (properties.isSnapshotEnabled()) {
+            return getCache().get(SNAPSHOT_KEY, this::build).search(prefix, size);
+        }
+        return userRepository.findDirectoryEntriesByPrefix(LikePattern.prefix(prefix), PageRequest.of(0, size));
+    }
+
+    @Override
+    public void invalidate() {
+        getCache().evict(SNAPSHOT_KEY);
+        cacheCoherenceService.publishEvict(CacheConfig.CACHE_USERS, SNAPSHOT_KEY);
+    }
+
+    /**
+     * 用户变更提交后使快照失效
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDirectoryChanged(UserDirectoryChangedEvent event) {
+        invalidate();
+    }
+
+    /**
+     * 部门变更提交后使快照失效（条目中包含部门名称）
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrganizationChanged(OrganizationChangedEvent event) {
+        invalidate();
+    }
+
+    private UserDirectorySnapshot build() {
+        UserDirectorySnapshot snapshot = new UserDirectorySnapshot(userRepository.findDirectoryEntries());
+        log.debug("用户目录快照已构建, 用户数量: {}", snapshot.size());
+        return snapshot;
+    }
+
+    private Cache getCache() {
+        Cache cache = cacheManager.getCache(CacheConfig.CACHE_USERS);
+        if (cache == null) {
+            throw new IllegalStateException("缓存未配置: " + CacheConfig.CACHE_USERS);
+        }
+        return cache;
+    }
+}
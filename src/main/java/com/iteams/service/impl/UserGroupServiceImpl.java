@@ -1,21 +1,25 @@
 package com.iteams.service.impl;
 
+import com.iteams.event.GroupMembershipChangedEvent;
 import com.iteams.exception.ResourceNotFoundException;
+import com.iteams.model.dto.MembershipChangeResult;
 import com.iteams.model.dto.UserGroupDTO;
-import com.iteams.model.entity.User;
+import com.iteams.model.dto.UserGroupSummary;
 import com.iteams.model.entity.UserGroup;
 import com.iteams.repository.UserGroupRepository;
 import com.iteams.repository.UserRepository;
+import com.iteams.service.GroupMemberCountService;
+import com.iteams.service.MembershipService;
 import com.iteams.service.UserGroupService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -30,14 +34,16 @@ public class UserGroupServiceImpl implements UserGroupService {
 
     private final UserGroupRepository userGroupRepository;
     private final UserRepository userRepository;
+    private final GroupMemberCountService groupMemberCountService;
+    private final MembershipService membershipService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 获取用户组分页列表
      */
     @Override
     public Page<UserGroupDTO> getUserGroups(String name, String code, Boolean enabled, Pageable pageable) {
-        Page<UserGroup> userGroups = userGroupRepository.findByConditions(name, code, enabled, pageable);
-        return userGroups.map(this::convertToDto);
+        return userGroupRepository.findSummaries(name, code, enabled, pageable).map(this::convertToDto);
     }
 
     /**
@@ -45,13 +51,7 @@ public class UserGroupServiceImpl implements UserGroupService {
      */
     @Override
     public List<UserGroupDTO> getAllUserGroups(Boolean enabled) {
-        List<UserGroup> userGroups;
-        if (enabled != null) {
-            userGroups = userGroupRepository.findByEnabled(enabled);
-        } else {
-            userGroups = userGroupRepository.findAll();
-        }
-        return userGroups.stream().map(this::convertToDto).collect(Collectors.toList());
+        return userGroupRepository.findAllSummaries(enabled).stream().map(this::convertToDto).collect(Collectors.toList());
     }
 
     /**
@@ -219,24 +219,18 @@ public class UserGroupServiceImpl implements UserGroupService {
         UserGroup userGroup = userGroupRepository.findById(groupId)
                 .orElseThrow(() -> new ResourceNotFoundException("用户组不存在: " + groupId));
         
-        List<User> users = userRepository.findAllById(userIds);
-        if (users.isEmpty()) {
+        // 直接在关联表上增加成员，不加载用户和成员集合
+        MembershipChangeResult result = membershipService.addGroupMembers(groupId, userIds);
+        if (result.getMatched() == 0) {
             throw new ResourceNotFoundException("未找到指定用户");
         }
         
-        // 添加用户到用户组
-        Set<User> currentUsers = userGroup.getUsers();
-        if (currentUsers == null) {
-            currentUsers = new HashSet<>();
-        }
-        currentUsers.addAll(users);
-        userGroup.setUsers(currentUsers);
-        
         // 更新用户组
         userGroup.setUpdatedAt(LocalDateTime.now());
         UserGroup updatedUserGroup = userGroupRepository.save(userGroup);
+        eventPublisher.publishEvent(GroupMembershipChangedEvent.changed(Set.of(groupId)));
         
-        return convertToDto(updatedUserGroup);
+        return convertToDtoWithCurrentCount(updatedUserGroup);
     }
 
     /**
@@ -248,21 +242,27 @@ public class UserGroupServiceImpl implements UserGroupService {
         UserGroup userGroup = userGroupRepository.findById(groupId)
                 .orElseThrow(() -> new ResourceNotFoundException("用户组不存在: " + groupId));
         
-        // 获取当前用户组的用户
-        Set<User> currentUsers = userGroup.getUsers();
-        if (currentUsers == null || currentUsers.isEmpty()) {
+        // 直接在关联表上移除成员
+        MembershipChangeResult result = membershipService.removeGroupMembers(groupId, userIds);
+        if (result.getRemoved() == 0) {
             return convertToDto(userGroup);
         }
         
-        // 移除指定用户
-        currentUsers.removeIf(user -> userIds.contains(user.getId()));
-        userGroup.setUsers(currentUsers);
-        
         // 更新用户组
         userGroup.setUpdatedAt(LocalDateTime.now());
         UserGroup updatedUserGroup = userGroupRepository.save(userGroup);
+        eventPublisher.publishEvent(GroupMembershipChangedEvent.changed(Set.of(groupId)));
         
-        return convertToDto(updatedUserGroup);
+        return convertToDtoWithCurrentCount(updatedUserGroup);
+    }
+
+    /**
+     * 成员变更后转换DTO，计数缓存在提交后才调整，这里在当前事务中重新统计
+     */
+    private UserGroupDTO convertToDtoWithCurrentCount(UserGroup userGroup) {
+        UserGroupDTO dto = convertToDto(userGroup);
+        dto.setUserCount((int) userRepository.countByGroupId(userGroup.getId()));
+        return dto;
     }
 
     /**
@@ -278,13 +278,25 @@ public class UserGroupServiceImpl implements UserGroupService {
         dto.setCreatedAt(userGroup.getCreatedAt());
         dto.setUpdatedAt(userGroup.getUpdatedAt());
         
-        // 设置用户数量
-        if (userGroup.getUsers() != null) {
-            dto.setUserCount(userGroup.getUsers().size());
-        } else {
-            dto.setUserCount(0);
-        }
+        // 设置用户数量，从成员计数缓存读取，不加载成员集合
+        dto.setUserCount(groupMemberCountService.getMemberCount(userGroup.getId()));
         
         return dto;
     }
+
+    /**
+     * 转换用户组摘要为DTO
+     */
+    private UserGroupDTO convertToDto(UserGroupSummary summary) {
+        UserGroupDTO dto = new UserGroupDTO();
+        dto.setId(summary.getId());
+        dto.setName(summary.getName());
+        dto.setCode(summary.getCode());
+        dto.setDescription(summary.getDescription());
+        dto.setEnabled(summary.getEnabled());
+        dto.setCreatedAt(summary.getCreatedAt());
+        dto.setUpdatedAt(summary.getUpdatedAt());
+        dto.setUserCount(summary.getUserCount().intValue());
+        return dto;
+    }
 }
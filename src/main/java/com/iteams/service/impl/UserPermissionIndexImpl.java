@@ -0,0 +1,109 @@
+package com.iteams.service.impl;
+
+import com.iteams.model.dto.UserAuthorities;
+import com.iteams.repository.UserRepository;
+import com.iteams.service.UserPermissionIndex;
+import com.iteams.util.PermissionBits;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 用户权限依赖索引实现类
+ * <p>
+ * 同时维护用户到角色、角色到用户两个方向的映射，用户重新加载时先移除旧的依赖再记录新的。
+ * 依赖在读取角色权限之前记录：读取之后提交的角色权限变更一定能通过索引找到该用户并清除缓存。
+ * 索引只覆盖已加载过权限的用户，未缓存的用户无需清除。
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserPermissionIndexImpl implements UserPermissionIndex {
+
+    private final UserRepository userRepository;
+
+    /**
+     * 角色ID -> 已缓存权限的用户ID
+     */
+    private final Map<Long, Set<Long>> roleUsers = new ConcurrentHashMap<>();
+
+    /**
+     * 用户ID -> 角色ID
+     */
+    private final Map<Long, Set<Long>> userRoles = new ConcurrentHashMap<>();
+
+    @Override
+    public UserAuthorities loadAuthorities(Long userId) {
+        removeUser(userId);
+        Set<Long> roleIds = ConcurrentHashMap.newKeySet();
+        userRoles.put(userId, roleIds);
+        register(userId, roleIds, userRepository.findRoleIdsByUserId(userId));
+
+        List<Object[]> rows = userRepository.findRolePermissionRowsByUserId(userId);
+        Set<Long> loadedRoleIds = new HashSet<>();
+        Set<String> roleCodes = new HashSet<>();
+        Set<String> codes = new HashSet<>();
+        for (Object[] row : rows) {
+            loadedRoleIds.add((Long) row[0]);
+            roleCodes.add((String) row[1]);
+            if (row[2] != null) {
+                codes.add((String) row[2]);
+            }
+        }
+        // 两次查询之间新分配的角色同样记录依赖
+        register(userId, roleIds, loadedRoleIds);
+        log.debug("加载用户权限并记录依赖, 用户ID: {}, 角色数量: {}, 权限数量: {}", userId, roleIds.size(), codes.size());
+        return new UserAuthorities(Set.copyOf(roleCodes), Set.copyOf(codes), PermissionBits.EMPTY);
+    }
+
+    private void register(Long userId, Set<Long> registered, Collection<Long> roleIds) {
+        for (Long roleId : roleIds) {
+            if (registered.add(roleId)) {
+                roleUsers.compute(roleId, (key, users) -> {
+                    Set<Long> result = users != null ? users : ConcurrentHashMap.newKeySet();
+                    result.add(userId);
+                    return result;
+                });
+            }
+        }
+    }
+
+    @Override
+    public Set<Long> getUsersByRoles(Collection<Long> roleIds) {
+        Set<Long> userIds = new HashSet<>();
+        for (Long roleId : roleIds) {
+            Set<Long> users = roleUsers.get(roleId);
+            if (users != null) {
+                userIds.addAll(users);
+            }
+        }
+        return userIds;
+    }
+
+    @Override
+    public void removeUser(Long userId) {
+        Set<Long> roleIds = userRoles.remove(userId);
+        if (roleIds != null) {
+            for (Long roleId : roleIds) {
+                roleUsers.computeIfPresent(roleId, (key, users) -> {
+                    users.remove(userId);
+                    return users.isEmpty() ? null : users;
+                });
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        roleUsers.clear();
+        userRoles.clear();
+    }
+}
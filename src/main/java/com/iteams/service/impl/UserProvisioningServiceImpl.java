@@ -0,0 +1,346 @@
+package com.iteams.service.impl;
+
+import com.iteams.event.GroupMembershipChangedEvent;
+import com.iteams.event.OrganizationChangedEvent;
+import com.iteams.event.UserDirectoryChangedEvent;
+import com.iteams.model.dto.UserDTO;
+import com.iteams.model.dto.UserProvisioningResultDTO;
+import com.iteams.model.entity.Department;
+import com.iteams.model.entity.Role;
+import com.iteams.model.entity.UserGroup;
+import com.iteams.repository.DepartmentRepository;
+import com.iteams.repository.RoleRepository;
+import com.iteams.repository.UserGroupRepository;
+import com.iteams.repository.UserRepository;
+import com.iteams.service.PasswordHashingService;
+import com.iteams.service.UserProvisioningService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 批量开通用户服务实现类
+ * <p>
+ * 处理分为四步：批内校验与引用解析（每类引用一次IN查询）、密码编码、批量写入、发布事件。
+ * 密码编码在事务外进行，避免BCrypt计算期间占用数据库连接；每个用户单独编码（各自的盐），
+ * 在密码哈希线程池中并行，使用默认密码的账号首次登录必须修改密码。
+ * </p>
+ * <p>
+ * 用户和关联行以每条500行的多行INSERT写入。用户名在校验之后、写入之前可能被并发创建，
+ * 用户INSERT对重复的用户名不报错也不修改已有行，写入后按用户名回查ID和密码哈希，
+ * 哈希与本次编码结果一致的才是本次创建的用户，其余按行记为用户名已存在，不影响同批其他用户。
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserProvisioningServiceImpl implements UserProvisioningService {
+
+    /**
+     * 默认密码
+     */
+    private static final String DEFAULT_PASSWORD = "12345678";
+
+    /**
+     * 未指定角色时分配的角色编码
+     */
+    private static final String DEFAULT_ROLE = "USER";
+
+    /**
+     * 每条INSERT / IN查询的最大行数
+     */
+    private static final int CHUNK_SIZE = 500;
+
+    private final UserRepository userRepository;
+    private final DepartmentRepository departmentRepository;
+    private final UserGroupRepository userGroupRepository;
+    private final RoleRepository roleRepository;
+    private final PasswordHashingService passwordHashingService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public UserProvisioningResultDTO provision(List<UserDTO> users) {
+        long startTime = System.currentTimeMillis();
+        UserProvisioningResultDTO result = new UserProvisioningResultDTO();
+        result.setTotal(users.size());
+        Map<Integer, String> errors = new TreeMap<>();
+
+        // 批内校验：用户名为空或重复
+        Set<String> usernames = new HashSet<>();
+        for (int i = 0; i < users.size(); i++) {
+            String username = users.get(i).getUsername();
+            if (username == null || username.isBlank()) {
+                errors.put(i, "用户名不能为空");
+            } else if (!usernames.add(username)) {
+                errors.put(i, "用户名在本批次中重复: " + username);
+            }
+        }
+
+        // 引用解析：每类引用一次IN查询
+        Set<String> existingUsernames = findExistingUsernames(usernames);
+        Map<Long, String> departmentNames = departmentRepository.findAllById(collect(users, dto ->
+                        dto.getDepartmentId() == null ? List.of() : List.of(dto.getDepartmentId())))
+                .stream().collect(Collectors.toMap(Department::getId, Department::getName));
+        Map<Long, String> groupNames = userGroupRepository.findAllById(collect(users, dto ->
+                        dto.getGroupIds() == null ? List.of() : dto.getGroupIds()))
+                .stream().collect(Collectors.toMap(UserGroup::getId, UserGroup::getName));
+        Set<String> roleCodes = collect(users, dto -> dto.getRoles() == null ? List.of() : dto.getRoles());
+        roleCodes.add(DEFAULT_ROLE);
+        Map<String, Long> roleIds = roleRepository.findByCodeIn(roleCodes).stream()
+                .collect(Collectors.toMap(Role::getCode, Role::getId));
+
+        List<PendingUser> pending = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            if (errors.containsKey(i)) {
+                continue;
+            }
+            UserDTO dto = users.get(i);
+            String error = validateReferences(dto, existingUsernames, departmentNames, groupNames, roleIds);
+            if (error != null) {
+                errors.put(i, error);
+                continue;
+            }
+            pending.add(new PendingUser(i, dto));
+        }
+
+        if (!pending.isEmpty()) {
+            encodePasswords(pending);
+            Map<String, Long> ids = transactionTemplate.execute(status -> write(pending, roleIds));
+            for (PendingUser user : pending) {
+                Long id = ids.get(user.dto.getUsername());
+                if (id == null) {
+                    errors.put(user.index, "用户名已存在: " + user.dto.getUsername());
+                } else {
+                    result.getCreatedUsers().add(toDto(user, id, departmentNames, groupNames));
+                }
+            }
+        }
+
+        errors.forEach((index, message) -> result.getErrors().add(
+                new UserProvisioningResultDTO.RowError(index + 1, users.get(index).getUsername(), message)));
+        result.setSuccessCount(result.getCreatedUsers().size());
+        result.setFailedCount(errors.size());
+        result.setCostMillis(System.currentTimeMillis() - startTime);
+        log.info("批量开通用户完成, 提交: {}, 成功: {}, 失败: {}, 耗时: {}ms",
+                result.getTotal(), result.getSuccessCount(), result.getFailedCount(), result.getCostMillis());
+        return result;
+    }
+
+    /**
+     * 校验单条记录引用的用户名、部门、用户组和角色
+     *
+     * @return 错误信息，校验通过时为null
+     */
+    private static String validateReferences(UserDTO dto, Set<String> existingUsernames, Map<Long, String> departmentNames,
+                                             Map<Long, String> groupNames, Map<String, Long> roleIds) {
+        if (existingUsernames.contains(dto.getUsername())) {
+            return "用户名已存在: " + dto.getUsername();
+        }
+        if (dto.getDepartmentId() != null && !departmentNames.containsKey(dto.getDepartmentId())) {
+            return "部门不存在: " + dto.getDepartmentId();
+        }
+        if (dto.getGroupIds() != null) {
+            for (Long groupId : dto.getGroupIds()) {
+                if (!groupNames.containsKey(groupId)) {
+                    return "用户组不存在: " + groupId;
+                }
+            }
+        }
+        for (String roleCode : rolesOf(dto)) {
+            if (!roleIds.containsKey(roleCode)) {
+                return "角色不存在: " + roleCode;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 编码密码：每个用户单独编码（各自的盐），在密码哈希线程池中并行
+     */
+    private void encodePasswords(List<PendingUser> pending) {
+        List<String> encoded = passwordHashingService.encodeAll(
+                pending.stream().map(user -> user.rawPassword).collect(Collectors.toList()));
+        for (int i = 0; i < pending.size(); i++) {
+            pending.get(i).encodedPassword = encoded.get(i);
+        }
+    }
+
+    /**
+     * 在一个事务中写入用户及其角色、用户组关联
+     *
+     * @return 用户名 -> 用户ID，只包含本次创建的用户
+     */
+    private Map<String, Long> write(List<PendingUser> pending, Map<String, Long> roleIds) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Map<String, Long> ids = new HashMap<>(pending.size() * 2);
+        for (int start = 0; start < pending.size(); start += CHUNK_SIZE) {
+            List<PendingUser> chunk = pending.subList(start, Math.min(start + CHUNK_SIZE, pending.size()));
+            insertUsers(chunk, now);
+            Map<String, String> hashes = chunk.stream()
+                    .collect(Collectors.toMap(user -> user.dto.getUsername(), user -> user.encodedPassword));
+            jdbcTemplate.query("SELECT id, username, password FROM sys_user WHERE username IN (" + placeholders(hashes.size()) + ")",
+                    rs -> {
+                        // 哈希不一致说明该用户名已被并发创建，本行没有写入
+                        String username = rs.getString("username");
+                        if (rs.getString("password").equals(hashes.get(username))) {
+                            ids.put(username, rs.getLong("id"));
+                        }
+                    }, hashes.keySet().toArray());
+        }
+        if (ids.isEmpty()) {
+            return ids;
+        }
+
+        List<Object[]> roleRows = new ArrayList<>();
+        List<Object[]> groupRows = new ArrayList<>();
+        Set<Long> groupIds = new HashSet<>();
+        boolean departmentAssigned = false;
+        for (PendingUser user : pending) {
+            Long userId = ids.get(user.dto.getUsername());
+            if (userId == null) {
+                continue;
+            }
+            for (String roleCode : rolesOf(user.dto)) {
+                roleRows.add(new Object[]{userId, roleIds.get(roleCode)});
+            }
+            if (user.dto.getGroupIds() != null) {
+                for (Long groupId : user.dto.getGroupIds()) {
+                    groupRows.add(new Object[]{userId, groupId});
+                    groupIds.add(groupId);
+                }
+            }
+            departmentAssigned |= user.dto.getDepartmentId() != null;
+        }
+        insertPairs("sys_user_role", "user_id", "role_id", roleRows);
+        insertPairs("sys_user_group_mapping", "user_id", "group_id", groupRows);
+
+        // 在事务内发布，提交后再使相关缓存失效
+        eventPublisher.publishEvent(new UserDirectoryChangedEvent());
+        if (departmentAssigned) {
+            eventPublisher.publishEvent(new OrganizationChangedEvent());
+        }
+        if (!groupIds.isEmpty()) {
+            eventPublisher.publishEvent(GroupMembershipChangedEvent.changed(groupIds));
+        }
+        return ids;
+    }
+
+    private void insertUsers(List<PendingUser> chunk, Timestamp now) {
+        StringBuilder sql = new StringBuilder("INSERT INTO sys_user (username, password, real_name, email, phone, "
+                + "department_id, enabled, account_non_expired, account_non_locked, credentials_non_expired, "
+                + "require_password_change, login_fail_count, created_at, updated_at) VALUES ");
+        List<Object> args = new ArrayList<>(chunk.size() * 14);
+        for (int i = 0; i < chunk.size(); i++) {
+            PendingUser user = chunk.get(i);
+            UserDTO dto = user.dto;
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+            Collections.addAll(args, dto.getUsername(), user.encodedPassword, dto.getRealName(), dto.getEmail(),
+                    dto.getPhone(), dto.getDepartmentId(), dto.getStatus() == null || dto.getStatus() == 1,
+                    true, true, true, user.requirePasswordChange, 0, now, now);
+        }
+        // 用户名已被并发创建时保留已有行，由回查按行识别
+        sql.append(" ON DUPLICATE KEY UPDATE id = id");
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    private void insertPairs(String table, String firstColumn, String secondColumn, List<Object[]> pairs) {
+        for (int start = 0; start < pairs.size(); start += CHUNK_SIZE) {
+            List<Object[]> batch = pairs.subList(start, Math.min(start + CHUNK_SIZE, pairs.size()));
+            StringBuilder sql = new StringBuilder("INSERT INTO ").append(table)
+                    .append(" (").append(firstColumn).append(", ").append(secondColumn).append(") VALUES ");
+            Object[] args = new Object[batch.size() * 2];
+            for (int i = 0; i < batch.size(); i++) {
+                sql.append(i == 0 ? "(?, ?)" : ", (?, ?)");
+                args[i * 2] = batch.get(i)[0];
+                args[i * 2 + 1] = batch.get(i)[1];
+            }
+            jdbcTemplate.update(sql.toString(), args);
+        }
+    }
+
+    private Set<String> findExistingUsernames(Set<String> usernames) {
+        Set<String> existing = new HashSet<>();
+        List<String> all = new ArrayList<>(usernames);
+        for (int start = 0; start < all.size(); start += CHUNK_SIZE) {
+            existing.addAll(userRepository.findExistingUsernames(all.subList(start, Math.min(start + CHUNK_SIZE, all.size()))));
+        }
+        return existing;
+    }
+
+    private static UserDTO toDto(PendingUser user, Long id, Map<Long, String> departmentNames, Map<Long, String> groupNames) {
+        UserDTO source = user.dto;
+        UserDTO dto = new UserDTO();
+        dto.setId(id);
+        dto.setUsername(source.getUsername());
+        dto.setRealName(source.getRealName());
+        dto.setEmail(source.getEmail());
+        dto.setPhone(source.getPhone());
+        dto.setDepartmentId(source.getDepartmentId());
+        dto.setDepartmentName(source.getDepartmentId() == null ? null : departmentNames.get(source.getDepartmentId()));
+        if (source.getGroupIds() != null) {
+            dto.setGroupIds(new HashSet<>(source.getGroupIds()));
+            dto.setGroupNames(source.getGroupIds().stream().map(groupNames::get).collect(Collectors.toSet()));
+        }
+        dto.setStatus(source.getStatus() == null || source.getStatus() == 1 ? 1 : 0);
+        dto.setAccountNonLocked(true);
+        dto.setRequirePasswordChange(user.requirePasswordChange);
+        dto.setRoles(new HashSet<>(rolesOf(source)));
+        return dto;
+    }
+
+    private static Set<String> rolesOf(UserDTO dto) {
+        return dto.getRoles() == null || dto.getRoles().isEmpty() ? Set.of(DEFAULT_ROLE) : dto.getRoles();
+    }
+
+    private static <T> Set<T> collect(List<UserDTO> users, Function<UserDTO, Collection<T>> extractor) {
+        Set<T> values = new LinkedHashSet<>();
+        users.forEach(dto -> values.addAll(extractor.apply(dto)));
+        return values;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    /**
+     * 待写入的用户
+     */
+    private static final class PendingUser {
+
+        private final int index;
+        private final UserDTO dto;
+        private final String rawPassword;
+        private final boolean requirePasswordChange;
+        private String encodedPassword;
+
+        private PendingUser(int index, UserDTO dto) {
+            this.index = index;
+            this.dto = dto;
+            boolean blank = dto.getPassword() == null || dto.getPassword().trim().isEmpty();
+            this.rawPassword = blank ? DEFAULT_PASSWORD : dto.getPassword();
+            // 使用默认密码，或明确要求修改密码时，首次登录必须修改
+            this.requirePasswordChange = DEFAULT_PASSWORD.equals(rawPassword)
+                    || Boolean.TRUE.equals(dto.getRequirePasswordChange());
+        }
+    }
+}
@@ -1,8 +1,16 @@
 package com.iteams.service.impl;
 
+import com.iteams.event.GroupMembershipChangedEvent;
+import com.iteams.event.OrganizationChangedEvent;
+import com.iteams.event.UserDirectoryChangedEvent;
+import com.iteams.event.UserRolesChangedEvent;
 import com.iteams.exception.ResourceNotFoundException;
+import com.iteams.model.dto.LoginUser;
+import com.iteams.model.dto.MembershipChangeResult;
 import com.iteams.model.dto.PasswordDTO;
 import com.iteams.model.dto.UserDTO;
+import com.iteams.model.dto.UserListRow;
+import com.iteams.model.dto.UserProvisioningResultDTO;
 import com.iteams.model.entity.Department;
 import com.iteams.model.entity.Role;
 import com.iteams.model.entity.User;
@@ -12,12 +20,18 @@ import com.iteams.repository.RoleRepository;
 import com.iteams.repository.UserGroupRepository;
 import com.iteams.repository.UserRepository;
 import com.iteams.service.UserService;
+import com.iteams.service.LoginAttemptService;
+import com.iteams.service.MembershipService;
+import com.iteams.service.PasswordHashingService;
+import com.iteams.service.TokenRevocationService;
+import com.iteams.service.UserProvisioningService;
+import com.iteams.util.LikePattern;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 
@@ -43,6 +57,12 @@ public class UserServiceImpl implements UserService {
     private final DepartmentRepository departmentRepository;
     private final UserGroupRepository userGroupRepository;
     private final @Lazy PasswordEncoder passwordEncoder;
+    private final TokenRevocationService tokenRevocationService;
+    private final LoginAttemptService loginAttemptService;
+    private final PasswordHashingService passwordHashingService;
+    private final MembershipService membershipService;
+    private final UserProvisioningService userProvisioningService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Spring Security认证方法
@@ -53,37 +73,18 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        User user = userRepository.findWithAuthoritiesByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("用户不存在: " + username));
 
-        // 获取用户权限
-        Set<SimpleGrantedAuthority> authorities = new HashSet<>();
-        
-        // 添加角色作为权限
-        user.getRoles().forEach(role -> {
-            authorities.add(new SimpleGrantedAuthority("ROLE_" + role.getCode()));
-            
-            // 添加角色中的权限
-            role.getPermissions().forEach(permission -> 
-                authorities.add(new SimpleGrantedAuthority(permission.getCode()))
-            );
-        });
-
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                user.isEnabled(),
-                user.isAccountNonExpired(),
-                user.isCredentialsNonExpired(),
-                user.isAccountNonLocked(),
-                authorities);
+        return LoginUser.of(user);
     }
 
     /**
      * 获取用户分页列表
      */
     @Override
-    public Page<UserDTO> getUsers(String username, String realName, String department, Pageable pageable) {
+    @Transactional(readOnly = true)
+    public Page<UserDTO> getUsers(String username, String realName, String department, boolean prefix, Pageable pageable) {
         // 如果部门参数是数字，则按部门ID查询，否则按部门名称查询
         final Long[] departmentId = {null};
         if (department != null && !department.isEmpty()) {
@@ -96,8 +97,57 @@ public class UserServiceImpl implements UserService {
             }
         }
         
-        Page<User> userPage = userRepository.findByConditions(username, realName, departmentId[0], pageable);
-        return userPage.map(this::convertToDto);
+        Page<UserListRow> rows = userRepository.findListRows(
+                prefix ? LikePattern.prefix(username) : LikePattern.contains(username),
+                prefix ? LikePattern.prefix(realName) : LikePattern.contains(realName),
+                departmentId[0], pageable);
+        return toUserPage(rows);
+    }
+
+    /**
+     * 获取部门用户分页列表
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<UserDTO> getDepartmentUsers(Long departmentId, boolean includeChildren, Pageable pageable) {
+        Department department = departmentRepository.findById(departmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("部门不存在: " + departmentId));
+        if (!includeChildren) {
+            return toUserPage(userRepository.findListRows(null, null, departmentId, pageable));
+        }
+        if (department.getTreePath() == null) {
+            throw new IllegalStateException("部门路径尚未建立: " + departmentId);
+        }
+        return toUserPage(userRepository.findListRowsByDepartmentSubtree(department.getTreePath(), pageable));
+    }
+
+    /**
+     * 当前页的角色和用户组各用一次查询补齐
+     */
+    private Page<UserDTO> toUserPage(Page<UserListRow> rows) {
+        if (!rows.hasContent()) {
+            return rows.map(this::convertToDto);
+        }
+
+        List<Long> userIds = rows.map(UserListRow::getId).getContent();
+        Map<Long, Set<String>> roleCodes = new HashMap<>();
+        for (Object[] row : userRepository.findRoleCodesByUserIds(userIds)) {
+            roleCodes.computeIfAbsent((Long) row[0], key -> new HashSet<>()).add((String) row[1]);
+        }
+        Map<Long, List<Object[]>> groups = new HashMap<>();
+        for (Object[] row : userRepository.findGroupsByUserIds(userIds)) {
+            groups.computeIfAbsent((Long) row[0], key -> new ArrayList<>()).add(row);
+        }
+
+        return rows.map(row -> {
+            UserDTO dto = convertToDto(row);
+            dto.setRoles(roleCodes.getOrDefault(row.getId(), new HashSet<>()));
+            for (Object[] group : groups.getOrDefault(row.getId(), List.of())) {
+                dto.getGroupIds().add((Long) group[1]);
+                dto.getGroupNames().add((String) group[2]);
+            }
+            return dto;
+        });
     }
 
     /**
@@ -105,7 +155,7 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public UserDTO getUserById(Long id) {
-        User user = userRepository.findById(id)
+        User user = userRepository.findDetailById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("用户不存在: " + id));
         return convertToDto(user);
     }
@@ -164,6 +214,7 @@ public class UserServiceImpl implements UserService {
                 throw new ResourceNotFoundException("未找到指定用户组");
             }
             user.setGroups(groups);
+            eventPublisher.publishEvent(GroupMembershipChangedEvent.changed(groupIdsOf(groups)));
         }
         
         // 设置用户状态
@@ -178,6 +229,10 @@ public class UserServiceImpl implements UserService {
 
         // 保存用户
         User savedUser = userRepository.save(user);
+        if (savedUser.getDepartment() != null) {
+            eventPublisher.publishEvent(new OrganizationChangedEvent());
+        }
+        eventPublisher.publishEvent(new UserDirectoryChangedEvent());
         return convertToDto(savedUser);
     }
 
@@ -196,7 +251,11 @@ public class UserServiceImpl implements UserService {
         user.setPhone(userDTO.getPhone());
         user.setUpdatedAt(LocalDateTime.now());
         
-        // 更新部门
+        // 更新部门，归属变化时部门用户数随之变化
+        Long oldDepartmentId = user.getDepartment() != null ? user.getDepartment().getId() : null;
+        if (!Objects.equals(oldDepartmentId, userDTO.getDepartmentId())) {
+            eventPublisher.publishEvent(new OrganizationChangedEvent());
+        }
         if (userDTO.getDepartmentId() != null) {
             Department department = departmentRepository.findById(userDTO.getDepartmentId())
                     .orElseThrow(() -> new ResourceNotFoundException("部门不存在: " + userDTO.getDepartmentId()));
@@ -205,8 +264,11 @@ public class UserServiceImpl implements UserService {
             user.setDepartment(null);
         }
         
-        // 更新用户组
+        // 更新用户组，新旧用户组的成员数量都可能变化
         if (userDTO.getGroupIds() != null) {
+            Set<Long> affectedGroupIds = new HashSet<>(groupIdsOf(user.getGroups()));
+            affectedGroupIds.addAll(userDTO.getGroupIds());
+            eventPublisher.publishEvent(GroupMembershipChangedEvent.changed(affectedGroupIds));
             if (userDTO.getGroupIds().isEmpty()) {
                 user.setGroups(new HashSet<>());
             } else {
@@ -218,13 +280,18 @@ public class UserServiceImpl implements UserService {
             }
         }
         
-        // 更新用户状态
+        // 更新用户状态，禁用时吊销该用户已签发的令牌
         if (userDTO.getStatus() != null) {
-            user.setEnabled(userDTO.getStatus() == 1);
+            boolean enabled = userDTO.getStatus() == 1;
+            if (user.isEnabled() && !enabled) {
+                tokenRevocationService.revokeAllUserTokens(user.getUsername());
+            }
+            user.setEnabled(enabled);
         }
 
         // 保存用户
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserDirectoryChangedEvent());
         return convertToDto(savedUser);
     }
 
@@ -248,6 +315,7 @@ public class UserServiceImpl implements UserService {
 
         // 保存用户
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserDirectoryChangedEvent());
         return convertToDto(savedUser);
     }
 
@@ -257,10 +325,18 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("用户不存在: " + id);
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("用户不存在: " + id));
+        userRepository.delete(user);
+        tokenRevocationService.revokeAllUserTokens(user.getUsername());
+        eventPublisher.publishEvent(new UserRolesChangedEvent(Set.of(id)));
+        eventPublisher.publishEvent(new UserDirectoryChangedEvent());
+        if (user.getDepartment() != null) {
+            eventPublisher.publishEvent(new OrganizationChangedEvent());
+        }
+        if (!user.getGroups().isEmpty()) {
+            eventPublisher.publishEvent(GroupMembershipChangedEvent.changed(groupIdsOf(user.getGroups())));
         }
-        userRepository.deleteById(id);
     }
 
     /**
@@ -281,6 +357,9 @@ public class UserServiceImpl implements UserService {
         user.setRequirePasswordChange(true); // 设置首次登录时需要修改密码标志
         userRepository.save(user);
 
+        // 重置密码后旧令牌全部失效
+        tokenRevocationService.revokeAllUserTokens(user.getUsername());
+
         return randomPassword;
     }
 
@@ -335,6 +414,16 @@ public class UserServiceImpl implements UserService {
         // 设置用户角色
         user.setRoles(new HashSet<>(roles));
         userRepository.save(user);
+
+        // 提交后清除该用户的权限缓存
+        eventPublisher.publishEvent(new UserRolesChangedEvent(Set.of(userId)));
+    }
+
+    /**
+     * 提取用户组ID
+     */
+    private static Set<Long> groupIdsOf(Set<UserGroup> groups) {
+        return groups.stream().map(UserGroup::getId).collect(Collectors.toSet());
     }
 
     /**
@@ -386,6 +475,25 @@ public class UserServiceImpl implements UserService {
         return dto;
     }
 
+    /**
+     * 转换用户列表行为DTO（不含角色和用户组）
+     */
+    private UserDTO convertToDto(UserListRow row) {
+        UserDTO dto = new UserDTO();
+        dto.setId(row.getId());
+        dto.setUsername(row.getUsername());
+        dto.setRealName(row.getRealName());
+        dto.setEmail(row.getEmail());
+        dto.setPhone(row.getPhone());
+        dto.setAvatarUrl(row.getAvatarUrl());
+        dto.setDepartmentId(row.getDepartmentId());
+        dto.setDepartmentName(row.getDepartmentName());
+        dto.setStatus(Boolean.TRUE.equals(row.getEnabled()) ? Integer.valueOf(1) : Integer.valueOf(0));
+        dto.setAccountNonLocked(Boolean.TRUE.equals(row.getAccountNonLocked()));
+        dto.setRequirePasswordChange(row.getRequirePasswordChange());
+        return dto;
+    }
+
     /**
      * 生成随机密码
      */
@@ -468,91 +576,29 @@ public class UserServiceImpl implements UserService {
     
     /**
      * 批量创建用户
+     * <p>
+     * 用户名在本批次中重复或已存在时拒绝整批请求；其余校验和写入由批量开通服务完成，
+     * 写入时失败的记录（如用户名被并发创建）记录日志，返回成功创建的用户
+     * </p>
      */
     @Override
-    @Transactional
     public List<UserDTO> batchCreateUsers(List<UserDTO> userDTOs) {
-        List<UserDTO> createdUsers = new ArrayList<>();
-        Set<String> existingUsernames = new HashSet<>();
-        
         // 验证所有用户名是否重复
+        Set<String> usernames = new HashSet<>();
         for (UserDTO userDTO : userDTOs) {
-            if (existingUsernames.contains(userDTO.getUsername()) || userRepository.existsByUsername(userDTO.getUsername())) {
+            if (!usernames.add(userDTO.getUsername())) {
                 throw new IllegalArgumentException("用户名重复: " + userDTO.getUsername());
             }
-            existingUsernames.add(userDTO.getUsername());
         }
-        
-        // 批量创建用户
-        for (UserDTO userDTO : userDTOs) {
-            try {
-                // 创建用户
-                User user = new User();
-                user.setUsername(userDTO.getUsername());
-                
-                // 设置密码: 如果没有提供密码，使用默认密码 "12345678"，并设置首次登录需要修改密码
-                String password = (userDTO.getPassword() == null || userDTO.getPassword().trim().isEmpty()) 
-                    ? "12345678" 
-                    : userDTO.getPassword();
-                
-                user.setPassword(passwordEncoder.encode(password));
-                
-                // 如果使用的是默认密码，或者明确指定需要修改密码，则设置为需要修改密码
-                boolean needsPasswordChange = (password.equals("12345678") || Boolean.TRUE.equals(userDTO.getRequirePasswordChange()));
-                user.setRequirePasswordChange(needsPasswordChange);
-                
-                user.setRealName(userDTO.getRealName());
-                user.setEmail(userDTO.getEmail());
-                user.setPhone(userDTO.getPhone());
-                user.setCreatedAt(LocalDateTime.now());
-                
-                // 设置部门
-                if (userDTO.getDepartmentId() != null) {
-                    Department department = departmentRepository.findById(userDTO.getDepartmentId())
-                            .orElseThrow(() -> new ResourceNotFoundException("部门不存在: " + userDTO.getDepartmentId()));
-                    user.setDepartment(department);
-                }
-                
-                // 设置用户组
-                if (userDTO.getGroupIds() != null && !userDTO.getGroupIds().isEmpty()) {
-                    Set<UserGroup> groups = new HashSet<>(userGroupRepository.findAllById(userDTO.getGroupIds()));
-                    if (groups.isEmpty()) {
-                        throw new ResourceNotFoundException("未找到指定用户组");
-                    }
-                    user.setGroups(groups);
-                }
-                
-                // 设置用户状态
-                if (userDTO.getStatus() != null) {
-                    user.setEnabled(userDTO.getStatus() == 1);
-                }
-                
-                // 设置角色
-                if (userDTO.getRoles() != null && !userDTO.getRoles().isEmpty()) {
-                    Set<Role> roles = new HashSet<>();
-                    for (String roleCode : userDTO.getRoles()) {
-                        Role role = roleRepository.findByCode(roleCode)
-                                .orElseThrow(() -> new ResourceNotFoundException("角色不存在: " + roleCode));
-                        roles.add(role);
-                    }
-                    user.setRoles(roles);
-                } else {
-                    // 设置默认角色为普通用户
-                    Role userRole = roleRepository.findByCode("USER")
-                            .orElseThrow(() -> new ResourceNotFoundException("角色不存在: USER"));
-                    user.setRoles(Collections.singleton(userRole));
-                }
-                
-                // 保存用户
-                User savedUser = userRepository.save(user);
-                createdUsers.add(convertToDto(savedUser));
-            } catch (Exception e) {
-                // 单个用户创建失败，继续处理下一个
-                log.error("创建用户[{}]失败: {}", userDTO.getUsername(), e.getMessage(), e);
-            }
+        List<String> existing = userRepository.findExistingUsernames(usernames);
+        if (!existing.isEmpty()) {
+            throw new IllegalArgumentException("用户名重复: " + String.join(", ", existing));
         }
-        
-        return createdUsers;
+
+        UserProvisioningResultDTO result = userProvisioningService.provision(userDTOs);
+        result.getErrors().forEach(error ->
+                log.error("创建用户[{}]失败(第{}行): {}", error.getUsername(), error.getRow(), error.getMessage()));
+        return result.getCreatedUsers();
     }
     
     /**
@@ -580,6 +626,12 @@ public class UserServiceImpl implements UserService {
         
         // 删除用户
         userRepository.deleteAllById(ids);
+        tokenRevocationService.revokeAllUserTokens(users.stream().map(User::getUsername).collect(Collectors.toList()));
+        eventPublisher.publishEvent(new UserRolesChangedEvent(
+                users.stream().map(User::getId).collect(Collectors.toSet())));
+        eventPublisher.publishEvent(new OrganizationChangedEvent());
+        eventPublisher.publishEvent(GroupMembershipChangedEvent.all());
+        eventPublisher.publishEvent(new UserDirectoryChangedEvent());
         log.info("批量删除用户成功, 数量: {}", users.size());
         
         return users.size();
@@ -612,6 +664,9 @@ public class UserServiceImpl implements UserService {
         
         // 保存用户
         userRepository.saveAll(users);
+        if (count > 0) {
+            eventPublisher.publishEvent(new UserDirectoryChangedEvent());
+        }
         log.info("批量启用用户成功, 实际启用数量: {}", count);
         
         return count;
@@ -633,17 +688,22 @@ public class UserServiceImpl implements UserService {
         }
         
         // 禁用用户
-        int count = 0;
+        List<String> disabled = new ArrayList<>();
         for (User user : users) {
             if (user.isEnabled()) {
                 user.setEnabled(false);
                 user.setUpdatedAt(LocalDateTime.now());
-                count++;
+                disabled.add(user.getUsername());
             }
         }
+        int count = disabled.size();
         
-        // 保存用户
+        // 保存用户，吊销被禁用用户已签发的令牌
         userRepository.saveAll(users);
+        tokenRevocationService.revokeAllUserTokens(disabled);
+        if (count > 0) {
+            eventPublisher.publishEvent(new UserDirectoryChangedEvent());
+        }
         log.info("批量禁用用户成功, 实际禁用数量: {}", count);
         
         return count;
@@ -657,9 +717,7 @@ public class UserServiceImpl implements UserService {
     public int batchAssignRoles(List<Long> userIds, List<Long> roleIds) {
         log.info("批量分配角色, 用户数量: {}, 角色数量: {}", userIds.size(), roleIds.size());
         
-        // 获取用户列表
-        List<User> users = userRepository.findAllById(userIds);
-        if (users.isEmpty()) {
+        if (userIds.isEmpty()) {
             log.warn("未找到要分配角色的用户");
             return 0;
         }
@@ -671,18 +729,20 @@ public class UserServiceImpl implements UserService {
             return 0;
         }
         
-        // 分配角色
-        Set<Role> roleSet = new HashSet<>(roles);
-        for (User user : users) {
-            user.setRoles(roleSet);
-            user.setUpdatedAt(LocalDateTime.now());
+        // 在关联表上按差异替换角色，不加载用户实体
+        MembershipChangeResult result = membershipService.replaceUserRoles(userIds,
+                roles.stream().map(Role::getId).collect(Collectors.toSet()));
+        if (result.getMatched() == 0) {
+            log.warn("未找到要分配角色的用户");
+            return 0;
         }
+        if (!result.getChangedUserIds().isEmpty()) {
+            eventPublisher.publishEvent(new UserRolesChangedEvent(result.getChangedUserIds()));
+        }
+        log.info("批量分配角色成功, 分配用户数量: {}, 新增关联: {}, 删除关联: {}",
+                result.getMatched(), result.getAdded(), result.getRemoved());
         
-        // 保存用户
-        userRepository.saveAll(users);
-        log.info("批量分配角色成功, 分配用户数量: {}", users.size());
-        
-        return users.size();
+        return result.getMatched();
     }
     
     /**
@@ -698,11 +758,11 @@ public class UserServiceImpl implements UserService {
         
         // 获取当前用户信息（执行解锁操作的管理员）
         String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
-        User currentUser = userRepository.findByUsername(currentUsername)
+        User currentUser = userRepository.findWithRolesByUsername(currentUsername)
                 .orElseThrow(() -> new UsernameNotFoundException("当前用户不存在: " + currentUsername));
         
         // 获取要解锁的用户
-        User user = userRepository.findById(userId)
+        User user = userRepository.findWithRolesById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("用户不存在，ID: " + userId));
         
         // 检查当前用户是否有权限解锁目标用户
@@ -730,6 +790,9 @@ public class UserServiceImpl implements UserService {
             throw new SecurityException("您没有权限解锁用户账户");
         }
         
+        // 丢弃登录尝试的内存状态，以数据库为准
+        loginAttemptService.reset(user.getUsername());
+
         // 检查账户是否已锁定
         if (user.isAccountNonLocked()) {
             log.info("用户[{}]账户已经处于解锁状态", user.getUsername());
@@ -0,0 +1,245 @@
+package com.iteams.service.impl;
+
+import com.iteams.config.CacheConfig;
+import com.iteams.config.CacheInvalidationHandler;
+import com.iteams.config.WarrantyExpiryProperties;
+import com.iteams.event.WarrantyChangedEvent;
+import com.iteams.event.WarrantyExpiryDigestEvent;
+import com.iteams.exception.BusinessException;
+import com.iteams.model.dto.WarrantyExpiryDigestDTO;
+import com.iteams.model.dto.WarrantyExpiryItem;
+import com.iteams.service.CacheCoherenceService;
+import com.iteams.service.WarrantyExpiryService;
+import com.iteams.util.ExpiryTimingWheel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 维保到期提醒服务实现类
+ * <p>
+ * 有效维保合约按结束日期放入{@link ExpiryTimingWheel}，启动时从数据库加载一次，
+ * 之后维保合约保存的事务提交后只重新读取该合约，并通过缓存一致性服务通知其他节点同样处理。
+ * 每次访问时把时间轮推进到当天，推进过程中取出的合约即为新到期的合约，暂存到下次生成日报。
+ * </p>
+ * <p>
+ * 时间轮从昨天开始加载，启动后的第一份日报也能列出昨天到期的合约。
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WarrantyExpiryServiceImpl implements WarrantyExpiryService, CacheInvalidationHandler {
+
+    private static final String ITEM_COLUMNS_SQL = "SELECT w.warranty_id, w.contract_no, w.provider, w.end_date, w.is_active, " +
+            "a.asset_id, a.asset_no, a.asset_name FROM warranty_contract w LEFT JOIN asset_master a ON a.asset_id = w.asset_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheCoherenceService cacheCoherenceService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final WarrantyExpiryProperties properties;
+
+    private volatile ExpiryTimingWheel<WarrantyExpiryItem> wheel;
+
+    /**
+     * 上次生成日报之后到期的合约，键为维保ID
+     */
+    private final Map<Long, WarrantyExpiryItem> recentlyExpired = new LinkedHashMap<>();
+
+    private volatile WarrantyExpiryDigestDTO latestDigest;
+
+    @Override
+    public List<WarrantyExpiryItem> getExpiring(int days) {
+        checkDays(days);
+        ExpiryTimingWheel<WarrantyExpiryItem> current = getWheel();
+        long today = current.getToday();
+        return current.range(today, today + days);
+    }
+
+    @Override
+    public int countExpiring(int days) {
+        checkDays(days);
+        ExpiryTimingWheel<WarrantyExpiryItem> current = getWheel();
+        long today = current.getToday();
+        return current.count(today, today + days);
+    }
+
+    @Override
+    public void refresh(Long warrantyId) {
+        ExpiryTimingWheel<WarrantyExpiryItem> current = wheel;
+        if (current == null) {
+            // 尚未加载，首次访问时会读取到最新数据
+            return;
+        }
+        List<Object[]> rows = jdbcTemplate.query(ITEM_COLUMNS_SQL + " WHERE w.warranty_id = ?",
+                (rs, rowNum) -> new Object[]{rs.getBoolean("is_active"), mapItem(rs)}, warrantyId);
+        if (rows.isEmpty() || !(Boolean) rows.get(0)[0]) {
+            current.remove(warrantyId);
+            return;
+        }
+        WarrantyExpiryItem item = (WarrantyExpiryItem) rows.get(0)[1];
+        if (item.getEndDate() == null) {
+            current.remove(warrantyId);
+        } else {
+            current.put(warrantyId, item.getEndDate().toEpochDay(), item);
+        }
+    }
+
+    /**
+     * 事务提交后更新索引，避免读到未提交的数据
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWarrantyChanged(WarrantyChangedEvent event) {
+        refresh(event.getWarrantyId());
+        cacheCoherenceService.publishEvict(CacheConfig.CACHE_WARRANTY_EXPIRY, event.getWarrantyId());
+    }
+
+    @Override
+    public synchronized WarrantyExpiryDigestDTO generateDigest() {
+        ExpiryTimingWheel<WarrantyExpiryItem> current = getWheel();
+        long today = current.getToday();
+        LocalDate date = LocalDate.ofEpochDay(today);
+        // 上次日报已列出结束日期早于其日期的合约，重新加载时间轮后重复取出的合约在此排除
+        LocalDate since = latestDigest != null ? latestDigest.getDate() : date.minusDays(1);
+
+        List<WarrantyExpiryItem> expired = recentlyExpired.values().stream()
+                .filter(item -> !item.getEndDate().isBefore(since))
+                .sorted(Comparator.comparing(WarrantyExpiryItem::getEndDate)
+                        .thenComparing(WarrantyExpiryItem::getWarrantyId))
+                .collect(Collectors.toList());
+        recentlyExpired.clear();
+
+        List<WarrantyExpiryDigestDTO.Window> windows = new ArrayList<>();
+        for (Integer days : properties.getDigestWindowDays()) {
+            windows.add(new WarrantyExpiryDigestDTO.Window(days, current.count(today, today + days)));
+        }
+        List<WarrantyExpiryItem> upcoming = windows.isEmpty() ? List.of()
+                : current.range(today, today + windows.get(0).getDays()).stream()
+                        .limit(properties.getDigestMaxItems())
+                        .collect(Collectors.toList());
+
+        WarrantyExpiryDigestDTO digest = new WarrantyExpiryDigestDTO();
+        digest.setDate(date);
+        digest.setExpired(expired);
+        digest.setWindows(windows);
+        digest.setUpcoming(upcoming);
+        digest.setTracked(current.size());
+        digest.setGeneratedAt(LocalDateTime.now());
+        latestDigest = digest;
+
+        log.info("维保到期日报[{}]: 新到期 {} 份, 即将到期 {}, 跟踪中 {} 份",
+                date, expired.size(), windows, digest.getTracked());
+        eventPublisher.publishEvent(new WarrantyExpiryDigestEvent(digest));
+        return digest;
+    }
+
+    @Override
+    public WarrantyExpiryDigestDTO getLatestDigest() {
+        WarrantyExpiryDigestDTO digest = latestDigest;
+        return digest != null ? digest : generateDigest();
+    }
+
+    @Override
+    public int rebuild() {
+        synchronized (this) {
+            wheel = build();
+        }
+        int size = getWheel().size();
+        log.info("维保到期索引已加载, 有效合约数量: {}", size);
+        return size;
+    }
+
+    @Override
+    public String getCacheName() {
+        return CacheConfig.CACHE_WARRANTY_EXPIRY;
+    }
+
+    @Override
+    public Object toCacheKey(String key) {
+        return Long.valueOf(key);
+    }
+
+    /**
+     * 其他节点保存了维保合约，重新读取该合约
+     */
+    @Override
+    public void evict(Object key) {
+        refresh((Long) key);
+    }
+
+    @Override
+    public synchronized void clear() {
+        wheel = null;
+    }
+
+    /**
+     * 获取时间轮并推进到当天
+     */
+    private ExpiryTimingWheel<WarrantyExpiryItem> getWheel() {
+        ExpiryTimingWheel<WarrantyExpiryItem> current = wheel;
+        if (current == null) {
+            synchronized (this) {
+                current = wheel;
+                if (current == null) {
+                    current = build();
+                    wheel = current;
+                }
+            }
+        }
+        long today = LocalDate.now().toEpochDay();
+        if (current.getToday() < today) {
+            synchronized (this) {
+                for (WarrantyExpiryItem item : current.advance(today)) {
+                    recentlyExpired.put(item.getWarrantyId(), item);
+                }
+            }
+        }
+        return current;
+    }
+
+    private ExpiryTimingWheel<WarrantyExpiryItem> build() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        ExpiryTimingWheel<WarrantyExpiryItem> built = new ExpiryTimingWheel<>(yesterday.toEpochDay());
+        jdbcTemplate.query(ITEM_COLUMNS_SQL + " WHERE w.is_active = 1 AND w.end_date >= ?", rs -> {
+            WarrantyExpiryItem item = mapItem(rs);
+            built.put(item.getWarrantyId(), item.getEndDate().toEpochDay(), item);
+        }, Date.valueOf(yesterday));
+        log.debug("维保到期时间轮已构建, 合约数量: {}", built.size());
+        return built;
+    }
+
+    private void checkDays(int days) {
+        if (days < 0 || days > properties.getMaxQueryDays()) {
+            throw new BusinessException("天数必须在0到" + properties.getMaxQueryDays() + "之间");
+        }
+    }
+
+    private static WarrantyExpiryItem mapItem(ResultSet rs) throws SQLException {
+        Date endDate = rs.getDate("end_date");
+        long assetIdValue = rs.getLong("asset_id");
+        Long assetId = rs.wasNull() ? null : assetIdValue;
+        return new WarrantyExpiryItem(
+                rs.getLong("warranty_id"),
+                rs.getString("contract_no"),
+                rs.getString("provider"),
+                endDate == null ? null : endDate.toLocalDate(),
+                assetId,
+                rs.getString("asset_no"),
+                rs.getString("asset_name"));
+    }
+}
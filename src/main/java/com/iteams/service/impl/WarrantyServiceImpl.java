@@ -1,8 +1,10 @@
 package com.iteams.service.impl;
 
+import com.iteams.event.WarrantyChangedEvent;
 import com.iteams.model.entity.WarrantyContract;
 import com.iteams.repository.WarrantyRepository;
 import com.iteams.service.WarrantyService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
@@ -34,14 +36,21 @@ public class WarrantyServiceImpl implements WarrantyService {
      * 维保合约数据访问对象
      */
     private final WarrantyRepository warrantyRepository;
+
+    /**
+     * 事件发布器，维保合约保存后通知维保到期索引
+     */
+    private final ApplicationEventPublisher eventPublisher;
     
     /**
      * 构造函数，通过依赖注入获取WarrantyRepository实例
      * 
      * @param warrantyRepository 维保合约数据访问对象
+     * @param eventPublisher 事件发布器
      */
-    public WarrantyServiceImpl(WarrantyRepository warrantyRepository) {
+    public WarrantyServiceImpl(WarrantyRepository warrantyRepository, ApplicationEventPublisher eventPublisher) {
         this.warrantyRepository = warrantyRepository;
+        this.eventPublisher = eventPublisher;
     }
     
     /**
@@ -52,6 +61,7 @@ public class WarrantyServiceImpl implements WarrantyService {
      *   <li>保存维保合约记录到数据库，生成维保ID</li>
      *   <li>维保记录包含合同编号、资产ID、维保时间范围等信息</li>
      *   <li>使用事务确保数据一致性</li>
+     *   <li>发布维保合约变更事件，事务提交后更新维保到期索引</li>
      * </ol>
      * </p>
      * <p>
@@ -68,7 +78,9 @@ public class WarrantyServiceImpl implements WarrantyService {
     @Override
     @Transactional
     public WarrantyContract saveWarranty(WarrantyContract warranty) {
-        return warrantyRepository.save(warranty);
+        WarrantyContract saved = warrantyRepository.save(warranty);
+        eventPublisher.publishEvent(new WarrantyChangedEvent(saved.getWarrantyId()));
+        return saved;
     }
     
     /**
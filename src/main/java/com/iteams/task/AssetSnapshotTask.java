@@ -0,0 +1,33 @@
+package com.iteams.task;
+
+import com.iteams.service.AssetSnapshotService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 资产状态快照定时任务
+ * <p>
+ * 定期为全部资产写入状态快照，限制查询历史状态时需要回放的变化数量
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AssetSnapshotTask {
+
+    private final AssetSnapshotService assetSnapshotService;
+
+    /**
+     * 按配置的时间写入快照，默认每月1日凌晨1点
+     */
+    @Scheduled(cron = "${iteams.asset.snapshot.cron:0 0 1 1 * ?}")
+    public void takeSnapshot() {
+        try {
+            assetSnapshotService.takeSnapshot();
+        } catch (Exception e) {
+            log.error("资产状态快照失败", e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.iteams.task;
+
+import com.iteams.service.AssetStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 资产统计计数器校准定时任务
+ * <p>
+ * 增量计数无法覆盖通过SQL直接修改数据、或维保合约被多个资产共用后修改结束日期等情况，
+ * 每天按明细数据重算一次计数器修正偏差
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AssetStatsReconcileTask {
+
+    private final AssetStatsService assetStatsService;
+
+    /**
+     * 按配置的时间重算计数器，默认每天凌晨3点30分
+     */
+    @Scheduled(cron = "${iteams.asset.stats.reconcile-cron:0 30 3 * * ?}")
+    public void reconcile() {
+        try {
+            assetStatsService.rebuild();
+        } catch (Exception e) {
+            log.error("资产统计计数器校准失败", e);
+        }
+    }
+}
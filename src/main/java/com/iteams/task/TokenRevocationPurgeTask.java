@@ -0,0 +1,36 @@
+package com.iteams.task;
+
+import com.iteams.service.TokenRevocationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 令牌吊销记录清理定时任务
+ * <p>
+ * 定期清理对应令牌已自然过期的吊销条目，控制内存吊销表和数据表的大小
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationPurgeTask {
+
+    private final TokenRevocationService tokenRevocationService;
+
+    /**
+     * 每小时清理一次过期的吊销条目
+     */
+    @Scheduled(cron = "0 15 * * * ?")
+    public void purgeExpiredRevocations() {
+        try {
+            int count = tokenRevocationService.purgeExpired();
+            if (count > 0) {
+                log.info("已清理{}条过期的令牌吊销记录", count);
+            }
+        } catch (Exception e) {
+            log.error("清理令牌吊销记录失败", e);
+        }
+    }
+}
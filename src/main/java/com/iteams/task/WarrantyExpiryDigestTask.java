@@ -0,0 +1,33 @@
+package com.iteams.task;
+
+import com.iteams.service.WarrantyExpiryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 维保到期日报定时任务
+ * <p>
+ * 每天生成一次维保到期日报，列出前一天到期的合约和各时间窗口内即将到期的合约
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WarrantyExpiryDigestTask {
+
+    private final WarrantyExpiryService warrantyExpiryService;
+
+    /**
+     * 按配置的时间生成日报，默认每天0点5分
+     */
+    @Scheduled(cron = "${iteams.asset.warranty-expiry.digest-cron:0 5 0 * * ?}")
+    public void generateDigest() {
+        try {
+            warrantyExpiryService.generateDigest();
+        } catch (Exception e) {
+            log.error("生成维保到期日报失败", e);
+        }
+    }
+}
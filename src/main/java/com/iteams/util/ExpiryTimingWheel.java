@@ -0,0 +1,251 @@
+package com.iteams.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * 按天分层的到期时间轮
+ * <p>
+ * 第一层64个槽对应当前64天区块内的每一天，第二层64个槽对应当前4096天区间内的每个64天区块，
+ * 更远的到期日放在按日期排序的溢出表中。条目所在的位置只由到期日和当前日期决定：
+ * 日期推进跨过区块边界时，把上一层对应槽中的条目下放到下一层，每个条目最多下放两次。
+ * 推进时已过到期日的条目从轮中取出并返回。
+ * </p>
+ * <p>
+ * 查询一段日期内到期的条目只访问范围内的槽，耗时与条目总数无关
+ * </p>
+ *
+ * @param <T> 条目内容
+ */
+public class ExpiryTimingWheel<T> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+
+    private final Map<Long, Entry<T>> entries = new HashMap<>();
+    private final List<Map<Long, Entry<T>>> days = newLevel();
+    private final List<Map<Long, Entry<T>>> blocks = newLevel();
+    private final TreeMap<Long, Map<Long, Entry<T>>> overflow = new TreeMap<>();
+
+    /**
+     * 当前日期（epoch day），早于该日期的条目均已取出
+     */
+    private long today;
+
+    /**
+     * 构造函数
+     *
+     * @param today 当前日期（epoch day）
+     */
+    public ExpiryTimingWheel(long today) {
+        this.today = today;
+    }
+
+    /**
+     * 添加或替换条目
+     *
+     * @param id 条目ID
+     * @param day 到期日（epoch day），当天仍有效
+     * @param value 条目内容
+     * @return 是否已加入；到期日早于当前日期时不加入，并移除同ID的旧条目
+     */
+    public synchronized boolean put(long id, long day, T value) {
+        remove(id);
+        if (day < today) {
+            return false;
+        }
+        Entry<T> entry = new Entry<>(id, day, value);
+        entries.put(id, entry);
+        place(entry);
+        return true;
+    }
+
+    /**
+     * 移除条目
+     *
+     * @param id 条目ID
+     * @return 被移除的条目内容，不存在时为null
+     */
+    public synchronized T remove(long id) {
+        Entry<T> entry = entries.remove(id);
+        if (entry == null) {
+            return null;
+        }
+        if (isCurrentBlock(entry.day)) {
+            days.get((int) (entry.day & MASK)).remove(id);
+        } else if (isCurrentRange(entry.day)) {
+            blocks.get((int) ((entry.day >> BITS) & MASK)).remove(id);
+        } else {
+            Map<Long, Entry<T>> slot = overflow.get(entry.day);
+            slot.remove(id);
+            if (slot.isEmpty()) {
+                overflow.remove(entry.day);
+            }
+        }
+        return entry.value;
+    }
+
+    /**
+     * 推进到指定日期
+     *
+     * @param day 新的当前日期（epoch day），不晚于当前日期时不做任何事
+     * @return 到期日早于新日期的条目，按到期日排序
+     */
+    public synchronized List<T> advance(long day) {
+        List<T> expired = new ArrayList<>();
+        while (today < day) {
+            Map<Long, Entry<T>> slot = days.get((int) (today & MASK));
+            for (Entry<T> entry : slot.values()) {
+                entries.remove(entry.id);
+                expired.add(entry.value);
+            }
+            slot.clear();
+            today++;
+            if ((today & MASK) == 0) {
+                if (((today >> BITS) & MASK) == 0) {
+                    cascadeOverflow();
+                }
+                cascadeBlock();
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * 查询到期日在指定范围内的条目
+     *
+     * @param from 起始日期（epoch day，含），早于当前日期时按当前日期处理
+     * @param to 截止日期（epoch day，含）
+     * @return 条目内容，按到期日和ID排序
+     */
+    public synchronized List<T> range(long from, long to) {
+        List<Entry<T>> matched = new ArrayList<>();
+        visit(from, to, matched::add);
+        matched.sort(Comparator.<Entry<T>>comparingLong(e -> e.day).thenComparingLong(e -> e.id));
+        List<T> result = new ArrayList<>(matched.size());
+        for (Entry<T> entry : matched) {
+            result.add(entry.value);
+        }
+        return result;
+    }
+
+    /**
+     * 统计到期日在指定范围内的条目数量
+     *
+     * @param from 起始日期（epoch day，含）
+     * @param to 截止日期（epoch day，含）
+     * @return 条目数量
+     */
+    public synchronized int count(long from, long to) {
+        int[] count = {0};
+        visit(from, to, entry -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * 当前日期（epoch day）
+     *
+     * @return 当前日期
+     */
+    public synchronized long getToday() {
+        return today;
+    }
+
+    /**
+     * 条目数量
+     *
+     * @return 条目数量
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void visit(long from, long to, Consumer<Entry<T>> consumer) {
+        long day = Math.max(from, today);
+        long blockEnd = ((today >> BITS) + 1) << BITS;
+        for (; day <= to && day < blockEnd; day++) {
+            days.get((int) (day & MASK)).values().forEach(consumer);
+        }
+        long rangeEnd = ((today >> (2 * BITS)) + 1) << (2 * BITS);
+        while (day <= to && day < rangeEnd) {
+            for (Entry<T> entry : blocks.get((int) ((day >> BITS) & MASK)).values()) {
+                if (entry.day >= day && entry.day <= to) {
+                    consumer.accept(entry);
+                }
+            }
+            day = ((day >> BITS) + 1) << BITS;
+        }
+        if (day <= to) {
+            for (Map<Long, Entry<T>> slot : overflow.subMap(day, true, to, true).values()) {
+                slot.values().forEach(consumer);
+            }
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        if (isCurrentBlock(entry.day)) {
+            days.get((int) (entry.day & MASK)).put(entry.id, entry);
+        } else if (isCurrentRange(entry.day)) {
+            blocks.get((int) ((entry.day >> BITS) & MASK)).put(entry.id, entry);
+        } else {
+            overflow.computeIfAbsent(entry.day, d -> new HashMap<>()).put(entry.id, entry);
+        }
+    }
+
+    /**
+     * 进入新的64天区块，把第二层对应槽中的条目下放到第一层
+     */
+    private void cascadeBlock() {
+        Map<Long, Entry<T>> slot = blocks.get((int) ((today >> BITS) & MASK));
+        for (Entry<T> entry : slot.values()) {
+            days.get((int) (entry.day & MASK)).put(entry.id, entry);
+        }
+        slot.clear();
+    }
+
+    /**
+     * 进入新的4096天区间，把溢出表中属于该区间的条目放入时间轮
+     */
+    private void cascadeOverflow() {
+        Map<Long, Map<Long, Entry<T>>> current = overflow.headMap(((today >> (2 * BITS)) + 1) << (2 * BITS));
+        for (Map<Long, Entry<T>> slot : current.values()) {
+            slot.values().forEach(this::place);
+        }
+        current.clear();
+    }
+
+    private boolean isCurrentBlock(long day) {
+        return (day >> BITS) == (today >> BITS);
+    }
+
+    private boolean isCurrentRange(long day) {
+        return (day >> (2 * BITS)) == (today >> (2 * BITS));
+    }
+
+    private static <T> List<Map<Long, Entry<T>>> newLevel() {
+        List<Map<Long, Entry<T>>> level = new ArrayList<>(SLOTS);
+        for (int i = 0; i < SLOTS; i++) {
+            level.add(new HashMap<>());
+        }
+        return level;
+    }
+
+    private static final class Entry<T> {
+
+        private final long id;
+        private final long day;
+        private final T value;
+
+        private Entry(long id, long day, T value) {
+            this.id = id;
+            this.day = day;
+            this.value = value;
+        }
+    }
+}
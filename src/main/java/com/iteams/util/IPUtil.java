@@ -2,6 +2,8 @@ package com.iteams.util;
 
 import jakarta.servlet.http.HttpServletRequest;
 
+import java.util.Collection;
+
 /**
  * IP工具类
  * <p>
@@ -63,4 +65,38 @@ public class IPUtil {
         
         return ip;
     }
+
+    /**
+     * 获取可信的客户端IP地址
+     * <p>
+     * 只有直连对端是受信任的代理时才读取X-Forwarded-For，并从右向左取第一个不受信任的地址；
+     * 否则直接使用对端地址，客户端伪造的请求头不起作用。用于限流等安全相关的场景
+     * </p>
+     *
+     * @param request HTTP请求
+     * @param trustedProxies 受信任的代理地址
+     * @return IP地址
+     */
+    public static String getTrustedClientIp(HttpServletRequest request, Collection<String> trustedProxies) {
+        String ip = normalize(request.getRemoteAddr());
+        if (trustedProxies == null || !trustedProxies.contains(ip)) {
+            return ip;
+        }
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor == null || forwardedFor.isEmpty()) {
+            return ip;
+        }
+        String[] hops = forwardedFor.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = normalize(hops[i].trim());
+            if (!hop.isEmpty() && !"unknown".equalsIgnoreCase(hop) && !trustedProxies.contains(hop)) {
+                return hop;
+            }
+        }
+        return ip;
+    }
+
+    private static String normalize(String ip) {
+        return "0:0:0:0:0:0:0:1".equals(ip) ? "127.0.0.1" : ip;
+    }
 } 
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.iteams.util;
 
+import com.iteams.model.dto.LoginUser;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -13,6 +14,7 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
@@ -34,6 +36,11 @@ public class JwtUtil {
     @Value("${jwt.remember-me-expiration:604800000}") // 默认7天
     private long rememberMeExpiration;
 
+    /**
+     * 用户ID声明名称
+     */
+    public static final String CLAIM_USER_ID = "uid";
+
     /**
      * 从令牌中获取用户名
      *
@@ -69,11 +76,14 @@ public class JwtUtil {
 
     /**
      * 从令牌中获取所有声明
+     * <p>
+     * 需要读取多个声明时应只调用一次本方法，避免重复验签解析
+     * </p>
      *
      * @param token 令牌
      * @return 所有声明
      */
-    private Claims getAllClaimsFromToken(String token) {
+    public Claims getAllClaimsFromToken(String token) {
         return Jwts.parserBuilder()
                 .setSigningKey(getSigningKey())
                 .build()
@@ -101,6 +111,9 @@ public class JwtUtil {
      */
     public String generateToken(UserDetails userDetails, boolean rememberMe) {
         Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof LoginUser loginUser && loginUser.getUserId() != null) {
+            claims.put(CLAIM_USER_ID, loginUser.getUserId());
+        }
         return doGenerateToken(claims, userDetails.getUsername(), rememberMe);
     }
 
@@ -114,10 +127,11 @@ public class JwtUtil {
      */
     private String doGenerateToken(Map<String, Object> claims, String subject, boolean rememberMe) {
         long tokenExpiration = rememberMe ? rememberMeExpiration : expiration;
-        
+
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + tokenExpiration))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
@@ -0,0 +1,55 @@
+package com.iteams.util;
+
+/**
+ * LIKE匹配模式工具类
+ * <p>
+ * 对用户输入中的通配符转义后生成匹配模式，查询中需声明 ESCAPE '!'。
+ * 前缀匹配（'abc%'）可以使用列上的索引做范围扫描，包含匹配（'%abc%'）只能全表扫描。
+ * </p>
+ */
+public final class LikePattern {
+
+    /**
+     * 转义字符，与查询中的 ESCAPE '!' 对应
+     */
+    public static final char ESCAPE = '!';
+
+    private LikePattern() {
+    }
+
+    /**
+     * 生成前缀匹配模式
+     *
+     * @param value 输入值
+     * @return 匹配模式，输入为空时返回null
+     */
+    public static String prefix(String value) {
+        String escaped = escape(value);
+        return escaped == null ? null : escaped + "%";
+    }
+
+    /**
+     * 生成包含匹配模式
+     *
+     * @param value 输入值
+     * @return 匹配模式，输入为空时返回null
+     */
+    public static String contains(String value) {
+        String escaped = escape(value);
+        return escaped == null ? null : "%" + escaped + "%";
+    }
+
+    private static String escape(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(value.length() + 4);
+        for (char c : value.trim().toCharArray()) {
+            if (c == ESCAPE || c == '%' || c == '_') {
+                sb.append(ESCAPE);
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+}
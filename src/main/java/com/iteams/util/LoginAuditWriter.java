@@ -0,0 +1,203 @@
+package com.iteams.util;
+
+import com.iteams.config.LoginSecurityConfig;
+import com.iteams.model.dto.LoginAuditEvent;
+import com.iteams.model.entity.OperationLog;
+import com.iteams.model.enums.ModuleType;
+import com.iteams.model.enums.OperationType;
+import com.iteams.model.enums.StatusType;
+import com.iteams.repository.OperationLogRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 登录审计日志批量写入器
+ * <p>
+ * 请求线程只把不可变的审计事件放入有界队列，不等待数据库；
+ * 定时任务批量取出事件并转换为操作日志，一次saveAll写入。
+ * 队列满时丢弃新事件并计数，避免撞库等突发流量占满连接池。
+ * </p>
+ */
+@Slf4j
+@Component
+public class LoginAuditWriter {
+
+    private final OperationLogRepository operationLogRepository;
+    private final LoginSecurityConfig loginSecurityConfig;
+    private final BlockingQueue<LoginAuditEvent> queue;
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    public LoginAuditWriter(OperationLogRepository operationLogRepository, LoginSecurityConfig loginSecurityConfig) {
+        this.operationLogRepository = operationLogRepository;
+        this.loginSecurityConfig = loginSecurityConfig;
+        this.queue = new ArrayBlockingQueue<>(loginSecurityConfig.getAuditQueueCapacity());
+    }
+
+    /**
+     * 提交审计事件，不阻塞调用线程
+     *
+     * @param event 审计事件
+     */
+    public void submit(LoginAuditEvent event) {
+        if (!queue.offer(event)) {
+            long dropped = droppedCount.incrementAndGet();
+            if (dropped == 1 || dropped % 1000 == 0) {
+                log.warn("登录审计队列已满，已丢弃{}条审计事件", dropped);
+            }
+        }
+    }
+
+    /**
+     * 批量写入队列中的审计事件
+     *
+     * @return 写入数量
+     */
+    @Scheduled(fixedDelayString = "${iteams.security.login.audit-flush-interval-ms:1000}")
+    public int flush() {
+        int batchSize = loginSecurityConfig.getAuditBatchSize();
+        List<LoginAuditEvent> batch = new ArrayList<>(batchSize);
+        int total = 0;
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                List<OperationLog> logs = new ArrayList<>(batch.size());
+                for (LoginAuditEvent event : batch) {
+                    logs.add(toOperationLog(event));
+                }
+                operationLogRepository.saveAll(logs);
+                total += logs.size();
+            } catch (Exception e) {
+                log.error("批量写入登录审计日志失败，丢弃{}条", batch.size(), e);
+            }
+            batch.clear();
+        }
+        if (total > 0) {
+            log.debug("已批量写入{}条登录审计日志", total);
+        }
+        return total;
+    }
+
+    /**
+     * 关闭前写入剩余事件
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * 将审计事件转换为操作日志
+     */
+    private OperationLog toOperationLog(LoginAuditEvent event) {
+        OperationLog operationLog = new OperationLog();
+        operationLog.setOperationType(event.getOperationType());
+        operationLog.setModule(ModuleType.AUTH);
+        operationLog.setStatus(event.isSuccess() ? StatusType.SUCCESS : StatusType.FAILED);
+        operationLog.setOperationTime(event.getOccurredAt());
+        operationLog.setIpAddress(event.getIpAddress());
+        operationLog.setUserAgent(event.getUserAgent());
+
+        if (event.getOperationType() == OperationType.LOGOUT) {
+            fillLogoutLog(operationLog, event);
+        } else if (event.getUserId() != null) {
+            fillLoginLog(operationLog, event);
+        } else {
+            fillUnknownUserLoginLog(operationLog, event);
+        }
+        return operationLog;
+    }
+
+    private void fillLoginLog(OperationLog operationLog, LoginAuditEvent event) {
+        operationLog.setOperatorId(event.getUserId().toString());
+        operationLog.setOperatorName(event.getUsername());
+        operationLog.setObjectId(event.getUserId().toString());
+        operationLog.setObjectType("User");
+
+        // 添加用户信息到日志
+        Map<String, Object> afterData = new HashMap<>();
+        afterData.put("username", event.getUsername());
+        afterData.put("userId", event.getUserId());
+        afterData.put("loginResult", event.isSuccess() ? "成功" : "失败");
+        afterData.put("loginTime", event.getOccurredAt().toString());
+
+        // 成功登录只记录基本信息
+        if (event.isSuccess()) {
+            afterData.put("message", "用户登录成功");
+        } else {
+            // 登录失败时记录详细信息
+            String message = event.getMessage();
+            afterData.put("message", message);
+            afterData.put("accountStatus", event.getAccountStatus());
+
+            // 尝试从消息中提取密码信息
+            if (message != null && message.contains("尝试的密码:")) {
+                String password = message.substring(message.indexOf("尝试的密码:") + 7).trim();
+                afterData.put("attemptedPassword", password);
+            }
+        }
+
+        operationLog.setAfterData(JsonUtil.toJson(afterData));
+        operationLog.setDescription(event.isSuccess() ? "用户登录成功" : event.getMessage());
+    }
+
+    private void fillUnknownUserLoginLog(OperationLog operationLog, LoginAuditEvent event) {
+        // 记录非法用户尝试登录的情况
+        String message = event.getMessage();
+        Map<String, Object> afterData = new HashMap<>();
+        afterData.put("loginResult", "失败");
+        afterData.put("loginTime", event.getOccurredAt().toString());
+        afterData.put("message", message);
+        afterData.put("reason", "用户不存在");
+
+        // 提取密码信息（如果有）
+        if (message != null && message.contains("，密码:")) {
+            String password = message.substring(message.indexOf("，密码:") + 4).trim();
+            afterData.put("attemptedPassword", password);
+        }
+
+        // 为非法用户使用特殊ID，避免operator_id为null
+        operationLog.setOperatorId("0");
+        operationLog.setObjectId("0");
+        operationLog.setObjectType("UnknownUser");
+
+        String attemptedUsername = event.getAttemptedUsername();
+        if (attemptedUsername != null && !attemptedUsername.isEmpty()) {
+            afterData.put("attemptedUsername", attemptedUsername);
+            operationLog.setOperatorName(attemptedUsername + "(不存在)");
+        } else {
+            operationLog.setOperatorName("未知用户");
+        }
+
+        operationLog.setAfterData(JsonUtil.toJson(afterData));
+        operationLog.setDescription(message);
+    }
+
+    private void fillLogoutLog(OperationLog operationLog, LoginAuditEvent event) {
+        if (event.getUserId() != null) {
+            operationLog.setOperatorId(event.getUserId().toString());
+            operationLog.setOperatorName(event.getUsername());
+            operationLog.setObjectId(event.getUserId().toString());
+            operationLog.setObjectType("User");
+
+            // 添加更多用户信息到日志
+            Map<String, Object> afterData = new HashMap<>();
+            afterData.put("username", event.getUsername());
+            afterData.put("userId", event.getUserId());
+            afterData.put("logoutTime", event.getOccurredAt().toString());
+            afterData.put("lastLoginTime", event.getLastLoginTime() != null ?
+                    event.getLastLoginTime().toString() : "未知");
+
+            operationLog.setAfterData(JsonUtil.toJson(afterData));
+        }
+        operationLog.setDescription("用户登出系统");
+    }
+}
@@ -0,0 +1,71 @@
+package com.iteams.util;
+
+/**
+ * 权限位集运算工具类
+ * <p>
+ * 权限位集以long[]表示，第i个权限对应第i/64个字的第i%64位。
+ * 两个位集长度不同时，较短一方缺少的字按0处理。所有方法不分配内存。
+ * </p>
+ */
+public final class PermissionBits {
+
+    /**
+     * 空位集
+     */
+    public static final long[] EMPTY = new long[0];
+
+    private PermissionBits() {
+    }
+
+    /**
+     * 判断用户位集是否包含掩码中的任意一位
+     *
+     * @param userBits 用户权限位集
+     * @param mask 所需权限掩码
+     * @return 是否有交集
+     */
+    public static boolean intersects(long[] userBits, long[] mask) {
+        int words = Math.min(userBits.length, mask.length);
+        for (int i = 0; i < words; i++) {
+            if ((userBits[i] & mask[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 判断用户位集是否包含掩码中的全部位
+     *
+     * @param userBits 用户权限位集
+     * @param mask 所需权限掩码
+     * @return 是否全部包含
+     */
+    public static boolean containsAll(long[] userBits, long[] mask) {
+        for (int i = 0; i < mask.length; i++) {
+            long userWord = i < userBits.length ? userBits[i] : 0L;
+            if ((userWord & mask[i]) != mask[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 在位集中置位，位集长度不足时返回扩展后的新数组
+     *
+     * @param bits 位集
+     * @param index 位序号
+     * @return 置位后的位集
+     */
+    public static long[] set(long[] bits, int index) {
+        int word = index >>> 6;
+        long[] result = bits;
+        if (word >= bits.length) {
+            result = new long[word + 1];
+            System.arraycopy(bits, 0, result, 0, bits.length);
+        }
+        result[word] |= 1L << index;
+        return result;
+    }
+}
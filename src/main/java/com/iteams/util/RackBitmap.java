@@ -0,0 +1,169 @@
+package com.iteams.util;
+
+import java.util.Arrays;
+
+/**
+ * 机柜U位占用位图
+ * <p>
+ * 每个U位一位，第i个U（从1开始）对应第i-1位；另为每个U位保存占用计数，
+ * 历史数据中两台设备登记在同一U位时，释放其中一台不会误把仍被占用的U位标记为空闲。
+ * 42U的机柜只需要一个long，冲突检查和查找连续空闲U位都按64位整块操作。
+ * </p>
+ */
+public class RackBitmap {
+
+    private long[] words;
+    private short[] counts;
+
+    /**
+     * 构造函数
+     *
+     * @param height 机柜高度（U），占用超出高度的U位时自动扩展
+     */
+    public RackBitmap(int height) {
+        this.words = new long[Math.max(1, (height + 63) >>> 6)];
+        this.counts = new short[Math.max(height, 1)];
+    }
+
+    /**
+     * 指定范围内的U位是否全部空闲
+     *
+     * @param fromU 起始U位（含，从1开始）
+     * @param toU 结束U位（含）
+     * @return 是否全部空闲
+     */
+    public boolean isFree(int fromU, int toU) {
+        int from = fromU - 1;
+        int to = toU;
+        for (int word = from >>> 6; word < words.length && (word << 6) < to; word++) {
+            if ((words[word] & mask(word, from, to)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 占用指定范围的U位
+     *
+     * @param fromU 起始U位（含，从1开始）
+     * @param toU 结束U位（含）
+     */
+    public void occupy(int fromU, int toU) {
+        ensureCapacity(toU);
+        for (int u = fromU - 1; u < toU; u++) {
+            if (counts[u]++ == 0) {
+                words[u >>> 6] |= 1L << u;
+            }
+        }
+    }
+
+    /**
+     * 释放指定范围的U位
+     *
+     * @param fromU 起始U位（含，从1开始）
+     * @param toU 结束U位（含）
+     */
+    public void release(int fromU, int toU) {
+        for (int u = fromU - 1; u < Math.min(toU, counts.length); u++) {
+            if (counts[u] > 0 && --counts[u] == 0) {
+                words[u >>> 6] &= ~(1L << u);
+            }
+        }
+    }
+
+    /**
+     * 查找前height个U位中第一段长度为units的连续空闲U位
+     *
+     * @param units 需要的U数
+     * @param height 机柜高度（U）
+     * @return 起始U位（从1开始），没有足够的连续空闲U位时为-1
+     */
+    public int findFree(int units, int height) {
+        if (units < 1 || units > height) {
+            return -1;
+        }
+        int run = 0;
+        int u = 0;
+        while (u < height) {
+            int word = u >>> 6;
+            long bits = word < words.length ? words[word] >>> (u & 63) : 0;
+            int span = Math.min(64 - (u & 63), height - u);
+            if (bits == 0) {
+                // 本字剩余部分全部空闲
+                run += span;
+                u += span;
+            } else {
+                int freeBits = Long.numberOfTrailingZeros(bits);
+                if (freeBits >= span) {
+                    run += span;
+                    u += span;
+                } else {
+                    run += freeBits;
+                    if (run >= units) {
+                        return u + freeBits - run + 1;
+                    }
+                    int usedBits = Long.numberOfTrailingZeros(~(bits >>> freeBits));
+                    u += freeBits + usedBits;
+                    run = 0;
+                    continue;
+                }
+            }
+            if (run >= units) {
+                return u - run + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 前height个U位中已占用的U数
+     *
+     * @param height 机柜高度（U）
+     * @return 已占用的U数
+     */
+    public int countUsed(int height) {
+        int used = 0;
+        for (int word = 0; word < words.length && (word << 6) < height; word++) {
+            used += Long.bitCount(words[word] & mask(word, 0, height));
+        }
+        return used;
+    }
+
+    /**
+     * 已占用的最高U位
+     *
+     * @return 最高U位，全部空闲时为0
+     */
+    public int highestUsed() {
+        for (int word = words.length - 1; word >= 0; word--) {
+            if (words[word] != 0) {
+                return (word << 6) + 64 - Long.numberOfLeadingZeros(words[word]);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 第word个字中落在[from, to)范围内的位
+     */
+    private static long mask(int word, int from, int to) {
+        int start = Math.max(from - (word << 6), 0);
+        int end = Math.min(to - (word << 6), 64);
+        if (start >= end) {
+            return 0;
+        }
+        long high = end == 64 ? -1L : (1L << end) - 1;
+        return high & (-1L << start);
+    }
+
+    private void ensureCapacity(int toU) {
+        if (toU > counts.length) {
+            counts = Arrays.copyOf(counts, toU);
+        }
+        int requiredWords = (toU + 63) >>> 6;
+        if (requiredWords > words.length) {
+            words = Arrays.copyOf(words, requiredWords);
+        }
+    }
+}
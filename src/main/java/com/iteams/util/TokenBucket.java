@@ -0,0 +1,49 @@
+package com.iteams.util;
+
+/**
+ * 令牌桶
+ * <p>
+ * 按固定速率补充令牌，桶容量决定允许的突发请求数。补充在每次获取时按经过的时间
+ * 惰性计算，不需要后台线程
+ * </p>
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    /**
+     * 构造函数
+     *
+     * @param capacity 桶容量
+     * @param refillPerMinute 每分钟补充的令牌数
+     */
+    public TokenBucket(int capacity, int refillPerMinute) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerMinute / 60_000_000_000.0;
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * 尝试获取一个令牌
+     *
+     * @return 是否获取成功
+     */
+    public synchronized boolean tryConsume() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * refillPerNano);
+        lastRefillNanos = now;
+    }
+}
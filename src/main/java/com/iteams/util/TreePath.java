@@ -0,0 +1,79 @@
+package com.iteams.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 层级物化路径工具类
+ * <p>
+ * 路径由根到当前节点的ID组成，以"/"开头和结尾，如"/1/5/12/"。
+ * 节点的子树即路径以其路径为前缀的全部节点，可用一次 LIKE '前缀%' 的索引范围扫描查出；
+ * 结尾的"/"保证"/1/"不会匹配到"/12/"。
+ * </p>
+ */
+public final class TreePath {
+
+    /**
+     * 分隔符
+     */
+    public static final String SEPARATOR = "/";
+
+    private TreePath() {
+    }
+
+    /**
+     * 生成子节点路径
+     *
+     * @param parentPath 父节点路径，顶级节点为null
+     * @param id 节点ID
+     * @return 节点路径
+     */
+    public static String of(String parentPath, Long id) {
+        return (parentPath == null ? SEPARATOR : parentPath) + id + SEPARATOR;
+    }
+
+    /**
+     * 判断节点是否在另一节点的子树中（含节点自身）
+     *
+     * @param path 节点路径
+     * @param ancestorPath 祖先节点路径
+     * @return 是否在子树中
+     */
+    public static boolean isWithin(String path, String ancestorPath) {
+        return path != null && ancestorPath != null && path.startsWith(ancestorPath);
+    }
+
+    /**
+     * 节点深度，顶级节点为1
+     *
+     * @param path 节点路径
+     * @return 深度
+     */
+    public static int depth(String path) {
+        int depth = 0;
+        for (int i = 1; i < path.length(); i++) {
+            if (path.charAt(i) == '/') {
+                depth++;
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * 解析路径中的全部节点ID，从根到当前节点
+     *
+     * @param path 节点路径
+     * @return 节点ID列表
+     */
+    public static List<Long> ids(String path) {
+        List<Long> ids = new ArrayList<>();
+        int start = 1;
+        for (int i = 1; i < path.length(); i++) {
+            if (path.charAt(i) == '/') {
+                ids.add(Long.parseLong(path, start, i, 10));
+                start = i + 1;
+            }
+        }
+        return ids;
+    }
+}
@@ -30,6 +30,12 @@ public class UuidGenerator {
      */
     private static final DateTimeFormatter BATCH_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
 
+    /**
+     * 年月格式化器，格式为"yyMM"
+     * 用于资产编号的年月部分
+     */
+    public static final DateTimeFormatter YEAR_MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyMM");
+
     /**
      * 生成资产UUID
      * <p>
@@ -94,6 +100,7 @@ public class UuidGenerator {
      *   <li>序列号：4位数字，从0001开始递增</li>
      * </ul>
      * 资产编号是日常业务中标识和检索资产的主要方式，具有一定的可读性和规律性。
+     * 序列号应由{@link com.iteams.service.AssetNumberAllocator}分配，以保证并发下不重复。
      * </p>
      * 
      * @param categoryCode 资产分类代码（如IT01表示服务器）
@@ -102,7 +109,28 @@ public class UuidGenerator {
      * @return 生成的资产编号字符串
      */
     public static String generateAssetNo(String categoryCode, String departmentCode, long sequence) {
-        String yearMonth = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyMM"));
-        return String.format("%s%s%s%04d", categoryCode, departmentCode, yearMonth, sequence);
+        String yearMonth = LocalDateTime.now().format(YEAR_MONTH_FORMATTER);
+        return formatAssetNo(categoryCode, departmentCode, yearMonth, sequence);
+    }
+
+    /**
+     * 按指定年月格式化资产编号
+     * <p>
+     * 直接拼接并补零，不经过格式化解析，序列号超过4位时按实际位数输出
+     * </p>
+     *
+     * @param categoryCode 分类码
+     * @param departmentCode 部门码
+     * @param yearMonth 年月，格式为"yyMM"
+     * @param sequence 序列号
+     * @return 资产编号
+     */
+    public static String formatAssetNo(String categoryCode, String departmentCode, String yearMonth, long sequence) {
+        StringBuilder sb = new StringBuilder(categoryCode.length() + departmentCode.length() + yearMonth.length() + 8)
+                .append(categoryCode).append(departmentCode).append(yearMonth);
+        for (long bound = 1000; bound > 1 && sequence < bound; bound /= 10) {
+            sb.append('0');
+        }
+        return sb.append(sequence).toString();
     }
-} 
\ No newline at end of file
+}
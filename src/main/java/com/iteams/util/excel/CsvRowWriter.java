@@ -0,0 +1,75 @@
+package com.iteams.util.excel;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * CSV行写出器
+ * <p>
+ * 按RFC 4180转义：包含逗号、引号或换行的值用双引号包裹，内部引号写为两个双引号。
+ * 文本值先按{@link RowWriter#escapeFormula(String)}防止公式注入。
+ * 输出UTF-8并带BOM，便于Excel直接打开中文内容。
+ * </p>
+ */
+public class CsvRowWriter implements RowWriter {
+
+    private final Writer writer;
+
+    /**
+     * @param out 输出流，关闭写出器时只刷新不关闭
+     * @throws IOException 写出BOM失败时抛出
+     */
+    public CsvRowWriter(OutputStream out) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        this.writer.write('\uFEFF');
+    }
+
+    @Override
+    public void writeHeader(String[] headers) throws IOException {
+        writeRow(headers);
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] instanceof Number) {
+                writeValue(values[i].toString());
+            } else if (values[i] != null) {
+                writeValue(RowWriter.escapeFormula(values[i].toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() {
+        // 不关闭底层输出流，未完成时缓冲中的内容直接丢弃
+    }
+
+    private void writeValue(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,71 @@
+package com.iteams.util.excel;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * 表格行写出器接口
+ * <p>
+ * 导出时逐行写出数据，实现类只缓存有限的行，写出的数据量不受内存限制。
+ * 与{@link RowProcessor}相对：RowProcessor逐行消费导入的数据，RowWriter逐行产出导出的数据。
+ * </p>
+ * <p>
+ * CSV中的文本以=、+、-、@（或制表符、回车）开头时，表格软件打开时会当作公式执行，
+ * 纯文本格式的实现类写出文本前应调用{@link #escapeFormula(String)}在开头加单引号。
+ * xlsx的字符串单元格不会被当作公式，原样写出。
+ * </p>
+ * <p>
+ * 全部数据写出后调用{@link #finish()}完成文件；未调用finish就关闭时不写出文件结尾，
+ * 避免读取中途出错时产出看似完整、实际被截断的文件。
+ * </p>
+ */
+public interface RowWriter extends Closeable {
+
+    /**
+     * 防止公式注入：以公式起始字符开头的文本前加单引号，表格软件将其作为普通文本显示
+     *
+     * @param value 单元格文本
+     * @return 转义后的文本
+     */
+    static String escapeFormula(String value) {
+        if (value == null || value.isEmpty()) {
+            return value;
+        }
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r') {
+            return "'" + value;
+        }
+        return value;
+    }
+
+    /**
+     * 写出表头
+     *
+     * @param headers 列名
+     * @throws IOException 写出失败时抛出
+     */
+    void writeHeader(String[] headers) throws IOException;
+
+    /**
+     * 写出一行数据
+     *
+     * @param values 单元格值，null写为空单元格
+     * @throws IOException 写出失败时抛出
+     */
+    void writeRow(Object[] values) throws IOException;
+
+    /**
+     * 完成写出，全部数据写出成功后调用
+     *
+     * @throws IOException 写出失败时抛出
+     */
+    void finish() throws IOException;
+
+    /**
+     * 释放资源，不关闭底层输出流；未调用{@link #finish()}时放弃尚未写出的内容
+     *
+     * @throws IOException 释放失败时抛出
+     */
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,112 @@
+package com.iteams.util.excel;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 流式Excel行写出器
+ * <p>
+ * 基于SXSSFWorkbook，内存中只保留最近的若干行，更早的行写入压缩的临时文件，
+ * 完成时把临时文件拼装为xlsx写入输出流，关闭时删除临时文件；未完成就关闭时不写出工作簿。
+ * 超过单个工作表的最大行数时自动续写到新的工作表，并重复表头。
+ * 文本写为字符串单元格，Excel不会当作公式执行，原样写出。
+ * </p>
+ */
+public class SxssfRowWriter implements RowWriter {
+
+    private static final int MAX_ROWS_PER_SHEET = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+    private final SXSSFWorkbook workbook;
+    private final OutputStream out;
+    private final String sheetName;
+    private final CellStyle headerStyle;
+    private String[] headers;
+    private SXSSFSheet sheet;
+    private int sheetCount;
+    private int rowNum;
+
+    /**
+     * @param out 输出流，完成时写入工作簿，关闭写出器时不关闭输出流
+     * @param sheetName 工作表名称，续写的工作表名称后追加序号
+     * @param rowAccessWindowSize 内存中保留的行数
+     */
+    public SxssfRowWriter(OutputStream out, String sheetName, int rowAccessWindowSize) {
+        this.workbook = new SXSSFWorkbook(rowAccessWindowSize);
+        this.workbook.setCompressTempFiles(true);
+        this.out = out;
+        this.sheetName = sheetName;
+
+        this.headerStyle = workbook.createCellStyle();
+        headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
+        headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        Font headerFont = workbook.createFont();
+        headerFont.setBold(true);
+        headerStyle.setFont(headerFont);
+    }
+
+    @Override
+    public void writeHeader(String[] headers) {
+        this.headers = headers;
+        newSheet();
+    }
+
+    @Override
+    public void writeRow(Object[] values) {
+        if (sheet == null || rowNum >= MAX_ROWS_PER_SHEET) {
+            newSheet();
+        }
+        Row row = sheet.createRow(rowNum++);
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            Cell cell = row.createCell(i);
+            if (value instanceof Number number) {
+                cell.setCellValue(number.doubleValue());
+            } else {
+                cell.setCellValue(value.toString());
+            }
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (sheet == null) {
+            newSheet();
+        }
+        workbook.write(out);
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        workbook.close();
+    }
+
+    private void newSheet() {
+        sheetCount++;
+        sheet = workbook.createSheet(sheetCount == 1 ? sheetName : sheetName + sheetCount);
+        rowNum = 0;
+        if (headers == null) {
+            return;
+        }
+        Row headerRow = sheet.createRow(rowNum++);
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(headerStyle);
+            sheet.setColumnWidth(i, 18 * 256);
+        }
+    }
+}